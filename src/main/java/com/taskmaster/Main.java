@@ -1,5 +1,10 @@
 package com.taskmaster;
 
+import com.taskmaster.dao.TaskDAO;
+import com.taskmaster.utils.Metrics;
+import com.taskmaster.utils.FlightEvents;
+import com.taskmaster.utils.FxWatchdog;
+import com.taskmaster.utils.MigrationRunner;
 import javafx.application.Application;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
@@ -16,6 +21,21 @@ public class Main extends Application {
     @Override
     public void start(Stage primaryStage) {
         try {
+            // Mettre le schéma à jour (tables + index) avant le premier écran
+            MigrationRunner.runAtStartup();
+
+            // Écritures hors ligne / statuts pas encore écrits lors d'un arrêt brutal
+            TaskDAO.recoverPendingWrites();
+
+            // Métriques : JMX + fichier Prometheus
+            Metrics.start();
+
+            // Flight Recorder continu (-Dtaskmaster.jfr=true)
+            FlightEvents.startRecordingIfRequested();
+
+            // Diagnostic du thread JavaFX (-Dtaskmaster.watchdog=true)
+            FxWatchdog.startIfRequested();
+
             // Charger l'écran de connexion
             FXMLLoader loader = new FXMLLoader(
                     getClass().getResource("/com/taskmaster/views/login.fxml")
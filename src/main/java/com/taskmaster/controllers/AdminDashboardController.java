@@ -3,7 +3,15 @@ package com.taskmaster.controllers;
 import com.taskmaster.dao.ProjectDAO;
 import com.taskmaster.dao.TaskDAO;
 import com.taskmaster.dao.UserDAO;
+import com.taskmaster.models.Project;
 import com.taskmaster.models.Task;
+import com.taskmaster.utils.Metrics;
+import com.taskmaster.utils.LatencyHistogram;
+import com.taskmaster.utils.BadgeTableCell;
+import com.taskmaster.utils.ChangeFeed;
+import com.taskmaster.utils.EntityEvents;
+import com.taskmaster.utils.DeltaSync;
+import com.taskmaster.utils.QueryStatus;
 import com.taskmaster.utils.SessionManager;
 import com.taskmaster.utils.NavigationUtils;
 import javafx.collections.FXCollections;
@@ -17,6 +25,9 @@ import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.stage.Modality;
 import javafx.stage.Stage;
 
+import java.util.Comparator;
+import java.util.List;
+
 public class AdminDashboardController {
 
     @FXML private Label welcomeLabel;
@@ -34,6 +45,19 @@ public class AdminDashboardController {
     private final ProjectDAO projectDAO = new ProjectDAO();
     private final TaskDAO taskDAO = new TaskDAO();
 
+    // 📈 Durée du chargement des données de l'écran
+    private static final LatencyHistogram DATA_LOAD = Metrics.histogram(
+            "taskmaster_ui_data_load_seconds", "Chargement des données d'un écran", "screen", "admin_dashboard");
+
+    private final ObservableList<Task> urgentTasks = FXCollections.observableArrayList();
+
+    // 🔄 Actualisation incrémentale : même filtre et même ordre que TaskDAO.findUrgent
+    private final DeltaSync<Task> urgentSync = new DeltaSync<>(urgentTasks, Task::getId,
+            () -> taskDAO.findUrgent(), taskDAO::findChangesSince)
+            .keepOnly(task -> ("HIGH".equals(task.getPriority()) || "URGENT".equals(task.getPriority()))
+                    && !"COMPLETED".equals(task.getStatus()))
+            .ordered(Comparator.comparing(Task::getCreatedAt).thenComparing(Task::getId).reversed());
+
     @FXML
     public void initialize() {
         // 🎨 CORRECTION 1: Appliquer le CSS dès l'initialisation
@@ -43,9 +67,21 @@ public class AdminDashboardController {
             welcomeLabel.setText("Bienvenue, " + SessionManager.getCurrentUserFullName());
         }
 
-        loadStatistics();
         setupUrgentTasksTable();
+        urgentSync.reportTo(urgentTasksTable);
+        loadDashboard();
+        urgentSync.follow(urgentTasksTable, Task.class);
+        urgentSync.live(urgentTasksTable, ChangeFeed.Entity.TASK, taskDAO::findByIds);
+
+        // Projet créé depuis le popup : compteur corrigé sur place
+        EntityEvents.subscribeFx(projectCountLabel, Project.class, this::projectsChanged);
+    }
+
+    private void loadDashboard() {
+        long start = System.nanoTime();
+        loadStatistics();
         loadUrgentTasks();
+        DATA_LOAD.recordSince(start);
     }
 
     /**
@@ -71,10 +107,32 @@ public class AdminDashboardController {
         }
     }
 
+    // Compteur en échec : "—" et la cause en infobulle (voir QueryStatus), jamais un faux zéro
     private void loadStatistics() {
-        userCountLabel.setText(String.valueOf(userDAO.count()));
-        projectCountLabel.setText(String.valueOf(projectDAO.countByStatus("IN_PROGRESS")));
-        taskCountLabel.setText(String.valueOf(taskDAO.countByStatus("IN_PROGRESS")));
+        QueryStatus.show(userCountLabel, userDAO.count());
+        QueryStatus.show(projectCountLabel, projectDAO.countByStatus("IN_PROGRESS"));
+        QueryStatus.show(taskCountLabel, taskDAO.countByStatus("IN_PROGRESS"));
+    }
+
+    /**
+     * Compteur "projets en cours" : +1 pour une création IN_PROGRESS ; l'ancien statut
+     * d'un projet modifié / supprimé n'est pas connu (ni la valeur d'un compteur en échec) :
+     * seul ce compteur est alors relu
+     */
+    private void projectsChanged(List<EntityEvents.Event<Project>> events) {
+        int created = 0;
+        for (EntityEvents.Event<Project> event : events) {
+            if (event.getType() != EntityEvents.Type.CREATED || projectCountLabel.getTooltip() != null) {
+                QueryStatus.show(projectCountLabel, projectDAO.countByStatus("IN_PROGRESS"));
+                return;
+            }
+            if (event.getValue() != null && "IN_PROGRESS".equals(event.getValue().getStatus())) {
+                created++;
+            }
+        }
+        if (created > 0) {
+            projectCountLabel.setText(String.valueOf(Integer.parseInt(projectCountLabel.getText()) + created));
+        }
     }
 
     private void setupUrgentTasksTable() {
@@ -84,41 +142,20 @@ public class AdminDashboardController {
         taskDueDateColumn.setCellValueFactory(new PropertyValueFactory<>("dueDate"));
         taskStatusColumn.setCellValueFactory(new PropertyValueFactory<>("status"));
 
-        taskStatusColumn.setCellFactory(column -> new TableCell<Task, String>() {
-            @Override
-            protected void updateItem(String status, boolean empty) {
-                super.updateItem(status, empty);
-                if (empty || status == null) {
-                    setText(null);
-                    setStyle("");
-                } else {
-                    setText(status);
-                    switch (status) {
-                        case "TODO" -> setStyle("-fx-background-color: #3498db; -fx-text-fill: white; -fx-padding: 5 10; -fx-background-radius: 5;");
-                        case "IN_PROGRESS" -> setStyle("-fx-background-color: #f39c12; -fx-text-fill: white; -fx-padding: 5 10; -fx-background-radius: 5;");
-                        case "COMPLETED" -> setStyle("-fx-background-color: #2ecc71; -fx-text-fill: white; -fx-padding: 5 10; -fx-background-radius: 5;");
-                        default -> setStyle("");
-                    }
-                }
-            }
-        });
+        taskStatusColumn.setCellFactory(BadgeTableCell.forStatus());
+        urgentTasksTable.setItems(urgentTasks);
     }
 
     private void loadUrgentTasks() {
-        ObservableList<Task> urgentTasks = FXCollections.observableArrayList();
-        for (Task task : taskDAO.findAll()) {
-            if ((task.getPriority().equals("HIGH") || task.getPriority().equals("URGENT"))
-                    && !task.getStatus().equals("COMPLETED")) {
-                urgentTasks.add(task);
-            }
-        }
-        urgentTasksTable.setItems(urgentTasks);
+        // Filtre côté BDD : seules les tâches urgentes sont lues (voir ScreenBudgetTest)
+        urgentSync.load();
     }
 
     @FXML
     private void showDashboard() {
+        // Compteurs (index couvrants) + tâches urgentes modifiées depuis le dernier chargement
         loadStatistics();
-        loadUrgentTasks();
+        urgentSync.refresh();
     }
 
     @FXML
@@ -148,11 +185,6 @@ public class AdminDashboardController {
             popupStage.initModality(Modality.APPLICATION_MODAL);
             popupStage.setResizable(false);
 
-            popupStage.setOnHidden(e -> {
-                loadStatistics();
-                showProjects();
-            });
-
             popupStage.showAndWait();
 
         } catch (Exception e) {
@@ -166,6 +198,11 @@ public class AdminDashboardController {
         NavigationUtils.navigateTo(welcomeLabel, "/com/taskmaster/views/manage_tasks.fxml", "Gestion Tâches");
     }
 
+    @FXML
+    private void showSlowQueries() {
+        NavigationUtils.navigateTo(welcomeLabel, "/com/taskmaster/views/slow_queries.fxml", "Requêtes lentes");
+    }
+
     @FXML
     private void showProfile() {
         NavigationUtils.navigateTo(welcomeLabel, "/com/taskmaster/views/profile.fxml", "Mon Profil");
@@ -28,16 +28,11 @@ public class CreateProjectPopupController {
     private final UserDAO userDAO = new UserDAO();
 
     private StackPane overlay;
-    private ProjectManagementController parentController;
 
     public void setOverlay(StackPane overlay) {
         this.overlay = overlay;
     }
 
-    public void setParentController(ProjectManagementController parentController) {
-        this.parentController = parentController;
-    }
-
     @FXML
     public void initialize() {
         // Initialiser les statuts
@@ -126,10 +121,8 @@ public class CreateProjectPopupController {
 
             if (success) {
                 System.out.println("✓ Projet créé avec succès : " + project.getName());
+                // Les écrans ouverts reçoivent le projet par EntityEvents (pas de rechargement)
                 closeModal();
-                if (parentController != null) {
-                    parentController.refreshProjects();
-                }
             } else {
                 showError("Erreur lors de la création du projet dans la base de données");
             }
@@ -0,0 +1,38 @@
+package com.taskmaster.controllers;
+
+import com.taskmaster.models.CommandKind;
+import javafx.scene.control.TableView;
+
+import java.util.function.Predicate;
+
+/**
+ * Écran capable de mettre en avant un élément précis (tâche, projet, utilisateur)
+ * Utilisé par la palette de commandes après la navigation vers l'écran.
+ */
+public interface Focusable {
+
+    /**
+     * Sélectionne et fait défiler jusqu'à l'élément demandé
+     *
+     * @param kind Type de l'élément
+     * @param id ID de l'élément
+     */
+    void focus(CommandKind kind, int id);
+
+    /**
+     * Sélectionne la première ligne qui correspond et la rend visible
+     *
+     * @return true si la ligne a été trouvée
+     */
+    static <T> boolean reveal(TableView<T> table, Predicate<T> match) {
+        for (int i = 0; i < table.getItems().size(); i++) {
+            if (match.test(table.getItems().get(i))) {
+                table.getSelectionModel().clearAndSelect(i);
+                table.scrollTo(i);
+                table.requestFocus();
+                return true;
+            }
+        }
+        return false;
+    }
+}
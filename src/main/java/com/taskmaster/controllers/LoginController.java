@@ -1,7 +1,13 @@
 package com.taskmaster.controllers;
 
+import com.taskmaster.dao.ProjectDAO;
+import com.taskmaster.dao.TaskDAO;
 import com.taskmaster.dao.UserDAO;
 import com.taskmaster.models.User;
+import com.taskmaster.utils.ActionContext;
+import com.taskmaster.utils.CommandIndex;
+import com.taskmaster.utils.CommandPalette;
+import com.taskmaster.utils.NavigationUtils;
 import com.taskmaster.utils.SessionManager;
 import javafx.application.Platform;
 import javafx.fxml.FXML;
@@ -12,6 +18,8 @@ import javafx.scene.control.*;
 import javafx.scene.input.KeyCombination;
 import javafx.stage.Stage;
 
+import java.util.List;
+
 public class LoginController {
 
     @FXML private TextField usernameField;
@@ -20,6 +28,8 @@ public class LoginController {
     @FXML private Button loginButton;
 
     private UserDAO userDAO = new UserDAO();
+    private TaskDAO taskDAO = new TaskDAO();
+    private ProjectDAO projectDAO = new ProjectDAO();
 
     @FXML
     public void initialize() {
@@ -40,15 +50,36 @@ public class LoginController {
             return;
         }
 
-        // Authentification
-        User user = userDAO.authenticate(username, password);
+        // Authentification (une action Flight Recorder : BCrypt, requêtes, premier dashboard)
+        ActionContext.run("Connexion", () -> {
+            User user = userDAO.authenticate(username, password);
+
+            if (user != null) {
+                // Connexion réussie
+                SessionManager.setCurrentUser(user);
+                buildCommandIndex(user);
+                redirectToDashboard(user);
+            } else {
+                showError("Identifiants incorrects");
+            }
+        });
+    }
 
-        if (user != null) {
-            // Connexion réussie
-            SessionManager.setCurrentUser(user);
-            redirectToDashboard(user);
+    /**
+     * Prépare la palette de commandes en arrière-plan (page par page)
+     * Un utilisateur simple ne voit que ses propres tâches
+     */
+    private void buildCommandIndex(User user) {
+        if (user.isAdmin()) {
+            CommandIndex.buildFor(user,
+                    (offset, limit) -> taskDAO.findPage(null, offset, limit),
+                    (offset, limit) -> projectDAO.findPage(null, offset, limit),
+                    (offset, limit) -> userDAO.findPage(null, offset, limit));
         } else {
-            showError("Identifiants incorrects");
+            CommandIndex.buildFor(user,
+                    (offset, limit) -> offset == 0 ? taskDAO.findByUserId(user.getId()).getValue() : List.of(),
+                    (offset, limit) -> List.of(),
+                    (offset, limit) -> List.of());
         }
     }
 
@@ -59,7 +90,9 @@ public class LoginController {
                     "/com/taskmaster/views/user_dashboard.fxml";
 
             FXMLLoader loader = new FXMLLoader(getClass().getResource(fxmlPath));
-            Parent root = loader.load();
+            long loadStart = System.nanoTime();
+            Parent root = NavigationUtils.loadView(loader, fxmlPath);
+            NavigationUtils.fxmlLoadHistogram(fxmlPath).recordSince(loadStart);
 
             Stage stage = (Stage) loginButton.getScene().getWindow();
             Scene scene = new Scene(root);
@@ -74,6 +107,9 @@ public class LoginController {
                 cssError.printStackTrace();
             }
 
+            // ⌨️ Palette de commandes (Ctrl+K)
+            CommandPalette.install(scene);
+
             stage.setScene(scene);
             stage.setTitle("TaskMaster - " + (user.isAdmin() ? "Admin" : "Dashboard"));
 
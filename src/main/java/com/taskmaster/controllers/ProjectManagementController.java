@@ -5,28 +5,56 @@ import javafx.event.ActionEvent;
 
 import com.taskmaster.dao.ProjectDAO;
 import com.taskmaster.dao.UserDAO;
+import com.taskmaster.models.ChangeSet;
+import com.taskmaster.models.CommandKind;
 import com.taskmaster.models.Project;
+import com.taskmaster.models.QueryResult;
+import com.taskmaster.models.UpdateResult;
 import com.taskmaster.models.User;
+import com.taskmaster.utils.Metrics;
+import com.taskmaster.utils.LatencyHistogram;
+import com.taskmaster.utils.AsyncSearch;
+import com.taskmaster.utils.AutoCompleteField;
+import com.taskmaster.utils.BadgeTableCell;
+import com.taskmaster.utils.ChangeFeed;
+import com.taskmaster.utils.Debouncer;
+import com.taskmaster.utils.DeltaSync;
+import com.taskmaster.utils.EntityEvents;
+import com.taskmaster.utils.DirectoryIndex;
+import com.taskmaster.utils.MergeDialog;
 import com.taskmaster.utils.NavigationUtils;
+import com.taskmaster.utils.QueryStatus;
 import com.taskmaster.utils.SessionManager;
+import com.taskmaster.utils.SortSpec;
+import com.taskmaster.utils.TextUtils;
 
+import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
+import javafx.collections.transformation.FilteredList;
+import javafx.collections.transformation.SortedList;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.scene.layout.GridPane;
 import javafx.scene.layout.HBox;
+import javafx.stage.Window;
 import javafx.util.Duration;
 import javafx.animation.PauseTransition;
 
 import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Predicate;
 
-public class ProjectManagementController {
+public class ProjectManagementController implements Focusable {
 
     @FXML private Label welcomeLabel;
     @FXML private Label feedbackLabel;
+    @FXML private TextField searchField;
     @FXML private ComboBox<String> statusFilter;
     @FXML private TableView<Project> projectsTable;
     @FXML private TableColumn<Project, String> nameColumn;
@@ -35,9 +63,38 @@ public class ProjectManagementController {
     @FXML private TableColumn<Project, String> endDateColumn;
     @FXML private TableColumn<Project, Void> actionsColumn;
 
+    // 📈 Durée du chargement des données de l'écran
+    private static final LatencyHistogram DATA_LOAD = Metrics.histogram(
+            "taskmaster_ui_data_load_seconds", "Chargement des données d'un écran", "screen", "manage_projects");
+
     private final ProjectDAO projectDAO = new ProjectDAO();
     private final UserDAO userDAO = new UserDAO();
-    private ObservableList<Project> allProjects;
+    // Liste source unique (triée par la BDD) + vue filtrée
+    private final ObservableList<Project> allProjects = FXCollections.observableArrayList();
+    private final FilteredList<Project> filteredProjects = new FilteredList<>(allProjects);
+    // Ordre de la BDD, sauf pendant une recherche : classement par pertinence
+    private final SortedList<Project> sortedProjects = new SortedList<>(filteredProjects);
+
+    private final Debouncer searchDebouncer = new Debouncer(Duration.millis(200), this::applyFilter);
+
+    // Nombre de suggestions affichées par le sélecteur de chef de projet
+    private static final int PICKER_LIMIT = 10;
+
+    // Champs comparés par la fusion après une modification concurrente (MergeDialog)
+    private final List<MergeDialog.Field<Project, ?>> projectMergeFields = List.of(
+            MergeDialog.field("Nom", Project::getName, Project::setName),
+            MergeDialog.field("Description", Project::getDescription, Project::setDescription),
+            MergeDialog.field("Début", Project::getStartDate, Project::setStartDate),
+            MergeDialog.field("Fin", Project::getEndDate, Project::setEndDate),
+            MergeDialog.field("Statut", Project::getStatus, Project::setStatus),
+            MergeDialog.field("Chef de projet", Project::getManagerId, Project::setManagerId, this::userLabel));
+
+    // Chargement en arrière-plan : un nouveau tri annule le chargement précédent
+    private final AsyncSearch<List<Project>> projectLoader = new AsyncSearch<List<Project>>(this::showProjects)
+            .onStatus(result -> QueryStatus.show(projectsTable, result));
+
+    // Projet à sélectionner dès que le chargement (asynchrone) est terminé, -1 = aucun
+    private int pendingFocusId = -1;
 
     // =========================
     // INITIALISATION
@@ -59,8 +116,35 @@ public class ProjectManagementController {
         ));
         statusFilter.setValue("TOUS");
 
+        searchField.textProperty().addListener((obs, oldText, newText) -> searchDebouncer.trigger());
+
         setupTableColumns();
         loadProjects();
+
+        // 🔄 Projets modifiés par d'autres clients : seules ces lignes sont relues
+        // (relecture en échec : rechargement complet, le lot ne sera pas renvoyé)
+        ChangeFeed.subscribe(projectsTable, ChangeFeed.Entity.PROJECT, batch -> {
+            QueryResult<List<Project>> rows = projectDAO.findByIds(batch.getUpserted());
+            if (!rows.hasValue()) {
+                Platform.runLater(this::loadProjects);
+                return;
+            }
+            ChangeSet<Project> changes = new ChangeSet<>(rows.getValue(), batch.getDeleted(), null);
+            Platform.runLater(() -> {
+                DeltaSync.merge(allProjects, Project::getId, project -> true, changes);
+                applyFilter();
+            });
+        });
+
+        // Écritures de ce client (formulaire, popup du dashboard) : appliquées sans requête
+        EntityEvents.subscribeFx(projectsTable, Project.class, events -> {
+            DeltaSync.merge(allProjects, Project::getId, project -> true,
+                    DeltaSync.changes(allProjects, Project::getId, events));
+            applyFilter();
+        });
+
+        // Recherche et sélecteur de chef de projet s'appuient sur l'annuaire en mémoire
+        DirectoryIndex.warmUp(userDAO::findAll, projectDAO::findAll);
     }
 
     // =========================
@@ -72,25 +156,7 @@ public class ProjectManagementController {
         startDateColumn.setCellValueFactory(new PropertyValueFactory<>("startDate"));
         endDateColumn.setCellValueFactory(new PropertyValueFactory<>("endDate"));
 
-        statusColumn.setCellFactory(column -> new TableCell<>() {
-            @Override
-            protected void updateItem(String status, boolean empty) {
-                super.updateItem(status, empty);
-                if (empty || status == null) {
-                    setText(null);
-                    setStyle("");
-                } else {
-                    setText(status);
-                    switch (status) {
-                        case "TODO" -> setStyle("-fx-background-color:#3498db; -fx-text-fill:white;");
-                        case "IN_PROGRESS" -> setStyle("-fx-background-color:#f39c12; -fx-text-fill:white;");
-                        case "COMPLETED" -> setStyle("-fx-background-color:#2ecc71; -fx-text-fill:white;");
-                        case "ON_HOLD" -> setStyle("-fx-background-color:#95a5a6; -fx-text-fill:white;");
-                        default -> setStyle("");
-                    }
-                }
-            }
-        });
+        statusColumn.setCellFactory(BadgeTableCell.forStatus());
 
         actionsColumn.setCellFactory(param -> new TableCell<>() {
             private final Button editBtn = new Button("Modifier");
@@ -118,37 +184,90 @@ public class ProjectManagementController {
                 setGraphic(empty ? null : box);
             }
         });
+
+        // Tri côté BDD (liste blanche dans ProjectDAO)
+        nameColumn.setUserData("name");
+        statusColumn.setUserData("status");
+        startDateColumn.setUserData("startDate");
+        endDateColumn.setUserData("endDate");
+        actionsColumn.setSortable(false);
+
+        projectsTable.setSortPolicy(table -> {
+            // setSortPolicy() déclenche lui-même un tri : rien à recharger tant que rien n'est chargé
+            if (!allProjects.isEmpty()) {
+                loadProjects();
+            }
+            return true;
+        });
+
+        projectsTable.setItems(sortedProjects);
     }
 
     // =========================
     // DATA
     // =========================
     private void loadProjects() {
-        allProjects = FXCollections.observableArrayList(projectDAO.findAll());
-        projectsTable.setItems(allProjects);
+        SortSpec sort = SortSpec.fromTable(projectsTable);
+        projectLoader.submit(handle -> DATA_LOAD.time(() -> projectDAO.findAll(sort, handle)));
     }
 
-    // 🔥 MÉTHODE CLÉ POUR LE POPUP
-    public void refreshProjects() {
-        loadProjects();
+    private void showProjects(List<Project> projects) {
+        allProjects.setAll(projects);
+        applyFilter();
+
+        if (pendingFocusId >= 0) {
+            int id = pendingFocusId;
+            pendingFocusId = -1;
+            Focusable.reveal(projectsTable, p -> p.getId() == id);
+        }
+    }
+
+    /**
+     * Palette de commandes : sélectionne le projet (après le chargement s'il est en cours)
+     */
+    @Override
+    public void focus(CommandKind kind, int id) {
+        if (kind != CommandKind.PROJECT) {
+            return;
+        }
+        if (!Focusable.reveal(projectsTable, p -> p.getId() == id)) {
+            pendingFocusId = id;
+        }
     }
 
     @FXML
     private void applyFilter() {
         String status = statusFilter.getValue();
+        String needle = searchField.getText().trim();
 
-        if (status == null || "TOUS".equals(status)) {
-            projectsTable.setItems(allProjects);
-            return;
+        Predicate<Project> predicate = p -> true;
+        if (status != null && !"TOUS".equals(status)) {
+            predicate = predicate.and(p -> status.equals(p.getStatus()));
         }
 
-        ObservableList<Project> filtered = FXCollections.observableArrayList();
-        for (Project p : allProjects) {
-            if (status.equals(p.getStatus())) {
-                filtered.add(p);
+        // Recherche approchée (accents, casse, fautes de frappe) : rang de chaque projet trouvé
+        // Annuaire pas encore chargé : simple filtre sur les noms, puis nouveau filtrage au chargement
+        Map<Integer, Integer> ranks = null;
+        if (!needle.isEmpty() && !DirectoryIndex.projectsLoaded()) {
+            predicate = predicate.and(p -> TextUtils.containsIgnoreCase(p.getName(), needle));
+            DirectoryIndex.whenLoaded(userDAO::findAll, projectDAO::findAll, this::applyFilter);
+        } else if (!needle.isEmpty()) {
+            Map<Integer, Integer> found = new HashMap<>();
+            List<Project> matches = DirectoryIndex.projects(projectDAO::findAll).search(needle, Integer.MAX_VALUE);
+            for (int i = 0; i < matches.size(); i++) {
+                found.put(matches.get(i).getId(), i);
             }
+            ranks = found;
+            predicate = predicate.and(p -> found.containsKey(p.getId()));
         }
-        projectsTable.setItems(filtered);
+
+        filteredProjects.setPredicate(predicate);
+
+        // Un tri choisi par l'utilisateur (en-tête de colonne) reste prioritaire sur la pertinence
+        Map<Integer, Integer> rankOf = ranks;
+        sortedProjects.setComparator(rankOf != null && projectsTable.getSortOrder().isEmpty()
+                ? Comparator.comparingInt((Project p) -> rankOf.get(p.getId()))
+                : null);
     }
 
     // =========================
@@ -156,12 +275,19 @@ public class ProjectManagementController {
     // =========================
     @FXML
     private void createNewProject() {
+        openProjectForm(null);
+    }
+
+    /**
+     * Formulaire de création (editing == null) ou de modification d'un projet
+     */
+    private void openProjectForm(Project editing) {
         Dialog<Void> dialog = new Dialog<>();
-        dialog.setTitle("Créer un projet");
+        dialog.setTitle(editing == null ? "Créer un projet" : "Modifier le projet");
         dialog.initOwner(welcomeLabel.getScene().getWindow());
         dialog.initModality(Modality.WINDOW_MODAL);
 
-        ButtonType createBtnType = new ButtonType("Créer", ButtonBar.ButtonData.OK_DONE);
+        ButtonType createBtnType = new ButtonType(editing == null ? "Créer" : "Enregistrer", ButtonBar.ButtonData.OK_DONE);
         dialog.getDialogPane().getButtonTypes().addAll(createBtnType, ButtonType.CANCEL);
 
         TextField nameField = new TextField();
@@ -169,15 +295,22 @@ public class ProjectManagementController {
         DatePicker startPicker = new DatePicker(LocalDate.now());
         DatePicker endPicker = new DatePicker(LocalDate.now().plusMonths(1));
         ComboBox<String> statusCombo = new ComboBox<>();
-        ComboBox<String> managerCombo = new ComboBox<>();
+        // Auto-complétion sur l'annuaire en mémoire (pas de findAll() à l'ouverture)
+        AutoCompleteField<User> managerPicker = new AutoCompleteField<>(
+                text -> DirectoryIndex.userNames(userDAO::findAll).complete(text, PICKER_LIMIT),
+                u -> u.getFullName() + " (" + u.getUsername() + ")");
+        managerPicker.setPromptText("Non assigné (tapez un nom)");
 
         statusCombo.getItems().addAll("TODO", "IN_PROGRESS", "COMPLETED", "ON_HOLD");
         statusCombo.setValue("TODO");
 
-        List<User> users = userDAO.findAll();
-        managerCombo.getItems().add("Non assigné");
-        users.forEach(u -> managerCombo.getItems().add(u.getFirstName() + " " + u.getLastName()));
-        managerCombo.setValue("Non assigné");
+        if (editing != null) {
+            nameField.setText(editing.getName());
+            descArea.setText(editing.getDescription());
+            startPicker.setValue(editing.getStartDate());
+            endPicker.setValue(editing.getEndDate());
+            statusCombo.setValue(editing.getStatus());
+        }
 
         GridPane grid = new GridPane();
         grid.setHgap(10);
@@ -187,11 +320,23 @@ public class ProjectManagementController {
         grid.addRow(2, new Label("Début :"), startPicker);
         grid.addRow(3, new Label("Fin :"), endPicker);
         grid.addRow(4, new Label("Statut :"), statusCombo);
-        grid.addRow(5, new Label("Chef de projet :"), managerCombo);
+        grid.addRow(5, new Label("Chef de projet :"), managerPicker);
 
         dialog.getDialogPane().setContent(grid);
 
         Button createBtn = (Button) dialog.getDialogPane().lookupButton(createBtnType);
+
+        // Chef de projet actuel lu dans l'annuaire (chargé en arrière-plan) :
+        // pas d'enregistrement avant, sinon le champ vide le retirerait
+        if (editing != null && editing.getManagerId() != null) {
+            createBtn.setDisable(true);
+            DirectoryIndex.whenLoaded(userDAO::findAll, projectDAO::findAll, () -> {
+                if (managerPicker.getText().isEmpty()) {
+                    managerPicker.select(userById(editing.getManagerId()));
+                }
+                createBtn.setDisable(false);
+            });
+        }
         createBtn.addEventFilter(ActionEvent.ACTION, e -> {
             if (nameField.getText().isBlank() || descArea.getText().isBlank()) {
                 showError("Champs obligatoires manquants");
@@ -199,33 +344,38 @@ public class ProjectManagementController {
                 return;
             }
 
-            if (endPicker.getValue().isBefore(startPicker.getValue())) {
+            if (endPicker.getValue() != null && endPicker.getValue().isBefore(startPicker.getValue())) {
                 showError("Dates invalides");
                 e.consume();
                 return;
             }
 
-            Integer managerId = null;
-            if (!"Non assigné".equals(managerCombo.getValue())) {
-                managerId = users.stream()
-                        .filter(u -> (u.getFirstName() + " " + u.getLastName()).equals(managerCombo.getValue()))
-                        .map(User::getId)
-                        .findFirst()
-                        .orElse(null);
+            if (!managerPicker.getText().isBlank() && managerPicker.getSelected() == null) {
+                showError("Choisissez le chef de projet dans la liste (ou videz le champ)");
+                e.consume();
+                return;
             }
+            Integer managerId = managerPicker.getSelected() != null ? managerPicker.getSelected().getId() : null;
 
-            Project p = new Project();
+            // Modification : copie de la ligne lue (base de la fusion en cas de conflit)
+            Project p = editing != null ? new Project(editing) : new Project();
             p.setName(nameField.getText());
             p.setDescription(descArea.getText());
             p.setStartDate(startPicker.getValue());
             p.setEndDate(endPicker.getValue());
             p.setStatus(statusCombo.getValue());
             p.setManagerId(managerId);
-            p.setCreatedBy(SessionManager.getCurrentUserId());
 
+            if (editing != null) {
+                if (!saveProject(dialog.getDialogPane().getScene().getWindow(), editing, p)) {
+                    e.consume();
+                }
+                return;
+            }
+
+            p.setCreatedBy(SessionManager.getCurrentUserId());
             if (projectDAO.create(p)) {
                 dialog.close();
-                refreshProjects();
                 showSuccess("Projet créé avec succès");
             } else {
                 showError("Erreur lors de la création");
@@ -240,7 +390,49 @@ public class ProjectManagementController {
     // ACTIONS
     // =========================
     private void editProject(Project project) {
-        showInfo("Info", "Fonction en cours de développement");
+        openProjectForm(project);
+    }
+
+    /**
+     * Enregistre un projet modifié ; modifié entre-temps par quelqu'un d'autre →
+     * fusion (MergeDialog) puis nouvelle tentative sur la version actuelle
+     *
+     * @return false : le formulaire reste ouvert (erreur, ou fusion annulée)
+     */
+    private boolean saveProject(Window owner, Project base, Project mine) {
+        UpdateResult<Project> result = projectDAO.update(mine);
+        while (result.isConflict()) {
+            Project current = result.getCurrent();
+            Optional<Project> merged = MergeDialog.merge(owner, "le projet « " + current.getName() + " »",
+                    base, mine, current, Project::new, projectMergeFields);
+            if (merged.isEmpty()) {
+                return false;
+            }
+            base = current;
+            mine = merged.get();
+            result = projectDAO.update(mine);
+        }
+
+        switch (result.getStatus()) {
+            case UPDATED:
+                showSuccess("Projet modifié");
+                return true;
+            case NOT_FOUND:
+                showError("Ce projet a été supprimé entre-temps");
+                return true;
+            default:
+                showError("Erreur lors de la modification");
+                return false;
+        }
+    }
+
+    private User userById(int userId) {
+        return DirectoryIndex.users(userDAO::findAll).get(userId);
+    }
+
+    private String userLabel(Integer userId) {
+        User user = userById(userId);
+        return user != null ? user.getFullName() : "#" + userId;
     }
 
     private void deleteProject(Project project) {
@@ -250,7 +442,6 @@ public class ProjectManagementController {
 
         if (alert.showAndWait().orElse(ButtonType.CANCEL) == ButtonType.OK) {
             if (projectDAO.delete(project.getId())) {
-                refreshProjects();
                 showSuccess("Projet supprimé");
             } else {
                 showError("Erreur suppression");
@@ -0,0 +1,113 @@
+package com.taskmaster.controllers;
+
+import com.taskmaster.models.QueryStats;
+import com.taskmaster.utils.NavigationUtils;
+import com.taskmaster.utils.QueryProfiler;
+import javafx.collections.FXCollections;
+import javafx.fxml.FXML;
+import javafx.scene.control.*;
+import javafx.scene.control.cell.PropertyValueFactory;
+
+import java.util.List;
+
+/**
+ * Écran admin : requêtes SQL classées par temps total (QueryProfiler)
+ * Sélectionner une ligne affiche le SQL réel et le plan EXPLAIN de sa dernière exécution lente.
+ */
+public class SlowQueriesController {
+
+    @FXML private Label welcomeLabel;
+    @FXML private Label summaryLabel;
+    @FXML private TableView<QueryStats> queriesTable;
+    @FXML private TableColumn<QueryStats, String> shapeColumn;
+    @FXML private TableColumn<QueryStats, Long> countColumn;
+    @FXML private TableColumn<QueryStats, Long> slowColumn;
+    @FXML private TableColumn<QueryStats, Double> totalColumn;
+    @FXML private TableColumn<QueryStats, Double> averageColumn;
+    @FXML private TableColumn<QueryStats, Double> maxColumn;
+    @FXML private TableColumn<QueryStats, Double> rowsColumn;
+    @FXML private TableColumn<QueryStats, Integer> bindsColumn;
+    @FXML private TextArea planArea;
+
+    // Nombre de formes de requêtes affichées
+    private static final int MAX_ROWS = 100;
+
+    @FXML
+    public void initialize() {
+        shapeColumn.setCellValueFactory(new PropertyValueFactory<>("shape"));
+        countColumn.setCellValueFactory(new PropertyValueFactory<>("count"));
+        slowColumn.setCellValueFactory(new PropertyValueFactory<>("slowCount"));
+        totalColumn.setCellValueFactory(new PropertyValueFactory<>("totalMs"));
+        averageColumn.setCellValueFactory(new PropertyValueFactory<>("averageMs"));
+        maxColumn.setCellValueFactory(new PropertyValueFactory<>("maxMs"));
+        rowsColumn.setCellValueFactory(new PropertyValueFactory<>("averageRows"));
+        bindsColumn.setCellValueFactory(new PropertyValueFactory<>("bindCount"));
+
+        totalColumn.setCellFactory(column -> decimalCell());
+        averageColumn.setCellFactory(column -> decimalCell());
+        maxColumn.setCellFactory(column -> decimalCell());
+        rowsColumn.setCellFactory(column -> decimalCell());
+
+        // Les formes qui ont déjà dépassé le seuil ressortent en orange
+        queriesTable.setRowFactory(table -> new TableRow<>() {
+            @Override
+            protected void updateItem(QueryStats stats, boolean empty) {
+                super.updateItem(stats, empty);
+                getStyleClass().remove("slow-query-row");
+                if (!empty && stats != null && stats.getSlowCount() > 0) {
+                    getStyleClass().add("slow-query-row");
+                }
+            }
+        });
+
+        queriesTable.getSelectionModel().selectedItemProperty().addListener(
+                (obs, oldStats, newStats) -> showPlan(newStats));
+
+        refresh();
+    }
+
+    @FXML
+    private void refresh() {
+        List<QueryStats> worst = QueryProfiler.worst(MAX_ROWS);
+        queriesTable.setItems(FXCollections.observableArrayList(worst));
+
+        long slow = worst.stream().mapToLong(QueryStats::getSlowCount).sum();
+        summaryLabel.setText(worst.size() + " formes de requêtes · " + slow
+                + " exécutions au-delà de " + QueryProfiler.SLOW_THRESHOLD_MS + " ms");
+        planArea.clear();
+    }
+
+    @FXML
+    private void resetStats() {
+        QueryProfiler.reset();
+        refresh();
+    }
+
+    private void showPlan(QueryStats stats) {
+        if (stats == null) {
+            planArea.clear();
+            return;
+        }
+        if (stats.getLastSlowSql() == null) {
+            planArea.setText("Aucune exécution lente pour cette requête.");
+            return;
+        }
+        planArea.setText(stats.getLastSlowSql().trim() + "\n\n"
+                + (stats.getPlan() != null ? stats.getPlan() : "Plan en cours de capture... (🔄 Actualiser)"));
+    }
+
+    private static TableCell<QueryStats, Double> decimalCell() {
+        return new TableCell<>() {
+            @Override
+            protected void updateItem(Double value, boolean empty) {
+                super.updateItem(value, empty);
+                setText(empty || value == null ? null : String.format("%.1f", value));
+            }
+        };
+    }
+
+    @FXML
+    private void goBack() {
+        NavigationUtils.navigateTo(welcomeLabel, "/com/taskmaster/views/admin_dashboard.fxml", "Dashboard");
+    }
+}
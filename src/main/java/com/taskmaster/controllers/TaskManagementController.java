@@ -5,29 +5,71 @@ import javafx.event.ActionEvent;
 import com.taskmaster.dao.ProjectDAO;
 import com.taskmaster.dao.TaskDAO;
 import com.taskmaster.dao.UserDAO;
+import com.taskmaster.models.ChangeSet;
+import com.taskmaster.models.CommandKind;
 import com.taskmaster.models.Project;
+import com.taskmaster.models.QueryResult;
 import com.taskmaster.models.Task;
+import com.taskmaster.models.TaskSearchResult;
+import com.taskmaster.models.UpdateResult;
 import com.taskmaster.models.User;
+import com.taskmaster.utils.Metrics;
+import com.taskmaster.utils.LatencyHistogram;
+import com.taskmaster.utils.AsyncSearch;
+import com.taskmaster.utils.AutoCompleteField;
+import com.taskmaster.utils.BadgeTableCell;
+import com.taskmaster.utils.ChangeFeed;
+import com.taskmaster.utils.Debouncer;
+import com.taskmaster.utils.DeltaSync;
+import com.taskmaster.utils.EntityEvents;
+import com.taskmaster.utils.DirectoryIndex;
+import com.taskmaster.utils.FullTextQuery;
+import com.taskmaster.utils.HighlightTableCell;
+import com.taskmaster.utils.MergeDialog;
 import com.taskmaster.utils.NavigationUtils;
+import com.taskmaster.utils.QueryStatus;
 import com.taskmaster.utils.SessionManager;
+import com.taskmaster.utils.SortSpec;
+import com.taskmaster.utils.TaskFacetIndex;
+import com.taskmaster.utils.TaskFacetIndex.Facet;
+import com.taskmaster.utils.TextUtils;
 
 import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
+import javafx.collections.transformation.FilteredList;
+import javafx.collections.transformation.SortedList;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
+import javafx.scene.control.skin.ComboBoxListViewSkin;
 import javafx.scene.layout.GridPane;
 import javafx.scene.layout.HBox;
+import javafx.stage.Window;
 import javafx.util.Duration;
 import javafx.animation.PauseTransition;
 
 import java.time.LocalDate;
-
-public class TaskManagementController {
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+public class TaskManagementController implements Focusable {
 
     @FXML private Label welcomeLabel;
     @FXML private Label feedbackLabel;
+    @FXML private TextField searchField;
     @FXML private ComboBox<String> filterStatus;
     @FXML private ComboBox<String> filterPriority;
     @FXML private ComboBox<String> filterProject;
@@ -41,10 +83,63 @@ public class TaskManagementController {
     @FXML private TableColumn<Task, String> dueDateColumn;
     @FXML private TableColumn<Task, Void> actionsColumn;
 
+    // 📈 Durée du chargement des données de l'écran
+    private static final LatencyHistogram DATA_LOAD = Metrics.histogram(
+            "taskmaster_ui_data_load_seconds", "Chargement des données d'un écran", "screen", "manage_tasks");
+
     private final TaskDAO taskDAO = new TaskDAO();
     private final ProjectDAO projectDAO = new ProjectDAO();
     private final UserDAO userDAO = new UserDAO();
+    // Une seule liste source (déjà triée par la BDD) : le filtrage est une vue dessus
     private final ObservableList<Task> allTasks = FXCollections.observableArrayList();
+    private final FilteredList<Task> filteredTasks = new FilteredList<>(allTasks);
+    // Ordre de la BDD, sauf pendant une recherche plein texte : classement par pertinence
+    private final SortedList<Task> sortedTasks = new SortedList<>(filteredTasks);
+
+    // Nom de projet → ID, calculé une fois au chargement des filtres
+    private final Map<String, Integer> projectIdsByName = new HashMap<>();
+
+    // Index bitmap des facettes (statut, priorité, projet...) des tâches chargées
+    private final TaskFacetIndex facetIndex = new TaskFacetIndex();
+
+    // Nombre de tâches par option des filtres, lu par les cellules des combos (voir updateFacetCounts)
+    private final Map<Facet, Map<Object, Integer>> facetCounts = new EnumMap<>(Facet.class);
+
+    private final Debouncer searchDebouncer = new Debouncer(Duration.millis(200), this::searchTasks);
+
+    // Nombre de suggestions affichées par les sélecteurs du formulaire
+    private static final int PICKER_LIMIT = 10;
+
+    // Champs comparés par la fusion après une modification concurrente (MergeDialog)
+    private final List<MergeDialog.Field<Task, ?>> taskMergeFields = List.of(
+            MergeDialog.field("Titre", Task::getTitle, Task::setTitle),
+            MergeDialog.field("Description", Task::getDescription, Task::setDescription),
+            MergeDialog.field("Projet", Task::getProjectId, Task::setProjectId, this::projectLabel),
+            MergeDialog.field("Assigné à", Task::getAssignedTo, Task::setAssignedTo, this::userLabel),
+            MergeDialog.field("Priorité", Task::getPriority, Task::setPriority),
+            MergeDialog.field("Statut", Task::getStatus, Task::setStatus),
+            MergeDialog.field("Date limite", Task::getDueDate, Task::setDueDate));
+
+    // Nombre maximum de résultats plein texte rapatriés
+    private static final int SEARCH_LIMIT = 500;
+
+    // Chargement de la table (ouverture, clic sur un en-tête) en arrière-plan : lecture de
+    // toute la table hors du thread JavaFX, un nouveau tri annule le chargement en cours
+    private final AsyncSearch<List<Task>> taskLoader = new AsyncSearch<List<Task>>(this::showTasks)
+            .onStatus(result -> QueryStatus.show(tasksTable, result));
+
+    // Projets du filtre, lus en arrière-plan avec la table
+    private final AsyncSearch<List<Project>> projectFilterLoader =
+            new AsyncSearch<List<Project>>(this::showProjectFilter).onStatus(this::reportProjectFilter);
+
+    // Recherche plein texte (titre, description, commentaires) en arrière-plan
+    private final AsyncSearch<List<TaskSearchResult>> taskSearch =
+            new AsyncSearch<List<TaskSearchResult>>(this::showSearchResults)
+                    .onStatus(result -> QueryStatus.show(tasksTable, result));
+
+    // Résultats de la recherche en cours par ID de tâche (null = pas de recherche plein texte)
+    private Map<Integer, TaskSearchResult> searchHits;
+    private List<String> searchTerms = List.of();
 
     @FXML
     public void initialize() {
@@ -60,13 +155,40 @@ public class TaskManagementController {
         filterProject.getItems().add("TOUS");
         filterProject.setValue("TOUS");
 
+        searchField.textProperty().addListener((obs, oldText, newText) -> searchDebouncer.trigger());
+
+        showFacetCounts(filterStatus, Facet.STATUS, value -> value);
+        showFacetCounts(filterPriority, Facet.PRIORITY, value -> value);
+        showFacetCounts(filterProject, Facet.PROJECT, projectIdsByName::get);
+
         setupTable();
         loadFilters();
         loadTasks();
+
+        // 🔄 Tâches modifiées par d'autres clients : seules ces lignes sont relues
+        // (relecture en échec : rechargement complet, le lot ne sera pas renvoyé)
+        ChangeFeed.subscribe(tasksTable, ChangeFeed.Entity.TASK, batch -> {
+            QueryResult<List<Task>> rows = taskDAO.findByIds(batch.getUpserted());
+            if (!rows.hasValue()) {
+                Platform.runLater(this::loadTasks);
+                return;
+            }
+            ChangeSet<Task> changes = new ChangeSet<>(rows.getValue(), batch.getDeleted(), null);
+            Platform.runLater(() -> applyRemoteChanges(changes));
+        });
+
+        // Écritures de ce client : appliquées sans requête
+        EntityEvents.subscribeFx(tasksTable, Task.class, this::tasksChanged);
+        EntityEvents.subscribeFx(tasksTable, Project.class, this::projectsChanged);
+
+        // Les sélecteurs projet / assigné du formulaire s'appuient sur l'annuaire en mémoire
+        DirectoryIndex.warmUp(userDAO::findAll, projectDAO::findAll);
     }
 
     private void setupTable() {
         titleColumn.setCellValueFactory(new PropertyValueFactory<>("title"));
+        // Mots recherchés surlignés + extrait du commentaire qui correspond
+        titleColumn.setCellFactory(col -> new HighlightTableCell<>(() -> searchTerms, this::commentSnippet));
 
         projectColumn.setCellValueFactory(cellData ->
                 new javafx.beans.property.SimpleStringProperty(
@@ -84,55 +206,20 @@ public class TaskManagementController {
         statusColumn.setCellValueFactory(new PropertyValueFactory<>("status"));
         dueDateColumn.setCellValueFactory(new PropertyValueFactory<>("dueDate"));
 
-        // Styles priority avec classes CSS du thème
-        priorityColumn.setCellFactory(col -> new TableCell<Task, String>() {
-            @Override
-            protected void updateItem(String value, boolean empty) {
-                super.updateItem(value, empty);
-                if (empty || value == null) {
-                    setText(null);
-                    setStyle("");
-                    return;
-                }
-                setText(value);
-                // Utilisation des couleurs du thème
-                switch (value) {
-                    case "URGENT" -> setStyle("-fx-background-color: #EF4444; -fx-text-fill: white; -fx-alignment: CENTER;");
-                    case "HIGH" -> setStyle("-fx-background-color: #F59E0B; -fx-text-fill: white; -fx-alignment: CENTER;");
-                    case "MEDIUM" -> setStyle("-fx-background-color: #8B5CF6; -fx-text-fill: white; -fx-alignment: CENTER;");
-                    case "LOW" -> setStyle("-fx-background-color: #64748B; -fx-text-fill: white; -fx-alignment: CENTER;");
-                }
-            }
-        });
-
-        // Styles status avec classes CSS du thème
-        statusColumn.setCellFactory(col -> new TableCell<Task, String>() {
-            @Override
-            protected void updateItem(String value, boolean empty) {
-                super.updateItem(value, empty);
-                if (empty || value == null) {
-                    setText(null);
-                    setStyle("");
-                    return;
-                }
-                setText(value);
-                switch (value) {
-                    case "TODO" -> setStyle("-fx-background-color: #6366F1; -fx-text-fill: white; -fx-alignment: CENTER;");
-                    case "IN_PROGRESS" -> setStyle("-fx-background-color: #F59E0B; -fx-text-fill: white; -fx-alignment: CENTER;");
-                    case "COMPLETED" -> setStyle("-fx-background-color: #10B981; -fx-text-fill: white; -fx-alignment: CENTER;");
-                    case "CANCELLED" -> setStyle("-fx-background-color: #64748B; -fx-text-fill: white; -fx-alignment: CENTER;");
-                }
-            }
-        });
+        // Badges priorité / statut (pseudo-classes CSS du thème)
+        priorityColumn.setCellFactory(BadgeTableCell.forPriority());
+        statusColumn.setCellFactory(BadgeTableCell.forStatus());
 
         // Actions buttons avec style du thème
         actionsColumn.setCellFactory(col -> new TableCell<Task, Void>() {
             private final Button editBtn = new Button("✏️ Modifier");
             private final Button deleteBtn = new Button("🗑️ Supprimer");
+            private final HBox box = new HBox(8, editBtn, deleteBtn);
             {
                 // Appliquer les classes CSS du thème
                 editBtn.getStyleClass().addAll("button");
                 deleteBtn.getStyleClass().addAll("button", "danger");
+                box.setAlignment(javafx.geometry.Pos.CENTER);
 
                 editBtn.setOnAction(e -> editTask(getTableView().getItems().get(getIndex())));
                 deleteBtn.setOnAction(e -> deleteTask(getTableView().getItems().get(getIndex())));
@@ -140,52 +227,266 @@ public class TaskManagementController {
             @Override
             protected void updateItem(Void item, boolean empty) {
                 super.updateItem(item, empty);
-                if (empty) {
-                    setGraphic(null);
-                } else {
-                    HBox box = new HBox(8, editBtn, deleteBtn);
-                    box.setAlignment(javafx.geometry.Pos.CENTER);
-                    setGraphic(box);
-                }
+                setGraphic(empty ? null : box);
             }
         });
+
+        // Clés de tri envoyées au DAO (liste blanche côté TaskDAO)
+        titleColumn.setUserData("title");
+        projectColumn.setUserData("project");
+        assignedColumn.setUserData("assigned");
+        priorityColumn.setUserData("priority");
+        statusColumn.setUserData("status");
+        dueDateColumn.setUserData("dueDate");
+        actionsColumn.setSortable(false);
+
+        // Un clic sur un en-tête relance la requête avec le bon ORDER BY
+        // au lieu de trier en mémoire ce qui a déjà été chargé
+        tasksTable.setSortPolicy(table -> {
+            // setSortPolicy() déclenche lui-même un tri : rien à recharger tant que rien n'est chargé
+            if (!allTasks.isEmpty()) {
+                loadTasks();
+            }
+            return true;
+        });
+
+        tasksTable.setItems(sortedTasks);
     }
 
     private void loadTasks() {
-        allTasks.setAll(taskDAO.findAll());
-        tasksTable.setItems(allTasks);
+        SortSpec sort = SortSpec.fromTable(tasksTable);
+        taskLoader.submit(handle -> DATA_LOAD.time(() -> taskDAO.findAll(sort, handle)));
+    }
+
+    private void showTasks(List<Task> tasks) {
+        facetIndex.rebuild(tasks);
+        allTasks.setAll(tasks);
+        applyFilters();
+    }
+
+    /**
+     * Tâches créées / modifiées / supprimées par ce client
+     * Une tâche créée va en tête de liste, comme avant
+     */
+    private void tasksChanged(List<EntityEvents.Event<Task>> events) {
+        Set<Integer> shown = allTasks.stream().map(Task::getId).collect(Collectors.toSet());
+        for (EntityEvents.Event<Task> event : events) {
+            if (event.getType() == EntityEvents.Type.CREATED && event.getValue() != null
+                    && !shown.contains(event.getId())) {
+                allTasks.add(0, event.getValue());
+            }
+        }
+        applyRemoteChanges(DeltaSync.changes(allTasks, Task::getId, events));
+    }
+
+    /**
+     * Projet supprimé : ses tâches sont parties en cascade ; projet renommé : nom affiché
+     */
+    private void projectsChanged(List<EntityEvents.Event<Project>> events) {
+        Map<Integer, Project> renamed = new HashMap<>();
+        Set<Integer> deleted = new HashSet<>();
+        for (EntityEvents.Event<Project> event : events) {
+            if (event.isDeleted()) {
+                deleted.add(event.getId());
+            } else if (event.getValue() != null) {
+                renamed.put(event.getId(), event.getValue());
+            }
+        }
+
+        List<Integer> removedTasks = new ArrayList<>();
+        for (Task task : allTasks) {
+            if (deleted.contains(task.getProjectId())) {
+                removedTasks.add(task.getId());
+            } else if (renamed.containsKey(task.getProjectId())) {
+                task.setProjectName(renamed.get(task.getProjectId()).getName());
+            }
+        }
+        if (!removedTasks.isEmpty()) {
+            applyRemoteChanges(new ChangeSet<>(List.of(), removedTasks, null));
+        } else if (!renamed.isEmpty()) {
+            tasksTable.refresh();
+        }
+    }
+
+    /**
+     * Fusionne des modifications (table, facettes, filtres en cours)
+     */
+    private void applyRemoteChanges(ChangeSet<Task> changes) {
+        DeltaSync.merge(allTasks, Task::getId, task -> true, changes);
+        changes.getChanged().forEach(facetIndex::put);
+        changes.getDeletedIds().forEach(facetIndex::remove);
+        applyFilters();
+    }
+
+    /**
+     * Palette de commandes : sélectionne la tâche demandée
+     */
+    @Override
+    public void focus(CommandKind kind, int id) {
+        if (kind == CommandKind.TASK) {
+            Focusable.reveal(tasksTable, task -> task.getId() == id);
+        }
     }
 
     private void loadFilters() {
-        for (Project p : projectDAO.findAll()) {
+        projectFilterLoader.submit(handle -> projectDAO.findAll(null, handle));
+    }
+
+    private void showProjectFilter(List<Project> projects) {
+        for (Project p : projects) {
             filterProject.getItems().add(p.getName());
+            projectIdsByName.put(p.getName(), p.getId());
+        }
+    }
+
+    // Liste des projets en échec : le filtre n'est pas "aucun projet", on le dit
+    private void reportProjectFilter(QueryResult<List<Project>> projects) {
+        if (!projects.hasValue()) {
+            filterProject.setTooltip(new Tooltip(projects.getMessage()));
+            showError("Filtre projet indisponible : " + projects.getMessage());
         }
     }
 
+    /**
+     * Recherche déclenchée par la saisie (après la pause du Debouncer)
+     *  - mots de 3 lettres ou plus : recherche plein texte côté BDD (titre, description, commentaires)
+     *  - saisie plus courte : simple filtre sur les titres déjà chargés
+     */
+    private void searchTasks() {
+        String needle = searchField.getText();
+        List<String> terms = FullTextQuery.terms(needle);
+
+        if (terms.isEmpty()) {
+            taskSearch.cancel();
+            searchHits = null;
+            searchTerms = List.of();
+            applyFilters();
+            return;
+        }
+
+        taskSearch.submit(handle -> taskDAO.fullTextSearch(needle, SEARCH_LIMIT, handle));
+    }
+
+    private void showSearchResults(List<TaskSearchResult> results) {
+        Map<Integer, TaskSearchResult> hits = new LinkedHashMap<>();
+        for (TaskSearchResult result : results) {
+            hits.put(result.getTask().getId(), result);
+        }
+        searchHits = hits;
+        searchTerms = FullTextQuery.terms(searchField.getText());
+
+        applyFilters();
+        // Les cellules déjà affichées doivent redessiner leur surlignage
+        tasksTable.refresh();
+    }
+
+    private String commentSnippet(Task task) {
+        TaskSearchResult hit = searchHits != null ? searchHits.get(task.getId()) : null;
+        return hit != null ? hit.getCommentSnippet() : null;
+    }
+
     @FXML
     private void applyFilters() {
-        ObservableList<Task> filtered = FXCollections.observableArrayList();
-        for (Task t : allTasks) {
-            boolean ok =
-                    (filterStatus.getValue().equals("TOUS") || (t.getStatus() != null && t.getStatus().equals(filterStatus.getValue()))) &&
-                            (filterPriority.getValue().equals("TOUS") || (t.getPriority() != null && t.getPriority().equals(filterPriority.getValue()))) &&
-                            (filterProject.getValue().equals("TOUS") || (t.getProjectName() != null && t.getProjectName().equals(filterProject.getValue())));
-            if (ok) filtered.add(t);
+        Map<Facet, Set<Object>> selection = currentSelection();
+        String needle = searchField.getText().trim();
+
+        // Les facettes sont résolues par l'index (AND/OR de BitSet),
+        // le prédicat n'a plus qu'à tester un bit par tâche
+        BitSet matches = facetIndex.query(selection);
+        Predicate<Task> predicate = t -> facetIndex.matches(matches, t);
+        Map<Integer, TaskSearchResult> hits = searchHits;
+        if (hits != null) {
+            predicate = predicate.and(t -> hits.containsKey(t.getId()));
+        } else if (!needle.isEmpty()) {
+            predicate = predicate.and(t -> TextUtils.containsIgnoreCase(t.getTitle(), needle));
+        }
+
+        filteredTasks.setPredicate(predicate);
+        // Un tri choisi par l'utilisateur (en-tête de colonne) reste prioritaire sur la pertinence
+        sortedTasks.setComparator(hits != null && tasksTable.getSortOrder().isEmpty()
+                ? Comparator.comparingDouble((Task t) -> hits.get(t.getId()).getRelevance()).reversed()
+                : null);
+        updateFacetCounts(selection);
+    }
+
+    /**
+     * Traduit les combos de filtre en sélection pour l'index
+     */
+    private Map<Facet, Set<Object>> currentSelection() {
+        Map<Facet, Set<Object>> selection = new EnumMap<>(Facet.class);
+
+        String status = filterStatus.getValue();
+        if (status != null && !"TOUS".equals(status)) {
+            selection.put(Facet.STATUS, Set.of(status));
+        }
+        String priority = filterPriority.getValue();
+        if (priority != null && !"TOUS".equals(priority)) {
+            selection.put(Facet.PRIORITY, Set.of(priority));
+        }
+        Integer projectId = projectIdsByName.get(filterProject.getValue());
+        if (projectId != null) {
+            selection.put(Facet.PROJECT, Set.of(projectId));
+        }
+        return selection;
+    }
+
+    /**
+     * Affiche le nombre de tâches à côté de chaque option : "IN_PROGRESS (1 204)"
+     */
+    private void updateFacetCounts(Map<Facet, Set<Object>> selection) {
+        facetCounts.put(Facet.STATUS, facetIndex.counts(Facet.STATUS, selection));
+        facetCounts.put(Facet.PRIORITY, facetIndex.counts(Facet.PRIORITY, selection));
+        facetCounts.put(Facet.PROJECT, facetIndex.counts(Facet.PROJECT, selection));
+
+        refreshCells(filterStatus);
+        refreshCells(filterPriority);
+        refreshCells(filterProject);
+    }
+
+    // Fabrique installée une fois (initialize) : les cellules lisent facetCounts à chaque affichage
+    private void showFacetCounts(ComboBox<String> combo, Facet facet, Function<String, Object> keyOf) {
+        combo.setCellFactory(list -> new ListCell<>() {
+            @Override
+            protected void updateItem(String item, boolean empty) {
+                super.updateItem(item, empty);
+                if (empty || item == null) {
+                    setText(null);
+                    return;
+                }
+                Map<Object, Integer> counts = facetCounts.getOrDefault(facet, Map.of());
+                int count = "TOUS".equals(item)
+                        ? counts.values().stream().mapToInt(Integer::intValue).sum()
+                        : counts.getOrDefault(keyOf.apply(item), 0);
+                setText(String.format("%s (%,d)", item, count));
+            }
+        });
+    }
+
+    // Liste déroulante déjà créée : ses cellules visibles relisent les compteurs
+    private static void refreshCells(ComboBox<String> combo) {
+        if (combo.getSkin() instanceof ComboBoxListViewSkin) {
+            ((ListView<?>) ((ComboBoxListViewSkin<?>) combo.getSkin()).getPopupContent()).refresh();
         }
-        tasksTable.setItems(filtered);
     }
 
     @FXML
     private void createNewTask() {
+        openTaskForm(null);
+    }
+
+    /**
+     * Formulaire de création (editing == null) ou de modification d'une tâche
+     */
+    private void openTaskForm(Task editing) {
         Dialog<Void> dialog = new Dialog<>();
-        dialog.setTitle("Créer une tâche");
+        dialog.setTitle(editing == null ? "Créer une tâche" : "Modifier la tâche");
         dialog.initOwner(welcomeLabel.getScene().getWindow());
         dialog.initModality(Modality.WINDOW_MODAL);
 
         // Appliquer le style du thème à la dialog
         dialog.getDialogPane().getStyleClass().add("dialog-pane");
 
-        ButtonType createBtnType = new ButtonType("Créer", ButtonBar.ButtonData.OK_DONE);
+        ButtonType createBtnType = new ButtonType(editing == null ? "Créer" : "Enregistrer", ButtonBar.ButtonData.OK_DONE);
         dialog.getDialogPane().getButtonTypes().addAll(createBtnType, ButtonType.CANCEL);
 
         TextField titleField = new TextField();
@@ -193,29 +494,45 @@ public class TaskManagementController {
         TextArea descArea = new TextArea();
         descArea.setPromptText("Description détaillée");
         descArea.setPrefRowCount(4);
-        ComboBox<String> projectCombo = new ComboBox<>();
-        ComboBox<String> userCombo = new ComboBox<>();
+        // Auto-complétion : seules les meilleures correspondances sont affichées, quelle que soit la taille de l'annuaire
+        AutoCompleteField<Project> projectPicker = new AutoCompleteField<>(
+                text -> DirectoryIndex.projectNames(projectDAO::findAll).complete(text, PICKER_LIMIT),
+                Project::getName);
+        projectPicker.setPromptText("Tapez le nom du projet");
+        AutoCompleteField<User> userPicker = new AutoCompleteField<>(
+                text -> DirectoryIndex.userNames(userDAO::findAll).complete(text, PICKER_LIMIT),
+                u -> u.getFullName() + " (" + u.getUsername() + ")");
+        userPicker.setPromptText("Non assigné (tapez un nom)");
         ComboBox<String> priorityCombo = new ComboBox<>();
         DatePicker dueDatePicker = new DatePicker(LocalDate.now().plusDays(7));
 
-        var projects = projectDAO.findAll();
-        var users = userDAO.findAll();
-        projects.forEach(p -> projectCombo.getItems().add(p.getName()));
-        userCombo.getItems().add("Non assigné");
-        users.forEach(u -> userCombo.getItems().add(u.getUsername()));
-        userCombo.setValue("Non assigné");
+        ComboBox<String> statusCombo = new ComboBox<>();
+
         priorityCombo.getItems().addAll("LOW", "MEDIUM", "HIGH", "URGENT");
         priorityCombo.setValue("MEDIUM");
+        statusCombo.getItems().addAll("TODO", "IN_PROGRESS", "COMPLETED", "CANCELLED");
+        statusCombo.setValue("TODO");
+
+        if (editing != null) {
+            titleField.setText(editing.getTitle());
+            descArea.setText(editing.getDescription());
+            priorityCombo.setValue(editing.getPriority());
+            statusCombo.setValue(editing.getStatus());
+            dueDatePicker.setValue(editing.getDueDate());
+        }
 
         GridPane grid = new GridPane();
         grid.setHgap(10);
         grid.setVgap(15);
         grid.addRow(0, new Label("Titre :"), titleField);
         grid.addRow(1, new Label("Description :"), descArea);
-        grid.addRow(2, new Label("Projet :"), projectCombo);
-        grid.addRow(3, new Label("Assigné à :"), userCombo);
+        grid.addRow(2, new Label("Projet :"), projectPicker);
+        grid.addRow(3, new Label("Assigné à :"), userPicker);
         grid.addRow(4, new Label("Priorité :"), priorityCombo);
         grid.addRow(5, new Label("Date limite :"), dueDatePicker);
+        if (editing != null) {
+            grid.addRow(6, new Label("Statut :"), statusCombo);
+        }
 
         // Appliquer les styles aux labels
         grid.getChildren().stream()
@@ -225,34 +542,57 @@ public class TaskManagementController {
         dialog.getDialogPane().setContent(grid);
 
         Button createButton = (Button) dialog.getDialogPane().lookupButton(createBtnType);
+
+        // Projet et assigné actuels lus dans l'annuaire (chargé en arrière-plan) :
+        // pas d'enregistrement avant, sinon un champ vide retirerait l'assignation
+        if (editing != null) {
+            createButton.setDisable(true);
+            DirectoryIndex.whenLoaded(userDAO::findAll, projectDAO::findAll, () -> {
+                if (projectPicker.getText().isEmpty()) {
+                    projectPicker.select(projectById(editing.getProjectId()));
+                }
+                if (userPicker.getText().isEmpty() && editing.getAssignedTo() != null) {
+                    userPicker.select(userById(editing.getAssignedTo()));
+                }
+                createButton.setDisable(false);
+            });
+        }
         createButton.addEventFilter(ActionEvent.ACTION, e -> {
-            if (titleField.getText().isBlank() || projectCombo.getValue() == null) {
+            if (titleField.getText().isBlank() || projectPicker.getSelected() == null) {
                 showError("Titre et projet sont obligatoires !");
                 e.consume();
                 return;
             }
+            if (!userPicker.getText().isBlank() && userPicker.getSelected() == null) {
+                showError("Choisissez l'utilisateur dans la liste (ou videz le champ)");
+                e.consume();
+                return;
+            }
 
-            int projectId = projects.stream()
-                    .filter(p -> p.getName().equals(projectCombo.getValue()))
-                    .findFirst().map(Project::getId).orElse(-1);
-
-            Integer assignedTo = users.stream()
-                    .filter(u -> u.getUsername().equals(userCombo.getValue()))
-                    .findFirst().map(User::getId).orElse(null);
+            int projectId = projectPicker.getSelected().getId();
+            Integer assignedTo = userPicker.getSelected() != null ? userPicker.getSelected().getId() : null;
 
-            Task task = new Task();
+            // Modification : copie de la ligne lue (base de la fusion en cas de conflit)
+            Task task = editing != null ? new Task(editing) : new Task();
             task.setTitle(titleField.getText());
             task.setDescription(descArea.getText());
             task.setProjectId(projectId);
             task.setAssignedTo(assignedTo);
             task.setPriority(priorityCombo.getValue());
-            task.setStatus("TODO");
+            task.setStatus(editing != null ? statusCombo.getValue() : "TODO");
             task.setDueDate(dueDatePicker.getValue());
-            task.setCreatedBy(SessionManager.getCurrentUserId());
 
+            if (editing != null) {
+                if (!saveTask(dialog.getDialogPane().getScene().getWindow(), editing, task)) {
+                    e.consume();
+                }
+                return;
+            }
+
+            task.setCreatedBy(SessionManager.getCurrentUserId());
             if (taskDAO.create(task)) {
+                // La nouvelle ligne arrive par EntityEvents
                 dialog.close();
-                loadTasks();
                 showSuccess("✓ Tâche créée avec succès !");
             } else {
                 showError("✗ Erreur lors de la création");
@@ -264,7 +604,59 @@ public class TaskManagementController {
     }
 
     private void editTask(Task task) {
-        showInfo("Information", "Fonction d'édition en cours de développement");
+        openTaskForm(task);
+    }
+
+    /**
+     * Enregistre une tâche modifiée : une seule requête si personne d'autre ne l'a modifiée ;
+     * sinon fusion (MergeDialog) puis nouvelle tentative sur la version actuelle
+     *
+     * @return false : le formulaire reste ouvert (erreur, ou fusion annulée)
+     */
+    private boolean saveTask(Window owner, Task base, Task mine) {
+        UpdateResult<Task> result = taskDAO.update(mine);
+        while (result.isConflict()) {
+            Task current = result.getCurrent();
+            Optional<Task> merged = MergeDialog.merge(owner, "la tâche « " + current.getTitle() + " »",
+                    base, mine, current, Task::new, taskMergeFields);
+            if (merged.isEmpty()) {
+                return false;
+            }
+            base = current;
+            mine = merged.get();
+            result = taskDAO.update(mine);
+        }
+
+        switch (result.getStatus()) {
+            case UPDATED:
+                // La ligne modifiée arrive par EntityEvents
+                showSuccess("✓ Tâche modifiée avec succès !");
+                return true;
+            case NOT_FOUND:
+                showError("✗ Cette tâche a été supprimée entre-temps");
+                return true;
+            default:
+                showError("✗ Erreur lors de la modification");
+                return false;
+        }
+    }
+
+    private Project projectById(int projectId) {
+        return DirectoryIndex.projects(projectDAO::findAll).get(projectId);
+    }
+
+    private User userById(int userId) {
+        return DirectoryIndex.users(userDAO::findAll).get(userId);
+    }
+
+    private String projectLabel(Integer projectId) {
+        Project project = projectById(projectId);
+        return project != null ? project.getName() : "#" + projectId;
+    }
+
+    private String userLabel(Integer userId) {
+        User user = userById(userId);
+        return user != null ? user.getFullName() : "#" + userId;
     }
 
     private void deleteTask(Task task) {
@@ -278,7 +670,6 @@ public class TaskManagementController {
 
         if (alert.showAndWait().orElse(ButtonType.CANCEL) == ButtonType.OK) {
             if (taskDAO.delete(task.getId())) {
-                loadTasks();
                 showSuccess("✓ Tâche supprimée avec succès");
             } else {
                 showError("✗ Erreur lors de la suppression");
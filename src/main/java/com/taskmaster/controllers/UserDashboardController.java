@@ -1,11 +1,20 @@
 package com.taskmaster.controllers;
 
 import com.taskmaster.dao.TaskDAO;
+import com.taskmaster.models.CommandKind;
 import com.taskmaster.models.Task;
+import com.taskmaster.utils.Metrics;
+import com.taskmaster.utils.LatencyHistogram;
+import com.taskmaster.utils.BadgeTableCell;
+import com.taskmaster.utils.ChangeFeed;
+import com.taskmaster.utils.DeltaSync;
+import com.taskmaster.utils.OfflineIndicator;
 import com.taskmaster.utils.SessionManager;
 import com.taskmaster.utils.NavigationUtils;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
+import javafx.collections.transformation.FilteredList;
+import javafx.collections.transformation.SortedList;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
@@ -14,9 +23,12 @@ import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.stage.Stage;
 
-public class UserDashboardController {
+import java.util.Objects;
+
+public class UserDashboardController implements Focusable {
 
     @FXML private Label welcomeLabel;
+    @FXML private Label offlineLabel;
     @FXML private ComboBox<String> statusFilter;
     @FXML private TableView<Task> tasksTable;
     @FXML private TableColumn<Task, String> titleColumn;
@@ -27,7 +39,18 @@ public class UserDashboardController {
     @FXML private TableColumn<Task, Void> actionsColumn;
 
     private TaskDAO taskDAO = new TaskDAO();
-    private ObservableList<Task> allMyTasks = FXCollections.observableArrayList();
+    // 📈 Durée du chargement des données de l'écran
+    private static final LatencyHistogram DATA_LOAD = Metrics.histogram(
+            "taskmaster_ui_data_load_seconds", "Chargement des données d'un écran", "screen", "user_dashboard");
+
+    private final ObservableList<Task> allMyTasks = FXCollections.observableArrayList();
+    private final FilteredList<Task> filteredTasks = new FilteredList<>(allMyTasks);
+    private final SortedList<Task> sortedTasks = new SortedList<>(filteredTasks);
+
+    // 🔄 Actualisation : seules les tâches modifiées depuis le dernier chargement sont relues
+    private final DeltaSync<Task> myTasksSync = new DeltaSync<>(allMyTasks, Task::getId,
+            () -> taskDAO.findByUserId(SessionManager.getCurrentUserId()), taskDAO::findChangesSince)
+            .keepOnly(task -> Objects.equals(task.getAssignedTo(), SessionManager.getCurrentUserId()));
 
     @FXML
     public void initialize() {
@@ -37,7 +60,17 @@ public class UserDashboardController {
 
         statusFilter.setValue("TOUS");
         setupTasksTable();
+        myTasksSync.reportTo(tasksTable);
         loadMyTasks();
+        myTasksSync.follow(tasksTable, Task.class);
+
+        // Écriture différée abandonnée : la ligne est déjà revenue à l'ancien statut
+        TaskDAO.statusWrites().onFailure(tasksTable, dropped ->
+                showError("✗ " + dropped.size() + " changement(s) de statut non enregistré(s)"));
+        myTasksSync.live(tasksTable, ChangeFeed.Entity.TASK, taskDAO::findByIds);
+
+        // Copie hors ligne / statuts pas encore en base : signalés, rechargés au retour de la connexion
+        OfflineIndicator.attach(offlineLabel, this::refreshMyTasks);
     }
 
     private void setupTasksTable() {
@@ -47,57 +80,9 @@ public class UserDashboardController {
         statusColumn.setCellValueFactory(new PropertyValueFactory<>("status"));
         dueDateColumn.setCellValueFactory(new PropertyValueFactory<>("dueDate"));
 
-        // Styles avec couleurs du thème
-        priorityColumn.setCellFactory(column -> new TableCell<Task, String>() {
-            @Override
-            protected void updateItem(String priority, boolean empty) {
-                super.updateItem(priority, empty);
-                if (empty || priority == null) {
-                    setText(null);
-                    setStyle("");
-                } else {
-                    setText(priority);
-                    switch (priority) {
-                        case "URGENT":
-                            setStyle("-fx-background-color: #EF4444; -fx-text-fill: white; -fx-alignment: CENTER;");
-                            break;
-                        case "HIGH":
-                            setStyle("-fx-background-color: #F59E0B; -fx-text-fill: white; -fx-alignment: CENTER;");
-                            break;
-                        case "MEDIUM":
-                            setStyle("-fx-background-color: #8B5CF6; -fx-text-fill: white; -fx-alignment: CENTER;");
-                            break;
-                        case "LOW":
-                            setStyle("-fx-background-color: #64748B; -fx-text-fill: white; -fx-alignment: CENTER;");
-                            break;
-                    }
-                }
-            }
-        });
-
-        statusColumn.setCellFactory(column -> new TableCell<Task, String>() {
-            @Override
-            protected void updateItem(String status, boolean empty) {
-                super.updateItem(status, empty);
-                if (empty || status == null) {
-                    setText(null);
-                    setStyle("");
-                } else {
-                    setText(status);
-                    switch (status) {
-                        case "TODO":
-                            setStyle("-fx-background-color: #6366F1; -fx-text-fill: white; -fx-alignment: CENTER;");
-                            break;
-                        case "IN_PROGRESS":
-                            setStyle("-fx-background-color: #F59E0B; -fx-text-fill: white; -fx-alignment: CENTER;");
-                            break;
-                        case "COMPLETED":
-                            setStyle("-fx-background-color: #10B981; -fx-text-fill: white; -fx-alignment: CENTER;");
-                            break;
-                    }
-                }
-            }
-        });
+        // Badges avec les couleurs du thème (pseudo-classes CSS)
+        priorityColumn.setCellFactory(BadgeTableCell.forPriority());
+        statusColumn.setCellFactory(BadgeTableCell.forStatus());
 
         actionsColumn.setCellFactory(column -> new TableCell<Task, Void>() {
             private final Button changeStatusButton = new Button("📝 Changer Statut");
@@ -120,28 +105,40 @@ public class UserDashboardController {
                 }
             }
         });
+
+        // Une seule liste source, filtrée et triée par des vues
+        sortedTasks.comparatorProperty().bind(tasksTable.comparatorProperty());
+        tasksTable.setItems(sortedTasks);
     }
 
     private void loadMyTasks() {
-        int userId = SessionManager.getCurrentUserId();
-        allMyTasks = FXCollections.observableArrayList(taskDAO.findByUserId(userId));
-        tasksTable.setItems(allMyTasks);
+        long start = System.nanoTime();
+        myTasksSync.load();
+        DATA_LOAD.recordSince(start);
+    }
+
+    private void refreshMyTasks() {
+        myTasksSync.refresh();
+    }
+
+    /**
+     * Palette de commandes : sélectionne la tâche demandée
+     */
+    @Override
+    public void focus(CommandKind kind, int id) {
+        if (kind == CommandKind.TASK) {
+            Focusable.reveal(tasksTable, task -> task.getId() == id);
+        }
     }
 
     @FXML
     private void filterTasks() {
         String selectedStatus = statusFilter.getValue();
 
-        if (selectedStatus.equals("TOUS")) {
-            tasksTable.setItems(allMyTasks);
+        if (selectedStatus == null || selectedStatus.equals("TOUS")) {
+            filteredTasks.setPredicate(null);
         } else {
-            ObservableList<Task> filteredTasks = FXCollections.observableArrayList();
-            for (Task task : allMyTasks) {
-                if (task.getStatus().equals(selectedStatus)) {
-                    filteredTasks.add(task);
-                }
-            }
-            tasksTable.setItems(filteredTasks);
+            filteredTasks.setPredicate(task -> selectedStatus.equals(task.getStatus()));
         }
     }
 
@@ -160,20 +157,17 @@ public class UserDashboardController {
         dialogPane.getStyleClass().add("dialog-pane");
 
         dialog.showAndWait().ifPresent(newStatus -> {
-            if (taskDAO.updateStatus(task.getId(), newStatus)) {
+            if (!newStatus.equals(task.getStatus())) {
+                // Affiché tout de suite (EntityEvents), écrit en arrière-plan
+                taskDAO.updateStatusLater(task.getId(), newStatus, task.getStatus());
                 showSuccess("✓ Statut mis à jour !");
-                loadMyTasks();
-                filterTasks();
-            } else {
-                showError("✗ Erreur lors de la mise à jour");
             }
         });
     }
 
     @FXML
     private void showMyTasks() {
-        loadMyTasks();
-        filterTasks();
+        refreshMyTasks();
     }
 
     @FXML
@@ -1,10 +1,30 @@
 package com.taskmaster.controllers;
 
+import com.taskmaster.models.CommandKind;
+import com.taskmaster.utils.Metrics;
+import com.taskmaster.utils.LatencyHistogram;
+import com.taskmaster.utils.BadgeTableCell;
+import com.taskmaster.utils.AsyncSearch;
+import com.taskmaster.utils.ChangeFeed;
+import com.taskmaster.utils.DaoMethod;
+import com.taskmaster.utils.Debouncer;
+import com.taskmaster.utils.DeltaSync;
+import com.taskmaster.utils.EntityEvents;
+import com.taskmaster.utils.DirectoryIndex;
 import com.taskmaster.utils.NavigationUtils;
+import com.taskmaster.dao.ProjectDAO;
+import com.taskmaster.dao.TaskDAO;
 import com.taskmaster.dao.UserDAO;
+import com.taskmaster.models.ChangeSet;
+import com.taskmaster.models.QueryResult;
 import com.taskmaster.models.User;
 import com.taskmaster.utils.PasswordHasher;
+import com.taskmaster.utils.QueryStatus;
+import com.taskmaster.utils.SessionManager;
+import com.taskmaster.utils.SortSpec;
+import com.taskmaster.utils.UnitOfWork;
 import com.taskmaster.utils.Validator;
+import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
@@ -14,8 +34,14 @@ import javafx.scene.Scene;
 import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.stage.Stage;
+import javafx.util.Duration;
 
-public class UserManagementController {
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+public class UserManagementController implements Focusable {
 
     @FXML private Label welcomeLabel;
     @FXML private TextField searchField;
@@ -28,9 +54,30 @@ public class UserManagementController {
     @FXML private TableColumn<User, Boolean> activeColumn;
     @FXML private TableColumn<User, Void> actionsColumn;
 
+    // Réassignation + suppression : une transaction, mesurée sous ce nom
+    private static final DaoMethod DELETE_AND_REASSIGN = DaoMethod.of(UserManagementController.class, "deleteAndReassign");
+
+    // 📈 Durée du chargement des données de l'écran
+    private static final LatencyHistogram DATA_LOAD = Metrics.histogram(
+            "taskmaster_ui_data_load_seconds", "Chargement des données d'un écran", "screen", "manage_users");
+
     private UserDAO userDAO = new UserDAO();
+    private TaskDAO taskDAO = new TaskDAO();
+    private ProjectDAO projectDAO = new ProjectDAO();
     private ObservableList<User> allUsers = FXCollections.observableArrayList();
 
+    // Recherche en arrière-plan : la frappe est temporisée, et chaque nouvelle
+    // requête annule la précédente (seul le dernier résultat est affiché)
+    private final AsyncSearch<List<User>> userSearch = new AsyncSearch<List<User>>(this::showUsers)
+            .onStatus(result -> QueryStatus.show(usersTable, result));
+    private final Debouncer searchDebouncer = new Debouncer(Duration.millis(250), this::searchUsers);
+
+    // Nombre maximum d'utilisateurs affichés pour une recherche texte
+    private static final int SEARCH_LIMIT = 200;
+
+    // Utilisateur à sélectionner dès que le chargement (asynchrone) est terminé, -1 = aucun
+    private int pendingFocusId = -1;
+
     @FXML
     public void initialize() {
         welcomeLabel.setText("Gestion des Utilisateurs");
@@ -39,8 +86,31 @@ public class UserManagementController {
         roleFilter.getItems().addAll("TOUS", "ADMIN", "USER");
         roleFilter.setValue("TOUS");
 
+        searchField.textProperty().addListener((obs, oldText, newText) -> searchDebouncer.trigger());
+
         setupTable();
         loadUsers();
+
+        // 🔄 Utilisateurs modifiés / supprimés par d'autres clients
+        // (pas d'ajout : la liste affichée est le résultat d'une recherche)
+        // Relecture en échec : la recherche affichée est relancée (le lot ne sera pas renvoyé)
+        ChangeFeed.subscribe(usersTable, ChangeFeed.Entity.USER, batch -> {
+            QueryResult<List<User>> rows = userDAO.findByIds(batch.getUpserted());
+            if (!rows.hasValue()) {
+                Platform.runLater(this::searchUsers);
+                return;
+            }
+            ChangeSet<User> changes = new ChangeSet<>(rows.getValue(), batch.getDeleted(), null);
+            Platform.runLater(() -> {
+                Set<Integer> shown = allUsers.stream().map(User::getId).collect(Collectors.toSet());
+                DeltaSync.merge(allUsers, User::getId, user -> shown.contains(user.getId()), changes);
+            });
+        });
+
+        // Écritures faites depuis cet écran : appliquées sans relancer la recherche
+        EntityEvents.subscribeFx(usersTable, User.class, events ->
+                DeltaSync.merge(allUsers, User::getId, user -> true,
+                        DeltaSync.changes(allUsers, User::getId, events)));
     }
 
     private void setupTable() {
@@ -54,41 +124,14 @@ public class UserManagementController {
         roleColumn.setCellValueFactory(new PropertyValueFactory<>("role"));
 
         activeColumn.setCellValueFactory(new PropertyValueFactory<>("active"));
-        activeColumn.setCellFactory(column -> new TableCell<User, Boolean>() {
-            @Override
-            protected void updateItem(Boolean active, boolean empty) {
-                super.updateItem(active, empty);
-                if (empty || active == null) {
-                    setText(null);
-                    setStyle("");
-                } else {
-                    setText(active ? "✅ Actif" : "❌ Inactif");
-                    setStyle(active ? "-fx-text-fill: green;" : "-fx-text-fill: red;");
-                }
-            }
-        });
+        activeColumn.setCellFactory(BadgeTableCell.forActive());
 
-        roleColumn.setCellFactory(column -> new TableCell<User, String>() {
-            @Override
-            protected void updateItem(String role, boolean empty) {
-                super.updateItem(role, empty);
-                if (empty || role == null) {
-                    setText(null);
-                    setStyle("");
-                } else {
-                    setText(role);
-                    if (role.equals("ADMIN")) {
-                        setStyle("-fx-background-color: #e74c3c; -fx-text-fill: white;");
-                    } else {
-                        setStyle("-fx-background-color: #3498db; -fx-text-fill: white;");
-                    }
-                }
-            }
-        });
+        roleColumn.setCellFactory(BadgeTableCell.forRole());
 
         actionsColumn.setCellFactory(column -> new TableCell<User, Void>() {
             private final Button editButton = new Button("Modifier");
             private final Button deleteButton = new Button("Supprimer");
+            private final javafx.scene.layout.HBox buttons = new javafx.scene.layout.HBox(5, editButton, deleteButton);
 
             {
                 editButton.setStyle("-fx-background-color: #f39c12; -fx-text-fill: white;");
@@ -108,31 +151,74 @@ public class UserManagementController {
             @Override
             protected void updateItem(Void item, boolean empty) {
                 super.updateItem(item, empty);
-                if (empty) {
-                    setGraphic(null);
-                } else {
-                    javafx.scene.layout.HBox buttons = new javafx.scene.layout.HBox(5, editButton, deleteButton);
-                    setGraphic(buttons);
-                }
+                setGraphic(empty ? null : buttons);
             }
         });
+
+        // Tri côté BDD (liste blanche dans UserDAO)
+        usernameColumn.setUserData("username");
+        nameColumn.setUserData("name");
+        emailColumn.setUserData("email");
+        roleColumn.setUserData("role");
+        activeColumn.setUserData("active");
+        actionsColumn.setSortable(false);
+
+        usersTable.setSortPolicy(table -> {
+            // setSortPolicy() déclenche lui-même un tri : rien à recharger tant que rien n'est chargé
+            if (!allUsers.isEmpty()) {
+                searchUsers();
+            }
+            return true;
+        });
     }
 
     private void loadUsers() {
-        allUsers = FXCollections.observableArrayList(userDAO.findAll());
+        SortSpec sort = SortSpec.fromTable(usersTable);
+        userSearch.submit(handle -> DATA_LOAD.time(() -> userDAO.findAll(sort, handle)));
+    }
+
+    private void showUsers(List<User> users) {
+        allUsers = FXCollections.observableArrayList(users);
         usersTable.setItems(allUsers);
+
+        if (pendingFocusId >= 0) {
+            int id = pendingFocusId;
+            pendingFocusId = -1;
+            Focusable.reveal(usersTable, u -> u.getId() == id);
+        }
+    }
+
+    /**
+     * Palette de commandes : sélectionne l'utilisateur (après le chargement s'il est en cours)
+     */
+    @Override
+    public void focus(CommandKind kind, int id) {
+        if (kind != CommandKind.USER) {
+            return;
+        }
+        if (!Focusable.reveal(usersTable, u -> u.getId() == id)) {
+            pendingFocusId = id;
+        }
     }
 
     @FXML
     private void searchUsers() {
+        // Entrée / bouton / combo : inutile d'attendre la fin de la temporisation
+        searchDebouncer.cancel();
+
         String searchTerm = searchField.getText().trim();
         String role = roleFilter.getValue().equals("TOUS") ? null : roleFilter.getValue();
+        SortSpec sort = SortSpec.fromTable(usersTable);
 
-        if (searchTerm.isEmpty() && (role == null || role.equals("TOUS"))) {
+        if (searchTerm.isEmpty() && role == null) {
             loadUsers();
+        } else if (searchTerm.isEmpty()) {
+            userSearch.submit(handle -> userDAO.search(searchTerm, role, sort, handle));
         } else {
-            var results = userDAO.search(searchTerm, role);
-            usersTable.setItems(FXCollections.observableArrayList(results));
+            // Recherche approchée en mémoire : "helene" trouve "Hélène", "duont" trouve "Dupont"
+            // Résultats classés par pertinence (thread de recherche : attend la fin du premier chargement)
+            userSearch.submit(handle -> QueryResult.ok(DirectoryIndex.usersReady(userDAO::findAll).join()
+                    .search(searchTerm, SEARCH_LIMIT, u -> role == null || role.equals(u.getRole()))));
         }
     }
 
@@ -250,7 +336,6 @@ public class UserManagementController {
             if (userDAO.create(newUser)) {
                 errorLabel.setStyle("-fx-text-fill: green; -fx-font-weight: bold;");
                 errorLabel.setText("✅ Utilisateur créé avec succès !");
-                loadUsers();
 
                 // Fermer le dialog après 1 seconde
                 javafx.animation.PauseTransition pause = new javafx.animation.PauseTransition(javafx.util.Duration.seconds(1));
@@ -342,7 +427,6 @@ public class UserManagementController {
             if (userDAO.update(user)) {
                 errorLabel.setStyle("-fx-text-fill: green; -fx-font-weight: bold;");
                 errorLabel.setText("✅ Utilisateur modifié avec succès !");
-                loadUsers();
 
                 // Fermer le dialog après 1 seconde
                 javafx.animation.PauseTransition pause = new javafx.animation.PauseTransition(javafx.util.Duration.seconds(1));
@@ -363,18 +447,35 @@ public class UserManagementController {
         alert.initOwner(welcomeLabel.getScene().getWindow()); // Attacher à la fenêtre parent
         alert.setTitle("Confirmer la suppression");
         alert.setHeaderText("Supprimer l'utilisateur : " + user.getUsername());
-        alert.setContentText("Cette action est irréversible !");
+        alert.setContentText("Ses tâches et projets vous seront réassignés.\nCette action est irréversible !");
 
         if (alert.showAndWait().get() == ButtonType.OK) {
-            if (userDAO.delete(user.getId())) {
+            if (deleteAndReassign(user.getId(), SessionManager.getCurrentUserId())) {
                 showSuccess("Utilisateur supprimé");
-                loadUsers();
             } else {
                 showError("Erreur lors de la suppression");
             }
         }
     }
 
+    /**
+     * Réassignation puis suppression, en une seule transaction : tout ou rien
+     * (created_by n'accepte pas d'utilisateur supprimé)
+     */
+    private boolean deleteAndReassign(int userId, int toUserId) {
+        try (UnitOfWork work = UnitOfWork.begin(DELETE_AND_REASSIGN)) {
+            if (!taskDAO.reassignUser(userId, toUserId)
+                    || !projectDAO.reassignCreator(userId, toUserId)
+                    || !userDAO.delete(userId)) {
+                return false;
+            }
+            return work.commit();
+        } catch (SQLException e) {
+            System.err.println("Erreur suppression utilisateur : " + e.getMessage());
+            return false;
+        }
+    }
+
     @FXML
     private void goBack() {
         NavigationUtils.navigateTo(welcomeLabel, "/com/taskmaster/views/admin_dashboard.fxml", "Dashboard");
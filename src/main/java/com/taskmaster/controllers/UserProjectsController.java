@@ -2,19 +2,35 @@ package com.taskmaster.controllers;
 
 import com.taskmaster.dao.ProjectDAO;
 import com.taskmaster.dao.TaskDAO;
+import com.taskmaster.models.CommandKind;
 import com.taskmaster.models.Project;
+import com.taskmaster.models.QueryResult;
 import com.taskmaster.models.Task;
+import com.taskmaster.utils.Metrics;
+import com.taskmaster.utils.LatencyHistogram;
+import com.taskmaster.utils.BadgeTableCell;
+import com.taskmaster.utils.ChangeFeed;
+import com.taskmaster.utils.DeltaSync;
+import com.taskmaster.utils.OfflineIndicator;
+import com.taskmaster.utils.QueryStatus;
 import com.taskmaster.utils.SessionManager;
 import com.taskmaster.utils.NavigationUtils;
 import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
 
-public class UserProjectsController {
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+public class UserProjectsController implements Focusable {
 
     @FXML private Label welcomeLabel;
+    @FXML private Label offlineLabel;
     @FXML private TableView<Project> projectsTable;
     @FXML private TableColumn<Project, String> nameColumn;
     @FXML private TableColumn<Project, String> descriptionColumn;
@@ -30,16 +46,40 @@ public class UserProjectsController {
     @FXML private TableColumn<Task, String> taskStatusColumn;
     @FXML private TableColumn<Task, String> taskDueDateColumn;
 
+    // 📈 Durée du chargement des données de l'écran
+    private static final LatencyHistogram DATA_LOAD = Metrics.histogram(
+            "taskmaster_ui_data_load_seconds", "Chargement des données d'un écran", "screen", "user_projects");
+
     private ProjectDAO projectDAO = new ProjectDAO();
     private TaskDAO taskDAO = new TaskDAO();
     private ObservableList<Project> userProjects = FXCollections.observableArrayList();
+    private final ObservableList<Task> userTasks = FXCollections.observableArrayList();
+
+    // 🔄 Actualisation : seules les tâches modifiées depuis le dernier chargement sont relues
+    private final DeltaSync<Task> userTasksSync = new DeltaSync<>(userTasks, Task::getId,
+            () -> taskDAO.findByUserId(SessionManager.getCurrentUserId()), taskDAO::findChangesSince)
+            .keepOnly(task -> Objects.equals(task.getAssignedTo(), SessionManager.getCurrentUserId()));
 
     @FXML
     public void initialize() {
         welcomeLabel.setText("Mes Projets");
         setupProjectsTable();
         setupTasksTable();
+        userTasksSync.reportTo(tasksTable);
         loadUserProjects();
+
+        // Mise à jour en direct : les tâches du projet sélectionné suivent la liste
+        userTasksSync.follow(tasksTable, Task.class);
+        userTasksSync.live(tasksTable, ChangeFeed.Entity.TASK, taskDAO::findByIds);
+        userTasks.addListener((ListChangeListener<Task>) change -> {
+            Project selected = projectsTable.getSelectionModel().getSelectedItem();
+            if (selected != null) {
+                showProjectTasks(selected);
+            }
+        });
+
+        // Hors ligne : bandeau + modifications en attente ; au retour de la connexion, actualisation
+        OfflineIndicator.attach(offlineLabel, this::refreshProjects);
     }
 
     private void setupProjectsTable() {
@@ -50,32 +90,7 @@ public class UserProjectsController {
         endDateColumn.setCellValueFactory(new PropertyValueFactory<>("endDate"));
 
         // Colorer les statuts
-        statusColumn.setCellFactory(column -> new TableCell<Project, String>() {
-            @Override
-            protected void updateItem(String status, boolean empty) {
-                super.updateItem(status, empty);
-                if (empty || status == null) {
-                    setText(null);
-                    setStyle("");
-                } else {
-                    setText(status);
-                    switch (status) {
-                        case "PLANNED":
-                            setStyle("-fx-background-color: #3498db; -fx-text-fill: white;");
-                            break;
-                        case "IN_PROGRESS":
-                            setStyle("-fx-background-color: #f39c12; -fx-text-fill: white;");
-                            break;
-                        case "COMPLETED":
-                            setStyle("-fx-background-color: #2ecc71; -fx-text-fill: white;");
-                            break;
-                        case "ON_HOLD":
-                            setStyle("-fx-background-color: #95a5a6; -fx-text-fill: white;");
-                            break;
-                    }
-                }
-            }
-        });
+        statusColumn.setCellFactory(BadgeTableCell.forStatus());
 
         // Bouton pour voir les détails
         actionsColumn.setCellFactory(column -> new TableCell<Project, Void>() {
@@ -115,79 +130,34 @@ public class UserProjectsController {
         taskDueDateColumn.setCellValueFactory(new PropertyValueFactory<>("dueDate"));
 
         // Colorer les priorités
-        taskPriorityColumn.setCellFactory(column -> new TableCell<Task, String>() {
-            @Override
-            protected void updateItem(String priority, boolean empty) {
-                super.updateItem(priority, empty);
-                if (empty || priority == null) {
-                    setText(null);
-                    setStyle("");
-                } else {
-                    setText(priority);
-                    switch (priority) {
-                        case "URGENT":
-                            setStyle("-fx-background-color: #e74c3c; -fx-text-fill: white;");
-                            break;
-                        case "HIGH":
-                            setStyle("-fx-background-color: #e67e22; -fx-text-fill: white;");
-                            break;
-                        case "MEDIUM":
-                            setStyle("-fx-background-color: #f39c12; -fx-text-fill: white;");
-                            break;
-                        case "LOW":
-                            setStyle("-fx-background-color: #95a5a6; -fx-text-fill: white;");
-                            break;
-                    }
-                }
-            }
-        });
+        taskPriorityColumn.setCellFactory(BadgeTableCell.forPriority());
 
         // Colorer les statuts
-        taskStatusColumn.setCellFactory(column -> new TableCell<Task, String>() {
-            @Override
-            protected void updateItem(String status, boolean empty) {
-                super.updateItem(status, empty);
-                if (empty || status == null) {
-                    setText(null);
-                    setStyle("");
-                } else {
-                    setText(status);
-                    switch (status) {
-                        case "TODO":
-                            setStyle("-fx-background-color: #3498db; -fx-text-fill: white;");
-                            break;
-                        case "IN_PROGRESS":
-                            setStyle("-fx-background-color: #f39c12; -fx-text-fill: white;");
-                            break;
-                        case "COMPLETED":
-                            setStyle("-fx-background-color: #2ecc71; -fx-text-fill: white;");
-                            break;
-                    }
-                }
-            }
-        });
+        taskStatusColumn.setCellFactory(BadgeTableCell.forStatus());
+    }
+
+    /**
+     * Palette de commandes : sélectionne le projet (ce qui affiche ses tâches)
+     */
+    @Override
+    public void focus(CommandKind kind, int id) {
+        if (kind == CommandKind.PROJECT) {
+            Focusable.reveal(projectsTable, project -> project.getId() == id);
+        }
     }
 
     private void loadUserProjects() {
         int userId = SessionManager.getCurrentUserId();
+        long start = System.nanoTime();
 
-        // Récupérer tous les projets où l'utilisateur a des tâches
-        var allTasks = taskDAO.findByUserId(userId);
+        // Tâches de l'utilisateur : chargées une fois, filtrées par projet à la sélection
+        userTasksSync.load();
 
-        // Extraire les IDs de projets uniques
-        var projectIds = allTasks.stream()
-                .map(Task::getProjectId)
-                .distinct()
-                .toList();
-
-        // Charger les projets correspondants
-        userProjects.clear();
-        for (Integer projectId : projectIds) {
-            Project project = projectDAO.findById(projectId);
-            if (project != null) {
-                userProjects.add(project);
-            }
-        }
+        // Projets où l'utilisateur a des tâches : une seule requête (pas un findById par projet)
+        QueryResult<List<Project>> projects = projectDAO.findByMember(userId);
+        userProjects.setAll(projects.getValue());
+        QueryStatus.show(projectsTable, projects);
+        DATA_LOAD.recordSince(start);
 
         projectsTable.setItems(userProjects);
 
@@ -199,11 +169,7 @@ public class UserProjectsController {
     private void showProjectTasks(Project project) {
         selectedProjectLabel.setText("Projet : " + project.getName() + " - Mes tâches");
 
-        int userId = SessionManager.getCurrentUserId();
-
-        // Récupérer les tâches de l'utilisateur pour ce projet
-        var allUserTasks = taskDAO.findByUserId(userId);
-        var projectTasks = allUserTasks.stream()
+        var projectTasks = userTasks.stream()
                 .filter(task -> task.getProjectId() == project.getId())
                 .toList();
 
@@ -217,8 +183,23 @@ public class UserProjectsController {
 
     @FXML
     private void refreshProjects() {
-        loadUserProjects();
-        selectedProjectLabel.setText("Sélectionnez un projet pour voir vos tâches");
+        userTasksSync.refresh();
+
+        // Projets relus seulement si l'utilisateur a gagné ou perdu un projet
+        Set<Integer> taskProjects = userTasks.stream().map(Task::getProjectId).collect(Collectors.toSet());
+        Set<Integer> shownProjects = userProjects.stream().map(Project::getId).collect(Collectors.toSet());
+        if (!taskProjects.equals(shownProjects)) {
+            // Échec (délai dépassé...) : la liste affichée reste telle quelle
+            QueryResult<List<Project>> projects = projectDAO.findByMember(SessionManager.getCurrentUserId());
+            if (projects.hasValue()) {
+                userProjects.setAll(projects.getValue());
+            }
+            QueryStatus.show(projectsTable, projects);
+        }
+
+        selectedProjectLabel.setText(userProjects.isEmpty()
+                ? "Vous n'êtes assigné à aucun projet pour le moment"
+                : "Sélectionnez un projet pour voir vos tâches");
         tasksTable.setItems(FXCollections.observableArrayList());
     }
 }
\ No newline at end of file
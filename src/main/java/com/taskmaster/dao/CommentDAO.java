@@ -1,9 +1,11 @@
 package com.taskmaster.dao;
 
 import com.taskmaster.models.Comment;
-import com.taskmaster.utils.DatabaseConnection;
+import com.taskmaster.utils.EntityEvents;
+import com.taskmaster.utils.DaoMethod;
+import com.taskmaster.utils.JdbcTemplate;
 
-import java.sql.*;
+import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -14,26 +16,59 @@ import java.util.List;
  */
 public class CommentDAO {
 
+    private static final JdbcTemplate JDBC = JdbcTemplate.DEFAULT;
+
+    // Méthodes mesurées (taskmaster_dao_call_seconds, événements Flight Recorder)
+    private static final DaoMethod CREATE = DaoMethod.of(CommentDAO.class, "create");
+    private static final DaoMethod FIND_BY_TASK_ID = DaoMethod.of(CommentDAO.class, "findByTaskId");
+    private static final DaoMethod FIND_BY_ID = DaoMethod.of(CommentDAO.class, "findById");
+    private static final DaoMethod FIND_BY_USER_ID = DaoMethod.of(CommentDAO.class, "findByUserId");
+    private static final DaoMethod DELETE = DaoMethod.of(CommentDAO.class, "delete");
+    private static final DaoMethod COUNT_BY_TASK_ID = DaoMethod.of(CommentDAO.class, "countByTaskId");
+
+    private static final String SELECT_WITH_AUTHOR =
+            "SELECT c.*, CONCAT(u.first_name, ' ', u.last_name) as author_name " +
+            "FROM comments c " +
+            "JOIN users u ON c.user_id = u.id ";
+
+    /**
+     * Commentaire avec le nom de son auteur
+     */
+    private static final JdbcTemplate.RowMapper<Comment> COMMENT_ROWS = columns -> {
+        int id = columns.index("id");
+        int taskId = columns.index("task_id");
+        int userId = columns.index("user_id");
+        int content = columns.index("content");
+        int createdAt = columns.index("created_at");
+        int authorName = columns.index("author_name");
+        return rs -> {
+            Comment comment = new Comment(
+                    rs.getInt(id),
+                    rs.getInt(taskId),
+                    rs.getInt(userId),
+                    rs.getString(content),
+                    rs.getTimestamp(createdAt).toLocalDateTime()
+            );
+            comment.setAuthorName(rs.getString(authorName));
+            return comment;
+        };
+    };
+
     /**
      * CREATE - Ajoute un commentaire à une tâche
      */
     public boolean create(Comment comment) {
         String sql = "INSERT INTO comments (task_id, user_id, content) VALUES (?, ?, ?)";
 
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-
-            stmt.setInt(1, comment.getTaskId());
-            stmt.setInt(2, comment.getUserId());
-            stmt.setString(3, comment.getContent());
+        try {
+            int id = JDBC.insert(CREATE, sql, params -> params
+                    .setInt(comment.getTaskId())
+                    .setInt(comment.getUserId())
+                    .setString(comment.getContent()));
 
-            int rows = stmt.executeUpdate();
-
-            if (rows > 0) {
-                ResultSet rs = stmt.getGeneratedKeys();
-                if (rs.next()) {
-                    comment.setId(rs.getInt(1));
-                }
+            if (id > 0) {
+                comment.setId(id);
+                EntityEvents.created(Comment.class, comment.getId(), comment);
                 return true;
             }
 
@@ -50,88 +85,46 @@ public class CommentDAO {
      * Avec le nom de l'auteur (jointure)
      */
     public List<Comment> findByTaskId(int taskId) {
-        List<Comment> comments = new ArrayList<>();
-        String sql = "SELECT c.*, CONCAT(u.first_name, ' ', u.last_name) as author_name " +
-                "FROM comments c " +
-                "JOIN users u ON c.user_id = u.id " +
+        String sql = SELECT_WITH_AUTHOR +
                 "WHERE c.task_id = ? " +
                 "ORDER BY c.created_at DESC";
 
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setInt(1, taskId);
-            ResultSet rs = stmt.executeQuery();
-
-            while (rs.next()) {
-                Comment comment = extractCommentFromResultSet(rs);
-                comment.setAuthorName(rs.getString("author_name"));
-                comments.add(comment);
-            }
-
+        try {
+            return JDBC.query(FIND_BY_TASK_ID, sql, params -> params.setInt(taskId), COMMENT_ROWS);
         } catch (SQLException e) {
             System.err.println("Erreur récupération commentaires : " + e.getMessage());
+            return new ArrayList<>();
         }
-
-        return comments;
     }
 
     /**
      * READ - Trouve un commentaire par ID
      */
     public Comment findById(int id) {
-        String sql = "SELECT c.*, CONCAT(u.first_name, ' ', u.last_name) as author_name " +
-                "FROM comments c " +
-                "JOIN users u ON c.user_id = u.id " +
-                "WHERE c.id = ?";
-
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setInt(1, id);
-            ResultSet rs = stmt.executeQuery();
-
-            if (rs.next()) {
-                Comment comment = extractCommentFromResultSet(rs);
-                comment.setAuthorName(rs.getString("author_name"));
-                return comment;
-            }
+        String sql = SELECT_WITH_AUTHOR + "WHERE c.id = ?";
 
+        try {
+            return JDBC.queryOne(FIND_BY_ID, sql, params -> params.setInt(id), COMMENT_ROWS);
         } catch (SQLException e) {
             System.err.println("Erreur : " + e.getMessage());
+            return null;
         }
-
-        return null;
     }
 
     /**
      * READ - Récupère tous les commentaires d'un utilisateur
      */
     public List<Comment> findByUserId(int userId) {
-        List<Comment> comments = new ArrayList<>();
-        String sql = "SELECT c.*, CONCAT(u.first_name, ' ', u.last_name) as author_name " +
-                "FROM comments c " +
-                "JOIN users u ON c.user_id = u.id " +
+        String sql = SELECT_WITH_AUTHOR +
                 "WHERE c.user_id = ? " +
                 "ORDER BY c.created_at DESC";
 
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setInt(1, userId);
-            ResultSet rs = stmt.executeQuery();
-
-            while (rs.next()) {
-                Comment comment = extractCommentFromResultSet(rs);
-                comment.setAuthorName(rs.getString("author_name"));
-                comments.add(comment);
-            }
-
+        try {
+            return JDBC.query(FIND_BY_USER_ID, sql, params -> params.setInt(userId), COMMENT_ROWS);
         } catch (SQLException e) {
             System.err.println("Erreur : " + e.getMessage());
+            return new ArrayList<>();
         }
-
-        return comments;
     }
 
     /**
@@ -141,11 +134,12 @@ public class CommentDAO {
     public boolean delete(int id) {
         String sql = "DELETE FROM comments WHERE id = ?";
 
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setInt(1, id);
-            return stmt.executeUpdate() > 0;
+        try {
+            if (JDBC.update(DELETE, sql, params -> params.setInt(id)) > 0) {
+                EntityEvents.deleted(Comment.class, id);
+                return true;
+            }
+            return false;
 
         } catch (SQLException e) {
             System.err.println("Erreur suppression : " + e.getMessage());
@@ -159,34 +153,12 @@ public class CommentDAO {
     public int countByTaskId(int taskId) {
         String sql = "SELECT COUNT(*) FROM comments WHERE task_id = ?";
 
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setInt(1, taskId);
-            ResultSet rs = stmt.executeQuery();
-
-            if (rs.next()) {
-                return rs.getInt(1);
-            }
-
+        try {
+            return JDBC.queryInt(COUNT_BY_TASK_ID, sql, params -> params.setInt(taskId));
         } catch (SQLException e) {
             System.err.println("Erreur : " + e.getMessage());
+            return 0;
         }
-
-        return 0;
-    }
-
-    /**
-     * Extrait un Comment depuis ResultSet
-     */
-    private Comment extractCommentFromResultSet(ResultSet rs) throws SQLException {
-        return new Comment(
-                rs.getInt("id"),
-                rs.getInt("task_id"),
-                rs.getInt("user_id"),
-                rs.getString("content"),
-                rs.getTimestamp("created_at").toLocalDateTime()
-        );
     }
 }
 
@@ -1,11 +1,23 @@
 package com.taskmaster.dao;
 
 import com.taskmaster.models.Project;
+import com.taskmaster.models.QueryResult;
+import com.taskmaster.models.UpdateResult;
+import com.taskmaster.utils.CancellableQuery;
 import com.taskmaster.utils.DatabaseConnection;
-
-import java.sql.*;
+import com.taskmaster.utils.EntityEvents;
+import com.taskmaster.utils.FullTextQuery;
+import com.taskmaster.utils.DaoMethod;
+import com.taskmaster.utils.JdbcTemplate;
+import com.taskmaster.utils.Metrics;
+import com.taskmaster.utils.OfflineStore;
+import com.taskmaster.utils.SortSpec;
+
+import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * DAO pour gérer les opérations sur la table 'projects'
@@ -14,38 +26,109 @@ import java.util.List;
  */
 public class ProjectDAO {
 
+    private static final JdbcTemplate JDBC = JdbcTemplate.DEFAULT;
+
+    // Méthodes mesurées (taskmaster_dao_call_seconds, événements Flight Recorder)
+    private static final DaoMethod CREATE = DaoMethod.of(ProjectDAO.class, "create");
+    private static final DaoMethod FIND_ALL = DaoMethod.of(ProjectDAO.class, "findAll");
+    private static final DaoMethod FIND_PAGE = DaoMethod.of(ProjectDAO.class, "findPage");
+    private static final DaoMethod FIND_BY_ID = DaoMethod.of(ProjectDAO.class, "findById");
+    private static final DaoMethod FIND_BY_IDS = DaoMethod.of(ProjectDAO.class, "findByIds");
+    private static final DaoMethod FIND_BY_MEMBER = DaoMethod.of(ProjectDAO.class, "findByMember");
+    private static final DaoMethod SEARCH = DaoMethod.of(ProjectDAO.class, "search");
+    private static final DaoMethod FIND_BY_STATUS = DaoMethod.of(ProjectDAO.class, "findByStatus");
+    private static final DaoMethod UPDATE = DaoMethod.of(ProjectDAO.class, "update");
+    private static final DaoMethod REASSIGN_CREATOR = DaoMethod.of(ProjectDAO.class, "reassignCreator");
+    private static final DaoMethod DELETE = DaoMethod.of(ProjectDAO.class, "delete");
+    private static final DaoMethod COUNT = DaoMethod.of(ProjectDAO.class, "count");
+    private static final DaoMethod COUNT_BY_STATUS = DaoMethod.of(ProjectDAO.class, "countByStatus");
+    private static final DaoMethod NAME_EXISTS = DaoMethod.of(ProjectDAO.class, "nameExists");
+
     /**
-     * CREATE - Crée un nouveau projet avec manager_id
+     * Liste blanche des tris autorisés (clé de colonne → expression SQL)
      */
-    public boolean create(Project project) {
-        String sql = "INSERT INTO projects (name, description, start_date, end_date, status, manager_id, created_by) " +
-                "VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final Map<String, String> SORT_COLUMNS = Map.of(
+            "name", "name",
+            "status", "FIELD(status, 'TODO', 'IN_PROGRESS', 'ON_HOLD', 'COMPLETED')",
+            "startDate", "start_date",
+            "endDate", "end_date",
+            "createdAt", "created_at"
+    );
 
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+    private static final String DEFAULT_ORDER = "created_at DESC, id DESC";
 
-            stmt.setString(1, project.getName());
-            stmt.setString(2, project.getDescription());
-            stmt.setDate(3, Date.valueOf(project.getStartDate()));
-            stmt.setDate(4, project.getEndDate() != null ? Date.valueOf(project.getEndDate()) : null);
-            stmt.setString(5, project.getStatus());
+    // Statut et mots trop courts pour l'index plein texte (FullTextQuery.likePattern) : NULL = pas de filtre
+    private static final String SEARCH_FILTERS =
+            "(? IS NULL OR status = ?)" +
+            " AND (? IS NULL OR name LIKE ? OR description LIKE ?)";
 
-            // Gérer manager_id (peut être null)
-            if (project.getManagerId() != null && project.getManagerId() > 0) {
-                stmt.setInt(6, project.getManagerId());
-            } else {
-                stmt.setNull(6, Types.INTEGER);
-            }
+    private static final String SEARCH_SQL = "SELECT * FROM projects" +
+            " WHERE " + SEARCH_FILTERS +
+            " ORDER BY created_at DESC";
 
-            stmt.setInt(7, project.getCreatedBy());
+    private static final String SEARCH_TEXT_SQL = "SELECT * FROM projects" +
+            " WHERE MATCH(name, description) AGAINST (? IN BOOLEAN MODE)" +
+            " AND " + SEARCH_FILTERS +
+            " ORDER BY MATCH(name, description) AGAINST (? IN BOOLEAN MODE) DESC, id DESC";
 
-            int rows = stmt.executeUpdate();
+    private static final Metrics.Counter UPDATE_CONFLICTS = Metrics.counter("taskmaster_update_conflicts_total",
+            "Mises à jour refusées : ligne modifiée entre-temps par un autre utilisateur", "entity", "project");
 
-            if (rows > 0) {
-                ResultSet rs = stmt.getGeneratedKeys();
-                if (rs.next()) {
-                    project.setId(rs.getInt(1));
-                }
+    /**
+     * Ligne de 'projects' → Project (colonnes résolues une fois par résultat)
+     */
+    private static final JdbcTemplate.RowMapper<Project> PROJECT_ROWS = columns -> {
+        int id = columns.index("id");
+        int name = columns.index("name");
+        int description = columns.index("description");
+        int startDate = columns.index("start_date");
+        int endDate = columns.index("end_date");
+        int status = columns.index("status");
+        int createdBy = columns.index("created_by");
+        int createdAt = columns.index("created_at");
+        int updatedAt = columns.index("updated_at");
+        int version = columns.index("version");
+        int managerId = columns.indexIfPresent("manager_id");   // Absente des anciens schémas
+        return rs -> {
+            Project project = new Project(
+                    rs.getInt(id),
+                    rs.getString(name),
+                    rs.getString(description),
+                    rs.getDate(startDate).toLocalDate(),
+                    JdbcTemplate.localDate(rs, endDate),
+                    rs.getString(status),
+                    rs.getInt(createdBy),
+                    rs.getTimestamp(createdAt).toLocalDateTime(),
+                    rs.getTimestamp(updatedAt).toLocalDateTime()
+            );
+            project.setVersion(rs.getInt(version));
+            if (managerId > 0) {
+                project.setManagerId(JdbcTemplate.nullableInt(rs, managerId));
+            }
+            return project;
+        };
+    };
+
+    /**
+     * CREATE - Crée un nouveau projet avec manager_id
+     */
+    public boolean create(Project project) {
+        String sql = "INSERT INTO projects (name, description, start_date, end_date, status, manager_id, created_by) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+        try {
+            int id = JDBC.insert(CREATE, sql, params -> params
+                    .setString(project.getName())
+                    .setString(project.getDescription())
+                    .setDate(project.getStartDate())
+                    .setDate(project.getEndDate())
+                    .setString(project.getStatus())
+                    .setNullableInt(managerOrNull(project))
+                    .setInt(project.getCreatedBy()));
+
+            if (id > 0) {
+                project.setId(id);
+                EntityEvents.created(Project.class, project.getId(), project);
                 return true;
             }
 
@@ -62,22 +145,50 @@ public class ProjectDAO {
      * READ - Récupère tous les projets
      */
     public List<Project> findAll() {
-        List<Project> projects = new ArrayList<>();
-        String sql = "SELECT * FROM projects ORDER BY created_at DESC";
+        return findAll(null);
+    }
 
-        try (Connection conn = DatabaseConnection.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+    /**
+     * READ - Récupère tous les projets, triés côté BDD
+     *
+     * @param sort Tri demandé par l'interface (null = plus récents d'abord)
+     */
+    public List<Project> findAll(SortSpec sort) {
+        return findAll(sort, null).getValue();
+    }
 
-            while (rs.next()) {
-                projects.add(extractProjectFromResultSet(rs));
-            }
+    /**
+     * READ - Chargement annulable (lancé en arrière-plan par l'interface)
+     *
+     * @param sort Tri demandé par l'interface (null = plus récents d'abord)
+     * @param handle Poignée d'annulation + timeout (null = ni l'un ni l'autre)
+     * @return Les projets, ou une liste vide et la cause (annulé, délai dépassé...)
+     */
+    public QueryResult<List<Project>> findAll(SortSpec sort, CancellableQuery handle) {
+        String sql = "SELECT * FROM projects" + SortSpec.orderBy(sort, SORT_COLUMNS, DEFAULT_ORDER, "id");
 
+        try {
+            return QueryResult.ok(JdbcTemplate.STREAMING.query(FIND_ALL, sql, JdbcTemplate.NO_PARAMS, PROJECT_ROWS, handle));
         } catch (SQLException e) {
             System.err.println("Erreur récupération projets : " + e.getMessage());
+            return QueryResult.failed(e, new ArrayList<>());
         }
+    }
+
+    /**
+     * READ - Une page de projets triés (ordre stable grâce au départage par id)
+     */
+    public List<Project> findPage(SortSpec sort, int offset, int limit) {
+        String sql = "SELECT * FROM projects" +
+                SortSpec.orderBy(sort, SORT_COLUMNS, DEFAULT_ORDER, "id") +
+                " LIMIT ? OFFSET ?";
 
-        return projects;
+        try {
+            return JDBC.query(FIND_PAGE, sql, params -> params.setInt(limit).setInt(offset), PROJECT_ROWS);
+        } catch (SQLException e) {
+            System.err.println("Erreur pagination projets : " + e.getMessage());
+            return new ArrayList<>();
+        }
     }
 
     /**
@@ -86,111 +197,151 @@ public class ProjectDAO {
     public Project findById(int id) {
         String sql = "SELECT * FROM projects WHERE id = ?";
 
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setInt(1, id);
-            ResultSet rs = stmt.executeQuery();
-
-            if (rs.next()) {
-                return extractProjectFromResultSet(rs);
-            }
-
+        try {
+            return JdbcTemplate.QUICK.queryOne(FIND_BY_ID, sql, params -> params.setInt(id), PROJECT_ROWS);
         } catch (SQLException e) {
             System.err.println("Erreur recherche projet : " + e.getMessage());
+            return null;
         }
-
-        return null;
     }
 
     /**
-     * READ - Recherche des projets par nom ou statut
+     * READ - Projets par identifiants (mise à jour en direct : lignes signalées par ChangeFeed)
+     *
+     * @return Les projets, ou une liste vide et la cause (voir TaskDAO.findByIds)
      */
-    public List<Project> search(String searchTerm, String status) {
-        List<Project> projects = new ArrayList<>();
-        StringBuilder sql = new StringBuilder("SELECT * FROM projects WHERE name LIKE ?");
-
-        if (status != null && !status.isEmpty() && !"ALL".equals(status)) {
-            sql.append(" AND status = ?");
+    public QueryResult<List<Project>> findByIds(Collection<Integer> ids) {
+        if (ids.isEmpty()) {
+            return QueryResult.ok(new ArrayList<>());
         }
+        String sql = "SELECT * FROM projects WHERE id IN " + JdbcTemplate.inList(ids.size());
 
-        sql.append(" ORDER BY created_at DESC");
-
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
+        try {
+            return QueryResult.ok(JDBC.query(FIND_BY_IDS, sql, params -> params.setInList(ids), PROJECT_ROWS));
+        } catch (SQLException e) {
+            System.err.println("Erreur lecture projets : " + e.getMessage());
+            return QueryResult.failed(e, new ArrayList<>());
+        }
+    }
 
-            stmt.setString(1, "%" + searchTerm + "%");
+    /**
+     * READ - Projets dans lesquels un utilisateur a au moins une tâche (USER)
+     * Une seule requête au lieu d'un findById par projet
+     *
+     * @return Les projets (STALE : copie hors ligne), ou une liste vide et la cause
+     */
+    public QueryResult<List<Project>> findByMember(int userId) {
+        String sql = "SELECT p.* FROM projects p " +
+                "WHERE EXISTS (SELECT 1 FROM tasks t WHERE t.project_id = p.id AND t.assigned_to = ?) " +
+                "ORDER BY p.name";
 
-            if (status != null && !status.isEmpty() && !"ALL".equals(status)) {
-                stmt.setString(2, status);
+        try {
+            List<Project> projects = JDBC.query(FIND_BY_MEMBER, sql, params -> params.setInt(userId), PROJECT_ROWS);
+            OfflineStore.saveProjects(userId, projects);
+            return QueryResult.ok(projects);
+        } catch (SQLException e) {
+            if (DatabaseConnection.isOffline()) {
+                return QueryResult.stale(OfflineStore.projects(userId));
             }
+            System.err.println("Erreur projets de l'utilisateur : " + e.getMessage());
+            return QueryResult.failed(e, new ArrayList<>());
+        }
+    }
 
-            ResultSet rs = stmt.executeQuery();
+    /**
+     * READ - Recherche des projets par nom / description (index FULLTEXT) ou statut
+     * Les résultats sont classés par pertinence quand un texte est saisi
+     * Deux textes SQL seulement (avec / sans texte) : statut absent = NULL (voir TaskDAO.search)
+     * Mots de moins de 3 lettres : filtre LIKE sur le nom / la description (absents de l'index)
+     */
+    public List<Project> search(String searchTerm, String status) {
+        String fullText = FullTextQuery.toBooleanMode(searchTerm);
+        String shortTerms = FullTextQuery.likePattern(searchTerm);
+        String statusFilter = status != null && !status.isEmpty() && !"ALL".equals(status) ? status : null;
 
-            while (rs.next()) {
-                projects.add(extractProjectFromResultSet(rs));
+        try {
+            if (fullText != null) {
+                return JDBC.query(SEARCH, SEARCH_TEXT_SQL, params -> params
+                        .setString(fullText)
+                        .setString(statusFilter).setString(statusFilter)
+                        .repeat(shortTerms, 3)
+                        .setString(fullText), PROJECT_ROWS);
             }
-
+            return JDBC.query(SEARCH, SEARCH_SQL, params -> params
+                    .setString(statusFilter).setString(statusFilter)
+                    .repeat(shortTerms, 3), PROJECT_ROWS);
         } catch (SQLException e) {
             System.err.println("Erreur recherche : " + e.getMessage());
+            return new ArrayList<>();
         }
-
-        return projects;
     }
 
     /**
      * READ - Obtient les projets par statut
      */
     public List<Project> findByStatus(String status) {
-        List<Project> projects = new ArrayList<>();
         String sql = "SELECT * FROM projects WHERE status = ? ORDER BY created_at DESC";
 
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setString(1, status);
-            ResultSet rs = stmt.executeQuery();
-
-            while (rs.next()) {
-                projects.add(extractProjectFromResultSet(rs));
-            }
-
+        try {
+            return JDBC.query(FIND_BY_STATUS, sql, params -> params.setString(status), PROJECT_ROWS);
         } catch (SQLException e) {
             System.err.println("Erreur : " + e.getMessage());
+            return new ArrayList<>();
         }
-
-        return projects;
     }
 
     /**
-     * UPDATE - Met à jour un projet
+     * UPDATE - Met à jour un projet, si personne ne l'a modifié depuis sa lecture
+     * (verrouillage optimiste, voir TaskDAO.update)
      */
-    public boolean update(Project project) {
+    public UpdateResult<Project> update(Project project) {
         String sql = "UPDATE projects SET name = ?, description = ?, start_date = ?, " +
-                "end_date = ?, status = ?, manager_id = ? WHERE id = ?";
-
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setString(1, project.getName());
-            stmt.setString(2, project.getDescription());
-            stmt.setDate(3, Date.valueOf(project.getStartDate()));
-            stmt.setDate(4, project.getEndDate() != null ? Date.valueOf(project.getEndDate()) : null);
-            stmt.setString(5, project.getStatus());
-
-            // Gérer manager_id
-            if (project.getManagerId() != null && project.getManagerId() > 0) {
-                stmt.setInt(6, project.getManagerId());
-            } else {
-                stmt.setNull(6, Types.INTEGER);
-            }
+                "end_date = ?, status = ?, manager_id = ? WHERE id = ? AND version = ?";
 
-            stmt.setInt(7, project.getId());
+        try {
+            int rows = JDBC.update(UPDATE, sql, params -> params
+                    .setString(project.getName())
+                    .setString(project.getDescription())
+                    .setDate(project.getStartDate())
+                    .setDate(project.getEndDate())
+                    .setString(project.getStatus())
+                    .setNullableInt(managerOrNull(project))
+                    .setInt(project.getId())
+                    .setInt(project.getVersion()));
 
-            return stmt.executeUpdate() > 0;
+            if (rows > 0) {
+                project.setVersion(project.getVersion() + 1);   // Trigger trg_projects_version
+                EntityEvents.updated(Project.class, project.getId(), project);
+                return UpdateResult.updated(project);
+            }
 
         } catch (SQLException e) {
             System.err.println("Erreur mise à jour : " + e.getMessage());
+            return UpdateResult.error();
+        }
+
+        // Version dépassée (ou projet supprimé) : état actuel, aussi envoyé aux écrans
+        Project current = findById(project.getId());
+        if (current == null) {
+            return UpdateResult.notFound();
+        }
+        UPDATE_CONFLICTS.increment();
+        EntityEvents.updated(Project.class, current.getId(), current);
+        return UpdateResult.conflict(current);
+    }
+
+    /**
+     * UPDATE - Projets créés par un utilisateur repris par un autre (avant sa suppression,
+     * dans la même UnitOfWork que UserDAO.delete)
+     */
+    public boolean reassignCreator(int fromUserId, int toUserId) {
+        String sql = "UPDATE projects SET created_by = ? WHERE created_by = ?";
+
+        try {
+            JDBC.update(REASSIGN_CREATOR, sql, params -> params.setInt(toUserId).setInt(fromUserId));
+            return true;
+        } catch (SQLException e) {
+            System.err.println("Erreur réassignation des projets : " + e.getMessage());
             return false;
         }
     }
@@ -201,11 +352,13 @@ public class ProjectDAO {
     public boolean delete(int id) {
         String sql = "DELETE FROM projects WHERE id = ?";
 
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setInt(1, id);
-            return stmt.executeUpdate() > 0;
+        try {
+            if (JDBC.update(DELETE, sql, params -> params.setInt(id)) > 0) {
+                // Les tâches supprimées en cascade : abonnés de Project (voir TaskManagementController)
+                EntityEvents.deleted(Project.class, id);
+                return true;
+            }
+            return false;
 
         } catch (SQLException e) {
             System.err.println("Erreur suppression : " + e.getMessage());
@@ -217,44 +370,28 @@ public class ProjectDAO {
      * Compte le nombre total de projets
      */
     public int count() {
-        String sql = "SELECT COUNT(*) FROM projects";
-
-        try (Connection conn = DatabaseConnection.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-
-            if (rs.next()) {
-                return rs.getInt(1);
-            }
-
+        try {
+            return JdbcTemplate.QUICK.queryInt(COUNT, "SELECT COUNT(*) FROM projects", JdbcTemplate.NO_PARAMS);
         } catch (SQLException e) {
             System.err.println("Erreur comptage : " + e.getMessage());
+            return 0;
         }
-
-        return 0;
     }
 
     /**
-     * Compte les projets par statut
+     * Compte les projets par statut (tableau de bord)
+     *
+     * @return Le nombre, ou 0 et la cause
      */
-    public int countByStatus(String status) {
+    public QueryResult<Integer> countByStatus(String status) {
         String sql = "SELECT COUNT(*) FROM projects WHERE status = ?";
 
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setString(1, status);
-            ResultSet rs = stmt.executeQuery();
-
-            if (rs.next()) {
-                return rs.getInt(1);
-            }
-
+        try {
+            return QueryResult.ok(JdbcTemplate.QUICK.queryInt(COUNT_BY_STATUS, sql, params -> params.setString(status)));
         } catch (SQLException e) {
             System.err.println("Erreur : " + e.getMessage());
+            return QueryResult.failed(e, 0);
         }
-
-        return 0;
     }
 
     /**
@@ -263,50 +400,18 @@ public class ProjectDAO {
     public boolean nameExists(String name) {
         String sql = "SELECT COUNT(*) FROM projects WHERE name = ?";
 
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setString(1, name);
-            ResultSet rs = stmt.executeQuery();
-
-            if (rs.next()) {
-                return rs.getInt(1) > 0;
-            }
-
+        try {
+            return JdbcTemplate.QUICK.queryInt(NAME_EXISTS, sql, params -> params.setString(name)) > 0;
         } catch (SQLException e) {
             System.err.println("Erreur : " + e.getMessage());
+            return false;
         }
-
-        return false;
     }
 
-    /**
-     * Extrait un Project depuis ResultSet
-     */
-    private Project extractProjectFromResultSet(ResultSet rs) throws SQLException {
-        Project project = new Project(
-                rs.getInt("id"),
-                rs.getString("name"),
-                rs.getString("description"),
-                rs.getDate("start_date").toLocalDate(),
-                rs.getDate("end_date") != null ? rs.getDate("end_date").toLocalDate() : null,
-                rs.getString("status"),
-                rs.getInt("created_by"),
-                rs.getTimestamp("created_at").toLocalDateTime(),
-                rs.getTimestamp("updated_at").toLocalDateTime()
-        );
-
-        // Ajouter manager_id si disponible
-        try {
-            int managerId = rs.getInt("manager_id");
-            if (!rs.wasNull()) {
-                project.setManagerId(managerId);
-            }
-        } catch (SQLException e) {
-            // Colonne manager_id n'existe pas dans le résultat
-        }
-
-        return project;
+    // manager_id peut être NULL (0 ou absent = pas de chef de projet)
+    private static Integer managerOrNull(Project project) {
+        Integer managerId = project.getManagerId();
+        return managerId != null && managerId > 0 ? managerId : null;
     }
 }
 
@@ -317,8 +422,8 @@ public class ProjectDAO {
  *    - Permet d'assigner un chef de projet
  *    - Peut être NULL
  *
- * 2. Date.valueOf()
- *    - Convertit LocalDate → java.sql.Date
+ * 2. params.setDate(LocalDate)
+ *    - Convertit LocalDate → java.sql.Date (null → NULL)
  *    - Nécessaire pour les requêtes SQL
  *
  * 3. Suppression en cascade
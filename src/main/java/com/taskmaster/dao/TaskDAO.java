@@ -1,11 +1,32 @@
 package com.taskmaster.dao;
 
+import com.taskmaster.models.ChangeSet;
+import com.taskmaster.models.QueryResult;
 import com.taskmaster.models.Task;
+import com.taskmaster.models.TaskSearchResult;
+import com.taskmaster.models.UpdateResult;
+import com.taskmaster.utils.CancellableQuery;
+import com.taskmaster.utils.ChangeFeed;
 import com.taskmaster.utils.DatabaseConnection;
-
-import java.sql.*;
+import com.taskmaster.utils.DirectoryIndex;
+import com.taskmaster.utils.EntityEvents;
+import com.taskmaster.utils.FullTextQuery;
+import com.taskmaster.utils.DaoMethod;
+import com.taskmaster.utils.JdbcTemplate;
+import com.taskmaster.utils.Metrics;
+import com.taskmaster.utils.OfflineJournal;
+import com.taskmaster.utils.OfflineStore;
+import com.taskmaster.utils.SortSpec;
+import com.taskmaster.utils.UnitOfWork;
+import com.taskmaster.utils.WriteBehindQueue;
+
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * DAO pour gérer les opérations sur la table 'tasks'
@@ -14,38 +35,202 @@ import java.util.List;
  */
 public class TaskDAO {
 
+    private static final JdbcTemplate JDBC = JdbcTemplate.DEFAULT;
+
+    // Méthodes mesurées (taskmaster_dao_call_seconds, événements Flight Recorder)
+    private static final DaoMethod CREATE = DaoMethod.of(TaskDAO.class, "create");
+    private static final DaoMethod FIND_ALL = DaoMethod.of(TaskDAO.class, "findAll");
+    private static final DaoMethod FIND_PAGE = DaoMethod.of(TaskDAO.class, "findPage");
+    private static final DaoMethod FIND_BY_USER_ID = DaoMethod.of(TaskDAO.class, "findByUserId");
+    private static final DaoMethod FIND_URGENT = DaoMethod.of(TaskDAO.class, "findUrgent");
+    private static final DaoMethod FIND_BY_IDS = DaoMethod.of(TaskDAO.class, "findByIds");
+    private static final DaoMethod FIND_CHANGES_SINCE = DaoMethod.of(TaskDAO.class, "findChangesSince");
+    private static final DaoMethod FIND_BY_ID = DaoMethod.of(TaskDAO.class, "findById");
+    private static final DaoMethod SEARCH = DaoMethod.of(TaskDAO.class, "search");
+    private static final DaoMethod FULL_TEXT_SEARCH = DaoMethod.of(TaskDAO.class, "fullTextSearch");
+    private static final DaoMethod FIND_BY_PROJECT_ID = DaoMethod.of(TaskDAO.class, "findByProjectId");
+    private static final DaoMethod UPDATE = DaoMethod.of(TaskDAO.class, "update");
+    private static final DaoMethod UPDATE_STATUS = DaoMethod.of(TaskDAO.class, "updateStatus");
+    private static final DaoMethod UPDATE_STATUSES = DaoMethod.of(TaskDAO.class, "updateStatuses");
+    private static final DaoMethod REPLAY = DaoMethod.of(TaskDAO.class, "replay");
+    private static final DaoMethod REASSIGN_USER = DaoMethod.of(TaskDAO.class, "reassignUser");
+    private static final DaoMethod DELETE = DaoMethod.of(TaskDAO.class, "delete");
+    private static final DaoMethod COUNT = DaoMethod.of(TaskDAO.class, "count");
+    private static final DaoMethod COUNT_BY_STATUS = DaoMethod.of(TaskDAO.class, "countByStatus");
+
     /**
-     * CREATE - Crée une nouvelle tâche
+     * Tâches avec le nom du projet et de l'assigné (LEFT JOIN : tâche non assignée gardée)
      */
-    public boolean create(Task task) {
-        String sql = "INSERT INTO tasks (title, description, project_id, assigned_to, priority, status, due_date, created_by) " +
-                "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String TASK_SELECT = "SELECT t.*, p.name as project_name, " +
+            "CONCAT(u.first_name, ' ', u.last_name) as assigned_to_name " +
+            "FROM tasks t " +
+            "JOIN projects p ON t.project_id = p.id " +
+            "LEFT JOIN users u ON t.assigned_to = u.id";
+
+    private static final String INSERT_SQL =
+            "INSERT INTO tasks (title, description, project_id, assigned_to, priority, status, due_date, created_by) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final JdbcTemplate.ItemBinder<Task> INSERT_PARAMS = (params, task) -> params
+            .setString(task.getTitle())
+            .setString(task.getDescription())
+            .setInt(task.getProjectId())
+            .setNullableInt(task.getAssignedTo())
+            .setString(task.getPriority())
+            .setString(task.getStatus())
+            .setDate(task.getDueDate())
+            .setInt(task.getCreatedBy());
 
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+    /**
+     * Ligne de TASK_SELECT → Task (colonnes résolues une fois par résultat)
+     */
+    private static final JdbcTemplate.RowMapper<Task> TASK_ROWS = columns -> {
+        int id = columns.index("id");
+        int title = columns.index("title");
+        int description = columns.index("description");
+        int projectId = columns.index("project_id");
+        int assignedTo = columns.index("assigned_to");
+        int priority = columns.index("priority");
+        int status = columns.index("status");
+        int dueDate = columns.index("due_date");
+        int createdBy = columns.index("created_by");
+        int createdAt = columns.index("created_at");
+        int updatedAt = columns.index("updated_at");
+        int version = columns.index("version");
+        int projectName = columns.index("project_name");
+        int assignedToName = columns.index("assigned_to_name");
+        return rs -> {
+            Task task = new Task(
+                    rs.getInt(id),
+                    rs.getString(title),
+                    rs.getString(description),
+                    rs.getInt(projectId),
+                    JdbcTemplate.nullableInt(rs, assignedTo),
+                    rs.getString(priority),
+                    rs.getString(status),
+                    JdbcTemplate.localDate(rs, dueDate),
+                    rs.getInt(createdBy),
+                    rs.getTimestamp(createdAt).toLocalDateTime(),
+                    rs.getTimestamp(updatedAt).toLocalDateTime()
+            );
+            task.setVersion(rs.getInt(version));
+            task.setProjectName(rs.getString(projectName));
+            task.setAssignedToName(rs.getString(assignedToName));
+            return task;
+        };
+    };
 
-            stmt.setString(1, task.getTitle());
-            stmt.setString(2, task.getDescription());
-            stmt.setInt(3, task.getProjectId());
+    /**
+     * Résultat de recherche plein texte : la tâche, son score et l'extrait de commentaire
+     */
+    private static final JdbcTemplate.RowMapper<TaskSearchResult> SEARCH_HITS = columns -> {
+        JdbcTemplate.RowReader<Task> task = TASK_ROWS.compile(columns);
+        int score = columns.index("score");
+        int snippet = columns.index("snippet");
+        return rs -> new TaskSearchResult(task.read(rs), rs.getDouble(score), rs.getString(snippet));
+    };
 
-            if (task.getAssignedTo() != null) {
-                stmt.setInt(4, task.getAssignedTo());
-            } else {
-                stmt.setNull(4, Types.INTEGER);
-            }
+    /**
+     * Liste blanche des tris autorisés (clé de colonne → expression SQL)
+     * Les priorités et statuts sont triés dans leur ordre métier, pas alphabétique
+     */
+    private static final Map<String, String> SORT_COLUMNS = Map.of(
+            "title", "t.title",
+            "project", "p.name",
+            "assigned", "assigned_to_name",
+            "priority", "FIELD(t.priority, 'LOW', 'MEDIUM', 'HIGH', 'URGENT')",
+            "status", "FIELD(t.status, 'TODO', 'IN_PROGRESS', 'COMPLETED', 'CANCELLED')",
+            "dueDate", "t.due_date",
+            "createdAt", "t.created_at"
+    );
+
+    private static final String DEFAULT_ORDER = "t.created_at DESC, t.id DESC";
 
-            stmt.setString(5, task.getPriority());
-            stmt.setString(6, task.getStatus());
-            stmt.setDate(7, task.getDueDate() != null ? Date.valueOf(task.getDueDate()) : null);
-            stmt.setInt(8, task.getCreatedBy());
+    /**
+     * Statuts écrits en différé (voir updateStatusLater) ; journal : OfflineJournal (rejeu par replay)
+     * Abandon après plusieurs échecs : les écrans reviennent à l'ancien statut (EntityEvents)
+     */
+    private static final WriteBehindQueue STATUS_WRITES = new WriteBehindQueue("task-status",
+            ChangeFeed.Entity.TASK, "status",
+            statuses -> new TaskDAO().updateStatuses(statuses),
+            dropped -> dropped.forEach(change -> EntityEvents.patched(Task.class, change.getId(),
+                    task -> task.setStatus(change.getPrevious()))));
+
+    private static final Metrics.Counter UPDATE_CONFLICTS = Metrics.counter("taskmaster_update_conflicts_total",
+            "Mises à jour refusées : ligne modifiée entre-temps par un autre utilisateur", "entity", "task");
+
+    static {
+        // Retour de la base après une coupure : écritures faites hors ligne
+        DatabaseConnection.onReconnect(() -> OfflineJournal.replay(TaskDAO::replay));
+    }
 
-            int rows = stmt.executeUpdate();
+    /**
+     * Au démarrage : écritures hors ligne et statuts différés qu'une exécution précédente
+     * n'a pas pu écrire (même journal) ; hors ligne, ils attendent le retour de la connexion
+     */
+    public static void recoverPendingWrites() {
+        if (!DatabaseConnection.isOffline()) {
+            OfflineJournal.replay(TaskDAO::replay);
+        }
+    }
 
-            if (rows > 0) {
-                ResultSet rs = stmt.getGeneratedKeys();
-                if (rs.next()) {
-                    task.setId(rs.getInt(1));
-                }
+    /**
+     * Tâches qui correspondent à une recherche plein texte (index FULLTEXT, migration V3)
+     *  - titre / description : un mot trouvé dans le titre compte triple
+     *  - commentaires : le commentaire le plus pertinent de la tâche sert d'extrait
+     *    (ROW_NUMBER : seul le premier garde son contenu, MAX(snippet) le retrouve)
+     * Chaque branche du UNION utilise son propre index ; le GROUP BY cumule les scores par tâche.
+     * Les 5 paramètres reçoivent la même expression BOOLEAN MODE (params.repeat).
+     */
+    private static final String FULLTEXT_MATCHES =
+            "SELECT task_id, SUM(score) AS score, MAX(snippet) AS snippet FROM (" +
+                    "SELECT id AS task_id, " +
+                    "MATCH(title) AGAINST (? IN BOOLEAN MODE) * 3 + MATCH(title, description) AGAINST (? IN BOOLEAN MODE) AS score, " +
+                    "NULL AS snippet " +
+                    "FROM tasks WHERE MATCH(title, description) AGAINST (? IN BOOLEAN MODE) " +
+                    "UNION ALL " +
+                    "SELECT task_id, score, " +
+                    "CASE WHEN ROW_NUMBER() OVER (PARTITION BY task_id ORDER BY score DESC, id) = 1 THEN content END " +
+                    "FROM (SELECT id, task_id, content, MATCH(content) AGAINST (? IN BOOLEAN MODE) AS score " +
+                    "FROM comments WHERE MATCH(content) AGAINST (? IN BOOLEAN MODE)) c" +
+                    ") hits GROUP BY task_id";
+
+    private static final int FULLTEXT_PARAMS = 5;
+
+    // Mots trop courts pour l'index plein texte (FullTextQuery.likePattern, NULL = aucun)
+    private static final String SHORT_TERMS_FILTER = "(? IS NULL OR t.title LIKE ? OR t.description LIKE ?)";
+
+    // Filtres de search : statut, priorité, projet, mots courts (NULL = pas de filtre)
+    private static final String SEARCH_FILTERS =
+            " WHERE (? IS NULL OR t.status = ?)" +
+            " AND (? IS NULL OR t.priority = ?)" +
+            " AND (? IS NULL OR t.project_id = ?)" +
+            " AND " + SHORT_TERMS_FILTER;
+
+    private static final String SEARCH_SQL = TASK_SELECT + SEARCH_FILTERS + " ORDER BY t.created_at DESC";
+
+    private static final String SEARCH_TEXT_SQL = TASK_SELECT +
+            " JOIN (" + FULLTEXT_MATCHES + ") m ON m.task_id = t.id" +
+            SEARCH_FILTERS + " ORDER BY m.score DESC, t.id DESC";
+
+    /**
+     * Chevauchement de la synchronisation incrémentale (secondes) :
+     * updated_at est à la seconde, et une écriture peut être validée juste après
+     * la lecture du point de synchronisation. Les lignes relues sont ignorées par DeltaSync.
+     */
+    private static final int SYNC_OVERLAP_SECONDS = 2;
+
+    /**
+     * CREATE - Crée une nouvelle tâche
+     */
+    public boolean create(Task task) {
+        try {
+            int id = JDBC.insert(CREATE, INSERT_SQL, params -> INSERT_PARAMS.bind(params, task));
+
+            if (id > 0) {
+                task.setId(id);
+                DirectoryIndex.fillNames(task);
+                EntityEvents.created(Task.class, task.getId(), task);
                 return true;
             }
 
@@ -62,236 +247,470 @@ public class TaskDAO {
      * Avec jointures pour obtenir les noms de projet et d'utilisateur
      */
     public List<Task> findAll() {
-        List<Task> tasks = new ArrayList<>();
-        String sql = "SELECT t.*, p.name as project_name, " +
-                "CONCAT(u.first_name, ' ', u.last_name) as assigned_to_name " +
-                "FROM tasks t " +
-                "JOIN projects p ON t.project_id = p.id " +
-                "LEFT JOIN users u ON t.assigned_to = u.id " +
-                "ORDER BY t.created_at DESC";
+        return findAll(null).getValue();
+    }
 
-        try (Connection conn = DatabaseConnection.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+    /**
+     * READ - Récupère toutes les tâches, triées côté BDD
+     * Table entière : lignes reçues au fil de la lecture (JdbcTemplate.STREAMING)
+     *
+     * @param sort Tri demandé par l'interface (null = plus récentes d'abord)
+     * @return Les tâches, ou une liste vide et la cause (délai dépassé, base injoignable...)
+     */
+    public QueryResult<List<Task>> findAll(SortSpec sort) {
+        return findAll(sort, null);
+    }
 
-            while (rs.next()) {
-                Task task = extractTaskFromResultSet(rs);
-                task.setProjectName(rs.getString("project_name"));
-                task.setAssignedToName(rs.getString("assigned_to_name"));
-                tasks.add(task);
-            }
+    /**
+     * READ - Chargement annulable (écran de gestion : ouverture et clic sur un en-tête,
+     * lancés en arrière-plan)
+     *
+     * @param sort Tri demandé par l'interface (null = plus récentes d'abord)
+     * @param handle Poignée d'annulation + timeout (null = ni l'un ni l'autre)
+     * @return Les tâches, ou une liste vide et la cause (annulé, délai dépassé...)
+     */
+    public QueryResult<List<Task>> findAll(SortSpec sort, CancellableQuery handle) {
+        String sql = TASK_SELECT + SortSpec.orderBy(sort, SORT_COLUMNS, DEFAULT_ORDER, "t.id");
 
+        try {
+            return QueryResult.ok(JdbcTemplate.STREAMING.query(FIND_ALL, sql, JdbcTemplate.NO_PARAMS, TASK_ROWS, handle));
         } catch (SQLException e) {
             System.err.println("Erreur récupération tâches : " + e.getMessage());
+            return QueryResult.failed(e, new ArrayList<>());
         }
+    }
+
+    /**
+     * READ - Une page de tâches triées
+     * Le tri se termine toujours par t.id : deux pages successives ne peuvent
+     * ni répéter ni sauter une ligne, même si plusieurs tâches ont la même valeur triée
+     *
+     * @param sort Tri demandé (null = tri par défaut)
+     * @param offset Index de la première ligne
+     * @param limit Nombre maximum de lignes
+     */
+    public List<Task> findPage(SortSpec sort, int offset, int limit) {
+        String sql = TASK_SELECT +
+                SortSpec.orderBy(sort, SORT_COLUMNS, DEFAULT_ORDER, "t.id") +
+                " LIMIT ? OFFSET ?";
 
-        return tasks;
+        try {
+            return JDBC.query(FIND_PAGE, sql, params -> params.setInt(limit).setInt(offset), TASK_ROWS);
+        } catch (SQLException e) {
+            System.err.println("Erreur pagination tâches : " + e.getMessage());
+            return new ArrayList<>();
+        }
     }
 
     /**
      * READ - Récupère les tâches d'un utilisateur spécifique (USER)
+     *
+     * @return Les tâches (STALE : copie hors ligne), ou une liste vide et la cause
      */
-    public List<Task> findByUserId(int userId) {
-        List<Task> tasks = new ArrayList<>();
-        String sql = "SELECT t.*, p.name as project_name, " +
-                "CONCAT(u.first_name, ' ', u.last_name) as assigned_to_name " +
-                "FROM tasks t " +
-                "JOIN projects p ON t.project_id = p.id " +
-                "LEFT JOIN users u ON t.assigned_to = u.id " +
-                "WHERE t.assigned_to = ? " +
-                "ORDER BY t.due_date ASC";
+    public QueryResult<List<Task>> findByUserId(int userId) {
+        String sql = TASK_SELECT +
+                " WHERE t.assigned_to = ?" +
+                " ORDER BY t.due_date ASC";
+
+        try (UnitOfWork work = UnitOfWork.begin(FIND_BY_USER_ID)) {
+            LocalDateTime readAt = serverNow(FIND_BY_USER_ID);
+            List<Task> tasks = JDBC.query(FIND_BY_USER_ID, sql, params -> params.setInt(userId), TASK_ROWS);
+            work.commit();
+            OfflineStore.saveTasks(userId, tasks);
+            return QueryResult.ok(tasks, readAt);
+        } catch (SQLException e) {
+            if (DatabaseConnection.isOffline()) {
+                return QueryResult.stale(OfflineStore.tasks(userId));
+            }
+            System.err.println("Erreur : " + e.getMessage());
+            return QueryResult.failed(e, new ArrayList<>());
+        }
+    }
 
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+    /**
+     * READ - Tâches urgentes non terminées (tableau de bord admin)
+     * Priorité HIGH / URGENT, statut différent de COMPLETED, plus récentes d'abord
+     * Filtré côté BDD (index idx_tasks_priority_created) au lieu de tout charger ;
+     * toutes les tâches urgentes, sans limite
+     * Heure du serveur lue dans la même transaction : point de synchronisation de DeltaSync
+     */
+    public QueryResult<List<Task>> findUrgent() {
+        String sql = TASK_SELECT +
+                " WHERE t.priority IN ('HIGH', 'URGENT') AND t.status <> 'COMPLETED'" +
+                " ORDER BY " + DEFAULT_ORDER;
+
+        try (UnitOfWork work = UnitOfWork.begin(FIND_URGENT)) {
+            LocalDateTime readAt = serverNow(FIND_URGENT);
+            List<Task> tasks = JDBC.query(FIND_URGENT, sql, JdbcTemplate.NO_PARAMS, TASK_ROWS);
+            work.commit();
+            return QueryResult.ok(tasks, readAt);
+        } catch (SQLException e) {
+            System.err.println("Erreur tâches urgentes : " + e.getMessage());
+            return QueryResult.failed(e, new ArrayList<>());
+        }
+    }
 
-            stmt.setInt(1, userId);
-            ResultSet rs = stmt.executeQuery();
+    /**
+     * READ - Tâches par identifiants (mise à jour en direct : lignes signalées par ChangeFeed)
+     * Les tâches supprimées entre-temps sont simplement absentes du résultat
+     *
+     * @return Les tâches, ou une liste vide et la cause : ChangeFeed a déjà avancé son curseur,
+     *         l'appelant recharge l'écran plutôt que de fusionner un résultat vide
+     */
+    public QueryResult<List<Task>> findByIds(Collection<Integer> ids) {
+        if (ids.isEmpty()) {
+            return QueryResult.ok(new ArrayList<>());
+        }
+        String sql = TASK_SELECT +
+                " WHERE t.id IN " + JdbcTemplate.inList(ids.size());
 
-            while (rs.next()) {
-                Task task = extractTaskFromResultSet(rs);
-                task.setProjectName(rs.getString("project_name"));
-                task.setAssignedToName(rs.getString("assigned_to_name"));
-                tasks.add(task);
-            }
+        try {
+            return QueryResult.ok(JDBC.query(FIND_BY_IDS, sql, params -> params.setInList(ids), TASK_ROWS));
+        } catch (SQLException e) {
+            System.err.println("Erreur lecture tâches : " + e.getMessage());
+            return QueryResult.failed(e, new ArrayList<>());
+        }
+    }
+
+    /**
+     * READ - Tâches modifiées et supprimées depuis un point de synchronisation (DeltaSync)
+     * Toutes les tâches, quel que soit l'écran : c'est l'écran qui garde celles qui le concernent
+     * (index idx_tasks_updated_at et table task_tombstones, migration V5)
+     * Les trois lectures partagent une connexion (UnitOfWork en lecture seule)
+     *
+     * @param since Point de synchronisation précédent (heure du serveur MySQL)
+     * @return Les modifications, ou null en cas d'erreur
+     */
+    public ChangeSet<Task> findChangesSince(LocalDateTime since) {
+        String sql = TASK_SELECT + " WHERE t.updated_at >= ?";
+        String tombstonesSql = "SELECT task_id FROM task_tombstones WHERE deleted_at >= ?";
+
+        Timestamp from = Timestamp.valueOf(since.minusSeconds(SYNC_OVERLAP_SECONDS));
+
+        try (UnitOfWork work = UnitOfWork.begin(FIND_CHANGES_SINCE)) {
+            LocalDateTime watermark = serverNow(FIND_CHANGES_SINCE);
+
+            List<Task> changed = JDBC.query(FIND_CHANGES_SINCE, sql, params -> params.setTimestamp(from), TASK_ROWS);
+            List<Integer> deletedIds = JDBC.query(FIND_CHANGES_SINCE, tombstonesSql, params -> params.setTimestamp(from),
+                    columns -> rs -> rs.getInt(1));
+
+            work.commit();
+            return new ChangeSet<>(changed, deletedIds, watermark);
 
         } catch (SQLException e) {
-            System.err.println("Erreur : " + e.getMessage());
+            System.err.println("Erreur synchronisation tâches : " + e.getMessage());
+            return null;
         }
+    }
 
-        return tasks;
+    /**
+     * Heure du serveur MySQL (point de synchronisation de DeltaSync)
+     * Lue AVANT les lignes, dans la même unité de travail : une écriture concurrente
+     * sera revue au rafraîchissement suivant (recouvrement SYNC_OVERLAP_SECONDS)
+     */
+    private static LocalDateTime serverNow(DaoMethod caller) throws SQLException {
+        return JDBC.queryOne(caller, "SELECT NOW()", JdbcTemplate.NO_PARAMS,
+                columns -> rs -> rs.getTimestamp(1).toLocalDateTime());
     }
 
     /**
      * READ - Trouve une tâche par ID
      */
     public Task findById(int id) {
-        String sql = "SELECT t.*, p.name as project_name, " +
-                "CONCAT(u.first_name, ' ', u.last_name) as assigned_to_name " +
-                "FROM tasks t " +
-                "JOIN projects p ON t.project_id = p.id " +
-                "LEFT JOIN users u ON t.assigned_to = u.id " +
-                "WHERE t.id = ?";
-
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setInt(1, id);
-            ResultSet rs = stmt.executeQuery();
-
-            if (rs.next()) {
-                Task task = extractTaskFromResultSet(rs);
-                task.setProjectName(rs.getString("project_name"));
-                task.setAssignedToName(rs.getString("assigned_to_name"));
-                return task;
-            }
+        String sql = TASK_SELECT + " WHERE t.id = ?";
 
+        try {
+            return JdbcTemplate.QUICK.queryOne(FIND_BY_ID, sql, params -> params.setInt(id), TASK_ROWS);
         } catch (SQLException e) {
             System.err.println("Erreur : " + e.getMessage());
+            return null;
         }
-
-        return null;
     }
 
     /**
      * READ - Recherche de tâches avec filtres multiples
+     * Le texte est cherché dans le titre, la description et les commentaires (index FULLTEXT) ;
+     * les résultats sont alors classés par pertinence. Les mots de moins de 3 lettres, absents
+     * de l'index, filtrent le titre / la description par LIKE (sinon "ui" renverrait tout)
+     *
+     * Deux textes SQL seulement (avec / sans texte), quels que soient les filtres choisis :
+     * un filtre absent reçoit NULL ("? IS NULL OR ..."). MySQL optimise chaque exécution
+     * avec les valeurs reçues : la condition d'un filtre absent disparaît, celle d'un filtre
+     * présent garde son index. La requête préparée est donc réutilisée (PooledConnection).
      */
     public List<Task> search(String searchTerm, String status, String priority, Integer projectId) {
-        List<Task> tasks = new ArrayList<>();
-        StringBuilder sql = new StringBuilder(
-                "SELECT t.*, p.name as project_name, " +
-                        "CONCAT(u.first_name, ' ', u.last_name) as assigned_to_name " +
-                        "FROM tasks t " +
-                        "JOIN projects p ON t.project_id = p.id " +
-                        "LEFT JOIN users u ON t.assigned_to = u.id " +
-                        "WHERE t.title LIKE ?"
-        );
-
-        if (status != null && !status.isEmpty() && !"ALL".equals(status)) {
-            sql.append(" AND t.status = ?");
-        }
-        if (priority != null && !priority.isEmpty() && !"ALL".equals(priority)) {
-            sql.append(" AND t.priority = ?");
-        }
-        if (projectId != null && projectId > 0) {
-            sql.append(" AND t.project_id = ?");
+        String fullText = FullTextQuery.toBooleanMode(searchTerm);
+        String shortTerms = FullTextQuery.likePattern(searchTerm);
+        String sql = fullText != null ? SEARCH_TEXT_SQL : SEARCH_SQL;
+        String statusFilter = status != null && !status.isEmpty() && !"ALL".equals(status) ? status : null;
+        String priorityFilter = priority != null && !priority.isEmpty() && !"ALL".equals(priority) ? priority : null;
+        Integer projectFilter = projectId != null && projectId > 0 ? projectId : null;
+
+        try {
+            return JDBC.query(SEARCH, sql, params -> {
+                if (fullText != null) {
+                    params.repeat(fullText, FULLTEXT_PARAMS);
+                }
+                params.setString(statusFilter).setString(statusFilter)
+                        .setString(priorityFilter).setString(priorityFilter)
+                        .setNullableInt(projectFilter).setNullableInt(projectFilter)
+                        .repeat(shortTerms, 3);
+            }, TASK_ROWS);
+        } catch (SQLException e) {
+            System.err.println("Erreur recherche : " + e.getMessage());
+            return new ArrayList<>();
         }
+    }
 
-        sql.append(" ORDER BY t.created_at DESC");
+    /**
+     * READ - Recherche plein texte classée par pertinence (titre, description, commentaires)
+     * "cong pay" trouve "Congés payés" (chaque mot est un préfixe obligatoire)
+     * Les mots courts de la saisie ("ui design") filtrent en plus le titre / la description (LIKE)
+     *
+     * @param searchTerm Texte saisi par l'utilisateur
+     * @param limit Nombre maximum de résultats
+     * @param handle Poignée d'annulation (null = non annulable)
+     * @return Les résultats, du plus pertinent au moins pertinent (vide si aucun mot exploitable)
+     */
+    public QueryResult<List<TaskSearchResult>> fullTextSearch(String searchTerm, int limit, CancellableQuery handle) {
+        String fullText = FullTextQuery.toBooleanMode(searchTerm);
+        if (fullText == null) {
+            return QueryResult.ok(new ArrayList<>());
+        }
+        String shortTerms = FullTextQuery.likePattern(searchTerm);
 
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
+        String sql = "SELECT t.*, p.name as project_name, " +
+                "CONCAT(u.first_name, ' ', u.last_name) as assigned_to_name, " +
+                "m.score, m.snippet " +
+                "FROM (" + FULLTEXT_MATCHES + ") m " +
+                "JOIN tasks t ON t.id = m.task_id " +
+                "JOIN projects p ON t.project_id = p.id " +
+                "LEFT JOIN users u ON t.assigned_to = u.id " +
+                "WHERE " + SHORT_TERMS_FILTER + " " +
+                "ORDER BY m.score DESC, t.id DESC " +
+                "LIMIT ?";
+
+        try {
+            return QueryResult.ok(JDBC.query(FULL_TEXT_SEARCH, sql, params -> params
+                    .repeat(fullText, FULLTEXT_PARAMS)
+                    .repeat(shortTerms, 3)
+                    .setInt(limit), SEARCH_HITS, handle));
+        } catch (SQLException e) {
+            System.err.println("Erreur recherche plein texte : " + e.getMessage());
+            return QueryResult.failed(e, new ArrayList<>());
+        }
+    }
 
-            int paramIndex = 1;
-            stmt.setString(paramIndex++, "%" + searchTerm + "%");
+    /**
+     * READ - Tâches d'un projet spécifique
+     */
+    public List<Task> findByProjectId(int projectId) {
+        String sql = TASK_SELECT +
+                " WHERE t.project_id = ?" +
+                " ORDER BY t.due_date ASC";
 
-            if (status != null && !status.isEmpty() && !"ALL".equals(status)) {
-                stmt.setString(paramIndex++, status);
-            }
-            if (priority != null && !priority.isEmpty() && !"ALL".equals(priority)) {
-                stmt.setString(paramIndex++, priority);
-            }
-            if (projectId != null && projectId > 0) {
-                stmt.setInt(paramIndex++, projectId);
-            }
+        try {
+            return JDBC.query(FIND_BY_PROJECT_ID, sql, params -> params.setInt(projectId), TASK_ROWS);
+        } catch (SQLException e) {
+            System.err.println("Erreur : " + e.getMessage());
+            return new ArrayList<>();
+        }
+    }
 
-            ResultSet rs = stmt.executeQuery();
+    /**
+     * UPDATE - Met à jour une tâche (ADMIN), si personne ne l'a modifiée depuis sa lecture
+     *
+     * Verrouillage optimiste : une seule requête "WHERE id = ? AND version = ?" ; la tâche
+     * n'est relue qu'en cas de conflit (état actuel renvoyé pour la fusion, rien n'est écrasé)
+     */
+    public UpdateResult<Task> update(Task task) {
+        String sql = "UPDATE tasks SET title = ?, description = ?, project_id = ?, assigned_to = ?, " +
+                "priority = ?, status = ?, due_date = ? WHERE id = ? AND version = ?";
+
+        try {
+            int rows = JDBC.update(UPDATE, sql, params -> params
+                    .setString(task.getTitle())
+                    .setString(task.getDescription())
+                    .setInt(task.getProjectId())
+                    .setNullableInt(task.getAssignedTo())
+                    .setString(task.getPriority())
+                    .setString(task.getStatus())
+                    .setDate(task.getDueDate())
+                    .setInt(task.getId())
+                    .setInt(task.getVersion()));
 
-            while (rs.next()) {
-                Task task = extractTaskFromResultSet(rs);
-                task.setProjectName(rs.getString("project_name"));
-                task.setAssignedToName(rs.getString("assigned_to_name"));
-                tasks.add(task);
+            if (rows > 0) {
+                task.setVersion(task.getVersion() + 1);   // Trigger trg_tasks_version
+                DirectoryIndex.fillNames(task);
+                EntityEvents.updated(Task.class, task.getId(), task);
+                return UpdateResult.updated(task);
             }
 
         } catch (SQLException e) {
-            System.err.println("Erreur recherche : " + e.getMessage());
+            System.err.println("Erreur mise à jour : " + e.getMessage());
+            return UpdateResult.error();
         }
 
-        return tasks;
+        // Version dépassée (ou tâche supprimée) : état actuel, aussi envoyé aux écrans
+        Task current = findById(task.getId());
+        if (current == null) {
+            return UpdateResult.notFound();
+        }
+        UPDATE_CONFLICTS.increment();
+        EntityEvents.updated(Task.class, current.getId(), current);
+        return UpdateResult.conflict(current);
     }
 
     /**
-     * READ - Tâches d'un projet spécifique
+     * UPDATE - Met à jour seulement le statut (USER peut faire ça)
      */
-    public List<Task> findByProjectId(int projectId) {
-        List<Task> tasks = new ArrayList<>();
-        String sql = "SELECT t.*, p.name as project_name, " +
-                "CONCAT(u.first_name, ' ', u.last_name) as assigned_to_name " +
-                "FROM tasks t " +
-                "JOIN projects p ON t.project_id = p.id " +
-                "LEFT JOIN users u ON t.assigned_to = u.id " +
-                "WHERE t.project_id = ? " +
-                "ORDER BY t.due_date ASC";
-
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setInt(1, projectId);
-            ResultSet rs = stmt.executeQuery();
+    public boolean updateStatus(int taskId, String newStatus) {
+        String sql = "UPDATE tasks SET status = ? WHERE id = ?";
 
-            while (rs.next()) {
-                Task task = extractTaskFromResultSet(rs);
-                task.setProjectName(rs.getString("project_name"));
-                task.setAssignedToName(rs.getString("assigned_to_name"));
-                tasks.add(task);
+        try {
+            if (JDBC.update(UPDATE_STATUS, sql, params -> params.setString(newStatus).setInt(taskId)) > 0) {
+                EntityEvents.patched(Task.class, taskId, task -> {
+                    task.setStatus(newStatus);
+                    task.setVersion(task.getVersion() + 1);   // Trigger trg_tasks_version
+                });
+                return true;
             }
+            return false;
 
         } catch (SQLException e) {
+            if (DatabaseConnection.isOffline()) {
+                journalStatuses(Map.of(taskId, newStatus));
+                // Version inchangée tant que rien n'est écrit (incrémentée au rejeu)
+                EntityEvents.patched(Task.class, taskId, task -> task.setStatus(newStatus));
+                return true;
+            }
             System.err.println("Erreur : " + e.getMessage());
+            return false;
         }
+    }
 
-        return tasks;
+    /**
+     * UPDATE - Statut écrit en différé (changements rapides d'un utilisateur)
+     * Les écrans sont mis à jour tout de suite (EntityEvents) ; l'écriture part en arrière-plan,
+     * regroupée avec les autres changements en attente
+     *
+     * @param previousStatus Statut affiché avant le changement (retour arrière si l'écriture échoue)
+     */
+    public void updateStatusLater(int taskId, String newStatus, String previousStatus) {
+        // Version incrémentée quand le lot est écrit (updateStatuses)
+        EntityEvents.patched(Task.class, taskId, task -> task.setStatus(newStatus));
+        STATUS_WRITES.submit(taskId, newStatus, previousStatus, OfflineStore.taskUpdatedAt(taskId));
     }
 
     /**
-     * UPDATE - Met à jour une tâche (ADMIN)
+     * File des statuts différés (reprise du journal au démarrage, échecs affichés par les écrans)
      */
-    public boolean update(Task task) {
-        String sql = "UPDATE tasks SET title = ?, description = ?, project_id = ?, assigned_to = ?, " +
-                "priority = ?, status = ?, due_date = ? WHERE id = ?";
+    public static WriteBehindQueue statusWrites() {
+        return STATUS_WRITES;
+    }
 
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+    /**
+     * UPDATE - Plusieurs statuts en une transaction (lot de la file différée)
+     * Une tâche supprimée entre-temps est ignorée
+     *
+     * @return false si rien n'a été écrit
+     */
+    public boolean updateStatuses(Map<Integer, String> statuses) {
+        String sql = "UPDATE tasks SET status = ? WHERE id = ?";
 
-            stmt.setString(1, task.getTitle());
-            stmt.setString(2, task.getDescription());
-            stmt.setInt(3, task.getProjectId());
+        try (UnitOfWork work = UnitOfWork.begin(UPDATE_STATUSES)) {
+            int[] counts = JDBC.batch(UPDATE_STATUSES, sql, statuses.entrySet(),
+                    (params, entry) -> params.setString(entry.getValue()).setInt(entry.getKey()));
 
-            if (task.getAssignedTo() != null) {
-                stmt.setInt(4, task.getAssignedTo());
-            } else {
-                stmt.setNull(4, Types.INTEGER);
+            // Statut déjà affiché (updateStatusLater) : seule la version suit le trigger trg_tasks_version
+            int i = 0;
+            for (int taskId : statuses.keySet()) {
+                if (counts[i++] != 0) {   // Statement.SUCCESS_NO_INFO (-2) : ligne écrite, nombre inconnu
+                    EntityEvents.patched(Task.class, taskId, task -> task.setVersion(task.getVersion() + 1));
+                }
             }
-
-            stmt.setString(5, task.getPriority());
-            stmt.setString(6, task.getStatus());
-            stmt.setDate(7, task.getDueDate() != null ? Date.valueOf(task.getDueDate()) : null);
-            stmt.setInt(8, task.getId());
-
-            return stmt.executeUpdate() > 0;
+            return work.commit();
 
         } catch (SQLException e) {
-            System.err.println("Erreur mise à jour : " + e.getMessage());
+            if (DatabaseConnection.isOffline()) {
+                journalStatuses(statuses);
+                return true;
+            }
+            System.err.println("Erreur mise à jour des statuts : " + e.getMessage());
             return false;
         }
     }
 
+    // Base injoignable : statuts mis dans le journal hors ligne, rejoués au retour de la connexion
+    private static void journalStatuses(Map<Integer, String> statuses) {
+        statuses.forEach((taskId, status) -> OfflineJournal.append(new OfflineJournal.Record(
+                ChangeFeed.Entity.TASK, taskId, "status", status, OfflineStore.taskUpdatedAt(taskId))));
+    }
+
     /**
-     * UPDATE - Met à jour seulement le statut (USER peut faire ça)
+     * Rejeu d'une écriture hors ligne ; conflit si la tâche a été modifiée (ou supprimée) depuis
+     * que l'utilisateur l'a vue
      */
-    public boolean updateStatus(int taskId, String newStatus) {
-        String sql = "UPDATE tasks SET status = ? WHERE id = ?";
-
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+    private static OfflineJournal.Outcome replay(OfflineJournal.Record record) throws SQLException {
+        if (record.getEntity() != ChangeFeed.Entity.TASK || !"status".equals(record.getField())) {
+            return OfflineJournal.Outcome.APPLIED;
+        }
+        boolean checked = record.getBaseUpdatedAt() >= 0;
+        String sql = "UPDATE tasks SET status = ? WHERE id = ?" + (checked ? " AND updated_at <= ?" : "");
 
-            stmt.setString(1, newStatus);
-            stmt.setInt(2, taskId);
+        int rows = JDBC.update(REPLAY, sql, params -> {
+            params.setString(record.getValue()).setInt(record.getId());
+            if (checked) {
+                params.setTimestamp(new Timestamp(record.getBaseUpdatedAt()));
+            }
+        });
+        if (rows > 0) {
+            EntityEvents.patched(Task.class, record.getId(), task -> {
+                task.setStatus(record.getValue());
+                task.setVersion(task.getVersion() + 1);   // Trigger trg_tasks_version
+            });
+            return OfflineJournal.Outcome.APPLIED;
+        }
+        return OfflineJournal.Outcome.CONFLICT;
+    }
 
-            return stmt.executeUpdate() > 0;
+    /**
+     * UPDATE - Reprend les tâches d'un utilisateur (assignées et créées) avant sa suppression
+     * À appeler dans une UnitOfWork avec UserDAO.delete : tout ou rien, un seul commit
+     * (appelée seule, elle ouvre sa propre unité)
+     */
+    public boolean reassignUser(int fromUserId, int toUserId) {
+        String idsSql = "SELECT id FROM tasks WHERE assigned_to = ? OR created_by = ? FOR UPDATE";
+        // Une seule UPDATE par ligne : le trigger trg_tasks_version l'incrémente une fois
+        String reassignSql = "UPDATE tasks SET " +
+                "assigned_to = CASE WHEN assigned_to = ? THEN ? ELSE assigned_to END, " +
+                "created_by = CASE WHEN created_by = ? THEN ? ELSE created_by END " +
+                "WHERE assigned_to = ? OR created_by = ?";
+
+        try (UnitOfWork work = UnitOfWork.begin(REASSIGN_USER)) {
+            // Tâches à signaler aux écrans (assigné ou créateur, et version, changent)
+            List<Integer> reassigned = JDBC.query(REASSIGN_USER, idsSql,
+                    params -> params.setInt(fromUserId).setInt(fromUserId), columns -> rs -> rs.getInt(1));
+
+            JDBC.update(REASSIGN_USER, reassignSql, params -> params.setInt(fromUserId).setInt(toUserId)
+                    .setInt(fromUserId).setInt(toUserId).setInt(fromUserId).setInt(fromUserId));
+
+            for (int taskId : reassigned) {
+                EntityEvents.patched(Task.class, taskId, task -> {
+                    if (task.getAssignedTo() != null && task.getAssignedTo() == fromUserId) {
+                        task.setAssignedTo(toUserId);
+                        DirectoryIndex.fillNames(task);
+                    }
+                    if (task.getCreatedBy() == fromUserId) {
+                        task.setCreatedBy(toUserId);
+                    }
+                    task.setVersion(task.getVersion() + 1);
+                });
+            }
+            return work.commit();
 
         } catch (SQLException e) {
-            System.err.println("Erreur : " + e.getMessage());
+            System.err.println("Erreur réassignation des tâches : " + e.getMessage());
             return false;
         }
     }
@@ -302,11 +721,12 @@ public class TaskDAO {
     public boolean delete(int id) {
         String sql = "DELETE FROM tasks WHERE id = ?";
 
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setInt(1, id);
-            return stmt.executeUpdate() > 0;
+        try {
+            if (JDBC.update(DELETE, sql, params -> params.setInt(id)) > 0) {
+                EntityEvents.deleted(Task.class, id);
+                return true;
+            }
+            return false;
 
         } catch (SQLException e) {
             System.err.println("Erreur suppression : " + e.getMessage());
@@ -318,63 +738,28 @@ public class TaskDAO {
      * Compte toutes les tâches
      */
     public int count() {
-        String sql = "SELECT COUNT(*) FROM tasks";
-
-        try (Connection conn = DatabaseConnection.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-
-            if (rs.next()) {
-                return rs.getInt(1);
-            }
-
+        try {
+            return JdbcTemplate.QUICK.queryInt(COUNT, "SELECT COUNT(*) FROM tasks", JdbcTemplate.NO_PARAMS);
         } catch (SQLException e) {
             System.err.println("Erreur : " + e.getMessage());
+            return 0;
         }
-
-        return 0;
     }
 
     /**
-     * Compte les tâches par statut
+     * Compte les tâches par statut (tableau de bord)
+     *
+     * @return Le nombre, ou 0 et la cause
      */
-    public int countByStatus(String status) {
+    public QueryResult<Integer> countByStatus(String status) {
         String sql = "SELECT COUNT(*) FROM tasks WHERE status = ?";
 
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setString(1, status);
-            ResultSet rs = stmt.executeQuery();
-
-            if (rs.next()) {
-                return rs.getInt(1);
-            }
-
+        try {
+            return QueryResult.ok(JdbcTemplate.QUICK.queryInt(COUNT_BY_STATUS, sql, params -> params.setString(status)));
         } catch (SQLException e) {
             System.err.println("Erreur : " + e.getMessage());
+            return QueryResult.failed(e, 0);
         }
-
-        return 0;
-    }
-
-    /**
-     * Extrait une Task depuis ResultSet
-     */
-    private Task extractTaskFromResultSet(ResultSet rs) throws SQLException {
-        return new Task(
-                rs.getInt("id"),
-                rs.getString("title"),
-                rs.getString("description"),
-                rs.getInt("project_id"),
-                (Integer) rs.getObject("assigned_to"),
-                rs.getString("priority"),
-                rs.getString("status"),
-                rs.getDate("due_date") != null ? rs.getDate("due_date").toLocalDate() : null,
-                rs.getInt("created_by"),
-                rs.getTimestamp("created_at").toLocalDateTime(),
-                rs.getTimestamp("updated_at").toLocalDateTime()
-        );
     }
 }
 
@@ -388,9 +773,14 @@ public class TaskDAO {
  *
  * 2. assigned_to NULL
  *    - Une tâche peut ne pas être assignée
- *    - stmt.setNull(4, Types.INTEGER) pour insérer NULL
+ *    - params.setNullableInt(task.getAssignedTo()) : null → NULL
  *
  * 3. Recherche multi-critères
- *    - Permet de combiner : titre + statut + priorité + projet
+ *    - Permet de combiner : texte + statut + priorité + projet
  *    - Utile pour les filtres complexes dans l'interface
+ *
+ * 4. Recherche plein texte
+ *    - MATCH ... AGAINST au lieu de LIKE '%terme%' (qui lit toute la table)
+ *    - Index FULLTEXT : tasks(title), tasks(title, description), comments(content)
+ *    - Mots de moins de 3 lettres ignorés par InnoDB (innodb_ft_min_token_size)
  */
\ No newline at end of file
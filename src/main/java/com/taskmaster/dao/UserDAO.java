@@ -1,12 +1,19 @@
 package com.taskmaster.dao;
 
+import com.taskmaster.models.QueryResult;
 import com.taskmaster.models.User;
-import com.taskmaster.utils.DatabaseConnection;
+import com.taskmaster.utils.CancellableQuery;
+import com.taskmaster.utils.EntityEvents;
+import com.taskmaster.utils.DaoMethod;
+import com.taskmaster.utils.JdbcTemplate;
 import com.taskmaster.utils.PasswordHasher;
+import com.taskmaster.utils.SortSpec;
 
-import java.sql.*;
+import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * DAO pour gérer les opérations sur la table 'users'
@@ -15,6 +22,66 @@ import java.util.List;
  */
 public class UserDAO {
 
+    private static final JdbcTemplate JDBC = JdbcTemplate.DEFAULT;
+
+    // Méthodes mesurées (taskmaster_dao_call_seconds, événements Flight Recorder)
+    private static final DaoMethod AUTHENTICATE = DaoMethod.of(UserDAO.class, "authenticate");
+    private static final DaoMethod CREATE = DaoMethod.of(UserDAO.class, "create");
+    private static final DaoMethod FIND_ALL = DaoMethod.of(UserDAO.class, "findAll");
+    private static final DaoMethod FIND_PAGE = DaoMethod.of(UserDAO.class, "findPage");
+    private static final DaoMethod FIND_BY_ID = DaoMethod.of(UserDAO.class, "findById");
+    private static final DaoMethod FIND_BY_IDS = DaoMethod.of(UserDAO.class, "findByIds");
+    private static final DaoMethod FIND_BY_USERNAME = DaoMethod.of(UserDAO.class, "findByUsername");
+    private static final DaoMethod SEARCH = DaoMethod.of(UserDAO.class, "search");
+    private static final DaoMethod UPDATE = DaoMethod.of(UserDAO.class, "update");
+    private static final DaoMethod UPDATE_PASSWORD = DaoMethod.of(UserDAO.class, "updatePassword");
+    private static final DaoMethod DELETE = DaoMethod.of(UserDAO.class, "delete");
+    private static final DaoMethod COUNT = DaoMethod.of(UserDAO.class, "count");
+    private static final DaoMethod EMAIL_EXISTS = DaoMethod.of(UserDAO.class, "emailExists");
+    private static final DaoMethod USERNAME_EXISTS = DaoMethod.of(UserDAO.class, "usernameExists");
+
+    /**
+     * Liste blanche des tris autorisés (clé de colonne → expression SQL)
+     */
+    private static final Map<String, String> SORT_COLUMNS = Map.of(
+            "username", "username",
+            "name", "CONCAT(first_name, ' ', last_name)",
+            "email", "email",
+            "role", "role",
+            "active", "is_active",
+            "createdAt", "created_at"
+    );
+
+    private static final String DEFAULT_ORDER = "created_at DESC, id DESC";
+
+    /**
+     * UTILITAIRE - Ligne de 'users' → User (colonnes résolues une fois par résultat)
+     */
+    private static final JdbcTemplate.RowMapper<User> USER_ROWS = columns -> {
+        int id = columns.index("id");
+        int firstName = columns.index("first_name");
+        int lastName = columns.index("last_name");
+        int email = columns.index("email");
+        int username = columns.index("username");
+        int password = columns.index("password");
+        int role = columns.index("role");
+        int active = columns.index("is_active");
+        int createdAt = columns.index("created_at");
+        int updatedAt = columns.index("updated_at");
+        return rs -> new User(
+                rs.getInt(id),
+                rs.getString(firstName),
+                rs.getString(lastName),
+                rs.getString(email),
+                rs.getString(username),
+                rs.getString(password),
+                rs.getString(role),
+                rs.getBoolean(active),
+                rs.getTimestamp(createdAt).toLocalDateTime(),
+                rs.getTimestamp(updatedAt).toLocalDateTime()
+        );
+    };
+
     /**
      * AUTHENTIFICATION - Vérifie les credentials et retourne l'utilisateur
      * Utilisé dans LoginController (Dylan)
@@ -30,19 +97,14 @@ public class UserDAO {
 
         String sql = "SELECT * FROM users WHERE username = ? AND is_active = TRUE";
 
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            System.out.println("✅ Connexion BDD établie");
-
-            stmt.setString(1, username);
-            ResultSet rs = stmt.executeQuery();
+        try {
+            User user = JDBC.queryOne(AUTHENTICATE, sql, params -> params.setString(username), USER_ROWS);
 
-            if (rs.next()) {
+            if (user != null) {
                 System.out.println("✅ Utilisateur trouvé dans la BDD");
 
                 // Utilisateur trouvé, vérifier le mot de passe
-                String hashedPassword = rs.getString("password");
+                String hashedPassword = user.getPassword();
                 System.out.println("🔐 Hash BDD COMPLET : " + hashedPassword);
                 System.out.println("🔐 Longueur du hash : " + hashedPassword.length());
 
@@ -51,8 +113,7 @@ public class UserDAO {
 
                 if (passwordMatch) {
                     System.out.println("✅✅✅ AUTHENTIFICATION RÉUSSIE ✅✅✅");
-                    // Mot de passe correct, créer l'objet User
-                    return extractUserFromResultSet(rs);
+                    return user;
                 } else {
                     System.out.println("❌ Mot de passe incorrect");
                 }
@@ -80,24 +141,18 @@ public class UserDAO {
         String sql = "INSERT INTO users (first_name, last_name, email, username, password, role) " +
                 "VALUES (?, ?, ?, ?, ?, ?)";
 
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-
-            stmt.setString(1, user.getFirstName());
-            stmt.setString(2, user.getLastName());
-            stmt.setString(3, user.getEmail());
-            stmt.setString(4, user.getUsername());
-            stmt.setString(5, user.getPassword());  // Doit déjà être hashé !
-            stmt.setString(6, user.getRole());
-
-            int rowsAffected = stmt.executeUpdate();
-
-            if (rowsAffected > 0) {
-                // Récupérer l'ID généré
-                ResultSet rs = stmt.getGeneratedKeys();
-                if (rs.next()) {
-                    user.setId(rs.getInt(1));
-                }
+        try {
+            int id = JDBC.insert(CREATE, sql, params -> params
+                    .setString(user.getFirstName())
+                    .setString(user.getLastName())
+                    .setString(user.getEmail())
+                    .setString(user.getUsername())
+                    .setString(user.getPassword())  // Doit déjà être hashé !
+                    .setString(user.getRole()));
+
+            if (id > 0) {
+                user.setId(id);
+                EntityEvents.created(User.class, user.getId(), user);
                 return true;
             }
 
@@ -115,22 +170,56 @@ public class UserDAO {
      * @return Liste de tous les utilisateurs
      */
     public List<User> findAll() {
-        List<User> users = new ArrayList<>();
-        String sql = "SELECT * FROM users ORDER BY created_at DESC";
+        return findAll(null);
+    }
 
-        try (Connection conn = DatabaseConnection.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+    /**
+     * READ - Récupère tous les utilisateurs, triés côté BDD
+     *
+     * @param sort Tri demandé par l'interface (null = plus récents d'abord)
+     * @return Liste de tous les utilisateurs
+     */
+    public List<User> findAll(SortSpec sort) {
+        return findAll(sort, null).getValue();
+    }
 
-            while (rs.next()) {
-                users.add(extractUserFromResultSet(rs));
-            }
+    /**
+     * READ - Chargement annulable (lancé en arrière-plan par l'interface)
+     *
+     * @param sort Tri demandé par l'interface (null = plus récents d'abord)
+     * @param handle Poignée d'annulation + timeout (null = ni l'un ni l'autre)
+     * @return Liste de tous les utilisateurs, ou liste vide et la cause (annulé, délai dépassé...)
+     */
+    public QueryResult<List<User>> findAll(SortSpec sort, CancellableQuery handle) {
+        String sql = "SELECT * FROM users" + SortSpec.orderBy(sort, SORT_COLUMNS, DEFAULT_ORDER, "id");
 
+        try {
+            return QueryResult.ok(JdbcTemplate.STREAMING.query(FIND_ALL, sql, JdbcTemplate.NO_PARAMS, USER_ROWS, handle));
         } catch (SQLException e) {
             System.err.println("Erreur lors de la récupération des utilisateurs : " + e.getMessage());
+            return QueryResult.failed(e, new ArrayList<>());
         }
+    }
+
+    /**
+     * READ - Une page d'utilisateurs triés (ordre stable grâce au départage par id)
+     *
+     * @param sort Tri demandé (null = tri par défaut)
+     * @param offset Index de la première ligne
+     * @param limit Nombre maximum de lignes
+     * @return La page demandée
+     */
+    public List<User> findPage(SortSpec sort, int offset, int limit) {
+        String sql = "SELECT * FROM users" +
+                SortSpec.orderBy(sort, SORT_COLUMNS, DEFAULT_ORDER, "id") +
+                " LIMIT ? OFFSET ?";
 
-        return users;
+        try {
+            return JDBC.query(FIND_PAGE, sql, params -> params.setInt(limit).setInt(offset), USER_ROWS);
+        } catch (SQLException e) {
+            System.err.println("Erreur lors de la pagination des utilisateurs : " + e.getMessage());
+            return new ArrayList<>();
+        }
     }
 
     /**
@@ -142,21 +231,31 @@ public class UserDAO {
     public User findById(int id) {
         String sql = "SELECT * FROM users WHERE id = ?";
 
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setInt(1, id);
-            ResultSet rs = stmt.executeQuery();
-
-            if (rs.next()) {
-                return extractUserFromResultSet(rs);
-            }
-
+        try {
+            return JdbcTemplate.QUICK.queryOne(FIND_BY_ID, sql, params -> params.setInt(id), USER_ROWS);
         } catch (SQLException e) {
             System.err.println("Erreur lors de la recherche de l'utilisateur : " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * READ - Utilisateurs par identifiants (mise à jour en direct : lignes signalées par ChangeFeed)
+     *
+     * @return Les utilisateurs, ou une liste vide et la cause (voir TaskDAO.findByIds)
+     */
+    public QueryResult<List<User>> findByIds(Collection<Integer> ids) {
+        if (ids.isEmpty()) {
+            return QueryResult.ok(new ArrayList<>());
         }
+        String sql = "SELECT * FROM users WHERE id IN " + JdbcTemplate.inList(ids.size());
 
-        return null;
+        try {
+            return QueryResult.ok(JDBC.query(FIND_BY_IDS, sql, params -> params.setInList(ids), USER_ROWS));
+        } catch (SQLException e) {
+            System.err.println("Erreur lors de la lecture des utilisateurs : " + e.getMessage());
+            return QueryResult.failed(e, new ArrayList<>());
+        }
     }
 
     /**
@@ -168,21 +267,12 @@ public class UserDAO {
     public User findByUsername(String username) {
         String sql = "SELECT * FROM users WHERE username = ?";
 
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setString(1, username);
-            ResultSet rs = stmt.executeQuery();
-
-            if (rs.next()) {
-                return extractUserFromResultSet(rs);
-            }
-
+        try {
+            return JDBC.queryOne(FIND_BY_USERNAME, sql, params -> params.setString(username), USER_ROWS);
         } catch (SQLException e) {
             System.err.println("Erreur lors de la recherche : " + e.getMessage());
+            return null;
         }
-
-        return null;
     }
 
     /**
@@ -193,42 +283,46 @@ public class UserDAO {
      * @return Liste des utilisateurs correspondants
      */
     public List<User> search(String searchTerm, String role) {
-        List<User> users = new ArrayList<>();
-        StringBuilder sql = new StringBuilder(
-                "SELECT * FROM users WHERE " +
-                        "(first_name LIKE ? OR last_name LIKE ? OR email LIKE ? OR username LIKE ?)"
-        );
-
-        if (role != null && !role.isEmpty()) {
-            sql.append(" AND role = ?");
-        }
-
-        sql.append(" ORDER BY created_at DESC");
-
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
-
-            String searchPattern = "%" + searchTerm + "%";
-            stmt.setString(1, searchPattern);
-            stmt.setString(2, searchPattern);
-            stmt.setString(3, searchPattern);
-            stmt.setString(4, searchPattern);
-
-            if (role != null && !role.isEmpty()) {
-                stmt.setString(5, role);
-            }
-
-            ResultSet rs = stmt.executeQuery();
+        return search(searchTerm, role, null);
+    }
 
-            while (rs.next()) {
-                users.add(extractUserFromResultSet(rs));
-            }
+    /**
+     * READ - Recherche des utilisateurs, triés côté BDD
+     *
+     * @param searchTerm Terme de recherche (nom, email, username)
+     * @param role Rôle à filtrer (null = tous)
+     * @param sort Tri demandé (null = plus récents d'abord)
+     * @return Liste des utilisateurs correspondants
+     */
+    public List<User> search(String searchTerm, String role, SortSpec sort) {
+        return search(searchTerm, role, sort, null).getValue();
+    }
 
+    /**
+     * READ - Recherche annulable (lancée en arrière-plan par l'interface)
+     *
+     * @param searchTerm Terme de recherche (nom, email, username)
+     * @param role Rôle à filtrer (null = tous)
+     * @param sort Tri demandé (null = plus récents d'abord)
+     * @param handle Poignée d'annulation + timeout (null = ni l'un ni l'autre)
+     * @return Liste des utilisateurs correspondants, ou liste vide et la cause (annulée...)
+     */
+    public QueryResult<List<User>> search(String searchTerm, String role, SortSpec sort, CancellableQuery handle) {
+        // Un texte SQL par tri (liste blanche) : rôle absent = NULL (voir TaskDAO.search)
+        String sql = "SELECT * FROM users WHERE " +
+                "(first_name LIKE ? OR last_name LIKE ? OR email LIKE ? OR username LIKE ?)" +
+                " AND (? IS NULL OR role = ?)" +
+                SortSpec.orderBy(sort, SORT_COLUMNS, DEFAULT_ORDER, "id");
+        String roleFilter = role != null && !role.isEmpty() ? role : null;
+
+        try {
+            return QueryResult.ok(JDBC.query(SEARCH, sql, params -> params
+                    .repeat("%" + searchTerm + "%", 4)
+                    .setString(roleFilter).setString(roleFilter), USER_ROWS, handle));
         } catch (SQLException e) {
             System.err.println("Erreur lors de la recherche : " + e.getMessage());
+            return QueryResult.failed(e, new ArrayList<>());
         }
-
-        return users;
     }
 
     /**
@@ -241,18 +335,21 @@ public class UserDAO {
         String sql = "UPDATE users SET first_name = ?, last_name = ?, email = ?, " +
                 "username = ?, role = ?, is_active = ? WHERE id = ?";
 
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setString(1, user.getFirstName());
-            stmt.setString(2, user.getLastName());
-            stmt.setString(3, user.getEmail());
-            stmt.setString(4, user.getUsername());
-            stmt.setString(5, user.getRole());
-            stmt.setBoolean(6, user.isActive());
-            stmt.setInt(7, user.getId());
-
-            return stmt.executeUpdate() > 0;
+        try {
+            int rows = JDBC.update(UPDATE, sql, params -> params
+                    .setString(user.getFirstName())
+                    .setString(user.getLastName())
+                    .setString(user.getEmail())
+                    .setString(user.getUsername())
+                    .setString(user.getRole())
+                    .setBoolean(user.isActive())
+                    .setInt(user.getId()));
+
+            if (rows > 0) {
+                EntityEvents.updated(User.class, user.getId(), user);
+                return true;
+            }
+            return false;
 
         } catch (SQLException e) {
             System.err.println("Erreur lors de la mise à jour : " + e.getMessage());
@@ -270,14 +367,8 @@ public class UserDAO {
     public boolean updatePassword(int userId, String newPassword) {
         String sql = "UPDATE users SET password = ? WHERE id = ?";
 
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setString(1, newPassword);
-            stmt.setInt(2, userId);
-
-            return stmt.executeUpdate() > 0;
-
+        try {
+            return JDBC.update(UPDATE_PASSWORD, sql, params -> params.setString(newPassword).setInt(userId)) > 0;
         } catch (SQLException e) {
             System.err.println("Erreur lors du changement de mot de passe : " + e.getMessage());
             return false;
@@ -293,11 +384,12 @@ public class UserDAO {
     public boolean delete(int id) {
         String sql = "DELETE FROM users WHERE id = ?";
 
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setInt(1, id);
-            return stmt.executeUpdate() > 0;
+        try {
+            if (JDBC.update(DELETE, sql, params -> params.setInt(id)) > 0) {
+                EntityEvents.deleted(User.class, id);
+                return true;
+            }
+            return false;
 
         } catch (SQLException e) {
             System.err.println("Erreur lors de la suppression : " + e.getMessage());
@@ -306,24 +398,17 @@ public class UserDAO {
     }
 
     /**
-     * Compte le nombre total d'utilisateurs
+     * Compte le nombre total d'utilisateurs (tableau de bord)
+     *
+     * @return Le nombre, ou 0 et la cause (un échec n'est pas "aucun utilisateur")
      */
-    public int count() {
-        String sql = "SELECT COUNT(*) FROM users";
-
-        try (Connection conn = DatabaseConnection.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-
-            if (rs.next()) {
-                return rs.getInt(1);
-            }
-
+    public QueryResult<Integer> count() {
+        try {
+            return QueryResult.ok(JdbcTemplate.QUICK.queryInt(COUNT, "SELECT COUNT(*) FROM users", JdbcTemplate.NO_PARAMS));
         } catch (SQLException e) {
             System.err.println("Erreur lors du comptage : " + e.getMessage());
+            return QueryResult.failed(e, 0);
         }
-
-        return 0;
     }
 
     /**
@@ -332,21 +417,12 @@ public class UserDAO {
     public boolean emailExists(String email) {
         String sql = "SELECT COUNT(*) FROM users WHERE email = ?";
 
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setString(1, email);
-            ResultSet rs = stmt.executeQuery();
-
-            if (rs.next()) {
-                return rs.getInt(1) > 0;
-            }
-
+        try {
+            return JdbcTemplate.QUICK.queryInt(EMAIL_EXISTS, sql, params -> params.setString(email)) > 0;
         } catch (SQLException e) {
             System.err.println("Erreur : " + e.getMessage());
+            return false;
         }
-
-        return false;
     }
 
     /**
@@ -355,40 +431,12 @@ public class UserDAO {
     public boolean usernameExists(String username) {
         String sql = "SELECT COUNT(*) FROM users WHERE username = ?";
 
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setString(1, username);
-            ResultSet rs = stmt.executeQuery();
-
-            if (rs.next()) {
-                return rs.getInt(1) > 0;
-            }
-
+        try {
+            return JdbcTemplate.QUICK.queryInt(USERNAME_EXISTS, sql, params -> params.setString(username)) > 0;
         } catch (SQLException e) {
             System.err.println("Erreur : " + e.getMessage());
+            return false;
         }
-
-        return false;
-    }
-
-    /**
-     * UTILITAIRE - Extrait un User depuis un ResultSet
-     * Évite la duplication de code
-     */
-    private User extractUserFromResultSet(ResultSet rs) throws SQLException {
-        return new User(
-                rs.getInt("id"),
-                rs.getString("first_name"),
-                rs.getString("last_name"),
-                rs.getString("email"),
-                rs.getString("username"),
-                rs.getString("password"),
-                rs.getString("role"),
-                rs.getBoolean("is_active"),
-                rs.getTimestamp("created_at").toLocalDateTime(),
-                rs.getTimestamp("updated_at").toLocalDateTime()
-        );
     }
 }
 
@@ -406,12 +454,12 @@ public class UserDAO {
  *    - stmt.setString(1, username) → Sécurisé
  *    - "SELECT * FROM users WHERE username = '" + username + "'" → DANGER !
  *
- * 3. TRY-WITH-RESOURCES
- *    try (Connection conn = ...; PreparedStatement stmt = ...) {
- *        // Code
- *    }
- *    → Ferme automatiquement conn et stmt à la fin
- *    → Évite les fuites mémoire
+ * 3. JDBCTEMPLATE
+ *    JDBC.query(FIND_BY_USERNAME, sql, params -> params.setString(username), USER_ROWS)
+ *    → FIND_BY_USERNAME : méthode mesurée (DaoMethod, une constante par méthode)
+ *    → Connexion, PreparedStatement et ResultSet fermés par le template
+ *    → Paramètres liés dans l'ordre des "?" (params.setString(...).setInt(...))
+ *    → USER_ROWS : colonnes résolues une fois par résultat, puis lecture par index
  *
  * 4. UTILISATION TYPIQUE
  *
@@ -430,7 +478,7 @@ public class UserDAO {
  *    List<User> users = userDAO.findAll();
  *    List<User> admins = userDAO.search("", "ADMIN");
  *
- * 5. STATEMENT.RETURN_GENERATED_KEYS
- *    - Récupère l'ID auto-généré par MySQL
+ * 5. JDBC.insert(...)
+ *    - Renvoie l'ID auto-généré par MySQL (RETURN_GENERATED_KEYS)
  *    - Permet de connaître l'ID du nouvel utilisateur créé
  */
\ No newline at end of file
@@ -0,0 +1,42 @@
+package com.taskmaster.models;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Modifications d'une table depuis un point de synchronisation
+ *
+ * Pas une table : construit par TaskDAO.findChangesSince(), appliqué par DeltaSync
+ */
+public class ChangeSet<T> {
+
+    private final List<T> changed;          // Lignes créées ou modifiées (état actuel)
+    private final List<Integer> deletedIds; // Lignes supprimées (tombstones)
+    private final LocalDateTime watermark;  // Heure du serveur MySQL : prochain point de synchronisation
+
+    public ChangeSet(List<T> changed, List<Integer> deletedIds, LocalDateTime watermark) {
+        this.changed = changed;
+        this.deletedIds = deletedIds;
+        this.watermark = watermark;
+    }
+
+    public List<T> getChanged() {
+        return changed;
+    }
+
+    public List<Integer> getDeletedIds() {
+        return deletedIds;
+    }
+
+    public LocalDateTime getWatermark() {
+        return watermark;
+    }
+
+    public boolean isEmpty() {
+        return changed.isEmpty() && deletedIds.isEmpty();
+    }
+
+    public int size() {
+        return changed.size() + deletedIds.size();
+    }
+}
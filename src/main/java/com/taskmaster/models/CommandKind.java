@@ -0,0 +1,27 @@
+package com.taskmaster.models;
+
+/**
+ * Type d'une entrée de la palette de commandes (Ctrl+K) : icône et libellé affichés
+ */
+public enum CommandKind {
+    VIEW("🧭", "Écran"),
+    TASK("📋", "Tâche"),
+    PROJECT("📁", "Projet"),
+    USER("👤", "Utilisateur");
+
+    private final String icon;
+    private final String label;
+
+    CommandKind(String icon, String label) {
+        this.icon = icon;
+        this.label = label;
+    }
+
+    public String getIcon() {
+        return icon;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+}
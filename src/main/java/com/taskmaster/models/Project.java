@@ -1,5 +1,6 @@
 package com.taskmaster.models;
 
+import java.io.Serializable;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
@@ -8,7 +9,10 @@ import java.time.LocalDateTime;
  *
  * RESPONSABLE : René Michel
  */
-public class Project {
+public class Project implements Serializable {
+
+    // Copie locale pour le mode hors ligne (OfflineStore)
+    private static final long serialVersionUID = 1L;
 
     private int id;
     private String name;
@@ -20,6 +24,7 @@ public class Project {
     private int createdBy;  // ID de l'utilisateur créateur
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    private int version;  // Verrouillage optimiste : incrémentée à chaque écriture (trigger)
 
     // ===== CONSTRUCTEURS =====
 
@@ -42,6 +47,16 @@ public class Project {
         this.updatedAt = updatedAt;
     }
 
+    /**
+     * Constructeur de copie (formulaire d'édition, fusion après conflit)
+     */
+    public Project(Project other) {
+        this(other.id, other.name, other.description, other.startDate, other.endDate, other.status,
+                other.createdBy, other.createdAt, other.updatedAt);
+        this.managerId = other.managerId;
+        this.version = other.version;
+    }
+
     /**
      * Constructeur pour créer un nouveau projet
      */
@@ -137,6 +152,14 @@ public class Project {
         this.updatedAt = updatedAt;
     }
 
+    public int getVersion() {
+        return version;
+    }
+
+    public void setVersion(int version) {
+        this.version = version;
+    }
+
     // ===== MÉTHODES UTILES =====
 
     /**
@@ -0,0 +1,125 @@
+package com.taskmaster.models;
+
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.time.LocalDateTime;
+
+/**
+ * Résultat d'une lecture d'écran : les données, ou la raison pour laquelle il n'y en a pas
+ *
+ * Pas une table : renvoyé par les lectures des DAO qui remplissent un écran
+ * (TaskDAO.findAll, ProjectDAO.findByMember, UserDAO.search...)
+ *  - OK          : lecture réussie (getValue() peut être une liste vide : rien ne correspond)
+ *  - STALE       : base injoignable, copie hors ligne de la dernière lecture (OfflineStore)
+ *  - TIMED_OUT   : délai maximal dépassé (base très sollicitée, verrou)
+ *  - CANCELLED   : annulée (recherche plus récente, écran fermé) : rien à afficher
+ *  - UNAVAILABLE : base injoignable, pas de copie hors ligne
+ *  - FAILED      : autre erreur SQL (déjà journalisée)
+ * En cas d'échec, getValue() donne une valeur de repli (liste vide) : jamais null pour une liste.
+ */
+public class QueryResult<T> {
+
+    public enum Status { OK, STALE, TIMED_OUT, CANCELLED, UNAVAILABLE, FAILED }
+
+    private final Status status;
+    private final T value;
+    private final String error;   // Message SQL d'origine (null si OK / STALE)
+    private final LocalDateTime readAt;   // Heure du serveur MySQL à la lecture (null si non demandée)
+
+    private QueryResult(Status status, T value, String error, LocalDateTime readAt) {
+        this.status = status;
+        this.value = value;
+        this.error = error;
+        this.readAt = readAt;
+    }
+
+    public static <T> QueryResult<T> ok(T value) {
+        return new QueryResult<>(Status.OK, value, null, null);
+    }
+
+    /**
+     * Lecture suivie par DeltaSync
+     *
+     * @param readAt Heure du serveur lue juste avant les lignes (point de synchronisation)
+     */
+    public static <T> QueryResult<T> ok(T value, LocalDateTime readAt) {
+        return new QueryResult<>(Status.OK, value, null, readAt);
+    }
+
+    public static <T> QueryResult<T> stale(T value) {
+        return new QueryResult<>(Status.STALE, value, null, null);
+    }
+
+    /**
+     * Échec d'une lecture, classé d'après l'exception
+     *
+     * @param fallback Valeur de repli (ex : liste vide)
+     */
+    public static <T> QueryResult<T> failed(SQLException e, T fallback) {
+        return new QueryResult<>(statusOf(e), fallback, e.getMessage(), null);
+    }
+
+    /**
+     * 70100 / 1317 : requête interrompue (Statement.cancel, voir CancellableQuery)
+     * 08xxx : connexion impossible ou perdue
+     */
+    public static Status statusOf(SQLException e) {
+        String state = e.getSQLState() != null ? e.getSQLState() : "";
+        if ("70100".equals(state) || e.getErrorCode() == 1317) {
+            return Status.CANCELLED;
+        }
+        if (e instanceof SQLTimeoutException || e.getErrorCode() == 3024) {
+            return Status.TIMED_OUT;   // 3024 : max_execution_time dépassé côté serveur
+        }
+        if (state.startsWith("08")) {
+            return Status.UNAVAILABLE;
+        }
+        return Status.FAILED;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public T getValue() {
+        return value;
+    }
+
+    /**
+     * Heure du serveur MySQL à la lecture (null : lecture sans point de synchronisation)
+     */
+    public LocalDateTime getReadAt() {
+        return readAt;
+    }
+
+    /**
+     * Données à afficher (OK ou copie hors ligne)
+     */
+    public boolean hasValue() {
+        return status == Status.OK || status == Status.STALE;
+    }
+
+    public boolean isCancelled() {
+        return status == Status.CANCELLED;
+    }
+
+    /**
+     * Message pour l'utilisateur (null si OK)
+     */
+    public String getMessage() {
+        switch (status) {
+            case STALE:
+                return "Hors ligne : données de la dernière connexion";
+            case TIMED_OUT:
+                return "Chargement trop long : la base de données est très sollicitée, réessayez";
+            case CANCELLED:
+                return "Chargement annulé";
+            case UNAVAILABLE:
+                return "Base de données injoignable";
+            case FAILED:
+                return "Erreur de chargement : " + error;
+            default:
+                return null;
+        }
+    }
+}
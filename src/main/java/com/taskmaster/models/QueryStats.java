@@ -0,0 +1,128 @@
+package com.taskmaster.models;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Statistiques d'une forme de requête SQL (valeurs remplacées par "?")
+ *
+ * Pas une table : alimenté par QueryProfiler à chaque exécution,
+ * affiché par l'écran "Requêtes lentes"
+ */
+public class QueryStats {
+
+    private static final double NANOS_PER_MS = 1_000_000d;
+
+    private final String shape;          // SQL normalisé
+    private final int bindCount;         // Nombre de paramètres "?"
+
+    // Compteurs sans verrou : plusieurs threads (JavaFX, recherches) exécutent en parallèle
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAdder totalRows = new LongAdder();
+    private final LongAdder slowCount = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Long::max, 0);
+
+    // Dernière exécution lente (SQL réel + plan EXPLAIN), null si aucune
+    private volatile String lastSlowSql;
+    private volatile String plan;
+    private volatile long lastExplainAt;
+
+    public QueryStats(String shape, int bindCount) {
+        this.shape = shape;
+        this.bindCount = bindCount;
+    }
+
+    /**
+     * Enregistre une exécution
+     *
+     * @param rows Lignes lues ou modifiées (-1 = inconnu)
+     */
+    public void record(long nanos, long rows, boolean slow) {
+        count.increment();
+        totalNanos.add(nanos);
+        maxNanos.accumulate(nanos);
+        if (rows > 0) {
+            totalRows.add(rows);
+        }
+        if (slow) {
+            slowCount.increment();
+        }
+    }
+
+    public String getShape() {
+        return shape;
+    }
+
+    public int getBindCount() {
+        return bindCount;
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getSlowCount() {
+        return slowCount.sum();
+    }
+
+    public double getTotalMs() {
+        return totalNanos.sum() / NANOS_PER_MS;
+    }
+
+    public double getAverageMs() {
+        long n = count.sum();
+        return n == 0 ? 0 : getTotalMs() / n;
+    }
+
+    public double getMaxMs() {
+        return maxNanos.get() / NANOS_PER_MS;
+    }
+
+    /**
+     * Lignes lues (lectures) ou modifiées (écritures), toutes exécutions confondues
+     */
+    public long getTotalRows() {
+        return totalRows.sum();
+    }
+
+    public double getAverageRows() {
+        long n = count.sum();
+        return n == 0 ? 0 : (double) totalRows.sum() / n;
+    }
+
+    public String getLastSlowSql() {
+        return lastSlowSql;
+    }
+
+    public String getPlan() {
+        return plan;
+    }
+
+    public long getLastExplainAt() {
+        return lastExplainAt;
+    }
+
+    public void setLastSlowSql(String lastSlowSql) {
+        this.lastSlowSql = lastSlowSql;
+    }
+
+    public void setPlan(String plan) {
+        this.plan = plan;
+    }
+
+    public void setLastExplainAt(long lastExplainAt) {
+        this.lastExplainAt = lastExplainAt;
+    }
+
+    @Override
+    public String toString() {
+        return "QueryStats{" +
+                "shape='" + shape + '\'' +
+                ", count=" + getCount() +
+                ", avgMs=" + String.format("%.1f", getAverageMs()) +
+                ", maxMs=" + String.format("%.1f", getMaxMs()) +
+                ", slow=" + getSlowCount() +
+                '}';
+    }
+}
@@ -1,5 +1,6 @@
 package com.taskmaster.models;
 
+import java.io.Serializable;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
@@ -8,7 +9,10 @@ import java.time.LocalDateTime;
  *
  * RESPONSABLE : René Michel
  */
-public class Task {
+public class Task implements Serializable {
+
+    // Copie locale pour le mode hors ligne (OfflineStore)
+    private static final long serialVersionUID = 1L;
 
     private int id;
     private String title;
@@ -21,6 +25,7 @@ public class Task {
     private int createdBy;      // ID du créateur
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    private int version;        // Verrouillage optimiste : incrémentée à chaque écriture (trigger)
 
     // Champs supplémentaires (non en BDD, mais utiles pour l'affichage)
     private String projectName;      // Nom du projet (pour affichage)
@@ -49,6 +54,17 @@ public class Task {
         this.updatedAt = updatedAt;
     }
 
+    /**
+     * Constructeur de copie (formulaire d'édition, fusion après conflit)
+     */
+    public Task(Task other) {
+        this(other.id, other.title, other.description, other.projectId, other.assignedTo, other.priority,
+                other.status, other.dueDate, other.createdBy, other.createdAt, other.updatedAt);
+        this.version = other.version;
+        this.projectName = other.projectName;
+        this.assignedToName = other.assignedToName;
+    }
+
     /**
      * Constructeur pour créer une nouvelle tâche
      */
@@ -154,6 +170,14 @@ public class Task {
         this.updatedAt = updatedAt;
     }
 
+    public int getVersion() {
+        return version;
+    }
+
+    public void setVersion(int version) {
+        this.version = version;
+    }
+
     public String getProjectName() {
         return projectName;
     }
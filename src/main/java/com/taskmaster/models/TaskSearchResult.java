@@ -0,0 +1,48 @@
+package com.taskmaster.models;
+
+/**
+ * Résultat d'une recherche plein texte sur les tâches
+ * (titre, description et commentaires)
+ *
+ * Pas une table : construit par TaskDAO.fullTextSearch()
+ */
+public class TaskSearchResult {
+
+    private final Task task;
+    private final double relevance;      // Score MySQL (plus grand = plus pertinent)
+    private final String commentSnippet; // Commentaire qui correspond (null si trouvé dans la tâche)
+
+    public TaskSearchResult(Task task, double relevance, String commentSnippet) {
+        this.task = task;
+        this.relevance = relevance;
+        this.commentSnippet = commentSnippet;
+    }
+
+    public Task getTask() {
+        return task;
+    }
+
+    public double getRelevance() {
+        return relevance;
+    }
+
+    public String getCommentSnippet() {
+        return commentSnippet;
+    }
+
+    /**
+     * Vrai si la correspondance vient (au moins en partie) d'un commentaire
+     */
+    public boolean matchedInComment() {
+        return commentSnippet != null;
+    }
+
+    @Override
+    public String toString() {
+        return "TaskSearchResult{" +
+                "taskId=" + task.getId() +
+                ", relevance=" + relevance +
+                ", inComment=" + matchedInComment() +
+                '}';
+    }
+}
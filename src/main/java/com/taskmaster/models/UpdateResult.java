@@ -0,0 +1,56 @@
+package com.taskmaster.models;
+
+/**
+ * Résultat d'une mise à jour avec verrouillage optimiste
+ *
+ * Pas une table : renvoyé par TaskDAO.update() / ProjectDAO.update()
+ *  - UPDATED  : ligne écrite (la version de l'objet passé a été avancée)
+ *  - CONFLICT : la ligne a été modifiée entre-temps par quelqu'un d'autre ;
+ *               rien n'est écrit, getCurrent() donne son état actuel (base de la fusion)
+ *  - NOT_FOUND : la ligne a été supprimée entre-temps
+ *  - ERROR    : erreur SQL (déjà journalisée)
+ */
+public class UpdateResult<T> {
+
+    public enum Status { UPDATED, CONFLICT, NOT_FOUND, ERROR }
+
+    private final Status status;
+    private final T current;   // Ligne en base après l'écriture, ou qui a empêché l'écriture (null si inconnue)
+
+    private UpdateResult(Status status, T current) {
+        this.status = status;
+        this.current = current;
+    }
+
+    public static <T> UpdateResult<T> updated(T current) {
+        return new UpdateResult<>(Status.UPDATED, current);
+    }
+
+    public static <T> UpdateResult<T> conflict(T current) {
+        return new UpdateResult<>(Status.CONFLICT, current);
+    }
+
+    public static <T> UpdateResult<T> notFound() {
+        return new UpdateResult<>(Status.NOT_FOUND, null);
+    }
+
+    public static <T> UpdateResult<T> error() {
+        return new UpdateResult<>(Status.ERROR, null);
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public T getCurrent() {
+        return current;
+    }
+
+    public boolean isUpdated() {
+        return status == Status.UPDATED;
+    }
+
+    public boolean isConflict() {
+        return status == Status.CONFLICT;
+    }
+}
@@ -0,0 +1,187 @@
+package com.taskmaster.utils;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Identifiant de corrélation de l'action utilisateur en cours
+ *
+ * Une action (navigation, recherche, connexion...) reçoit un numéro unique ;
+ * tout ce qu'elle déclenche sur le même thread le reprend (appels DAO, requêtes SQL),
+ * et AsyncSearch le transmet au thread d'arrière-plan puis à la mise à jour de l'écran.
+ * Les événements Flight Recorder portent ce numéro (champ "actionId").
+ *
+ * Exemple :
+ *   ActionContext.run("Connexion", () -> { ... });
+ *
+ * Action qui se termine plus tard, sur un autre thread (ex : recherche en arrière-plan) :
+ *   ActionContext.Action action = ActionContext.start("Recherche");
+ *   ... ActionContext.resume(action.getId(), "Recherche", () -> query.apply(handle)) ...
+ *   action.end();   // une fois l'écran mis à jour
+ */
+public final class ActionContext {
+
+    private static final AtomicLong NEXT_ID = new AtomicLong();
+    private static final ThreadLocal<Scope> CURRENT = new ThreadLocal<>();
+
+    private ActionContext() {}
+
+    /**
+     * Numéro de l'action en cours sur ce thread (0 = aucune)
+     */
+    public static long currentId() {
+        Scope scope = CURRENT.get();
+        return scope != null ? scope.id : 0;
+    }
+
+    /**
+     * Commence une action ; si une action est déjà en cours sur ce thread,
+     * on reste dans celle-ci (ex : navigation → initialize → chargement)
+     */
+    public static Scope begin(String name) {
+        Scope parent = CURRENT.get();
+        Scope scope = parent != null
+                ? new Scope(parent.id, parent.name, parent, false)
+                : new Scope(NEXT_ID.incrementAndGet(), name, null, true);
+        CURRENT.set(scope);
+        return scope;
+    }
+
+    /**
+     * Exécute work dans une action (celle en cours sur ce thread s'il y en a une)
+     */
+    public static void run(String name, Runnable work) {
+        Scope scope = begin(name);
+        try {
+            work.run();
+        } finally {
+            scope.close();
+        }
+    }
+
+    /**
+     * Commence une action sans l'attacher au thread appelant : elle dure jusqu'à end(),
+     * appelé plus tard (ex : AsyncSearch, à la mise à jour de l'écran)
+     * Si une action est en cours sur ce thread, c'est elle qui continue (même numéro)
+     */
+    public static Action start(String name) {
+        Scope current = CURRENT.get();
+        return current != null
+                ? new Action(current.id, current.name, false)
+                : new Action(NEXT_ID.incrementAndGet(), name, true);
+    }
+
+    /**
+     * Reprend une action commencée ailleurs (thread d'arrière-plan, callback JavaFX)
+     */
+    public static Scope resume(long id, String name) {
+        Scope scope = new Scope(id, name, CURRENT.get(), false);
+        CURRENT.set(scope);
+        return scope;
+    }
+
+    /**
+     * Exécute work dans une action commencée ailleurs
+     */
+    public static <T> T resume(long id, String name, Supplier<T> work) {
+        Scope scope = resume(id, name);
+        try {
+            return work.get();
+        } finally {
+            scope.close();
+        }
+    }
+
+    /**
+     * Exécute work dans une action commencée ailleurs
+     */
+    public static void resume(long id, String name, Runnable work) {
+        Scope scope = resume(id, name);
+        try {
+            work.run();
+        } finally {
+            scope.close();
+        }
+    }
+
+    // Fin d'une action commencée ici : événement Flight Recorder (si enregistré)
+    private static void commit(FlightEvents.UserActionEvent event, String name, long id) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.action = name;
+            event.actionId = id;
+            event.commit();
+        }
+    }
+
+    /**
+     * Action commencée par start() : aucun thread ne la porte, end() la termine
+     */
+    public static final class Action {
+        private final long id;
+        private final String name;
+        private FlightEvents.UserActionEvent event;   // null : action d'un appelant, ou déjà terminée
+
+        private Action(long id, String name, boolean owner) {
+            this.id = id;
+            this.name = name;
+            this.event = owner ? new FlightEvents.UserActionEvent() : null;
+            if (event != null) {
+                event.begin();
+            }
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        /**
+         * Termine l'action (sans effet au deuxième appel) ; à appeler sur un seul thread
+         */
+        public void end() {
+            FlightEvents.UserActionEvent ended = event;
+            event = null;
+            if (ended != null) {
+                commit(ended, name, id);
+            }
+        }
+    }
+
+    public static final class Scope implements AutoCloseable {
+        private final long id;
+        private final String name;
+        private final Scope parent;
+        private final FlightEvents.UserActionEvent event;   // Action qui commence ici uniquement
+
+        private Scope(long id, String name, Scope parent, boolean owner) {
+            this.id = id;
+            this.name = name;
+            this.parent = parent;
+            this.event = owner ? new FlightEvents.UserActionEvent() : null;
+            if (event != null) {
+                event.begin();
+            }
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public void close() {
+            if (parent != null) {
+                CURRENT.set(parent);
+            } else {
+                CURRENT.remove();
+            }
+
+            if (event != null) {
+                commit(event, name, id);
+            }
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.taskmaster.utils;
+
+import com.taskmaster.models.QueryResult;
+import javafx.concurrent.Task;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Exécute des recherches en arrière-plan en ne gardant que la plus récente
+ *
+ * - Chaque nouvelle recherche annule celle en cours (Statement.cancel)
+ * - Le résultat n'est appliqué que s'il correspond toujours à la dernière demande
+ * - Le thread JavaFX n'est jamais bloqué par la requête
+ * - Recherche annulée : rien n'est appliqué ; échec (délai dépassé...) : valeur de repli
+ *   (liste vide) appliquée, puis onStatus() reçoit le résultat pour afficher la cause
+ *
+ * Exemple :
+ *   AsyncSearch<List<User>> search = new AsyncSearch<List<User>>(users -> usersTable.setItems(...))
+ *           .onStatus(result -> QueryStatus.show(usersTable, result));
+ *   search.submit(handle -> userDAO.search(term, role, sort, handle));
+ *
+ * submit() doit être appelé depuis le thread JavaFX
+ */
+public class AsyncSearch<R> {
+
+    // Threads démons partagés par tous les écrans (recherches, chargement de DirectoryIndex) :
+    // ils ne bloquent pas la fermeture de l'appli
+    static final ExecutorService EXECUTOR = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "taskmaster-search");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Consumer<R> onResult;
+    private Consumer<QueryResult<R>> onStatus;
+
+    // Numéro de la dernière recherche demandée (lu/écrit sur le thread JavaFX)
+    private long generation;
+    private CancellableQuery inFlight;
+
+    public AsyncSearch(Consumer<R> onResult) {
+        this.onResult = onResult;
+    }
+
+    /**
+     * Reçoit chaque résultat appliqué (OK, hors ligne ou en échec), après onResult
+     * Sans lui, un échec est seulement journalisé
+     */
+    public AsyncSearch<R> onStatus(Consumer<QueryResult<R>> onStatus) {
+        this.onStatus = onStatus;
+        return this;
+    }
+
+    /**
+     * Lance une recherche ; celle qui était en cours est annulée
+     *
+     * @param query La requête à exécuter (reçoit la poignée d'annulation à transmettre au DAO)
+     */
+    public void submit(Function<CancellableQuery, QueryResult<R>> query) {
+        cancel();
+
+        long current = ++generation;
+        CancellableQuery handle = new CancellableQuery();
+        inFlight = handle;
+
+        // 🛰️ Une action de la frappe à la mise à jour de l'écran : requêtes (arrière-plan)
+        // et mise à jour rattachées à ce numéro, terminée dans onSucceeded / onFailed
+        ActionContext.Action action = ActionContext.start("Recherche");
+        long actionId = action.getId();
+
+        Task<QueryResult<R>> task = new Task<>() {
+            @Override
+            protected QueryResult<R> call() {
+                return ActionContext.resume(actionId, "Recherche", () -> query.apply(handle));
+            }
+        };
+
+        task.setOnSucceeded(e -> {
+            // Une recherche plus récente a été lancée entre-temps : résultat périmé
+            QueryResult<R> result = task.getValue();
+            if (current == generation && !handle.isCancelled() && !result.isCancelled()) {
+                inFlight = null;
+                ActionContext.resume(actionId, "Recherche", () -> {
+                    FlightEvents.UiUpdateEvent event = new FlightEvents.UiUpdateEvent();
+                    event.begin();
+                    onResult.accept(result.getValue());
+                    if (onStatus != null) {
+                        onStatus.accept(result);
+                    } else if (!result.hasValue()) {
+                        System.err.println("Erreur recherche : " + result.getMessage());
+                    }
+                    event.end();
+                    if (event.shouldCommit()) {
+                        event.source = "AsyncSearch";
+                        event.actionId = actionId;
+                        event.commit();
+                    }
+                });
+            }
+            action.end();
+        });
+        task.setOnFailed(e -> {
+            action.end();
+            System.err.println("Erreur recherche : " + task.getException().getMessage());
+        });
+        task.setOnCancelled(e -> action.end());
+
+        EXECUTOR.execute(task);
+    }
+
+    /**
+     * Annule la recherche en cours (s'il y en a une)
+     */
+    public void cancel() {
+        if (inFlight != null) {
+            inFlight.cancel();
+            inFlight = null;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.taskmaster.utils;
+
+import javafx.beans.property.ObjectProperty;
+import javafx.beans.property.SimpleObjectProperty;
+import javafx.geometry.Side;
+import javafx.scene.control.ContextMenu;
+import javafx.scene.control.CustomMenuItem;
+import javafx.scene.control.Label;
+import javafx.scene.control.TextField;
+import javafx.scene.input.KeyCode;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Champ texte avec suggestions au fil de la frappe (remplace un ComboBox rempli par findAll())
+ *
+ * Seules les meilleures correspondances sont affichées ; l'élément choisi
+ * est directement disponible (avec son ID) via getSelected().
+ *
+ * Exemple :
+ *   AutoCompleteField<User> userPicker = new AutoCompleteField<>(
+ *           text -> DirectoryIndex.userNames(userDAO::findAll).complete(text, 10),
+ *           u -> u.getFullName() + " (" + u.getUsername() + ")");
+ *   Integer assignedTo = userPicker.getSelected() != null ? userPicker.getSelected().getId() : null;
+ */
+public class AutoCompleteField<T> extends TextField {
+
+    private final Function<String, List<T>> lookup;
+    private final Function<T, String> labelOf;
+
+    private final ContextMenu suggestions = new ContextMenu();
+    private final ObjectProperty<T> selected = new SimpleObjectProperty<>();
+
+    // Vrai pendant que le champ est rempli par le programme (choix d'une suggestion)
+    private boolean updating;
+
+    /**
+     * @param lookup Recherche des suggestions (doit déjà limiter le nombre de résultats)
+     * @param labelOf Texte affiché pour un élément
+     */
+    public AutoCompleteField(Function<String, List<T>> lookup, Function<T, String> labelOf) {
+        this.lookup = lookup;
+        this.labelOf = labelOf;
+
+        textProperty().addListener((obs, oldText, newText) -> {
+            if (!updating) {
+                // Toute frappe annule le choix précédent
+                selected.set(null);
+                showSuggestions(newText);
+            }
+        });
+
+        // Entrée = première suggestion
+        setOnKeyPressed(e -> {
+            if (e.getCode() == KeyCode.ENTER && selected.get() == null) {
+                List<T> matches = lookup.apply(getText());
+                if (!matches.isEmpty()) {
+                    select(matches.get(0));
+                    e.consume();
+                }
+            }
+        });
+
+        focusedProperty().addListener((obs, wasFocused, isFocused) -> {
+            if (!isFocused) {
+                suggestions.hide();
+            }
+        });
+    }
+
+    public T getSelected() {
+        return selected.get();
+    }
+
+    public ObjectProperty<T> selectedProperty() {
+        return selected;
+    }
+
+    /**
+     * Sélectionne un élément (null = vide le champ)
+     */
+    public void select(T item) {
+        updating = true;
+        try {
+            selected.set(item);
+            setText(item != null ? labelOf.apply(item) : "");
+            positionCaret(getText().length());
+        } finally {
+            updating = false;
+        }
+        suggestions.hide();
+    }
+
+    private void showSuggestions(String text) {
+        if (text == null || text.isBlank()) {
+            suggestions.hide();
+            return;
+        }
+
+        List<T> matches = lookup.apply(text);
+        if (matches.isEmpty()) {
+            suggestions.hide();
+            return;
+        }
+
+        suggestions.getItems().clear();
+        for (T match : matches) {
+            CustomMenuItem item = new CustomMenuItem(new Label(labelOf.apply(match)), true);
+            item.setOnAction(e -> select(match));
+            suggestions.getItems().add(item);
+        }
+
+        if (!suggestions.isShowing() && getScene() != null) {
+            suggestions.show(this, Side.BOTTOM, 0, 0);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.taskmaster.utils;
+
+import javafx.css.PseudoClass;
+import javafx.scene.control.TableCell;
+import javafx.scene.control.TableColumn;
+import javafx.util.Callback;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Cellule de tableau réutilisable pour les "badges" (statut, priorité, rôle...)
+ * Au lieu d'appeler setStyle("-fx-background-color: ...") à chaque updateItem
+ * (ce qui force JavaFX à re-parser du CSS pour chaque cellule), on active
+ * simplement une pseudo-classe précalculée définie dans theme.css.
+ *
+ * Exemple :
+ *   statusColumn.setCellFactory(BadgeTableCell.forStatus());
+ *   → la cellule reçoit la classe "status-badge" et la pseudo-classe ":in-progress"
+ */
+public class BadgeTableCell<S, T> extends TableCell<S, T> {
+
+    // Pseudo-classes créées une seule fois pour toutes les valeurs connues
+    private static final Map<String, PseudoClass> PSEUDO_CLASSES = Map.ofEntries(
+            entry("TODO"), entry("IN_PROGRESS"), entry("COMPLETED"), entry("CANCELLED"),
+            entry("ON_HOLD"), entry("PLANNED"),
+            entry("LOW"), entry("MEDIUM"), entry("HIGH"), entry("URGENT"),
+            entry("ADMIN"), entry("USER"),
+            entry("ACTIVE"), entry("INACTIVE")
+    );
+
+    private final Function<T, String> keyMapper;
+    private final Function<T, String> textMapper;
+
+    // Pseudo-classe actuellement active (null si aucune)
+    private PseudoClass current;
+
+    public BadgeTableCell(String styleClass, Function<T, String> keyMapper, Function<T, String> textMapper) {
+        this.keyMapper = keyMapper;
+        this.textMapper = textMapper;
+        getStyleClass().addAll("badge-cell", styleClass);
+    }
+
+    @Override
+    protected void updateItem(T item, boolean empty) {
+        super.updateItem(item, empty);
+
+        PseudoClass next = null;
+        if (empty || item == null) {
+            setText(null);
+        } else {
+            setText(textMapper.apply(item));
+            next = PSEUDO_CLASSES.get(keyMapper.apply(item));
+        }
+
+        // Ne toucher aux pseudo-classes que si la valeur a vraiment changé
+        if (next != current) {
+            if (current != null) {
+                pseudoClassStateChanged(current, false);
+            }
+            if (next != null) {
+                pseudoClassStateChanged(next, true);
+            }
+            current = next;
+        }
+    }
+
+    // ===== FABRIQUES =====
+
+    /**
+     * Badge de statut (tâches et projets)
+     */
+    public static <S> Callback<TableColumn<S, String>, TableCell<S, String>> forStatus() {
+        return column -> new BadgeTableCell<>("status-badge", Function.identity(), Function.identity());
+    }
+
+    /**
+     * Badge de priorité (tâches)
+     */
+    public static <S> Callback<TableColumn<S, String>, TableCell<S, String>> forPriority() {
+        return column -> new BadgeTableCell<>("priority-badge", Function.identity(), Function.identity());
+    }
+
+    /**
+     * Badge de rôle (utilisateurs)
+     */
+    public static <S> Callback<TableColumn<S, String>, TableCell<S, String>> forRole() {
+        return column -> new BadgeTableCell<>("role-badge", Function.identity(), Function.identity());
+    }
+
+    /**
+     * Indicateur actif / inactif (utilisateurs)
+     */
+    public static <S> Callback<TableColumn<S, Boolean>, TableCell<S, Boolean>> forActive() {
+        return column -> new BadgeTableCell<>("active-badge",
+                active -> active ? "ACTIVE" : "INACTIVE",
+                active -> active ? "✅ Actif" : "❌ Inactif");
+    }
+
+    private static Map.Entry<String, PseudoClass> entry(String value) {
+        // IN_PROGRESS → :in-progress (Locale.ROOT : en turc, "I" deviendrait "ı")
+        return Map.entry(value, PseudoClass.getPseudoClass(value.toLowerCase(Locale.ROOT).replace('_', '-')));
+    }
+}
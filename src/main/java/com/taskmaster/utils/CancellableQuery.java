@@ -0,0 +1,70 @@
+package com.taskmaster.utils;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Poignée d'annulation pour une requête SQL lancée en arrière-plan
+ *
+ * Le DAO enregistre son Statement juste avant de l'exécuter ;
+ * l'interface peut alors l'interrompre (Statement.cancel) quand une
+ * recherche plus récente démarre.
+ *
+ * Exemple (côté DAO) :
+ *   if (handle != null) {
+ *       handle.register(stmt);   // applique aussi le timeout
+ *   }
+ *   ResultSet rs = stmt.executeQuery();
+ */
+public class CancellableQuery {
+
+    // Durée maximale d'une recherche : au-delà, MySQL interrompt la requête
+    public static final int DEFAULT_TIMEOUT_SECONDS = 5;
+
+    private final int timeoutSeconds;
+    private volatile Statement statement;
+    private volatile boolean cancelled;
+
+    public CancellableQuery() {
+        this(DEFAULT_TIMEOUT_SECONDS);
+    }
+
+    public CancellableQuery(int timeoutSeconds) {
+        this.timeoutSeconds = timeoutSeconds;
+    }
+
+    /**
+     * Associe le Statement qui va être exécuté et lui applique le timeout
+     * Si la requête a déjà été annulée, le Statement est annulé tout de suite
+     */
+    public void register(Statement stmt) throws SQLException {
+        stmt.setQueryTimeout(timeoutSeconds);
+        statement = stmt;
+        if (cancelled) {
+            cancelQuietly(stmt);
+        }
+    }
+
+    /**
+     * Annule la requête (peut être appelé depuis n'importe quel thread)
+     */
+    public void cancel() {
+        cancelled = true;
+        Statement stmt = statement;
+        if (stmt != null) {
+            cancelQuietly(stmt);
+        }
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    private static void cancelQuietly(Statement stmt) {
+        try {
+            stmt.cancel();
+        } catch (SQLException e) {
+            // Statement déjà fermé : la requête est terminée, rien à annuler
+        }
+    }
+}
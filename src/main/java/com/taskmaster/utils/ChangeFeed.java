@@ -0,0 +1,329 @@
+package com.taskmaster.utils;
+
+import javafx.scene.Node;
+
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Mises à jour en direct entre clients : lecture du journal change_log (migration V6)
+ *
+ * Un seul thread "taskmaster-change-feed" par application lit les nouvelles lignes
+ * ("seq > dernier numéro lu", parcours de clé primaire) et les transmet aux écrans abonnés,
+ * qui relisent uniquement les lignes concernées.
+ *
+ * Intervalle adaptatif : 1 s après une modification, doublé à chaque lecture vide jusqu'à 15 s
+ * (-Dtaskmaster.changeFeed.minMs / maxMs), avec ±20 % d'aléa pour que des centaines de clients
+ * ne lisent pas tous au même instant. Aucun abonné (écran de connexion) : aucune requête.
+ * Désactivable avec -Dtaskmaster.changeFeed=false.
+ *
+ * Exemple (initialize() d'un contrôleur) :
+ *   ChangeFeed.subscribe(projectsTable, ChangeFeed.Entity.PROJECT, batch -> {
+ *       QueryResult<List<Project>> rows = projectDAO.findByIds(batch.getUpserted());   // thread du journal
+ *       Platform.runLater(() -> ...);                                                   // mise à jour de la table
+ *   });
+ * Le curseur a déjà avancé quand le listener est appelé : un lot n'est jamais renvoyé.
+ * Relecture en échec : l'écran recharge sa liste (sinon ces modifications seraient perdues).
+ * L'abonnement prend fin quand le nœud quitte sa scène (navigation vers un autre écran).
+ */
+public final class ChangeFeed {
+
+    public enum Entity { TASK, PROJECT, USER, COMMENT }
+
+    private static final boolean ENABLED = Boolean.parseBoolean(System.getProperty("taskmaster.changeFeed", "true"));
+    private static final long MIN_INTERVAL_MS = Long.getLong("taskmaster.changeFeed.minMs", 1_000);
+    private static final long MAX_INTERVAL_MS = Long.getLong("taskmaster.changeFeed.maxMs", 15_000);
+
+    // Lignes lues par requête (au-delà : lecture suivante immédiate)
+    private static final int BATCH_LIMIT = 500;
+    // Trou de séquence (écriture pas encore validée) : attente avant de le sauter
+    private static final long GAP_TIMEOUT_MS = 10_000;
+    // Purge des lignes de plus d'un jour, au plus une fois par heure et par client
+    private static final long PRUNE_INTERVAL_MS = 60 * 60 * 1000;
+    private static final int PRUNE_LIMIT = 5_000;
+
+    // Trou en attente : le trou (cursor, premier numéro vu) et la suite après le dernier numéro vu ;
+    // les lignes déjà publiées au-delà du trou ne sont pas relues
+    private static final String READ_SQL = "SELECT seq, entity, entity_id, op FROM change_log " +
+            "WHERE (seq > ? AND seq < ?) OR seq > ? ORDER BY seq LIMIT ?";
+
+    private static final DaoMethod READ = DaoMethod.of(ChangeFeed.class, "read");
+
+    private static final JdbcTemplate.RowMapper<Change> CHANGE_ROWS = columns -> {
+        int seq = columns.index("seq");
+        int entity = columns.index("entity");
+        int entityId = columns.index("entity_id");
+        int op = columns.index("op");
+        return rs -> new Change(rs.getLong(seq), Entity.valueOf(rs.getString(entity)), rs.getInt(entityId), rs.getString(op));
+    };
+
+    private static final Metrics.Counter POLLS = Metrics.counter(
+            "taskmaster_change_feed_polls_total", "Lectures du journal des modifications");
+    private static final Metrics.Counter EVENTS = Metrics.counter(
+            "taskmaster_change_feed_events_total", "Modifications reçues d'autres clients (ou de ce client)");
+
+    private static final List<Subscription> SUBSCRIPTIONS = new CopyOnWriteArrayList<>();
+
+    private static final ScheduledExecutorService POLLER = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "taskmaster-change-feed");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // État du thread du journal uniquement
+    private static long cursor = -1;                       // Tous les seq <= cursor ont été publiés (-1 = inconnu)
+    private static final TreeSet<Long> seenAhead = new TreeSet<>();   // Publiés au-delà d'un trou
+    private static long gapSince;                          // Début de l'attente du trou cursor + 1 (0 = aucun)
+    private static long interval = MIN_INTERVAL_MS;
+    private static long lastPrune;
+
+    private static boolean started = false;
+
+    private ChangeFeed() {}
+
+    /**
+     * Modifications d'un type d'entité reçues en une lecture
+     */
+    public static final class Batch {
+        private final Entity entity;
+        private final Set<Integer> upserted = new LinkedHashSet<>();
+        private final Set<Integer> deleted = new LinkedHashSet<>();
+
+        private Batch(Entity entity) {
+            this.entity = entity;
+        }
+
+        public Entity getEntity() {
+            return entity;
+        }
+
+        /**
+         * Créées ou modifiées (à relire)
+         */
+        public Set<Integer> getUpserted() {
+            return Collections.unmodifiableSet(upserted);
+        }
+
+        /**
+         * Supprimées
+         */
+        public List<Integer> getDeleted() {
+            return List.copyOf(deleted);
+        }
+
+        private void add(int id, String op) {
+            if ("DELETE".equals(op)) {
+                upserted.remove(id);
+                deleted.add(id);
+            } else {
+                upserted.add(id);
+            }
+        }
+    }
+
+    // Ligne du journal
+    private static final class Change {
+        final long seq;
+        final Entity entity;
+        final int id;
+        final String op;
+
+        Change(long seq, Entity entity, int id, String op) {
+            this.seq = seq;
+            this.entity = entity;
+            this.id = id;
+            this.op = op;
+        }
+    }
+
+    /**
+     * Abonnement d'un écran ; close() pour l'arrêter avant que le nœud quitte sa scène
+     */
+    public static final class Subscription implements AutoCloseable {
+        private final Entity entity;
+        private final Consumer<Batch> listener;
+
+        private Subscription(Entity entity, Consumer<Batch> listener) {
+            this.entity = entity;
+            this.listener = listener;
+        }
+
+        @Override
+        public void close() {
+            SUBSCRIPTIONS.remove(this);
+        }
+    }
+
+    /**
+     * Abonne un écran aux modifications d'une entité
+     * À appeler depuis le thread JavaFX (initialize) ; le listener est appelé sur le thread
+     * du journal : il peut lire la BDD, puis passe par Platform.runLater pour l'interface.
+     *
+     * @param owner Nœud de l'écran : l'abonnement s'arrête quand il quitte sa scène
+     */
+    public static Subscription subscribe(Node owner, Entity entity, Consumer<Batch> listener) {
+        Subscription subscription = new Subscription(entity, listener);
+        if (!ENABLED) {
+            return subscription;
+        }
+        SUBSCRIPTIONS.add(subscription);
+
+        EntityEvents.closeWhenDetached(owner, subscription);
+
+        start();
+        return subscription;
+    }
+
+    private static synchronized void start() {
+        if (started) {
+            return;
+        }
+        started = true;
+        POLLER.schedule(ChangeFeed::poll, MIN_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    // ===== Thread du journal =====
+
+    private static void poll() {
+        long delay = MAX_INTERVAL_MS;
+        try {
+            delay = SUBSCRIPTIONS.isEmpty() ? idle() : read();
+        } catch (RuntimeException e) {
+            System.err.println("Erreur journal des modifications : " + e.getMessage());
+        } finally {
+            POLLER.schedule(ChangeFeed::poll, jitter(delay), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    // Personne n'écoute : on repartira de la fin du journal au prochain abonnement
+    private static long idle() {
+        cursor = -1;
+        seenAhead.clear();
+        gapSince = 0;
+        interval = MIN_INTERVAL_MS;
+        return MAX_INTERVAL_MS;
+    }
+
+    /**
+     * Lit les nouvelles lignes et les publie
+     *
+     * @return Délai avant la lecture suivante (ms)
+     */
+    private static long read() {
+        Map<Entity, Batch> batches = new EnumMap<>(Entity.class);
+        List<Change> changes;
+
+        try {
+            if (cursor < 0) {
+                cursor = JdbcTemplate.QUICK.queryOne(READ, "SELECT COALESCE(MAX(seq), 0) FROM change_log",
+                        JdbcTemplate.NO_PARAMS, columns -> rs -> rs.getLong(1));
+                return MIN_INTERVAL_MS;
+            }
+
+            POLLS.increment();
+            long after = cursor;
+            long gapEnd = seenAhead.isEmpty() ? cursor + 1 : seenAhead.first();
+            long from = seenAhead.isEmpty() ? cursor : Math.max(cursor, seenAhead.last());
+            changes = JdbcTemplate.QUICK.query(READ, READ_SQL,
+                    params -> params.setLong(after).setLong(gapEnd).setLong(from).setInt(BATCH_LIMIT), CHANGE_ROWS);
+
+            if (System.currentTimeMillis() - lastPrune > PRUNE_INTERVAL_MS) {
+                lastPrune = System.currentTimeMillis();
+                prune();
+            }
+
+        } catch (SQLException e) {
+            System.err.println("Erreur lecture journal des modifications : " + e.getMessage());
+            return MAX_INTERVAL_MS;
+        }
+
+        int fresh = 0;
+        for (Change change : changes) {
+            if (seenAhead.add(change.seq)) {
+                fresh++;
+                batches.computeIfAbsent(change.entity, Batch::new).add(change.id, change.op);
+            }
+        }
+
+        boolean waitingForGap = advanceCursor();
+        publish(batches);
+
+        // Lot complet de lignes nouvelles : la suite est lue tout de suite
+        // (jamais en boucle sur des lignes déjà vues pendant l'attente d'un trou)
+        if (changes.size() == BATCH_LIMIT && fresh > 0) {
+            return 0;
+        }
+        if (!batches.isEmpty() || waitingForGap) {
+            interval = MIN_INTERVAL_MS;
+        } else {
+            interval = Math.min(interval * 2, MAX_INTERVAL_MS);
+        }
+        return interval;
+    }
+
+    /**
+     * Avance le curseur sur les numéros consécutifs déjà publiés
+     * Un trou (transaction pas encore validée) bloque le curseur jusqu'à GAP_TIMEOUT_MS,
+     * puis il est sauté (transaction annulée : le numéro ne sera jamais utilisé)
+     *
+     * @return true si un trou est en attente
+     */
+    private static boolean advanceCursor() {
+        while (!seenAhead.isEmpty()) {
+            long first = seenAhead.first();
+            if (first <= cursor + 1) {
+                seenAhead.pollFirst();
+                cursor = Math.max(cursor, first);
+                gapSince = 0;
+                continue;
+            }
+            long now = System.currentTimeMillis();
+            if (gapSince == 0) {
+                gapSince = now;
+            }
+            if (now - gapSince < GAP_TIMEOUT_MS) {
+                return true;
+            }
+            cursor = first - 1;
+            gapSince = 0;
+        }
+        return false;
+    }
+
+    private static void publish(Map<Entity, Batch> batches) {
+        for (Batch batch : batches.values()) {
+            EVENTS.add(batch.upserted.size() + batch.deleted.size());
+            for (Subscription subscription : SUBSCRIPTIONS) {
+                if (subscription.entity != batch.entity) {
+                    continue;
+                }
+                try {
+                    subscription.listener.accept(batch);
+                } catch (RuntimeException e) {
+                    System.err.println("Erreur mise à jour en direct (" + batch.entity + ") : " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    private static void prune() throws SQLException {
+        JdbcTemplate.DEFAULT.update(READ, "DELETE FROM change_log WHERE changed_at < NOW() - INTERVAL 1 DAY LIMIT ?",
+                params -> params.setInt(PRUNE_LIMIT));
+    }
+
+    private static long jitter(long delay) {
+        return (long) (delay * ThreadLocalRandom.current().nextDouble(0.8, 1.2));
+    }
+}
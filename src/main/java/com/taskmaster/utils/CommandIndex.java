@@ -0,0 +1,376 @@
+package com.taskmaster.utils;
+
+import com.taskmaster.models.CommandKind;
+import com.taskmaster.models.Project;
+import com.taskmaster.models.Task;
+import com.taskmaster.models.User;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Index unique de la palette de commandes (Ctrl+K) : écrans, tâches, projets, utilisateurs
+ *
+ * - Construit après la connexion, page par page, sur un thread d'arrière-plan
+ *   (la palette est utilisable dès la première page chargée)
+ * - Tenu à jour par les événements des DAO (EntityEvents) à chaque écriture
+ * - Classement : qualité de la correspondance (FuzzyIndex) + bonus de récence
+ * - Palette ouverte sans saisie : liste bornée des entrées récentes (MRU), tenue à jour
+ *   à chaque utilisation, sans trier tout l'index
+ *
+ * Ne contient que ce que l'utilisateur connecté a le droit de voir :
+ *  - ADMIN : tout
+ *  - USER : ses écrans, ses tâches et les projets de ses tâches
+ */
+public class CommandIndex {
+
+    /**
+     * Une ligne de la palette
+     */
+    public static class Entry {
+        private final CommandKind kind;
+        private final int id;
+        private final String label;
+        private final String detail;
+        private final String target;      // Vue FXML (écrans uniquement)
+        private volatile long touchedAt;  // Dernière modification / ouverture (ms)
+
+        Entry(CommandKind kind, int id, String label, String detail, String target, long touchedAt) {
+            this.kind = kind;
+            this.id = id;
+            this.label = label;
+            this.detail = detail != null ? detail : "";
+            this.target = target;
+            this.touchedAt = touchedAt;
+        }
+
+        public CommandKind getKind() {
+            return kind;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+
+        public String getDetail() {
+            return detail;
+        }
+
+        public String getTarget() {
+            return target;
+        }
+
+        // Clé unique tous types confondus : le type dans les 32 bits de poids fort
+        long key() {
+            return key(kind, id);
+        }
+
+        static long key(CommandKind kind, int id) {
+            return ((long) kind.ordinal() << 32) | (id & 0xFFFFFFFFL);
+        }
+    }
+
+    /**
+     * Chargement d'une page (offset, limit) ; une page incomplète termine le chargement
+     */
+    @FunctionalInterface
+    public interface PageLoader<T> {
+        List<T> load(int offset, int limit);
+    }
+
+    private static final int PAGE_SIZE = 500;
+
+    // Taille de la liste des entrées récentes
+    private static final int RECENT_SIZE = 50;
+
+    // Bonus maximal de récence, divisé par 2 tous les HALF_LIFE_DAYS jours
+    private static final double RECENCY_WEIGHT = 0.3;
+    private static final double HALF_LIFE_DAYS = 7;
+    private static final double MILLIS_PER_DAY = 86_400_000d;
+
+    private static final FuzzyIndex<Entry> INDEX = new FuzzyIndex<>(Entry::key,
+            entry -> List.of(entry.label, entry.detail));
+    private static final Map<Long, Entry> ENTRIES = new ConcurrentHashMap<>();
+
+    // Clés des entrées récentes, de la plus ancienne à la plus récente (ordre d'accès, bornée à RECENT_SIZE)
+    // Protégée par le verrou de la classe
+    private static final LinkedHashMap<Long, Boolean> RECENT = new LinkedHashMap<>(RECENT_SIZE * 2, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Boolean> eldest) {
+            return size() > RECENT_SIZE;
+        }
+    };
+
+    static {
+        Metrics.gauge("taskmaster_cache_entries", "Entrées des index en mémoire", ENTRIES::size, "cache", "command_palette");
+
+        EntityEvents.subscribe(Task.class, event -> {
+            if (event.isDeleted()) {
+                removed(CommandKind.TASK, event.getId());
+            } else if (event.getValue() != null) {
+                taskSaved(event.getValue());
+            } else {
+                touch(CommandKind.TASK, event.getId());
+            }
+        });
+        EntityEvents.subscribe(Project.class, event -> {
+            if (event.isDeleted()) {
+                removed(CommandKind.PROJECT, event.getId());
+            } else if (event.getValue() != null) {
+                projectSaved(event.getValue());
+            }
+        });
+        EntityEvents.subscribe(User.class, event -> {
+            if (event.isDeleted()) {
+                removed(CommandKind.USER, event.getId());
+            } else if (event.getValue() != null) {
+                userSaved(event.getValue());
+            }
+        });
+    }
+
+    // Utilisateur pour lequel l'index est construit (null = pas de session)
+    private static User owner = null;
+    // Incrémenté à chaque construction / déconnexion : un chargement périmé s'arrête
+    private static long generation = 0;
+
+    private CommandIndex() {}
+
+    /**
+     * Construit l'index pour l'utilisateur qui vient de se connecter
+     * Les écrans sont ajoutés tout de suite, le reste en arrière-plan
+     */
+    public static void buildFor(User user,
+                                PageLoader<Task> tasks,
+                                PageLoader<Project> projects,
+                                PageLoader<User> users) {
+        long current;
+        synchronized (CommandIndex.class) {
+            clearEntries();
+            owner = user;
+            current = ++generation;
+            for (Entry view : viewsFor(user)) {
+                add(view);
+                RECENT.put(view.key(), Boolean.TRUE);
+            }
+        }
+
+        Thread thread = new Thread(() -> {
+            long start = System.currentTimeMillis();
+            if (user.isAdmin()) {
+                loadPages(current, tasks, task -> List.of(taskEntry(task)));
+                loadPages(current, projects, project -> List.of(projectEntry(project)));
+                loadPages(current, users, other -> List.of(userEntry(other)));
+            } else {
+                // Un utilisateur ne voit que les projets de ses tâches
+                loadPages(current, tasks, task -> List.of(taskEntry(task), projectOf(task)));
+            }
+            seedRecent(current);
+            System.out.println("✓ Palette de commandes : " + ENTRIES.size() + " entrées ("
+                    + (System.currentTimeMillis() - start) + " ms)");
+        }, "taskmaster-command-index");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Vide l'index (déconnexion)
+     */
+    public static synchronized void clear() {
+        clearEntries();
+        owner = null;
+        generation++;
+    }
+
+    /**
+     * Recherche classée : correspondance + récence
+     */
+    public static List<Entry> search(String query, int limit) {
+        long now = System.currentTimeMillis();
+        return INDEX.search(query, limit, entry -> true, entry -> recencyBoost(entry, now));
+    }
+
+    /**
+     * Entrées les plus récentes (palette ouverte sans saisie)
+     */
+    public static synchronized List<Entry> recent(int limit) {
+        List<Long> keys = new ArrayList<>(RECENT.keySet());
+        Collections.reverse(keys);
+        List<Entry> recent = new ArrayList<>(Math.min(limit, keys.size()));
+        for (int i = 0; i < keys.size() && recent.size() < limit; i++) {
+            Entry entry = ENTRIES.get(keys.get(i));
+            if (entry != null) {
+                recent.add(entry);
+            }
+        }
+        return recent;
+    }
+
+    /**
+     * Marque une entrée comme utilisée (ouverte depuis la palette, modifiée...)
+     */
+    public static synchronized void touch(CommandKind kind, int id) {
+        Entry entry = ENTRIES.get(Entry.key(kind, id));
+        if (entry != null) {
+            entry.touchedAt = System.currentTimeMillis();
+            RECENT.put(entry.key(), Boolean.TRUE);
+        }
+    }
+
+    // ===== Événements des DAO =====
+
+    private static synchronized void taskSaved(Task task) {
+        if (owner != null && (owner.isAdmin() || Integer.valueOf(owner.getId()).equals(task.getAssignedTo()))) {
+            add(taskEntry(task));
+            touch(CommandKind.TASK, task.getId());
+        }
+    }
+
+    private static synchronized void projectSaved(Project project) {
+        if (owner != null && owner.isAdmin()) {
+            add(projectEntry(project));
+            touch(CommandKind.PROJECT, project.getId());
+        }
+    }
+
+    private static synchronized void userSaved(User user) {
+        if (owner != null && owner.isAdmin()) {
+            add(userEntry(user));
+            touch(CommandKind.USER, user.getId());
+        }
+    }
+
+    private static synchronized void removed(CommandKind kind, int id) {
+        long key = Entry.key(kind, id);
+        ENTRIES.remove(key);
+        INDEX.remove(key);
+        RECENT.remove(key);
+    }
+
+    // ===== Construction =====
+
+    private static <T> void loadPages(long current, PageLoader<T> loader, Function<T, List<Entry>> toEntries) {
+        for (int offset = 0; ; offset += PAGE_SIZE) {
+            List<T> page = loader.load(offset, PAGE_SIZE);
+            synchronized (CommandIndex.class) {
+                if (current != generation) {
+                    return; // Déconnexion ou nouvelle session entre-temps
+                }
+                for (T item : page) {
+                    toEntries.apply(item).forEach(CommandIndex::add);
+                }
+            }
+            if (page.size() < PAGE_SIZE) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Fin du chargement : les RECENT_SIZE entrées modifiées le plus récemment en BDD
+     * (une seule passe, sur le thread d'arrière-plan), placées avant celles déjà utilisées
+     * depuis la connexion
+     */
+    private static void seedRecent(long current) {
+        PriorityQueue<Entry> newest = new PriorityQueue<>(Comparator.comparingLong((Entry e) -> e.touchedAt));
+        for (Entry entry : ENTRIES.values()) {
+            newest.add(entry);
+            if (newest.size() > RECENT_SIZE) {
+                newest.poll();
+            }
+        }
+
+        synchronized (CommandIndex.class) {
+            if (current != generation) {
+                return;
+            }
+            List<Long> used = new ArrayList<>(RECENT.keySet());
+            RECENT.clear();
+            while (!newest.isEmpty()) {
+                RECENT.put(newest.poll().key(), Boolean.TRUE);
+            }
+            for (Long key : used) {
+                Entry entry = ENTRIES.get(key);
+                if (entry != null && entry.touchedAt > 0) {
+                    RECENT.put(key, Boolean.TRUE);
+                }
+            }
+        }
+    }
+
+    private static void add(Entry entry) {
+        ENTRIES.put(entry.key(), entry);
+        INDEX.put(entry);
+    }
+
+    private static void clearEntries() {
+        ENTRIES.clear();
+        INDEX.rebuild(List.of());
+        RECENT.clear();
+    }
+
+    private static List<Entry> viewsFor(User user) {
+        List<Entry> views = new ArrayList<>();
+        int id = 0;
+        if (user.isAdmin()) {
+            views.add(view(++id, "Dashboard", "/com/taskmaster/views/admin_dashboard.fxml"));
+            views.add(view(++id, "Gestion Utilisateurs", "/com/taskmaster/views/manage_users.fxml"));
+            views.add(view(++id, "Gestion Projets", "/com/taskmaster/views/manage_projects.fxml"));
+            views.add(view(++id, "Gestion Tâches", "/com/taskmaster/views/manage_tasks.fxml"));
+            views.add(view(++id, "Requêtes lentes", "/com/taskmaster/views/slow_queries.fxml"));
+        } else {
+            views.add(view(++id, "Dashboard Utilisateur", "/com/taskmaster/views/user_dashboard.fxml"));
+            views.add(view(++id, "Mes Projets", "/com/taskmaster/views/user_projects.fxml"));
+        }
+        views.add(view(++id, "Mon Profil", "/com/taskmaster/views/profile.fxml"));
+        return views;
+    }
+
+    private static Entry view(int id, String title, String fxmlPath) {
+        return new Entry(CommandKind.VIEW, id, title, "", fxmlPath, 0);
+    }
+
+    private static Entry taskEntry(Task task) {
+        return new Entry(CommandKind.TASK, task.getId(), task.getTitle(), task.getProjectName(), null,
+                millis(task.getUpdatedAt()));
+    }
+
+    private static Entry projectEntry(Project project) {
+        return new Entry(CommandKind.PROJECT, project.getId(), project.getName(), project.getStatus(), null,
+                millis(project.getUpdatedAt()));
+    }
+
+    private static Entry projectOf(Task task) {
+        return new Entry(CommandKind.PROJECT, task.getProjectId(), task.getProjectName(), "", null, 0);
+    }
+
+    private static Entry userEntry(User user) {
+        return new Entry(CommandKind.USER, user.getId(), user.getFullName(), user.getUsername(), null,
+                millis(user.getUpdatedAt()));
+    }
+
+    private static double recencyBoost(Entry entry, long now) {
+        if (entry.touchedAt <= 0) {
+            return 0;
+        }
+        double ageDays = Math.max(0, now - entry.touchedAt) / MILLIS_PER_DAY;
+        return RECENCY_WEIGHT * Math.pow(0.5, ageDays / HALF_LIFE_DAYS);
+    }
+
+    private static long millis(LocalDateTime dateTime) {
+        return dateTime != null ? dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : 0;
+    }
+}
@@ -0,0 +1,190 @@
+package com.taskmaster.utils;
+
+import com.taskmaster.controllers.Focusable;
+import com.taskmaster.models.CommandKind;
+import javafx.geometry.Bounds;
+import javafx.scene.Node;
+import javafx.scene.Scene;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+import javafx.scene.control.TextField;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyCodeCombination;
+import javafx.scene.input.KeyCombination;
+import javafx.scene.layout.VBox;
+import javafx.stage.Popup;
+
+import java.util.List;
+
+/**
+ * Palette de commandes (Ctrl+K / Cmd+K) : aller directement à un écran,
+ * une tâche, un projet ou un utilisateur sans passer par les menus
+ *
+ * La recherche est faite en mémoire (CommandIndex) à chaque frappe :
+ * pas de temporisation, le résultat s'affiche dans la même frame.
+ *
+ * Installée sur chaque scène par NavigationUtils (et par la connexion).
+ */
+public class CommandPalette {
+
+    private static final KeyCombination SHORTCUT = new KeyCodeCombination(KeyCode.K, KeyCombination.SHORTCUT_DOWN);
+    private static final String INSTALLED = "taskmaster.command-palette";
+    private static final int MAX_RESULTS = 12;
+    private static final double WIDTH = 560;
+
+    private final Scene scene;
+    private final Popup popup = new Popup();
+    private final TextField input = new TextField();
+    private final ListView<CommandIndex.Entry> results = new ListView<>();
+    private final VBox box;
+
+    private CommandPalette(Scene scene) {
+        this.scene = scene;
+
+        input.setPromptText("Aller à une tâche, un projet, un utilisateur, un écran...");
+        results.setPrefHeight(MAX_RESULTS * 44);
+        results.setCellFactory(list -> new EntryCell());
+
+        box = new VBox(8, input, results);
+        box.setPrefWidth(WIDTH);
+        box.getStyleClass().add("command-palette");
+
+        popup.getContent().add(box);
+        popup.setAutoHide(true);
+        popup.setHideOnEscape(true);
+
+        input.textProperty().addListener((obs, oldText, newText) -> refresh(newText));
+
+        // Flèches : déplacer la sélection sans quitter le champ ; Entrée : ouvrir
+        input.setOnKeyPressed(e -> {
+            int index = results.getSelectionModel().getSelectedIndex();
+            if (e.getCode() == KeyCode.DOWN) {
+                results.getSelectionModel().select(Math.min(index + 1, results.getItems().size() - 1));
+                results.scrollTo(results.getSelectionModel().getSelectedIndex());
+                e.consume();
+            } else if (e.getCode() == KeyCode.UP) {
+                results.getSelectionModel().select(Math.max(index - 1, 0));
+                results.scrollTo(results.getSelectionModel().getSelectedIndex());
+                e.consume();
+            } else if (e.getCode() == KeyCode.ENTER) {
+                openSelected();
+                e.consume();
+            }
+        });
+        results.setOnMouseClicked(e -> {
+            if (e.getClickCount() == 2) {
+                openSelected();
+            }
+        });
+    }
+
+    /**
+     * Ajoute le raccourci à une scène (sans effet si déjà fait)
+     */
+    public static void install(Scene scene) {
+        if (scene.getProperties().containsKey(INSTALLED)) {
+            return;
+        }
+
+        CommandPalette palette = new CommandPalette(scene);
+        scene.getProperties().put(INSTALLED, palette);
+        scene.getAccelerators().put(SHORTCUT, () -> {
+            if (SessionManager.isLoggedIn()) {
+                palette.show();
+            }
+        });
+    }
+
+    private void show() {
+        // Le Popup a sa propre scène : il reprend le thème de la fenêtre
+        if (box.getStylesheets().isEmpty()) {
+            box.getStylesheets().addAll(scene.getStylesheets());
+        }
+        input.clear();
+        refresh("");
+
+        Bounds bounds = scene.getRoot().localToScreen(scene.getRoot().getBoundsInLocal());
+        double x = bounds.getMinX() + (bounds.getWidth() - WIDTH) / 2;
+        double y = bounds.getMinY() + bounds.getHeight() * 0.15;
+        popup.show(scene.getWindow(), x, y);
+        input.requestFocus();
+    }
+
+    private void refresh(String text) {
+        List<CommandIndex.Entry> found = text == null || text.isBlank()
+                ? CommandIndex.recent(MAX_RESULTS)
+                : CommandIndex.search(text, MAX_RESULTS);
+        results.getItems().setAll(found);
+        if (!found.isEmpty()) {
+            results.getSelectionModel().selectFirst();
+        }
+    }
+
+    private void openSelected() {
+        CommandIndex.Entry entry = results.getSelectionModel().getSelectedItem();
+        if (entry == null) {
+            return;
+        }
+        popup.hide();
+        CommandIndex.touch(entry.getKind(), entry.getId());
+
+        Node anchor = scene.getRoot();
+        if (entry.getKind() == CommandKind.VIEW) {
+            NavigationUtils.navigateTo(anchor, entry.getTarget(), entry.getLabel());
+            return;
+        }
+
+        boolean admin = SessionManager.isAdmin();
+        String fxmlPath;
+        String title;
+        switch (entry.getKind()) {
+            case TASK:
+                fxmlPath = admin ? "/com/taskmaster/views/manage_tasks.fxml" : "/com/taskmaster/views/user_dashboard.fxml";
+                title = admin ? "Gestion Tâches" : "Dashboard Utilisateur";
+                break;
+            case PROJECT:
+                fxmlPath = admin ? "/com/taskmaster/views/manage_projects.fxml" : "/com/taskmaster/views/user_projects.fxml";
+                title = admin ? "Gestion Projets" : "Mes Projets";
+                break;
+            default:
+                fxmlPath = "/com/taskmaster/views/manage_users.fxml";
+                title = "Gestion Utilisateurs";
+                break;
+        }
+
+        NavigationUtils.navigateTo(anchor, fxmlPath, title, controller -> {
+            if (controller instanceof Focusable) {
+                ((Focusable) controller).focus(entry.getKind(), entry.getId());
+            }
+        });
+    }
+
+    /**
+     * Ligne de résultat : icône + libellé + détail (projet, username...)
+     */
+    private static class EntryCell extends ListCell<CommandIndex.Entry> {
+        private final Label label = new Label();
+        private final Label detail = new Label();
+        private final VBox box = new VBox(2, label, detail);
+
+        EntryCell() {
+            label.getStyleClass().add("command-label");
+            detail.getStyleClass().add("command-detail");
+        }
+
+        @Override
+        protected void updateItem(CommandIndex.Entry entry, boolean empty) {
+            super.updateItem(entry, empty);
+            if (empty || entry == null) {
+                setGraphic(null);
+                return;
+            }
+            label.setText(entry.getKind().getIcon() + "  " + entry.getLabel());
+            detail.setText(entry.getDetail().isEmpty()
+                    ? entry.getKind().getLabel()
+                    : entry.getKind().getLabel() + " · " + entry.getDetail());
+            setGraphic(box);
+        }
+    }
+}
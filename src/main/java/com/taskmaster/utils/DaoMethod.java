@@ -0,0 +1,39 @@
+package com.taskmaster.utils;
+
+/**
+ * Méthode de DAO qui lance une requête : son histogramme de durée et ses noms
+ * (événements Flight Recorder)
+ *
+ * Une constante par méthode, passée à JdbcTemplate (ou à UnitOfWork.begin) : l'appel DAO
+ * est rattaché à sa méthode sans parcourir la pile ni chercher une clé dans une table.
+ *
+ * Exemple :
+ *   private static final DaoMethod FIND_BY_ID = DaoMethod.of(TaskDAO.class, "findById");
+ *   JdbcTemplate.QUICK.queryOne(FIND_BY_ID, sql, params -> params.setInt(id), TASK_ROWS);
+ */
+public final class DaoMethod {
+
+    final String dao;
+    final String method;
+    final LatencyHistogram histogram;
+
+    private DaoMethod(String dao, String method) {
+        this.dao = dao;
+        this.method = method;
+        this.histogram = Metrics.histogram(
+                "taskmaster_dao_call_seconds", "Durée des méthodes DAO (connexion comprise)",
+                "dao", dao, "method", method);
+    }
+
+    /**
+     * À garder dans un champ static final (même DAO + même méthode = même série de métriques)
+     */
+    public static DaoMethod of(Class<?> dao, String method) {
+        return new DaoMethod(dao.getSimpleName(), method);
+    }
+
+    @Override
+    public String toString() {
+        return dao + "." + method;
+    }
+}
@@ -3,55 +3,303 @@ package com.taskmaster.utils;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 
 public class DatabaseConnection {
 
 
-    private static final String URL = "jdbc:mysql://localhost:3306/taskmaster_db";
-    private static final String USER = "root";
-    private static final String PASSWORD = "";  // XAMPP par défaut = vide
+    // useServerPrepStmts : requêtes préparées par MySQL une seule fois par connexion,
+    // gardées ouvertes par le cache de PooledConnection puis réexécutées avec d'autres paramètres
+    // connectTimeout : serveur injoignable détecté en 5 s (mode hors ligne) au lieu du délai TCP
+    // innodb_lock_wait_timeout : attente de verrou bornée à 10 s (50 s par défaut), sous le
+    // délai des requêtes (JdbcTemplate) ; l'erreur 1205 est alors relancée par JdbcTemplate
+    private static final String DEFAULT_URL = "jdbc:mysql://localhost:3306/taskmaster_db?useServerPrepStmts=true"
+            + "&connectTimeout=5000&sessionVariables=innodb_lock_wait_timeout=10";
 
-    private static Connection connection = null;
+    // Autre base : -Dtaskmaster.db.url / .user / .password (ex : base H2 des tests, voir src/test)
+    private static final String URL = System.getProperty("taskmaster.db.url", DEFAULT_URL);
+    private static final String USER = System.getProperty("taskmaster.db.user", "root");
+    private static final String PASSWORD = System.getProperty("taskmaster.db.password", "");  // XAMPP par défaut = vide
+
+    // Une connexion par thread : les recherches en arrière-plan ne doivent pas
+    // fermer (ou utiliser en même temps) la connexion du thread JavaFX
+    // Gardée ouverte entre les appels de DAO (requêtes préparées réutilisées, voir PooledConnection)
+    private static final ThreadLocal<PooledConnection> connection = new ThreadLocal<>();
+    private static final Set<PooledConnection> POOLED = ConcurrentHashMap.newKeySet();
+
+    // Connexion inactive fermée après IDLE_TIMEOUT_MS ; vérifiée (isValid) avant réutilisation
+    // après VALIDATE_AFTER_MS sans appel (MySQL a pu la couper : wait_timeout, redémarrage)
+    private static final long IDLE_TIMEOUT_MS = Long.getLong("taskmaster.connectionIdleMs", 300_000);
+    private static final long VALIDATE_AFTER_MS = 30_000;
+
+    // ===== Métriques =====
+    private static final LatencyHistogram ACQUIRE = Metrics.histogram(
+            "taskmaster_db_connection_acquire_seconds", "Ouverture d'une connexion MySQL");
+    private static final Metrics.Counter OPENED = Metrics.counter(
+            "taskmaster_db_connections_opened_total", "Connexions MySQL ouvertes");
+    // Connexions physiques (gardées par les threads), pas les appels de DAO en cours
+    private static final AtomicInteger OPEN = new AtomicInteger();
+
+    static {
+        Metrics.gauge("taskmaster_db_connections_open", "Connexions MySQL actuellement ouvertes", OPEN::get);
+    }
+
+    // Durée de chaque méthode de DAO : de getConnection(DaoMethod) à la fermeture de la connexion
+    // (chaque méthode ouvre et ferme la sienne avec try-with-resources ; la méthode est passée
+    // par JdbcTemplate ou UnitOfWork.begin, voir DaoMethod)
+    private static final ThreadLocal<DaoCall> currentCall = ThreadLocal.withInitial(DaoCall::new);
+
+    private static final class DaoCall {
+        DaoMethod method;   // null = aucun appel en cours sur ce thread
+        long start;
+        int statements;
+        long rows;
+        FlightEvents.DaoCallEvent event;   // null si Flight Recorder n'enregistre pas les appels DAO
+    }
+
+    // ===== Mode hors ligne =====
+    // Base injoignable : getConnection() échoue tout de suite (pas d'attente du délai de connexion
+    // à chaque requête) ; un thread vérifie toutes les PROBE_INTERVAL_MS si elle est revenue
+    private static final long PROBE_INTERVAL_MS = 5_000;
+    private static volatile boolean offline = false;
+    private static final List<Runnable> RECONNECT_LISTENERS = new CopyOnWriteArrayList<>();
+    private static final ScheduledExecutorService PROBE = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "taskmaster-db-probe");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    static {
+        // Même thread : fermeture des connexions inactives
+        PROBE.scheduleWithFixedDelay(DatabaseConnection::closeIdle,
+                IDLE_TIMEOUT_MS, IDLE_TIMEOUT_MS / 2, TimeUnit.MILLISECONDS);
+    }
 
     private DatabaseConnection() {}
 
+    /**
+     * true tant que la base est injoignable (lectures servies par OfflineStore,
+     * écritures mises dans OfflineJournal)
+     */
+    public static boolean isOffline() {
+        return offline;
+    }
+
+    /**
+     * true pour MySQL (false pour une autre base configurée, ex : H2 des tests)
+     */
+    static boolean isMySql() {
+        return URL.startsWith("jdbc:mysql:");
+    }
+
+    /**
+     * Appelé (thread "taskmaster-db-probe") quand la base redevient joignable
+     */
+    public static void onReconnect(Runnable listener) {
+        RECONNECT_LISTENERS.add(listener);
+    }
+
+    /**
+     * Connexion hors des métriques par méthode de DAO (migrations, EXPLAIN, test de connexion)
+     */
     public static Connection getConnection() throws SQLException {
+        return getConnection(null);
+    }
+
+    /**
+     * @param caller Méthode de DAO à mesurer (null = aucune) ; un appel déjà en cours sur ce
+     *               thread (appel imbriqué) garde la sienne
+     */
+    static Connection getConnection(DaoMethod caller) throws SQLException {
+        // Diagnostic : requête lancée depuis le thread JavaFX (voir FxWatchdog)
+        FxWatchdog.checkBlockingCall("JDBC");
+        // Unité de travail ouverte sur ce thread : sa connexion (même transaction)
+        Connection bound = UnitOfWork.boundConnection();
+        if (bound != null) {
+            return bound;
+        }
+        if (offline) {
+            throw new SQLException("Base de données injoignable (mode hors ligne)", "08001");
+        }
         try {
-            if (connection == null || connection.isClosed()) {
-                Class.forName("com.mysql.cj.jdbc.Driver");
-                connection = DriverManager.getConnection(URL, USER, PASSWORD);
+            DaoCall call = currentCall.get();
+            if (call.method == null && caller != null) {
+                call.method = caller;
+                call.start = System.nanoTime();
+                call.statements = 0;
+                call.rows = 0;
+                if (FlightEvents.DAO_CALL.isEnabled()) {
+                    call.event = new FlightEvents.DaoCallEvent();
+                    call.event.begin();
+                }
+            }
+
+            PooledConnection pooled = connection.get();
+            Connection lease = pooled != null ? pooled.tryLease(VALIDATE_AFTER_MS) : null;
+            if (lease == null) {
+                if (pooled != null) {
+                    discard(pooled);   // Fermée (inactive) ou perdue
+                }
+                if (isMySql()) {
+                    Class.forName("com.mysql.cj.jdbc.Driver");
+                }
+                long start = System.nanoTime();
+                pooled = new PooledConnection(DriverManager.getConnection(URL, USER, PASSWORD));
+                ACQUIRE.recordSince(start);
+                OPENED.increment();
+                OPEN.incrementAndGet();
+                POOLED.add(pooled);
+                connection.set(pooled);
+                lease = pooled.tryLease(VALIDATE_AFTER_MS);
                 System.out.println("✓ Connexion à la base de données réussie !");
             }
-            return connection;
+            return lease;
 
         } catch (ClassNotFoundException e) {
+            abandonCall();
             System.err.println("✗ Erreur : Driver MySQL introuvable !");
             throw new SQLException("Driver MySQL non trouvé", e);
 
         } catch (SQLException e) {
+            abandonCall();
             System.err.println("✗ Erreur de connexion à la base de données !");
             System.err.println("Vérifiez : URL, USER, PASSWORD");
             System.err.println("Erreur : " + e.getMessage());
+            connectionFailed(e);
             throw e;
         }
     }
 
-    public static void closeConnection() {
-        try {
-            if (connection != null && !connection.isClosed()) {
-                connection.close();
-                System.out.println("✓ Connexion fermée");
+    /**
+     * Erreur d'une requête : si la connexion est perdue (SQLState 08xxx), passage hors ligne
+     * (appelé par JdbcTemplate pour les erreurs en cours de requête)
+     */
+    static void connectionFailed(SQLException e) {
+        String state = e.getSQLState();
+        if (state == null || !state.startsWith("08") || offline) {
+            return;
+        }
+        synchronized (DatabaseConnection.class) {
+            if (offline) {
+                return;
+            }
+            offline = true;
+        }
+        System.err.println("📴 Base de données injoignable : mode hors ligne");
+        PROBE.schedule(DatabaseConnection::probe, PROBE_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    // Thread "taskmaster-db-probe" : connexion de test, hors des compteurs des DAO
+    private static void probe() {
+        try (Connection test = DriverManager.getConnection(URL, USER, PASSWORD)) {
+            if (test.isValid(2)) {
+                offline = false;
+                System.out.println("📶 Base de données de nouveau joignable");
+                for (Runnable listener : RECONNECT_LISTENERS) {
+                    try {
+                        listener.run();
+                    } catch (RuntimeException e) {
+                        System.err.println("Erreur reprise après coupure : " + e.getMessage());
+                    }
+                }
+                return;
             }
         } catch (SQLException e) {
-            System.err.println("✗ Erreur fermeture : " + e.getMessage());
+            // Toujours injoignable
+        }
+        PROBE.schedule(DatabaseConnection::probe, PROBE_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    // Thread "taskmaster-db-probe" : connexions des threads inactifs depuis IDLE_TIMEOUT_MS
+    private static void closeIdle() {
+        for (PooledConnection pooled : POOLED) {
+            if (pooled.closeIfIdle(IDLE_TIMEOUT_MS)) {
+                forget(pooled);
+            }
+        }
+    }
+
+    private static void discard(PooledConnection pooled) {
+        pooled.close();
+        forget(pooled);
+    }
+
+    private static void forget(PooledConnection pooled) {
+        if (POOLED.remove(pooled)) {
+            OPEN.decrementAndGet();
+        }
+    }
+
+    /**
+     * Appelé par PooledConnection quand un DAO ferme sa connexion : fin de l'appel DAO en cours
+     * (la connexion elle-même reste ouverte pour le thread)
+     */
+    static void released() {
+        PooledConnection pooled = connection.get();
+        if (pooled != null && pooled.isLeased()) {
+            return;   // Appel imbriqué : l'appel extérieur n'est pas fini
+        }
+        DaoCall call = currentCall.get();
+        if (call.method == null) {
+            return;
+        }
+        call.method.histogram.recordSince(call.start);
+
+        FlightEvents.DaoCallEvent event = call.event;
+        if (event != null) {
+            event.end();
+            if (event.shouldCommit()) {
+                event.dao = call.method.dao;
+                event.method = call.method.method;
+                event.statements = call.statements;
+                event.rows = call.rows;
+                event.actionId = ActionContext.currentId();
+                event.commit();
+            }
+        }
+        abandonCall();
+    }
+
+    /**
+     * Appelé par QueryProfiler après chaque requête de JdbcTemplate : comptage pour l'appel DAO en cours
+     */
+    static void statementDone(long rowsRead) {
+        DaoCall call = currentCall.get();
+        if (call.method != null) {
+            call.statements++;
+            call.rows += Math.max(rowsRead, 0);
+        }
+    }
+
+    private static void abandonCall() {
+        DaoCall call = currentCall.get();
+        call.method = null;
+        call.event = null;
+    }
+
+    /**
+     * Ferme la connexion du thread (et ses requêtes préparées)
+     */
+    public static void closeConnection() {
+        PooledConnection pooled = connection.get();
+        if (pooled != null) {
+            connection.remove();
+            discard(pooled);
+            System.out.println("✓ Connexion fermée");
         }
     }
 
     public static boolean testConnection() {
-        try {
-            Connection conn = getConnection();
-            return conn != null && !conn.isClosed();
+        try (Connection conn = getConnection()) {
+            return !conn.isClosed();
         } catch (SQLException e) {
             return false;
         }
@@ -0,0 +1,39 @@
+package com.taskmaster.utils;
+
+import javafx.animation.PauseTransition;
+import javafx.util.Duration;
+
+/**
+ * Retarde une action tant que l'utilisateur continue de taper
+ * Évite de relancer un filtrage (ou une requête) à chaque touche
+ *
+ * Exemple :
+ *   Debouncer debouncer = new Debouncer(Duration.millis(200), this::applyFilters);
+ *   searchField.textProperty().addListener((obs, o, n) -> debouncer.trigger());
+ *
+ * Doit être utilisé depuis le thread JavaFX (comme PauseTransition)
+ */
+public class Debouncer {
+
+    private final PauseTransition pause;
+
+    public Debouncer(Duration delay, Runnable action) {
+        this.pause = new PauseTransition(delay);
+        this.pause.setOnFinished(e -> action.run());
+    }
+
+    /**
+     * (Re)démarre le compte à rebours : l'action ne sera exécutée
+     * qu'une fois le délai écoulé sans nouvel appel
+     */
+    public void trigger() {
+        pause.playFromStart();
+    }
+
+    /**
+     * Annule l'action en attente
+     */
+    public void cancel() {
+        pause.stop();
+    }
+}
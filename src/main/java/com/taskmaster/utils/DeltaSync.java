@@ -0,0 +1,307 @@
+package com.taskmaster.utils;
+
+import com.taskmaster.models.ChangeSet;
+import com.taskmaster.models.QueryResult;
+import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.scene.Node;
+import javafx.scene.control.TableView;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+/**
+ * Synchronisation incrémentale d'une liste affichée (bouton "Actualiser")
+ *
+ * - load() : chargement complet, comme avant
+ * - refresh() : seules les lignes modifiées / supprimées depuis le dernier point de
+ *   synchronisation (updated_at + tombstones, voir migration V5) sont lues,
+ *   puis fusionnées dans la liste existante : remplacement sur place, ajout, retrait.
+ *   Le coût suit le nombre de modifications, pas la taille de la liste.
+ *
+ * Les modifications reçues concernent toute la table : keepOnly() indique quelles lignes
+ * appartiennent à l'écran (une tâche réassignée à quelqu'un d'autre sort de "Mes tâches").
+ *
+ * Exemple :
+ *   DeltaSync<Task> sync = new DeltaSync<>(myTasks, Task::getId,
+ *           () -> taskDAO.findByUserId(userId), taskDAO::findChangesSince)
+ *           .keepOnly(task -> Objects.equals(task.getAssignedTo(), userId));
+ *   sync.load();      // initialize()
+ *   sync.follow(tasksTable, Task.class);                                  // écritures de ce client
+ *   sync.live(tasksTable, ChangeFeed.Entity.TASK, taskDAO::findByIds);   // modifications des autres clients
+ *   sync.refresh();   // bouton Actualiser
+ *
+ * Chargement complet en échec (délai dépassé, base injoignable) : la liste affichée est
+ * gardée telle quelle, la cause est affichée au-dessus du tableau (voir reportTo) et le prochain
+ * refresh() recommence un chargement complet. Copie hors ligne (STALE) : affichée, sans
+ * point de synchronisation (rechargement complet au retour de la connexion).
+ *
+ * À utiliser depuis le thread JavaFX (la liste est celle d'une TableView)
+ */
+public class DeltaSync<T> {
+
+    // Au-delà : rechargement complet (les tombstones peuvent avoir été purgés)
+    private static final long MAX_DELTA_AGE_MS = 24L * 60 * 60 * 1000;
+
+    private static final Metrics.Counter CHANGES = Metrics.counter(
+            "taskmaster_sync_changes_total", "Lignes modifiées / supprimées reçues par synchronisation incrémentale");
+    private static final Metrics.Counter FULL_RELOADS = Metrics.counter(
+            "taskmaster_sync_full_reloads_total", "Rechargements complets d'une liste synchronisée");
+
+    private final ObservableList<T> items;
+    private final ToIntFunction<T> idOf;
+    private final Supplier<QueryResult<List<T>>> fullLoad;
+    private final Function<LocalDateTime, ChangeSet<T>> changesSince;
+
+    private Predicate<T> belongs = row -> true;
+    private Comparator<T> order;
+    private int limit = Integer.MAX_VALUE;
+    private TableView<?> statusTable;   // Tableau où afficher la cause d'un échec (peut être null)
+
+    private LocalDateTime watermark;   // null = aucun point de synchronisation : chargement complet
+    private long syncedAt;             // System.currentTimeMillis() de la dernière synchronisation
+    private boolean truncated;         // Le chargement complet a atteint la limite
+
+    /**
+     * @param items        Liste affichée (modifiée sur place)
+     * @param idOf         Identifiant d'une ligne
+     * @param fullLoad     Requête complète de l'écran (liste + cause d'un échec + heure du serveur)
+     * @param changesSince Modifications depuis un point de synchronisation (null = erreur)
+     */
+    public DeltaSync(ObservableList<T> items, ToIntFunction<T> idOf,
+                     Supplier<QueryResult<List<T>>> fullLoad, Function<LocalDateTime, ChangeSet<T>> changesSince) {
+        this.items = items;
+        this.idOf = idOf;
+        this.fullLoad = fullLoad;
+        this.changesSince = changesSince;
+    }
+
+    /**
+     * Lignes qui appartiennent à l'écran (les autres modifications sont ignorées ou retirées)
+     */
+    public DeltaSync<T> keepOnly(Predicate<T> belongs) {
+        this.belongs = belongs;
+        return this;
+    }
+
+    /**
+     * Tableau où afficher l'état du chargement complet (voir QueryStatus)
+     */
+    public DeltaSync<T> reportTo(TableView<?> table) {
+        this.statusTable = table;
+        return this;
+    }
+
+    /**
+     * Écran trié côté BDD (ex : tâches urgentes, plus récentes d'abord) : la fusion retrie
+     */
+    public DeltaSync<T> ordered(Comparator<T> order) {
+        return ordered(order, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Écran trié et limité côté BDD (ex : 50 tâches urgentes les plus récentes) :
+     * la fusion retrie et coupe à la limite ; si des retraits font passer une liste
+     * complète sous la limite, on recharge tout (les lignes suivantes ne sont pas connues)
+     */
+    public DeltaSync<T> ordered(Comparator<T> order, int limit) {
+        this.order = order;
+        this.limit = limit;
+        return this;
+    }
+
+    /**
+     * Écritures de ce client (EntityEvents) : fusionnées sans aucune requête
+     *
+     * @param owner Nœud de l'écran (fin de l'abonnement quand il quitte sa scène)
+     */
+    public DeltaSync<T> follow(Node owner, Class<T> entity) {
+        EntityEvents.subscribeFx(owner, entity, events -> {
+            merge(changes(items, idOf, events));
+            if (truncated && items.size() < limit) {
+                load();
+            }
+        });
+        return this;
+    }
+
+    /**
+     * Mise à jour en direct : les lignes signalées par ChangeFeed sont relues par identifiant
+     * (thread du journal) puis fusionnées comme un rafraîchissement
+     * Le point de synchronisation ne bouge pas : refresh() les relira sans effet
+     * Relecture en échec : ChangeFeed ne renverra pas ces modifications, chargement complet
+     * (en échec lui aussi : liste gardée, cause affichée, refresh() recommencera)
+     *
+     * @param owner     Nœud de l'écran (fin de l'abonnement quand il quitte sa scène)
+     * @param findByIds Lecture des lignes par identifiant
+     */
+    public DeltaSync<T> live(Node owner, ChangeFeed.Entity entity,
+                             Function<Collection<Integer>, QueryResult<List<T>>> findByIds) {
+        ChangeFeed.subscribe(owner, entity, batch -> {
+            QueryResult<List<T>> rows = findByIds.apply(batch.getUpserted());
+            if (!rows.hasValue()) {
+                Platform.runLater(this::load);
+                return;
+            }
+            ChangeSet<T> changes = new ChangeSet<>(rows.getValue(), batch.getDeleted(), null);
+            Platform.runLater(() -> {
+                merge(changes);
+                if (truncated && items.size() < limit) {
+                    load();
+                }
+            });
+        });
+        return this;
+    }
+
+    /**
+     * Chargement complet
+     * Point de synchronisation : heure du serveur lue avec les lignes (QueryResult.getReadAt),
+     * pas la dernière modification parmi elles (le premier refresh() relirait alors toutes
+     * les modifications de la table depuis celle-ci). Sans heure : pas de refresh() incrémental.
+     *
+     * @return Le résultat du chargement (en échec : liste affichée inchangée)
+     */
+    public QueryResult<List<T>> load() {
+        QueryResult<List<T>> result = fullLoad.get();
+        if (statusTable != null) {
+            QueryStatus.show(statusTable, result);
+        }
+        FULL_RELOADS.increment();
+        if (!result.hasValue()) {
+            watermark = null;
+            return result;
+        }
+
+        List<T> rows = result.getValue();
+        items.setAll(rows);
+        truncated = rows.size() >= limit;
+        watermark = result.getStatus() == QueryResult.Status.STALE ? null : result.getReadAt();
+        syncedAt = System.currentTimeMillis();
+        return result;
+    }
+
+    /**
+     * Applique les modifications depuis la dernière synchronisation
+     *
+     * @return Nombre de lignes modifiées / supprimées reçues (-1 = rechargement complet)
+     */
+    public int refresh() {
+        if (watermark == null || System.currentTimeMillis() - syncedAt > MAX_DELTA_AGE_MS) {
+            load();
+            return -1;
+        }
+
+        ChangeSet<T> changes = changesSince.apply(watermark);
+        if (changes == null) {
+            // Erreur de lecture : la liste reste telle quelle, on réessaiera au prochain rafraîchissement
+            return 0;
+        }
+        watermark = changes.getWatermark();
+        syncedAt = System.currentTimeMillis();
+        CHANGES.add(changes.size());
+
+        merge(changes);
+
+        if (truncated && items.size() < limit) {
+            load();
+            return -1;
+        }
+        return changes.size();
+    }
+
+    private void merge(ChangeSet<T> changes) {
+        merge(items, idOf, belongs, changes);
+
+        if (order != null && !changes.isEmpty()) {
+            FXCollections.sort(items, order);
+        }
+        if (items.size() > limit) {
+            items.remove(limit, items.size());
+        }
+    }
+
+    /**
+     * Traduit des événements EntityEvents en modifications d'une liste
+     * (une modification partielle s'applique à la ligne affichée ; ignorée si elle n'y est pas)
+     */
+    public static <T> ChangeSet<T> changes(List<T> items, ToIntFunction<T> idOf, List<EntityEvents.Event<T>> events) {
+        Map<Integer, T> current = new HashMap<>(items.size() * 2);
+        for (T item : items) {
+            current.put(idOf.applyAsInt(item), item);
+        }
+
+        List<T> changed = new ArrayList<>();
+        List<Integer> deleted = new ArrayList<>();
+        for (EntityEvents.Event<T> event : events) {
+            if (event.isDeleted()) {
+                deleted.add(event.getId());
+                continue;
+            }
+            T row = event.applyTo(current.get(event.getId()));
+            if (row != null) {
+                changed.add(row);
+            }
+        }
+        return new ChangeSet<>(changed, deleted, null);
+    }
+
+    /**
+     * Fusionne des modifications dans une liste, sur place (aussi utilisé par les écrans
+     * sans DeltaSync : lignes mises à jour en direct)
+     * Les lignes ajoutées vont en fin de liste
+     *
+     * @param belongs Lignes qui appartiennent à la liste (les autres en sont retirées)
+     */
+    public static <T> void merge(ObservableList<T> items, ToIntFunction<T> idOf, Predicate<T> belongs, ChangeSet<T> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+
+        // Position actuelle de chaque ligne (une passe en mémoire, aucune requête)
+        Map<Integer, Integer> positions = new HashMap<>(items.size() * 2);
+        for (int i = 0; i < items.size(); i++) {
+            positions.put(idOf.applyAsInt(items.get(i)), i);
+        }
+
+        Set<Integer> removed = new HashSet<>(changes.getDeletedIds());
+        List<T> added = new ArrayList<>();
+
+        for (T row : changes.getChanged()) {
+            int id = idOf.applyAsInt(row);
+            Integer position = positions.get(id);
+
+            if (!belongs.test(row)) {
+                // Ne concerne plus cet écran (réassignée, terminée...)
+                if (position != null) {
+                    removed.add(id);
+                }
+            } else if (position == null) {
+                added.add(row);
+            } else {
+                // Remplacement sur place : seule cette ligne de la TableView est redessinée
+                items.set(position, row);
+            }
+        }
+
+        removed.retainAll(positions.keySet());
+        if (!removed.isEmpty()) {
+            items.removeIf(item -> removed.contains(idOf.applyAsInt(item)));
+        }
+        if (!added.isEmpty()) {
+            items.addAll(added);
+        }
+    }
+}
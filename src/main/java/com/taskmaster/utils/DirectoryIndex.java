@@ -0,0 +1,313 @@
+package com.taskmaster.utils;
+
+import com.taskmaster.models.Project;
+import com.taskmaster.models.Task;
+import com.taskmaster.models.User;
+import javafx.application.Platform;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+/**
+ * Annuaire en mémoire des utilisateurs et des projets
+ * Partagé par tous les écrans : chargé au premier besoin, puis tenu à jour
+ * par les événements des DAO (EntityEvents) à chaque création / modification / suppression.
+ *
+ * Deux index par type :
+ *  - FuzzyIndex : recherche approchée (barres de recherche)
+ *  - PrefixIndex : auto-complétion par début de mot (sélecteurs des formulaires)
+ *
+ * Le chargement ne bloque jamais l'appelant : il est lancé en arrière-plan (threads
+ * d'AsyncSearch) et l'appelant reçoit l'index du moment (vide tant que le chargement
+ * n'est pas terminé). Les index chargés remplacent ensuite les vides d'un bloc.
+ * Une frappe sur le thread JavaFX n'attend donc ni la BDD ni un verrou tenu pendant le chargement.
+ *
+ * Exemple :
+ *   List<User> found = DirectoryIndex.users(userDAO::findAll).search("helene", 20);      // thread JavaFX
+ *   List<User> all = DirectoryIndex.usersReady(userDAO::findAll).join().search("helene", 20);  // arrière-plan
+ *   List<User> picks = DirectoryIndex.userNames(userDAO::findAll).complete("dup", 10);
+ */
+public class DirectoryIndex {
+
+    private static final LatencyHistogram LOAD_LATENCY = Metrics.histogram(
+            "taskmaster_cache_load_seconds", "Chargement complet d'un index en mémoire", "cache", "directory");
+
+    private static final Directory<User> USERS = new Directory<>("utilisateurs", "users", User::getId, user -> List.of(
+            user.getFirstName() + " " + user.getLastName(),
+            nullToEmpty(user.getUsername()),
+            nullToEmpty(user.getEmail())
+    ));
+
+    private static final Directory<Project> PROJECTS = new Directory<>("projets", "projects", Project::getId, project -> List.of(
+            nullToEmpty(project.getName())
+    ));
+
+    static {
+        Metrics.gauge("taskmaster_cache_entries", "Entrées des index en mémoire", () -> USERS.fuzzy.size(), "cache", "users");
+        Metrics.gauge("taskmaster_cache_entries", "Entrées des index en mémoire", () -> PROJECTS.fuzzy.size(), "cache", "projects");
+
+        EntityEvents.subscribe(User.class, event -> {
+            if (event.isDeleted()) {
+                USERS.deleted(event.getId());
+            } else if (event.getValue() != null) {
+                USERS.saved(event.getValue());
+            }
+        });
+        EntityEvents.subscribe(Project.class, event -> {
+            if (event.isDeleted()) {
+                PROJECTS.deleted(event.getId());
+            } else if (event.getValue() != null) {
+                PROJECTS.saved(event.getValue());
+            }
+        });
+    }
+
+    private DirectoryIndex() {}
+
+    /**
+     * Index approché des utilisateurs (vide tant que le premier chargement n'est pas terminé)
+     *
+     * @param loader Chargement complet, par exemple userDAO::findAll
+     */
+    public static FuzzyIndex<User> users(Supplier<List<User>> loader) {
+        USERS.request(loader);
+        return USERS.fuzzy;
+    }
+
+    /**
+     * Index approché des projets (vide tant que le premier chargement n'est pas terminé)
+     *
+     * @param loader Chargement complet, par exemple projectDAO::findAll
+     */
+    public static FuzzyIndex<Project> projects(Supplier<List<Project>> loader) {
+        PROJECTS.request(loader);
+        return PROJECTS.fuzzy;
+    }
+
+    /**
+     * Auto-complétion des utilisateurs (prénom, nom, username, email)
+     */
+    public static PrefixIndex<User> userNames(Supplier<List<User>> loader) {
+        USERS.request(loader);
+        return USERS.prefix;
+    }
+
+    /**
+     * Auto-complétion des projets (nom)
+     */
+    public static PrefixIndex<Project> projectNames(Supplier<List<Project>> loader) {
+        PROJECTS.request(loader);
+        return PROJECTS.prefix;
+    }
+
+    /**
+     * Index approché des utilisateurs une fois chargé
+     * join() seulement hors du thread JavaFX (ex : dans une AsyncSearch)
+     */
+    public static CompletableFuture<FuzzyIndex<User>> usersReady(Supplier<List<User>> loader) {
+        return USERS.request(loader).thenApply(loaded -> USERS.fuzzy);
+    }
+
+    /**
+     * true quand l'index des projets est chargé (sinon projects() renvoie un index vide)
+     */
+    public static boolean projectsLoaded() {
+        return PROJECTS.loaded;
+    }
+
+    /**
+     * Exécute une action sur le thread JavaFX dès que les deux annuaires sont chargés
+     * (tout de suite s'ils le sont déjà), par exemple pour préremplir un formulaire
+     */
+    public static void whenLoaded(Supplier<List<User>> userLoader, Supplier<List<Project>> projectLoader,
+                                  Runnable fxAction) {
+        CompletableFuture<Void> users = USERS.request(userLoader);
+        CompletableFuture<Void> projects = PROJECTS.request(projectLoader);
+        if (USERS.loaded && PROJECTS.loaded && Platform.isFxApplicationThread()) {
+            fxAction.run();
+            return;
+        }
+        // Chargement en échec : l'action s'exécute quand même (index vides)
+        CompletableFuture.allOf(users, projects).whenComplete((done, error) -> Platform.runLater(fxAction));
+    }
+
+    /**
+     * Charge les index en arrière-plan (à l'ouverture d'un écran qui en aura besoin)
+     * Un formulaire ouvert ensuite n'attend plus la BDD
+     * Sans effet si les index sont déjà chargés ou en cours de chargement : un seul
+     * chargement par index, sur les threads partagés d'AsyncSearch
+     */
+    public static void warmUp(Supplier<List<User>> userLoader, Supplier<List<Project>> projectLoader) {
+        USERS.request(userLoader);
+        PROJECTS.request(projectLoader);
+    }
+
+    /**
+     * Noms (projet, assigné) d'une tâche écrite par ce client, sans jointure
+     * Un index pas encore chargé laisse le nom tel quel
+     */
+    public static void fillNames(Task task) {
+        if (PROJECTS.loaded) {
+            Project project = PROJECTS.fuzzy.get(task.getProjectId());
+            if (project != null) {
+                task.setProjectName(project.getName());
+            }
+        }
+        if (USERS.loaded) {
+            User user = task.getAssignedTo() != null ? USERS.fuzzy.get(task.getAssignedTo()) : null;
+            task.setAssignedToName(user != null ? user.getFirstName() + " " + user.getLastName() : null);
+        }
+    }
+
+    /**
+     * Oublie les index (ex : à la déconnexion) ; ils seront rechargés au prochain besoin
+     */
+    public static void clear() {
+        USERS.clear();
+        PROJECTS.clear();
+    }
+
+    private static String nullToEmpty(String text) {
+        return text != null ? text : "";
+    }
+
+    /**
+     * Index approché + index de préfixes d'un type, et leur chargement
+     *
+     * Le verrou (this) n'est jamais tenu pendant la lecture en BDD ni la construction des index :
+     * seulement pour lancer un chargement, publier son résultat ou appliquer un événement.
+     * Les événements reçus pendant un chargement sont mis de côté, puis rejoués sur les
+     * nouveaux index avant leur publication (la lecture a pu les précéder).
+     */
+    private static final class Directory<T> {
+        private final String label;
+        private final ToIntFunction<T> idOf;
+        private final Function<T, List<String>> keysOf;
+
+        // 📈 Demandes servies par un index chargé ou en cours de chargement (hit), ou qui l'ont lancé (miss)
+        private final Metrics.Counter hits;
+        private final Metrics.Counter misses;
+
+        // Index servis aux écrans : remplacés d'un bloc, jamais reconstruits sur place
+        private volatile FuzzyIndex<T> fuzzy;
+        private volatile PrefixIndex<T> prefix;
+        private volatile boolean loaded;
+
+        private CompletableFuture<Void> load;   // null = pas encore demandé (ou échec, ou clear)
+        private Map<Integer, T> pending;        // Événements reçus pendant le chargement (null = suppression)
+        private int generation;                 // Incrémenté par clear() : un chargement plus ancien est ignoré
+
+        Directory(String label, String cache, ToIntFunction<T> idOf, Function<T, List<String>> keysOf) {
+            this.label = label;
+            this.idOf = idOf;
+            this.keysOf = keysOf;
+            this.hits = Metrics.counter(
+                    "taskmaster_cache_requests_total", "Demandes aux index en mémoire", "cache", cache, "result", "hit");
+            this.misses = Metrics.counter(
+                    "taskmaster_cache_requests_total", "Demandes aux index en mémoire", "cache", cache, "result", "miss");
+            this.fuzzy = newFuzzy();
+            this.prefix = newPrefix();
+        }
+
+        /**
+         * Lance le chargement s'il n'a pas encore été demandé
+         *
+         * @return Le chargement (terminé si l'index est déjà chargé)
+         */
+        synchronized CompletableFuture<Void> request(Supplier<List<T>> loader) {
+            if (load != null) {
+                hits.increment();
+                return load;
+            }
+            misses.increment();
+            int current = generation;
+            pending = new LinkedHashMap<>();
+            CompletableFuture<Void> started = CompletableFuture.runAsync(() -> build(loader, current), AsyncSearch.EXECUTOR);
+            load = started;
+            started.whenComplete((done, error) -> {
+                if (error != null) {
+                    failed(started, error);
+                }
+            });
+            return started;
+        }
+
+        // Thread d'arrière-plan : lecture et construction hors verrou, publication sous verrou
+        private void build(Supplier<List<T>> loader, int expectedGeneration) {
+            List<T> rows = LOAD_LATENCY.time(loader);
+            FuzzyIndex<T> newFuzzy = newFuzzy();
+            PrefixIndex<T> newPrefix = newPrefix();
+            newFuzzy.rebuild(rows);
+            newPrefix.rebuild(rows);
+
+            synchronized (this) {
+                if (expectedGeneration != generation) {
+                    return;
+                }
+                for (Map.Entry<Integer, T> change : pending.entrySet()) {
+                    if (change.getValue() == null) {
+                        newFuzzy.remove(change.getKey());
+                        newPrefix.remove(change.getKey());
+                    } else {
+                        newFuzzy.put(change.getValue());
+                        newPrefix.put(change.getValue());
+                    }
+                }
+                pending = null;
+                fuzzy = newFuzzy;
+                prefix = newPrefix;
+                loaded = true;
+            }
+            System.out.println("✓ Index " + label + " : " + newFuzzy.size() + " entrées");
+        }
+
+        // Le prochain appel relance le chargement
+        private synchronized void failed(CompletableFuture<Void> started, Throwable error) {
+            if (load == started) {
+                load = null;
+                pending = null;
+            }
+            System.err.println("✗ Chargement de l'index " + label + " : " + error.getMessage());
+        }
+
+        synchronized void saved(T value) {
+            if (loaded) {
+                fuzzy.put(value);
+                prefix.put(value);
+            } else if (pending != null) {
+                pending.put(idOf.applyAsInt(value), value);
+            }
+        }
+
+        synchronized void deleted(int id) {
+            if (loaded) {
+                fuzzy.remove(id);
+                prefix.remove(id);
+            } else if (pending != null) {
+                pending.put(id, null);
+            }
+        }
+
+        synchronized void clear() {
+            generation++;
+            fuzzy = newFuzzy();
+            prefix = newPrefix();
+            loaded = false;
+            load = null;
+            pending = null;
+        }
+
+        private FuzzyIndex<T> newFuzzy() {
+            return new FuzzyIndex<>(value -> idOf.applyAsInt(value), keysOf);
+        }
+
+        private PrefixIndex<T> newPrefix() {
+            return new PrefixIndex<>(idOf, keysOf);
+        }
+    }
+}
@@ -0,0 +1,261 @@
+package com.taskmaster.utils;
+
+import javafx.application.Platform;
+import javafx.beans.value.ChangeListener;
+import javafx.beans.value.ObservableValue;
+import javafx.scene.Node;
+import javafx.scene.Scene;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Bus d'événements en mémoire : entités créées / modifiées / supprimées par ce client
+ *
+ * Publiés par les DAO après chaque écriture réussie ; les abonnés corrigent leurs listes,
+ * compteurs et index sur place au lieu de tout relire.
+ *
+ * Deux sortes d'abonnés :
+ *  - subscribe() : appelé tout de suite, sur le thread de l'écriture (index en mémoire)
+ *  - subscribeFx() : écrans ; les événements sont regroupés (un seul Platform.runLater
+ *    par rafale, un seul événement par identifiant) puis livrés sur le thread JavaFX
+ *
+ * Exemple :
+ *   EntityEvents.subscribeFx(projectsTable, Project.class, events -> {
+ *       for (EntityEvents.Event<Project> event : events) { ... }
+ *   });
+ *
+ * Les modifications des autres clients arrivent par ChangeFeed.
+ * Dans une UnitOfWork, les événements attendent son commit (aucun si elle est annulée).
+ */
+public final class EntityEvents {
+
+    public enum Type { CREATED, UPDATED, DELETED }
+
+    private static final Metrics.Counter PUBLISHED = Metrics.counter(
+            "taskmaster_entity_events_total", "Événements créé / modifié / supprimé publiés par les DAO");
+
+    private static final List<Subscription> SUBSCRIPTIONS = new CopyOnWriteArrayList<>();
+
+    private EntityEvents() {}
+
+    /**
+     * Un événement : la nouvelle ligne (value), ou une modification partielle (patch,
+     * ex : seul le statut a changé) à appliquer à la ligne déjà affichée
+     */
+    public static final class Event<T> {
+        private final Class<T> entity;
+        private final Type type;
+        private final int id;
+        private final T value;
+        private final Consumer<T> patch;
+
+        private Event(Class<T> entity, Type type, int id, T value, Consumer<T> patch) {
+            this.entity = entity;
+            this.type = type;
+            this.id = id;
+            this.value = value;
+            this.patch = patch;
+        }
+
+        public Class<T> getEntity() {
+            return entity;
+        }
+
+        public Type getType() {
+            return type;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        /**
+         * Ligne écrite (null : suppression ou modification partielle)
+         */
+        public T getValue() {
+            return value;
+        }
+
+        public boolean isDeleted() {
+            return type == Type.DELETED;
+        }
+
+        /**
+         * Nouvel état d'une ligne affichée
+         *
+         * @param current Ligne actuelle (null si l'écran ne l'a pas)
+         * @return Ligne à afficher (null si l'événement ne suffit pas à la construire)
+         */
+        public T applyTo(T current) {
+            T result = value != null ? value : current;
+            if (patch != null && result != null) {
+                patch.accept(result);
+            }
+            return result;
+        }
+
+        // Deux événements sur la même ligne dans une rafale → un seul
+        private Event<T> then(Event<T> next) {
+            if (next.type == Type.DELETED) {
+                return next;
+            }
+            Type mergedType = type == Type.CREATED ? Type.CREATED : next.type;
+            if (next.value != null) {
+                return new Event<>(entity, mergedType, id, next.value, next.patch);
+            }
+            Consumer<T> mergedPatch = patch == null ? next.patch
+                    : next.patch == null ? patch : patch.andThen(next.patch);
+            return new Event<>(entity, mergedType, id, value, mergedPatch);
+        }
+    }
+
+    /**
+     * Abonnement ; close() pour l'arrêter
+     */
+    public static class Subscription implements AutoCloseable {
+        private final Class<?> entity;
+        private final Consumer<Event<?>> listener;
+
+        private Subscription(Class<?> entity, Consumer<Event<?>> listener) {
+            this.entity = entity;
+            this.listener = listener;
+        }
+
+        void accept(Event<?> event) {
+            listener.accept(event);
+        }
+
+        @Override
+        public void close() {
+            SUBSCRIPTIONS.remove(this);
+        }
+    }
+
+    // ===== Publication (DAO) =====
+
+    public static <T> void created(Class<T> entity, int id, T value) {
+        publish(new Event<>(entity, Type.CREATED, id, value, null));
+    }
+
+    public static <T> void updated(Class<T> entity, int id, T value) {
+        publish(new Event<>(entity, Type.UPDATED, id, value, null));
+    }
+
+    /**
+     * Modification partielle (ex : task -> task.setStatus(newStatus))
+     */
+    public static <T> void patched(Class<T> entity, int id, Consumer<T> patch) {
+        publish(new Event<>(entity, Type.UPDATED, id, null, patch));
+    }
+
+    public static <T> void deleted(Class<T> entity, int id) {
+        publish(new Event<>(entity, Type.DELETED, id, null, null));
+    }
+
+    private static void publish(Event<?> event) {
+        UnitOfWork.runAfterCommit(() -> dispatch(event));
+    }
+
+    private static void dispatch(Event<?> event) {
+        PUBLISHED.increment();
+        for (Subscription subscription : SUBSCRIPTIONS) {
+            if (subscription.entity != event.entity) {
+                continue;
+            }
+            try {
+                subscription.accept(event);
+            } catch (RuntimeException e) {
+                System.err.println("Erreur abonné " + event.entity.getSimpleName() + " : " + e.getMessage());
+            }
+        }
+    }
+
+    // ===== Abonnements =====
+
+    /**
+     * Abonné immédiat, sur le thread de l'écriture (doit être rapide et thread-safe)
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> Subscription subscribe(Class<T> entity, Consumer<Event<T>> listener) {
+        Subscription subscription = new Subscription(entity, event -> listener.accept((Event<T>) event));
+        SUBSCRIPTIONS.add(subscription);
+        return subscription;
+    }
+
+    /**
+     * Abonné d'un écran : événements regroupés, livrés sur le thread JavaFX
+     * dans l'ordre de leur première occurrence
+     *
+     * @param owner Nœud de l'écran : l'abonnement s'arrête quand il quitte sa scène
+     */
+    public static <T> Subscription subscribeFx(Node owner, Class<T> entity, Consumer<List<Event<T>>> listener) {
+        FxSubscription<T> subscription = new FxSubscription<>(entity, listener);
+        SUBSCRIPTIONS.add(subscription);
+        closeWhenDetached(owner, subscription);
+        return subscription;
+    }
+
+    /**
+     * Ferme un abonnement quand le nœud quitte sa scène (navigation vers un autre écran)
+     */
+    static void closeWhenDetached(Node owner, AutoCloseable subscription) {
+        owner.sceneProperty().addListener(new ChangeListener<Scene>() {
+            @Override
+            public void changed(ObservableValue<? extends Scene> obs, Scene oldScene, Scene newScene) {
+                if (oldScene != null && newScene == null) {
+                    try {
+                        subscription.close();
+                    } catch (Exception e) {
+                        System.err.println("Erreur fin d'abonnement : " + e.getMessage());
+                    }
+                    owner.sceneProperty().removeListener(this);
+                }
+            }
+        });
+    }
+
+    private static final class FxSubscription<T> extends Subscription {
+        private final Map<Integer, Event<T>> pending = new LinkedHashMap<>();
+        private final Consumer<List<Event<T>>> listener;
+
+        FxSubscription(Class<T> entity, Consumer<List<Event<T>>> listener) {
+            super(entity, null);
+            this.listener = listener;
+        }
+
+        // Thread de l'écriture : un seul runLater tant que la rafale n'est pas livrée
+        @Override
+        @SuppressWarnings("unchecked")
+        void accept(Event<?> event) {
+            Event<T> typed = (Event<T>) event;
+            boolean schedule;
+            synchronized (pending) {
+                schedule = pending.isEmpty();
+                pending.merge(typed.id, typed, Event::then);
+            }
+            if (schedule) {
+                Platform.runLater(this::deliver);
+            }
+        }
+
+        private void deliver() {
+            List<Event<T>> events;
+            synchronized (pending) {
+                events = new ArrayList<>(pending.values());
+                pending.clear();
+            }
+            if (!events.isEmpty() && SUBSCRIPTIONS.contains(this)) {
+                try {
+                    listener.accept(events);
+                } catch (RuntimeException e) {
+                    System.err.println("Erreur mise à jour de l'écran : " + e.getMessage());
+                }
+            }
+        }
+    }
+}
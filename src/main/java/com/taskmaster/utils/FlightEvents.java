@@ -0,0 +1,190 @@
+package com.taskmaster.utils;
+
+import jdk.jfr.Category;
+import jdk.jfr.Configuration;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Recording;
+import jdk.jfr.StackTrace;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Événements JDK Flight Recorder de TaskMaster (catégorie "TaskMaster" dans JMC)
+ *
+ * Chaque événement porte l'identifiant de l'action utilisateur en cours (ActionContext) :
+ * dans un enregistrement, filtrer sur "actionId" relie une action (clic, navigation,
+ * recherche), ses appels DAO, ses requêtes SQL et la mise à jour de l'écran qui suit.
+ *
+ * Enregistrement continu au démarrage : -Dtaskmaster.jfr=true
+ * (profil "default" de la JVM, ~1 % de surcoût ; fichier écrit à la fermeture dans
+ * ~/.taskmaster/taskmaster.jfr, ou -Dtaskmaster.jfr.file).
+ * Sans enregistrement, les événements ne sont pas construits (EventType.isEnabled).
+ */
+public final class FlightEvents {
+
+    private static final String DEFAULT_FILE = Paths.get(System.getProperty("user.home"), ".taskmaster", "taskmaster.jfr").toString();
+    private static final Duration MAX_AGE = Duration.ofMinutes(30);
+    private static final long MAX_SIZE_BYTES = 100L * 1024 * 1024;
+
+    private static final List<Class<? extends Event>> EVENTS = List.of(
+            UserActionEvent.class, NavigationEvent.class, ControllerInitEvent.class, UiUpdateEvent.class,
+            DaoCallEvent.class, SqlStatementEvent.class, PasswordHashEvent.class);
+
+    // Lecture de l'état activé / désactivé sans créer d'événement
+    static final EventType DAO_CALL = EventType.getEventType(DaoCallEvent.class);
+    static final EventType SQL_STATEMENT = EventType.getEventType(SqlStatementEvent.class);
+
+    private FlightEvents() {}
+
+    /**
+     * Démarre l'enregistrement continu si -Dtaskmaster.jfr=true (appelé une fois par Main)
+     */
+    public static void startRecordingIfRequested() {
+        if (!Boolean.getBoolean("taskmaster.jfr")) {
+            return;
+        }
+
+        try {
+            Path file = Paths.get(System.getProperty("taskmaster.jfr.file", DEFAULT_FILE));
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+
+            Recording recording = new Recording(Configuration.getConfiguration("default"));
+            recording.setName("TaskMaster");
+            recording.setToDisk(true);
+            recording.setMaxAge(MAX_AGE);
+            recording.setMaxSize(MAX_SIZE_BYTES);
+            recording.setDumpOnExit(true);
+            recording.setDestination(file);
+            for (Class<? extends Event> event : EVENTS) {
+                recording.enable(event);
+            }
+            recording.start();
+            System.out.println("✓ Flight Recorder actif (" + file + " à la fermeture)");
+
+        } catch (IOException | ParseException | IllegalStateException | SecurityException e) {
+            System.err.println("⚠️ Flight Recorder indisponible : " + e.getMessage());
+        }
+    }
+
+    // ===== Événements =====
+
+    @Name("com.taskmaster.UserAction")
+    @Label("Action utilisateur")
+    @Description("Traitement d'une action sur le thread JavaFX (navigation, recherche, connexion...)")
+    @Category({"TaskMaster", "Interface"})
+    @StackTrace(false)
+    public static class UserActionEvent extends Event {
+        @Label("Action")
+        public String action;
+
+        @Label("ID d'action")
+        public long actionId;
+    }
+
+    @Name("com.taskmaster.Navigation")
+    @Label("Navigation")
+    @Category({"TaskMaster", "Interface"})
+    @StackTrace(false)
+    public static class NavigationEvent extends Event {
+        @Label("Vue")
+        public String view;
+
+        @Label("Titre")
+        public String title;
+
+        @Label("ID d'action")
+        public long actionId;
+    }
+
+    @Name("com.taskmaster.ControllerInit")
+    @Label("Chargement de vue")
+    @Description("FXMLLoader.load() : construction de la vue et initialize() du contrôleur")
+    @Category({"TaskMaster", "Interface"})
+    @StackTrace(false)
+    public static class ControllerInitEvent extends Event {
+        @Label("Vue")
+        public String view;
+
+        @Label("Contrôleur")
+        public String controller;
+
+        @Label("ID d'action")
+        public long actionId;
+    }
+
+    @Name("com.taskmaster.UiUpdate")
+    @Label("Mise à jour de l'écran")
+    @Description("Application d'un résultat chargé en arrière-plan")
+    @Category({"TaskMaster", "Interface"})
+    @StackTrace(false)
+    public static class UiUpdateEvent extends Event {
+        @Label("Source")
+        public String source;
+
+        @Label("ID d'action")
+        public long actionId;
+    }
+
+    @Name("com.taskmaster.DaoCall")
+    @Label("Appel DAO")
+    @Category({"TaskMaster", "Données"})
+    @StackTrace(false)
+    public static class DaoCallEvent extends Event {
+        @Label("DAO")
+        public String dao;
+
+        @Label("Méthode")
+        public String method;
+
+        @Label("Requêtes")
+        public int statements;
+
+        @Label("Lignes")
+        public long rows;
+
+        @Label("ID d'action")
+        public long actionId;
+    }
+
+    @Name("com.taskmaster.SqlStatement")
+    @Label("Requête SQL")
+    @Category({"TaskMaster", "Données"})
+    @StackTrace(false)
+    public static class SqlStatementEvent extends Event {
+        @Label("Forme SQL")
+        public String shape;
+
+        @Label("Paramètres")
+        public int bindCount;
+
+        @Label("Lignes")
+        public long rows;
+
+        @Label("ID d'action")
+        public long actionId;
+    }
+
+    @Name("com.taskmaster.PasswordHash")
+    @Label("BCrypt")
+    @Category({"TaskMaster", "Sécurité"})
+    @StackTrace(false)
+    public static class PasswordHashEvent extends Event {
+        @Label("Opération")
+        public String operation;
+
+        @Label("ID d'action")
+        public long actionId;
+    }
+}
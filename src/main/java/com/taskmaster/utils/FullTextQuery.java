@@ -0,0 +1,104 @@
+package com.taskmaster.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Prépare un texte saisi par l'utilisateur pour MATCH ... AGAINST (... IN BOOLEAN MODE)
+ *
+ * "congés payés" → "+congés* +payés*"
+ *  - chaque mot est obligatoire (+)
+ *  - chaque mot est un préfixe (*) : "cong" trouve "congés"
+ *  - les opérateurs booléens tapés par l'utilisateur sont retirés
+ *  - les mots trop courts ne sont pas dans l'index (InnoDB n'indexe pas les mots < 3 lettres) :
+ *    ils sont cherchés à part, par LIKE (voir likePattern), pour ne pas élargir la recherche
+ */
+public class FullTextQuery {
+
+    // innodb_ft_min_token_size (3 par défaut)
+    public static final int MIN_TERM_LENGTH = 3;
+
+    private FullTextQuery() {}
+
+    /**
+     * Découpe la saisie en termes exploitables par l'index plein texte
+     *
+     * @param input Texte saisi (peut être null)
+     * @return Les termes (sans opérateurs), éventuellement vide
+     */
+    public static List<String> terms(String input) {
+        List<String> terms = new ArrayList<>();
+        if (input == null) {
+            return terms;
+        }
+
+        // Tout ce qui n'est ni lettre ni chiffre sépare les mots (et neutralise + - * " ( ) ~ < > @)
+        for (String word : input.split("[^\\p{L}\\p{N}_]+")) {
+            if (word.length() >= MIN_TERM_LENGTH) {
+                terms.add(word);
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * Mots trop courts pour l'index plein texte ("ui", "db"...)
+     *
+     * @param input Texte saisi (peut être null)
+     * @return Les mots de moins de MIN_TERM_LENGTH caractères, éventuellement vide
+     */
+    public static List<String> shortTerms(String input) {
+        List<String> terms = new ArrayList<>();
+        if (input == null) {
+            return terms;
+        }
+
+        for (String word : input.split("[^\\p{L}\\p{N}_]+")) {
+            if (!word.isEmpty() && word.length() < MIN_TERM_LENGTH) {
+                terms.add(word);
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * Motif LIKE des mots courts, dans l'ordre de la saisie : "ui db" → "%ui%db%"
+     * Toujours au moins aussi strict que l'ancien LIKE '%saisie%' : jamais toute la table
+     *
+     * @return Le motif, ou null si la saisie n'a pas de mot court (pas de filtre LIKE)
+     */
+    public static String likePattern(String input) {
+        List<String> terms = shortTerms(input);
+        if (terms.isEmpty()) {
+            return null;
+        }
+
+        StringBuilder pattern = new StringBuilder("%");
+        for (String term : terms) {
+            // "_" est un joker de LIKE : échappé pour être cherché tel quel
+            pattern.append(term.replace("_", "\\_")).append('%');
+        }
+        return pattern.toString();
+    }
+
+    /**
+     * Construit l'expression BOOLEAN MODE
+     *
+     * @return "+terme1* +terme2*", ou null si aucun terme exploitable
+     */
+    public static String toBooleanMode(String input) {
+        List<String> terms = terms(input);
+        if (terms.isEmpty()) {
+            return null;
+        }
+
+        StringBuilder query = new StringBuilder();
+        for (String term : terms) {
+            if (query.length() > 0) {
+                query.append(' ');
+            }
+            query.append('+').append(term).append('*');
+        }
+        return query.toString();
+    }
+}
@@ -0,0 +1,273 @@
+package com.taskmaster.utils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * Index de recherche approchée en mémoire (trigrammes)
+ *
+ * Chaque mot est découpé en morceaux de 3 lettres, après normalisation
+ * (sans accents, minuscules) : "Hélène" → "$$h", "$he", "hel", "ele", "len", "ene", "ne$"
+ * Une recherche compte les trigrammes en commun avec chaque entrée :
+ *  - "helene" retrouve "Hélène" (accents ignorés)
+ *  - "hlene" retrouve aussi "Hélène" (faute de frappe : 3 trigrammes sur 5)
+ *  - le dernier mot tapé est traité comme un début de mot ("hel" → "Hélène")
+ *
+ * Mises à jour incrémentales (put / remove) : pas besoin de tout reconstruire
+ * après une création ou une modification.
+ *
+ * Exemple :
+ *   FuzzyIndex<User> index = new FuzzyIndex<>(User::getId, u -> List.of(u.getFullName(), u.getEmail()));
+ *   index.rebuild(userDAO.findAll());
+ *   index.search("helene", 10);
+ */
+public class FuzzyIndex<T> {
+
+    // Proportion minimale des trigrammes de la recherche présents dans l'entrée
+    private static final double MIN_SIMILARITY = 0.4;
+
+    // Bonus quand la recherche apparaît telle quelle (après normalisation)
+    private static final double PREFIX_BONUS = 0.5;
+    private static final double WORD_PREFIX_BONUS = 0.35;
+    private static final double CONTAINS_BONUS = 0.2;
+
+    // Candidats notés au plus par recherche : les plus de trigrammes communs d'abord
+    // (une recherche d'une ou deux lettres touche sinon presque tout l'index)
+    private static final int MAX_SCORED = 256;
+
+    private static final String WORD_SEPARATORS = "[^\\p{L}\\p{N}]+";
+
+    private final ToLongFunction<T> idOf;
+    private final Function<T, List<String>> fieldsOf;
+
+    // ID → entrée indexée
+    private final Map<Long, Entry<T>> entries = new HashMap<>();
+    // Trigramme → IDs des entrées qui le contiennent (index inversé)
+    private final Map<String, Set<Long>> postings = new HashMap<>();
+
+    /**
+     * @param idOf Identifiant unique de l'élément (un long : permet de mélanger plusieurs types d'entités)
+     * @param fieldsOf Textes indexés (le premier sert aussi à départager les ex æquo)
+     */
+    public FuzzyIndex(ToLongFunction<T> idOf, Function<T, List<String>> fieldsOf) {
+        this.idOf = idOf;
+        this.fieldsOf = fieldsOf;
+    }
+
+    /**
+     * Remplace tout le contenu de l'index
+     */
+    public synchronized void rebuild(Collection<T> values) {
+        entries.clear();
+        postings.clear();
+        for (T value : values) {
+            put(value);
+        }
+    }
+
+    /**
+     * Ajoute ou remplace un élément
+     */
+    public synchronized void put(T value) {
+        long id = idOf.applyAsLong(value);
+        remove(id);
+
+        List<String> fields = fieldsOf.apply(value);
+        String[] normalized = new String[fields.size()];
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i < normalized.length; i++) {
+            normalized[i] = TextUtils.normalize(fields.get(i));
+            for (String word : normalized[i].split(WORD_SEPARATORS)) {
+                addGrams(grams, word, true);
+            }
+        }
+
+        entries.put(id, new Entry<>(value, normalized, grams));
+        for (String gram : grams) {
+            postings.computeIfAbsent(gram, key -> new HashSet<>()).add(id);
+        }
+    }
+
+    /**
+     * Retire un élément (sans effet s'il n'est pas indexé)
+     */
+    public synchronized void remove(long id) {
+        Entry<T> entry = entries.remove(id);
+        if (entry == null) {
+            return;
+        }
+
+        for (String gram : entry.grams) {
+            Set<Long> ids = postings.get(gram);
+            if (ids != null) {
+                ids.remove(id);
+                if (ids.isEmpty()) {
+                    postings.remove(gram);
+                }
+            }
+        }
+    }
+
+    public synchronized T get(long id) {
+        Entry<T> entry = entries.get(id);
+        return entry != null ? entry.value : null;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public List<T> search(String query, int limit) {
+        return search(query, limit, value -> true, value -> 0);
+    }
+
+    public List<T> search(String query, int limit, Predicate<T> filter) {
+        return search(query, limit, filter, value -> 0);
+    }
+
+    /**
+     * Recherche approchée, classée du plus au moins pertinent
+     *
+     * @param query Texte saisi (accents, casse et fautes de frappe tolérés)
+     * @param limit Nombre maximum de résultats
+     * @param filter Filtre supplémentaire (ex : rôle), appliqué avant la limite
+     * @param boost Points ajoutés au score (ex : bonus de récence), 0 = aucun
+     * @return Les meilleurs résultats (vide si la recherche est vide)
+     */
+    public synchronized List<T> search(String query, int limit, Predicate<T> filter, ToDoubleFunction<T> boost) {
+        String normalizedQuery = TextUtils.normalize(query).trim();
+        if (normalizedQuery.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        String[] words = normalizedQuery.split(WORD_SEPARATORS);
+        Set<String> queryGrams = new HashSet<>();
+        for (int i = 0; i < words.length; i++) {
+            // Le dernier mot est peut-être en cours de frappe : pas de marqueur de fin
+            addGrams(queryGrams, words[i], i < words.length - 1);
+        }
+        if (queryGrams.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        // Nombre de trigrammes communs par entrée candidate
+        Map<Long, Integer> shared = new HashMap<>();
+        for (String gram : queryGrams) {
+            Set<Long> ids = postings.get(gram);
+            if (ids != null) {
+                for (Long id : ids) {
+                    shared.merge(id, 1, Integer::sum);
+                }
+            }
+        }
+
+        // Regroupement par nombre de trigrammes communs, puis notation des meilleurs groupes
+        // jusqu'à MAX_SCORED candidats (les bonus ne sont calculés que pour ceux-là)
+        int minShared = (int) Math.ceil(MIN_SIMILARITY * queryGrams.size());
+        List<List<Long>> bySharedCount = new ArrayList<>(queryGrams.size() + 1);
+        for (int i = 0; i <= queryGrams.size(); i++) {
+            bySharedCount.add(null);
+        }
+        for (Map.Entry<Long, Integer> candidate : shared.entrySet()) {
+            int count = candidate.getValue();
+            if (count < minShared) {
+                continue;
+            }
+            List<Long> ids = bySharedCount.get(count);
+            if (ids == null) {
+                ids = new ArrayList<>();
+                bySharedCount.set(count, ids);
+            }
+            ids.add(candidate.getKey());
+        }
+
+        List<Scored<T>> candidates = new ArrayList<>();
+        for (int count = queryGrams.size(); count >= minShared && candidates.size() < MAX_SCORED; count--) {
+            List<Long> ids = bySharedCount.get(count);
+            if (ids == null) {
+                continue;
+            }
+            double similarity = (double) count / queryGrams.size();
+            for (int i = 0; i < ids.size() && candidates.size() < MAX_SCORED; i++) {
+                Entry<T> entry = entries.get(ids.get(i));
+                if (!filter.test(entry.value)) {
+                    continue;
+                }
+                candidates.add(new Scored<>(entry,
+                        similarity + bonus(entry, normalizedQuery) + boost.applyAsDouble(entry.value)));
+            }
+        }
+
+        candidates.sort(Comparator.<Scored<T>>comparingDouble(s -> s.score).reversed()
+                .thenComparing(s -> s.entry.fields.length > 0 ? s.entry.fields[0] : ""));
+
+        List<T> results = new ArrayList<>(Math.min(limit, candidates.size()));
+        for (int i = 0; i < candidates.size() && i < limit; i++) {
+            results.add(candidates.get(i).entry.value);
+        }
+        return results;
+    }
+
+    /**
+     * Favorise les correspondances exactes : début de champ > début de mot > n'importe où
+     */
+    private static double bonus(Entry<?> entry, String query) {
+        double best = 0;
+        for (String field : entry.fields) {
+            if (field.startsWith(query)) {
+                return PREFIX_BONUS;
+            }
+            if (TextUtils.indexOfWordPrefix(field, query, 0) >= 0) {
+                best = Math.max(best, WORD_PREFIX_BONUS);
+            } else if (field.contains(query)) {
+                best = Math.max(best, CONTAINS_BONUS);
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Trigrammes d'un mot, avec marqueurs de début ("$$") et de fin ("$")
+     */
+    private static void addGrams(Set<String> grams, String word, boolean complete) {
+        if (word.isEmpty()) {
+            return;
+        }
+        String padded = "$$" + word + (complete ? "$" : "");
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            grams.add(padded.substring(i, i + 3));
+        }
+    }
+
+    private static class Entry<T> {
+        final T value;
+        final String[] fields;   // Champs normalisés
+        final Set<String> grams;
+
+        Entry(T value, String[] fields, Set<String> grams) {
+            this.value = value;
+            this.fields = fields;
+            this.grams = grams;
+        }
+    }
+
+    private static class Scored<T> {
+        final Entry<T> entry;
+        final double score;
+
+        Scored(Entry<T> entry, double score) {
+            this.entry = entry;
+            this.score = score;
+        }
+    }
+}
@@ -0,0 +1,315 @@
+package com.taskmaster.utils;
+
+import javafx.application.Platform;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Surveillance du thread JavaFX (mode diagnostic : -Dtaskmaster.watchdog=true)
+ *
+ * 1. Images trop longues : un thread "taskmaster-fx-watchdog" envoie un battement
+ *    (Platform.runLater) toutes les 20 ms ; si le thread JavaFX ne l'a pas traité
+ *    après le budget (-Dtaskmaster.watchdog.frameMs, 50 ms par défaut), sa pile est
+ *    échantillonnée pour trouver la méthode de contrôleur responsable.
+ * 2. Appels bloquants : JDBC (une méthode de com.taskmaster.dao) ou BCrypt (PasswordHasher)
+ *    exécutés sur le thread JavaFX, avec la méthode de contrôleur appelante.
+ *
+ * Chaque site n'est affiché qu'une fois dans la console ; le rapport complet
+ * (une ligne par site, triée : sortie stable, comparable d'une version à l'autre)
+ * est écrit à la fermeture dans ~/.taskmaster/fx-watchdog.txt (-Dtaskmaster.watchdog.file).
+ *
+ * -Dtaskmaster.watchdog.strict=true : un appel bloquant sur le thread JavaFX lève une
+ * IllegalStateException (à activer en développement une fois un écran passé en asynchrone,
+ * pour qu'une régression échoue tout de suite).
+ *
+ * Mode désactivé : checkBlockingCall() se limite à la lecture d'un booléen.
+ */
+public final class FxWatchdog {
+
+    public static final boolean ENABLED = Boolean.getBoolean("taskmaster.watchdog");
+    private static final boolean STRICT = Boolean.getBoolean("taskmaster.watchdog.strict");
+    public static final long FRAME_BUDGET_MS = Long.getLong("taskmaster.watchdog.frameMs", 50);
+    private static final long FRAME_BUDGET_NANOS = FRAME_BUDGET_MS * 1_000_000L;
+    private static final long HEARTBEAT_MS = 20;
+
+    private static final String DEFAULT_FILE = Paths.get(System.getProperty("user.home"), ".taskmaster", "fx-watchdog.txt").toString();
+
+    // Lignes de pile gardées par site (au-delà : frames JavaFX sans intérêt)
+    private static final int SAMPLE_DEPTH = 15;
+
+    private static final String DAO_PACKAGE = "com.taskmaster.dao.";
+    private static final String CONTROLLER_PACKAGE = "com.taskmaster.controllers.";
+
+    // Clé "type|site|contrôleur" → occurrences
+    private static final Map<String, Violation> VIOLATIONS = new ConcurrentHashMap<>();
+
+    private static final LatencyHistogram STALLS = Metrics.histogram(
+            "taskmaster_ui_fx_stall_seconds", "Blocages du thread JavaFX au-delà du budget d'image");
+    private static final Metrics.Counter BLOCKING_CALLS = Metrics.counter(
+            "taskmaster_ui_fx_blocking_calls_total", "Appels JDBC / BCrypt sur le thread JavaFX");
+
+    private static final StackWalker WALKER = StackWalker.getInstance();
+
+    // Battement en attente (System.nanoTime de l'envoi, 0 = aucun) et pile du blocage en cours
+    private static volatile long heartbeatSentAt;
+    private static volatile StackTraceElement[] stallSample;
+    private static volatile Thread fxThread;
+
+    private static boolean started = false;
+
+    private FxWatchdog() {}
+
+    /**
+     * Démarre la surveillance si -Dtaskmaster.watchdog=true (appelé une fois par Main, thread JavaFX)
+     */
+    public static synchronized void startIfRequested() {
+        if (!ENABLED || started) {
+            return;
+        }
+        started = true;
+        fxThread = Thread.currentThread();
+
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "taskmaster-fx-watchdog");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(FxWatchdog::heartbeat, HEARTBEAT_MS, HEARTBEAT_MS, TimeUnit.MILLISECONDS);
+
+        Runtime.getRuntime().addShutdownHook(new Thread(FxWatchdog::writeReport, "taskmaster-fx-watchdog-report"));
+        System.out.println("✓ Surveillance du thread JavaFX active (budget " + FRAME_BUDGET_MS + " ms)");
+    }
+
+    /**
+     * À appeler avant une opération bloquante (JDBC, BCrypt)
+     * Sur le thread JavaFX : enregistre l'appelant, et lève une exception en mode strict
+     *
+     * @param kind "JDBC" ou "BCrypt"
+     */
+    public static void checkBlockingCall(String kind) {
+        if (!ENABLED || !Platform.isFxApplicationThread()) {
+            return;
+        }
+
+        List<StackWalker.StackFrame> frames = WALKER.walk(stream -> stream.collect(Collectors.toList()));
+        String site = firstFrame(frames, DAO_PACKAGE);
+        if (site == null && "JDBC".equals(kind)) {
+            // Connexion demandée hors DAO (migrations au démarrage...) : pas concerné
+            return;
+        }
+        if (site == null) {
+            site = "PasswordHasher";
+        }
+        String controller = firstFrame(frames, CONTROLLER_PACKAGE);
+
+        BLOCKING_CALLS.increment();
+        Violation violation = violation(kind, site, controller, () -> sample(frames));
+        violation.record(0);
+
+        String message = kind + " sur le thread JavaFX : " + site + " ← " + (controller != null ? controller : "?");
+        if (STRICT) {
+            throw new IllegalStateException(message);
+        }
+        if (violation.getCount() == 1) {
+            System.err.println("⛔ " + message);
+        }
+    }
+
+    /**
+     * Sites relevés depuis le démarrage, triés par type puis par site
+     */
+    public static List<Violation> violations() {
+        List<Violation> all = new ArrayList<>(VIOLATIONS.values());
+        all.sort(Comparator.comparing(Violation::getKind).thenComparing(Violation::getSite)
+                .thenComparing(violation -> String.valueOf(violation.getController())));
+        return all;
+    }
+
+    /**
+     * Rapport texte : une ligne par site, suivie de la pile échantillonnée
+     */
+    public static String report() {
+        StringBuilder out = new StringBuilder("# TaskMaster - thread JavaFX (budget " + FRAME_BUDGET_MS + " ms)\n");
+        for (Violation violation : violations()) {
+            out.append(violation.getKind()).append(' ').append(violation.getSite())
+                    .append(" <- ").append(violation.getController() != null ? violation.getController() : "?")
+                    .append(" count=").append(violation.getCount());
+            if (violation.getMaxMs() > 0) {
+                out.append(" maxMs=").append(violation.getMaxMs());
+            }
+            out.append('\n');
+            for (String frame : violation.getSample()) {
+                out.append("    at ").append(frame).append('\n');
+            }
+        }
+        return out.toString();
+    }
+
+    // ===== Images trop longues =====
+
+    // Thread "taskmaster-fx-watchdog", toutes les HEARTBEAT_MS
+    private static void heartbeat() {
+        long sentAt = heartbeatSentAt;
+        if (sentAt == 0) {
+            heartbeatSentAt = System.nanoTime();
+            Platform.runLater(FxWatchdog::heartbeatReceived);
+        } else if (stallSample == null && System.nanoTime() - sentAt > FRAME_BUDGET_NANOS) {
+            // Toujours bloqué : la pile montre ce que fait le thread JavaFX en ce moment
+            stallSample = fxThread.getStackTrace();
+        }
+    }
+
+    // Thread JavaFX : fin du blocage éventuel
+    private static void heartbeatReceived() {
+        long stall = System.nanoTime() - heartbeatSentAt;
+        StackTraceElement[] sample = stallSample;
+        stallSample = null;
+        heartbeatSentAt = 0;
+
+        if (stall <= FRAME_BUDGET_NANOS) {
+            return;
+        }
+        STALLS.record(stall);
+
+        String controller = sample != null ? firstElement(sample, CONTROLLER_PACKAGE) : null;
+        String site = sample != null && sample.length > 0 ? format(sample[0]) : "?";
+        Violation violation = violation("FRAME", controller != null ? controller : site, controller,
+                () -> sample != null ? sample(sample) : List.of());
+        violation.record(stall / 1_000_000);
+        if (violation.getCount() == 1) {
+            System.err.println("🧊 Thread JavaFX bloqué " + stall / 1_000_000 + " ms"
+                    + (controller != null ? " dans " + controller : ""));
+        }
+    }
+
+    // ===== Rapport =====
+
+    private static void writeReport() {
+        if (VIOLATIONS.isEmpty()) {
+            return;
+        }
+        try {
+            Path file = Paths.get(System.getProperty("taskmaster.watchdog.file", DEFAULT_FILE));
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            Files.write(file, report().getBytes(StandardCharsets.UTF_8));
+            System.out.println("✓ Rapport du thread JavaFX : " + file);
+        } catch (IOException e) {
+            System.err.println("⚠️ Rapport du thread JavaFX impossible : " + e.getMessage());
+        }
+    }
+
+    private static Violation violation(String kind, String site, String controller,
+                                       Supplier<List<String>> sample) {
+        return VIOLATIONS.computeIfAbsent(kind + '|' + site + '|' + controller,
+                key -> new Violation(kind, site, controller, sample.get()));
+    }
+
+    // "TaskDAO.findAll" : première frame du paquet demandé
+    private static String firstFrame(List<StackWalker.StackFrame> frames, String packagePrefix) {
+        for (StackWalker.StackFrame frame : frames) {
+            if (frame.getClassName().startsWith(packagePrefix)) {
+                return simpleName(frame.getClassName()) + '.' + frame.getMethodName();
+            }
+        }
+        return null;
+    }
+
+    private static String firstElement(StackTraceElement[] stack, String packagePrefix) {
+        for (StackTraceElement element : stack) {
+            if (element.getClassName().startsWith(packagePrefix)) {
+                return simpleName(element.getClassName()) + '.' + element.getMethodName();
+            }
+        }
+        return null;
+    }
+
+    private static List<String> sample(List<StackWalker.StackFrame> frames) {
+        return frames.stream()
+                .filter(frame -> !frame.getClassName().equals(FxWatchdog.class.getName()))
+                .limit(SAMPLE_DEPTH)
+                .map(frame -> frame.toStackTraceElement().toString())
+                .collect(Collectors.toList());
+    }
+
+    private static List<String> sample(StackTraceElement[] stack) {
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < stack.length && i < SAMPLE_DEPTH; i++) {
+            lines.add(stack[i].toString());
+        }
+        return lines;
+    }
+
+    private static String format(StackTraceElement element) {
+        return simpleName(element.getClassName()) + '.' + element.getMethodName();
+    }
+
+    private static String simpleName(String className) {
+        return className.substring(className.lastIndexOf('.') + 1);
+    }
+
+    /**
+     * Un site fautif : type (JDBC, BCrypt, FRAME), méthode, contrôleur appelant
+     */
+    public static final class Violation {
+        private final String kind;
+        private final String site;
+        private final String controller;
+        private final List<String> sample;
+        private final LongAdder count = new LongAdder();
+        private final LongAccumulator maxMs = new LongAccumulator(Long::max, 0);
+
+        private Violation(String kind, String site, String controller, List<String> sample) {
+            this.kind = kind;
+            this.site = site;
+            this.controller = controller;
+            this.sample = sample;
+        }
+
+        private void record(long millis) {
+            count.increment();
+            maxMs.accumulate(millis);
+        }
+
+        public String getKind() {
+            return kind;
+        }
+
+        public String getSite() {
+            return site;
+        }
+
+        public String getController() {
+            return controller;
+        }
+
+        public List<String> getSample() {
+            return sample;
+        }
+
+        public long getCount() {
+            return count.sum();
+        }
+
+        public long getMaxMs() {
+            return maxMs.get();
+        }
+    }
+}
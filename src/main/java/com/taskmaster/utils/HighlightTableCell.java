@@ -0,0 +1,117 @@
+package com.taskmaster.utils;
+
+import javafx.scene.control.TableCell;
+import javafx.scene.layout.VBox;
+import javafx.scene.text.Text;
+import javafx.scene.text.TextFlow;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Cellule de tableau qui surligne les mots recherchés
+ * (et affiche, si fourni, un extrait secondaire : le commentaire qui correspond)
+ *
+ * Sans recherche en cours, la cellule se contente d'un setText() :
+ * le TextFlow n'est construit que pour les lignes visibles d'un résultat.
+ *
+ * Exemple :
+ *   titleColumn.setCellFactory(col -> new HighlightTableCell<>(() -> terms, task -> snippetOf(task)));
+ */
+public class HighlightTableCell<S> extends TableCell<S, String> {
+
+    // Caractères gardés autour du mot trouvé dans l'extrait
+    private static final int SNIPPET_RADIUS = 40;
+
+    private final Supplier<List<String>> terms;
+    private final Function<S, String> secondaryText;
+
+    public HighlightTableCell(Supplier<List<String>> terms, Function<S, String> secondaryText) {
+        this.terms = terms;
+        this.secondaryText = secondaryText;
+    }
+
+    @Override
+    protected void updateItem(String item, boolean empty) {
+        super.updateItem(item, empty);
+
+        List<String> current = terms.get();
+        if (empty || item == null || current.isEmpty()) {
+            setGraphic(null);
+            setText(empty ? null : item);
+            return;
+        }
+
+        VBox box = new VBox(2, highlight(item, current));
+        S row = getTableRow() != null ? getTableRow().getItem() : null;
+        String secondary = row != null ? secondaryText.apply(row) : null;
+        if (secondary != null) {
+            TextFlow snippet = highlight("💬 " + excerpt(secondary, current), current);
+            snippet.getChildren().forEach(node -> node.getStyleClass().add("search-snippet"));
+            box.getChildren().add(snippet);
+        }
+
+        setText(null);
+        setGraphic(box);
+    }
+
+    /**
+     * Découpe le texte en morceaux normaux / surlignés
+     */
+    private static TextFlow highlight(String text, List<String> terms) {
+        TextFlow flow = new TextFlow();
+        int position = 0;
+
+        while (position < text.length()) {
+            int start = -1;
+            int length = 0;
+            // Occurrence la plus proche parmi tous les mots recherchés
+            for (String term : terms) {
+                int found = TextUtils.indexOfWordPrefix(text, term, position);
+                if (found >= 0 && (start < 0 || found < start)) {
+                    start = found;
+                    length = term.length();
+                }
+            }
+
+            if (start < 0) {
+                flow.getChildren().add(styled(text.substring(position), "search-text"));
+                break;
+            }
+            if (start > position) {
+                flow.getChildren().add(styled(text.substring(position, start), "search-text"));
+            }
+            flow.getChildren().add(styled(text.substring(start, start + length), "search-highlight"));
+            position = start + length;
+        }
+        return flow;
+    }
+
+    /**
+     * Extrait d'un long texte centré sur le premier mot trouvé : "…début du passage trouvé…"
+     */
+    private static String excerpt(String text, List<String> terms) {
+        int first = -1;
+        for (String term : terms) {
+            int found = TextUtils.indexOfWordPrefix(text, term, 0);
+            if (found >= 0 && (first < 0 || found < first)) {
+                first = found;
+            }
+        }
+        if (first < 0) {
+            first = 0;
+        }
+
+        int from = Math.max(0, first - SNIPPET_RADIUS);
+        int to = Math.min(text.length(), first + SNIPPET_RADIUS);
+        String excerpt = text.substring(from, to).replace('\n', ' ');
+        return (from > 0 ? "…" : "") + excerpt + (to < text.length() ? "…" : "");
+    }
+
+    private static Text styled(String text, String styleClass) {
+        Text node = new Text(text);
+        node.getStyleClass().add(styleClass);
+        return node;
+    }
+}
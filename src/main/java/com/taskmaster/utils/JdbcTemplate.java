@@ -0,0 +1,609 @@
+package com.taskmaster.utils;
+
+import javafx.application.Platform;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.SQLTransientException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Exécution des requêtes des DAO : connexion, préparation, paramètres, exécution, lecture des lignes
+ *
+ * Les DAO ne gardent que le SQL, les paramètres et la conversion ligne → objet :
+ *   List<Task> tasks = JdbcTemplate.DEFAULT.query(FIND_BY_USER_ID, sql, params -> params.setInt(userId), TASK_ROWS);
+ * Le premier argument (DaoMethod, constante du DAO) rattache l'appel à sa méthode
+ * dans les métriques et les événements Flight Recorder.
+ *
+ * Lecture des lignes (RowMapper) : les index des colonnes sont résolus une seule fois par résultat
+ * (compile), puis chaque ligne est lue par index, sans recherche par nom ni getObject().
+ *   RowMapper<Comment> COMMENT_ROWS = columns -> {
+ *       int id = columns.index("id");
+ *       int content = columns.index("content");
+ *       return rs -> new Comment(rs.getInt(id), ..., rs.getString(content), ...);
+ *   };
+ *
+ * Centralisé ici : délai maximal des requêtes, taille de lecture (fetch size), métriques
+ * de lecture et d'erreurs, mesure de chaque exécution (QueryProfiler : durée, lignes lues
+ * ou modifiées, valeurs liées pour l'EXPLAIN). Les erreurs SQL sont comptées puis remontées au DAO, qui choisit
+ * sa valeur de repli (liste vide, null, false, copie hors ligne...) ou renvoie un QueryResult.
+ * Plusieurs requêtes sur une même connexion : les encadrer par une UnitOfWork.
+ *
+ * Lectures (query, queryOne, queryInt) :
+ *  - délai maximal selon le gabarit (QUICK, DEFAULT, STREAMING) ou la CancellableQuery
+ *  - annulation coopérative : poignée annulée ou thread interrompu → plus de nouvelle tentative,
+ *    lecture des lignes arrêtée (SQLState 70100, comme une requête interrompue par MySQL)
+ *  - erreur passagère (interblocage, attente de verrou) : nouvelle tentative après une pause
+ *    aléatoire (MAX_ATTEMPTS au total), hors thread JavaFX. Dans une UnitOfWork, seulement après
+ *    une attente de verrou trop longue (MySQL n'annule que la requête) ; un interblocage annule
+ *    toute la transaction, c'est à l'unité de recommencer. Jamais après un délai dépassé :
+ *    la requête suivante attendrait autant, la latence doublerait.
+ * Les écritures ne sont jamais rejouées ici (pas forcément idempotentes).
+ */
+public final class JdbcTemplate {
+
+    // Délai maximal d'une requête (une CancellableQuery impose le sien)
+    public static final int DEFAULT_TIMEOUT_SECONDS = Integer.getInteger("taskmaster.queryTimeoutSeconds", 15);
+
+    /**
+     * Requêtes courantes : résultat lu en entier par le driver avant d'être parcouru
+     */
+    public static final JdbcTemplate DEFAULT = new JdbcTemplate(DEFAULT_TIMEOUT_SECONDS, 0);
+
+    /**
+     * Lectures d'une ligne ou d'un compteur (souvent depuis le thread JavaFX) : délai court
+     */
+    public static final JdbcTemplate QUICK = new JdbcTemplate(3, 0);
+
+    /**
+     * Lectures de tables entières : lignes reçues au fil de la lecture (Integer.MIN_VALUE =
+     * mode flux de MySQL Connector/J), sans copie complète du résultat dans le driver
+     * (autre base, ex : H2 des tests : taille de lecture par défaut)
+     */
+    public static final JdbcTemplate STREAMING = new JdbcTemplate(DEFAULT_TIMEOUT_SECONDS * 4,
+            DatabaseConnection.isMySql() ? Integer.MIN_VALUE : 0);
+
+    // Nouvelles tentatives des lectures : pause aléatoire entre 0 et RETRY_BASE_MS * 2^(n-1)
+    private static final int MAX_ATTEMPTS = 3;
+    private static final long RETRY_BASE_MS = 50;
+    private static final long RETRY_MAX_MS = 400;
+    // Arrêt de la lecture des lignes vérifié toutes les CANCEL_CHECK_ROWS lignes
+    private static final int CANCEL_CHECK_ROWS = 256;
+
+    private static final Metrics.Counter ROWS_MAPPED = Metrics.counter(
+            "taskmaster_jdbc_rows_mapped_total", "Lignes converties en objets par les DAO");
+    private static final LatencyHistogram MAPPING = Metrics.histogram(
+            "taskmaster_jdbc_mapping_seconds", "Parcours et conversion d'un résultat (requête exécutée)");
+    private static final Map<String, Metrics.Counter> ERRORS = new HashMap<>();
+    private static final Metrics.Counter RETRIES = Metrics.counter(
+            "taskmaster_jdbc_retries_total", "Lectures relancées après une erreur passagère");
+    private static final Metrics.Counter CANCELLED = Metrics.counter(
+            "taskmaster_jdbc_cancelled_total", "Lectures arrêtées par annulation (poignée ou interruption)");
+
+    private final int timeoutSeconds;
+    private final int fetchSize;
+
+    private JdbcTemplate(int timeoutSeconds, int fetchSize) {
+        this.timeoutSeconds = timeoutSeconds;
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Même taille de lecture, autre délai maximal
+     */
+    public JdbcTemplate withTimeout(int seconds) {
+        return new JdbcTemplate(seconds, fetchSize);
+    }
+
+    // ===== Contrats =====
+
+    /**
+     * Paramètres de la requête, dans l'ordre des "?"
+     */
+    @FunctionalInterface
+    public interface Binder {
+        void bind(Params params) throws SQLException;
+    }
+
+    /**
+     * Paramètres d'une ligne d'un lot
+     */
+    @FunctionalInterface
+    public interface ItemBinder<T> {
+        void bind(Params params, T item) throws SQLException;
+    }
+
+    /**
+     * Conversion ligne → objet, préparée pour un résultat donné (index des colonnes)
+     */
+    @FunctionalInterface
+    public interface RowMapper<T> {
+        RowReader<T> compile(Columns columns) throws SQLException;
+    }
+
+    @FunctionalInterface
+    public interface RowReader<T> {
+        T read(ResultSet rs) throws SQLException;
+    }
+
+    public static final Binder NO_PARAMS = params -> { };
+
+    /**
+     * Liaison typée des paramètres (index tenu à jour automatiquement)
+     */
+    public static final class Params {
+        private final PreparedStatement stmt;
+        private int index = 1;
+        // Valeurs liées (index 1..n, comme JDBC) pour l'EXPLAIN des requêtes lentes ;
+        // null si le profilage est désactivé (aucune copie, aucun boxing)
+        private Object[] values;
+
+        private Params(PreparedStatement stmt) {
+            this.stmt = stmt;
+            this.values = QueryProfiler.isEnabled() ? new Object[8] : null;
+        }
+
+        public Params setInt(int value) throws SQLException {
+            stmt.setInt(index, value);
+            return next(values != null ? value : null);
+        }
+
+        /**
+         * null → NULL
+         */
+        public Params setNullableInt(Integer value) throws SQLException {
+            if (value != null) {
+                stmt.setInt(index, value);
+            } else {
+                stmt.setNull(index, Types.INTEGER);
+            }
+            return next(value);
+        }
+
+        public Params setLong(long value) throws SQLException {
+            stmt.setLong(index, value);
+            return next(values != null ? value : null);
+        }
+
+        public Params setString(String value) throws SQLException {
+            stmt.setString(index, value);
+            return next(value);
+        }
+
+        public Params setBoolean(boolean value) throws SQLException {
+            stmt.setBoolean(index, value);
+            return next(values != null ? value : null);
+        }
+
+        public Params setDate(LocalDate value) throws SQLException {
+            Date date = value != null ? Date.valueOf(value) : null;
+            stmt.setDate(index, date);
+            return next(date);
+        }
+
+        public Params setTimestamp(Timestamp value) throws SQLException {
+            stmt.setTimestamp(index, value);
+            return next(value);
+        }
+
+        /**
+         * Même valeur pour plusieurs "?" consécutifs
+         */
+        public Params repeat(String value, int times) throws SQLException {
+            for (int i = 0; i < times; i++) {
+                setString(value);
+            }
+            return this;
+        }
+
+        /**
+         * Valeurs d'une clause JdbcTemplate.inList(values.size()) ; les places en trop
+         * reçoivent la dernière valeur (sans effet sur le résultat d'un IN)
+         */
+        public Params setInList(Collection<Integer> values) throws SQLException {
+            int last = 0;
+            for (int value : values) {
+                setInt(value);
+                last = value;
+            }
+            for (int i = values.size(); i < inListSize(values.size()); i++) {
+                setInt(last);
+            }
+            return this;
+        }
+
+        private Params next(Object value) {
+            if (values != null) {
+                if (index >= values.length) {
+                    values = Arrays.copyOf(values, Math.max(index + 1, values.length * 2));
+                }
+                values[index] = value;
+            }
+            index++;
+            return this;
+        }
+
+        // Nombre de "?" liés
+        private int count() {
+            return index - 1;
+        }
+    }
+
+    /**
+     * Colonnes d'un résultat : libellé (sans casse) → index
+     */
+    public static final class Columns {
+        private final Map<String, Integer> byLabel;
+
+        private Columns(ResultSetMetaData meta) throws SQLException {
+            int count = meta.getColumnCount();
+            byLabel = new HashMap<>(count * 2);
+            for (int i = count; i >= 1; i--) {
+                // Parcours à l'envers : à libellé égal, la première colonne gagne (comme findColumn)
+                byLabel.put(meta.getColumnLabel(i).toLowerCase(Locale.ROOT), i);
+            }
+        }
+
+        public int index(String label) throws SQLException {
+            Integer index = byLabel.get(label.toLowerCase(Locale.ROOT));
+            if (index == null) {
+                throw new SQLException("Colonne absente du résultat : " + label, "S0022");
+            }
+            return index;
+        }
+
+        /**
+         * 0 si la colonne n'est pas dans le résultat
+         */
+        public int indexIfPresent(String label) {
+            return byLabel.getOrDefault(label.toLowerCase(Locale.ROOT), 0);
+        }
+    }
+
+    // ===== Formes de requêtes =====
+
+    // Au-delà, taille exacte (MySQL accepte 65 535 paramètres par requête)
+    private static final int MAX_IN_LIST = 4096;
+
+    /**
+     * "(?, ?, ...)" pour count valeurs, arrondi à la puissance de 2 supérieure : un texte SQL
+     * par palier (1, 2, 4, 8...) au lieu d'un par taille, réutilisé par le cache des requêtes
+     * préparées (PooledConnection). À lier avec params.setInList(values).
+     */
+    public static String inList(int count) {
+        return "(" + String.join(", ", Collections.nCopies(inListSize(count), "?")) + ")";
+    }
+
+    private static int inListSize(int count) {
+        if (count <= 1) {
+            return 1;
+        }
+        int size = Integer.highestOneBit(count - 1) << 1;
+        return size <= MAX_IN_LIST ? size : count;
+    }
+
+    // ===== Lecture des valeurs (une seule lecture par colonne) =====
+
+    public static Integer nullableInt(ResultSet rs, int column) throws SQLException {
+        int value = rs.getInt(column);
+        return rs.wasNull() ? null : value;
+    }
+
+    public static LocalDate localDate(ResultSet rs, int column) throws SQLException {
+        Date value = rs.getDate(column);
+        return value != null ? value.toLocalDate() : null;
+    }
+
+    public static LocalDateTime localDateTime(ResultSet rs, int column) throws SQLException {
+        Timestamp value = rs.getTimestamp(column);
+        return value != null ? value.toLocalDateTime() : null;
+    }
+
+    // ===== Exécution =====
+
+    /**
+     * Lecture idempotente, relancée par read() si l'erreur est passagère
+     */
+    @FunctionalInterface
+    private interface Attempt<R> {
+        R run() throws SQLException;
+    }
+
+    public <T> List<T> query(DaoMethod caller, String sql, Binder binder, RowMapper<T> mapper) throws SQLException {
+        return query(caller, sql, binder, mapper, null);
+    }
+
+    /**
+     * @param handle Poignée d'annulation (null = non annulable) ; impose son propre délai
+     */
+    public <T> List<T> query(DaoMethod caller, String sql, Binder binder, RowMapper<T> mapper,
+                             CancellableQuery handle) throws SQLException {
+        return read(handle, () -> {
+            try (Connection conn = DatabaseConnection.getConnection(caller);
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
+                Params params = bind(stmt, binder);
+                if (handle != null) {
+                    handle.register(stmt);
+                }
+                QueryProfiler.Execution run = QueryProfiler.start(sql);
+                try (ResultSet rs = executeQuery(stmt, run)) {
+                    List<T> rows = readAll(rs, mapper, handle);
+                    run.read(rows.size(), params.values, params.count());
+                    return rows;
+                }
+            }
+        });
+    }
+
+    /**
+     * Première ligne (null si aucune)
+     */
+    public <T> T queryOne(DaoMethod caller, String sql, Binder binder, RowMapper<T> mapper) throws SQLException {
+        return read(null, () -> {
+            try (Connection conn = DatabaseConnection.getConnection(caller);
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
+                Params params = bind(stmt, binder);
+                QueryProfiler.Execution run = QueryProfiler.start(sql);
+                try (ResultSet rs = executeQuery(stmt, run)) {
+                    T row = null;
+                    if (rs.next()) {
+                        ROWS_MAPPED.increment();
+                        row = mapper.compile(new Columns(rs.getMetaData())).read(rs);
+                    }
+                    run.read(row != null ? 1 : 0, params.values, params.count());
+                    return row;
+                }
+            }
+        });
+    }
+
+    /**
+     * Première colonne de la première ligne (0 si aucune), ex : SELECT COUNT(*)
+     */
+    public int queryInt(DaoMethod caller, String sql, Binder binder) throws SQLException {
+        return read(null, () -> {
+            try (Connection conn = DatabaseConnection.getConnection(caller);
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
+                Params params = bind(stmt, binder);
+                QueryProfiler.Execution run = QueryProfiler.start(sql);
+                try (ResultSet rs = executeQuery(stmt, run)) {
+                    boolean found = rs.next();
+                    int value = found ? rs.getInt(1) : 0;
+                    run.read(found ? 1 : 0, params.values, params.count());
+                    return value;
+                }
+            }
+        });
+    }
+
+    /**
+     * INSERT / UPDATE / DELETE
+     *
+     * @return Nombre de lignes modifiées
+     */
+    public int update(DaoMethod caller, String sql, Binder binder) throws SQLException {
+        try (Connection conn = DatabaseConnection.getConnection(caller);
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            Params params = bind(stmt, binder);
+            return executeUpdate(stmt, sql, params);
+        } catch (SQLException e) {
+            throw failed(e);
+        }
+    }
+
+    /**
+     * INSERT d'une ligne
+     *
+     * @return Clé générée (AUTO_INCREMENT), 0 si rien n'a été inséré
+     */
+    public int insert(DaoMethod caller, String sql, Binder binder) throws SQLException {
+        try (Connection conn = DatabaseConnection.getConnection(caller);
+             PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            Params params = bind(stmt, binder);
+            if (executeUpdate(stmt, sql, params) == 0) {
+                return 0;
+            }
+            try (ResultSet keys = stmt.getGeneratedKeys()) {
+                return keys.next() ? keys.getInt(1) : 0;
+            }
+        } catch (SQLException e) {
+            throw failed(e);
+        }
+    }
+
+    /**
+     * Même requête pour chaque élément, envoyée en un seul lot
+     *
+     * @return Lignes modifiées par élément
+     */
+    public <T> int[] batch(DaoMethod caller, String sql, Collection<T> items, ItemBinder<T> binder) throws SQLException {
+        try (Connection conn = DatabaseConnection.getConnection(caller);
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            configure(stmt);
+            Params last = addBatch(stmt, items, binder);
+            return executeBatch(stmt, sql, last);
+        } catch (SQLException e) {
+            throw failed(e);
+        }
+    }
+
+    // ===== Interne =====
+
+    private Params bind(PreparedStatement stmt, Binder binder) throws SQLException {
+        configure(stmt);
+        Params params = new Params(stmt);
+        binder.bind(params);
+        return params;
+    }
+
+    private void configure(PreparedStatement stmt) throws SQLException {
+        stmt.setQueryTimeout(timeoutSeconds);
+        if (fetchSize != 0) {
+            stmt.setFetchSize(fetchSize);
+        }
+    }
+
+    // Dernier élément : ses valeurs liées servent à l'EXPLAIN si le lot est lent (null si lot vide)
+    private static <T> Params addBatch(PreparedStatement stmt, Collection<T> items, ItemBinder<T> binder) throws SQLException {
+        Params params = null;
+        for (T item : items) {
+            params = new Params(stmt);
+            binder.bind(params, item);
+            stmt.addBatch();
+        }
+        return params;
+    }
+
+    // ===== Exécution mesurée (QueryProfiler) =====
+
+    private static ResultSet executeQuery(PreparedStatement stmt, QueryProfiler.Execution run) throws SQLException {
+        try {
+            ResultSet rs = stmt.executeQuery();
+            run.executed();
+            return rs;
+        } catch (SQLException e) {
+            run.failed();
+            throw e;
+        }
+    }
+
+    private static int executeUpdate(PreparedStatement stmt, String sql, Params params) throws SQLException {
+        QueryProfiler.Execution run = QueryProfiler.start(sql);
+        try {
+            int affected = stmt.executeUpdate();
+            run.wrote(affected, params.values, params.count());
+            return affected;
+        } catch (SQLException e) {
+            run.failed();
+            throw e;
+        }
+    }
+
+    private static int[] executeBatch(PreparedStatement stmt, String sql, Params last) throws SQLException {
+        QueryProfiler.Execution run = QueryProfiler.start(sql);
+        try {
+            int[] counts = stmt.executeBatch();
+            long affected = 0;
+            for (int count : counts) {
+                affected += Math.max(count, 0);
+            }
+            run.wrote(affected, last != null ? last.values : null, last != null ? last.count() : 0);
+            return counts;
+        } catch (SQLException e) {
+            run.failed();
+            throw e;
+        }
+    }
+
+    private static <T> List<T> readAll(ResultSet rs, RowMapper<T> mapper, CancellableQuery handle) throws SQLException {
+        long start = System.nanoTime();
+        RowReader<T> reader = mapper.compile(new Columns(rs.getMetaData()));
+        List<T> rows = new ArrayList<>();
+        while (rs.next()) {
+            rows.add(reader.read(rs));
+            if (rows.size() % CANCEL_CHECK_ROWS == 0) {
+                checkCancelled(handle);
+            }
+        }
+        ROWS_MAPPED.add(rows.size());
+        MAPPING.recordSince(start);
+        return rows;
+    }
+
+    // Tentatives d'une lecture : arrêt sur erreur définitive, annulation, ou MAX_ATTEMPTS atteint
+    private static <R> R read(CancellableQuery handle, Attempt<R> attempt) throws SQLException {
+        for (int n = 1; ; n++) {
+            try {
+                checkCancelled(handle);
+                return attempt.run();
+            } catch (SQLException e) {
+                if (n >= MAX_ATTEMPTS || !isTransient(e) || !mayRetry(handle, e)) {
+                    throw failed(e);
+                }
+                RETRIES.increment();
+                if (!pause(n)) {
+                    throw failed(e);
+                }
+            }
+        }
+    }
+
+    // Interblocage (1213) ou attente de verrou trop longue (1205) : le verrou sera sans doute libéré
+    private static boolean isTransient(SQLException e) {
+        if (e instanceof SQLTimeoutException) {
+            return false;
+        }
+        return e instanceof SQLTransientException
+                || e.getErrorCode() == 1213 || e.getErrorCode() == 1205
+                || "40001".equals(e.getSQLState());
+    }
+
+    // Thread JavaFX : l'écran est figé pendant la pause, mieux vaut afficher l'erreur
+    private static boolean mayRetry(CancellableQuery handle, SQLException e) {
+        return (handle == null || !handle.isCancelled())
+                && !Thread.currentThread().isInterrupted()
+                && (UnitOfWork.boundConnection() == null || onlyStatementRolledBack(e))
+                && !DatabaseConnection.isOffline()
+                && !Platform.isFxApplicationThread();
+    }
+
+    // Dans une UnitOfWork, MySQL (InnoDB) :
+    //  - attente de verrou trop longue (1205) : seule la requête est annulée, la transaction continue
+    //    (innodb_rollback_on_timeout=OFF, réglage par défaut) ; la relancer sur la même connexion est sûr
+    //  - interblocage (1213, SQLState 40001) : toute la transaction est annulée ; relancer la requête
+    //    seule l'exécuterait hors transaction, sans les écritures précédentes : c'est à l'unité de recommencer
+    private static boolean onlyStatementRolledBack(SQLException e) {
+        return e.getErrorCode() == 1205;
+    }
+
+    // Pause aléatoire (full jitter) : les clients en conflit ne reviennent pas tous au même instant
+    private static boolean pause(int attempt) {
+        long ceiling = Math.min(RETRY_MAX_MS, RETRY_BASE_MS << (attempt - 1));
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static void checkCancelled(CancellableQuery handle) throws SQLException {
+        if ((handle != null && handle.isCancelled()) || Thread.currentThread().isInterrupted()) {
+            CANCELLED.increment();
+            throw new SQLException("Requête annulée", "70100");
+        }
+    }
+
+    // Comptée par classe de SQLState (08 = connexion, 40 = transaction annulée, 42 = syntaxe...)
+    // Connexion perdue en cours de requête : mode hors ligne (voir DatabaseConnection)
+    private static SQLException failed(SQLException e) {
+        DatabaseConnection.connectionFailed(e);
+        String state = e.getSQLState() != null && e.getSQLState().length() >= 2 ? e.getSQLState().substring(0, 2) : "??";
+        Metrics.Counter counter;
+        synchronized (ERRORS) {
+            counter = ERRORS.computeIfAbsent(state, key -> Metrics.counter(
+                    "taskmaster_jdbc_errors_total", "Erreurs SQL des DAO par classe de SQLState", "state", key));
+        }
+        counter.increment();
+        return e;
+    }
+}
@@ -0,0 +1,143 @@
+package com.taskmaster.utils;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Histogramme de latences à précision relative constante (principe HdrHistogram)
+ *
+ * Les durées sont rangées en microsecondes dans des seaux log-linéaires :
+ * chaque puissance de 2 est découpée en 16 seaux, soit une erreur de ±3 %
+ * sur les percentiles, de 1 µs à plusieurs jours, dans un tableau fixe.
+ *
+ * record() ne prend aucun verrou et n'alloue rien : un incrément atomique
+ * dans le tableau + deux compteurs LongAdder + un maximum.
+ *
+ * Exemple :
+ *   private static final LatencyHistogram LOAD = Metrics.histogram("taskmaster_ui_fxml_load_seconds", "...");
+ *   long start = System.nanoTime();
+ *   ...
+ *   LOAD.recordSince(start);
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;   // 16
+    private static final int MAX_EXPONENT = 40;                     // 2^40 µs ≈ 12 jours
+    private static final int BUCKET_COUNT = SUB_BUCKETS + (MAX_EXPONENT - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sumNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Long::max, 0);
+
+    /**
+     * Enregistre une durée
+     */
+    public void record(long nanos) {
+        if (nanos < 0) {
+            nanos = 0;
+        }
+        buckets.incrementAndGet(indexOf(nanos / 1_000));
+        count.increment();
+        sumNanos.add(nanos);
+        maxNanos.accumulate(nanos);
+    }
+
+    /**
+     * Enregistre le temps écoulé depuis un System.nanoTime()
+     */
+    public void recordSince(long startNanos) {
+        record(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Exécute un traitement et enregistre sa durée (même en cas d'exception)
+     */
+    public <T> T time(Supplier<T> work) {
+        long start = System.nanoTime();
+        try {
+            return work.get();
+        } finally {
+            recordSince(start);
+        }
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getSumNanos() {
+        return sumNanos.sum();
+    }
+
+    public long getMaxNanos() {
+        return maxNanos.get();
+    }
+
+    /**
+     * Durée sous laquelle se trouvent q % des mesures (q entre 0 et 1), en nanosecondes
+     * Lecture sans verrou : les mesures enregistrées pendant le calcul peuvent être comptées ou non
+     */
+    public long percentileNanos(double q) {
+        if (q >= 1) {
+            return maxNanos.get();
+        }
+        long total = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            total += buckets.get(i);
+        }
+        if (total == 0) {
+            return 0;
+        }
+
+        long target = Math.max(1, (long) Math.ceil(q * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += buckets.get(i);
+            if (seen >= target) {
+                // Milieu du seau, sans dépasser le maximum réellement observé
+                return Math.min(midpointMicros(i) * 1_000, maxNanos.get());
+            }
+        }
+        return maxNanos.get();
+    }
+
+    /**
+     * Remet l'histogramme à zéro
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            buckets.set(i, 0);
+        }
+        count.reset();
+        sumNanos.reset();
+        maxNanos.reset();
+    }
+
+    // Valeurs < 16 µs : un seau par µs ; au-delà : 16 seaux par puissance de 2
+    private static int indexOf(long micros) {
+        if (micros < SUB_BUCKETS) {
+            return (int) micros;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(micros);
+        if (exponent > MAX_EXPONENT) {
+            return BUCKET_COUNT - 1;
+        }
+        int shift = exponent - SUB_BUCKET_BITS;
+        int sub = (int) (micros >>> shift) & (SUB_BUCKETS - 1);
+        return SUB_BUCKETS + shift * SUB_BUCKETS + sub;
+    }
+
+    private static long midpointMicros(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int shift = (index - SUB_BUCKETS) / SUB_BUCKETS;
+        int sub = (index - SUB_BUCKETS) % SUB_BUCKETS;
+        long lower = (long) (SUB_BUCKETS + sub) << shift;
+        return lower + ((1L << shift) >> 1);
+    }
+}
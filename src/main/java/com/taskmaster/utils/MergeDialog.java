@@ -0,0 +1,189 @@
+package com.taskmaster.utils;
+
+import javafx.scene.control.ButtonBar;
+import javafx.scene.control.ButtonType;
+import javafx.scene.control.Dialog;
+import javafx.scene.control.Label;
+import javafx.scene.control.RadioButton;
+import javafx.scene.control.ToggleGroup;
+import javafx.scene.layout.GridPane;
+import javafx.scene.layout.VBox;
+import javafx.stage.Modality;
+import javafx.stage.Window;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+/**
+ * Fusion après un conflit de mise à jour (verrouillage optimiste, UpdateResult.CONFLICT)
+ *
+ * Fusion à trois versions, champ par champ :
+ *  - base   : la ligne lue à l'ouverture du formulaire
+ *  - mine   : les valeurs saisies
+ *  - theirs : la ligne actuelle en base (écrite par quelqu'un d'autre entre-temps)
+ * Un champ modifié d'un seul côté est repris sans question ; la fenêtre ne s'ouvre que
+ * pour les champs modifiés des deux côtés avec des valeurs différentes.
+ *
+ * Exemple :
+ *   Optional<Task> merged = MergeDialog.merge(owner, "la tâche", base, mine, result.getCurrent(),
+ *           Task::new, List.of(MergeDialog.field("Titre", Task::getTitle, Task::setTitle), ...));
+ *   // merged porte la version actuelle : nouvelle tentative avec taskDAO.update(merged)
+ */
+public final class MergeDialog {
+
+    private static final int VALUE_WIDTH = 260;
+
+    /**
+     * Un champ comparé (libellé, lecture, écriture, affichage)
+     */
+    public static final class Field<T, V> {
+        private final String label;
+        private final Function<T, V> getter;
+        private final BiConsumer<T, V> setter;
+        private final Function<V, String> format;
+
+        private Field(String label, Function<T, V> getter, BiConsumer<T, V> setter, Function<V, String> format) {
+            this.label = label;
+            this.getter = getter;
+            this.setter = setter;
+            this.format = format;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+
+        private boolean differs(T left, T right) {
+            return !Objects.equals(getter.apply(left), getter.apply(right));
+        }
+
+        private void copy(T from, T to) {
+            setter.accept(to, getter.apply(from));
+        }
+
+        private String display(T row) {
+            V value = getter.apply(row);
+            return value == null ? "—" : format.apply(value);
+        }
+    }
+
+    private MergeDialog() {}
+
+    public static <T, V> Field<T, V> field(String label, Function<T, V> getter, BiConsumer<T, V> setter) {
+        return new Field<>(label, getter, setter, String::valueOf);
+    }
+
+    /**
+     * @param format Affichage d'une valeur (ex : identifiant → nom)
+     */
+    public static <T, V> Field<T, V> field(String label, Function<T, V> getter, BiConsumer<T, V> setter,
+                                           Function<V, String> format) {
+        return new Field<>(label, getter, setter, format);
+    }
+
+    /**
+     * Fusionne la saisie avec la version actuelle
+     *
+     * @param what   Désignation pour le message (ex : "la tâche « Maquette »")
+     * @param copy   Copie d'une ligne (constructeur de copie du modèle)
+     * @return Ligne fusionnée, partant de theirs (donc de sa version) ; vide si l'utilisateur annule
+     */
+    public static <T> Optional<T> merge(Window owner, String what, T base, T mine, T theirs,
+                                        UnaryOperator<T> copy, List<Field<T, ?>> fields) {
+        T merged = copy.apply(theirs);
+        List<Field<T, ?>> conflicting = new ArrayList<>();
+        int automatic = 0;
+
+        for (Field<T, ?> field : fields) {
+            if (!field.differs(base, mine)) {
+                continue;   // Pas modifié dans le formulaire : la version actuelle reste
+            }
+            if (!field.differs(base, theirs) || !field.differs(mine, theirs)) {
+                field.copy(mine, merged);
+                automatic++;
+            } else {
+                conflicting.add(field);
+            }
+        }
+        if (conflicting.isEmpty()) {
+            return Optional.of(merged);
+        }
+        return ask(owner, what, mine, theirs, merged, conflicting, automatic);
+    }
+
+    private static <T> Optional<T> ask(Window owner, String what, T mine, T theirs, T merged,
+                                       List<Field<T, ?>> conflicting, int automatic) {
+        Dialog<ButtonType> dialog = new Dialog<>();
+        dialog.setTitle("Modification concurrente");
+        dialog.setHeaderText(capitalize(what) + " a été modifié(e) par quelqu'un d'autre pendant votre saisie.\n"
+                + "Choisissez la valeur à garder pour chaque champ.");
+        if (owner != null) {
+            dialog.initOwner(owner);
+        }
+        dialog.initModality(Modality.WINDOW_MODAL);
+        dialog.getDialogPane().getStyleClass().add("dialog-pane");
+
+        ButtonType saveType = new ButtonType("Enregistrer", ButtonBar.ButtonData.OK_DONE);
+        dialog.getDialogPane().getButtonTypes().addAll(saveType, ButtonType.CANCEL);
+
+        GridPane grid = new GridPane();
+        grid.setHgap(15);
+        grid.setVgap(10);
+        grid.addRow(0, new Label(""), header("Votre saisie"), header("Version actuelle"));
+
+        List<ToggleGroup> choices = new ArrayList<>();
+        for (int i = 0; i < conflicting.size(); i++) {
+            Field<T, ?> field = conflicting.get(i);
+            ToggleGroup group = new ToggleGroup();
+            RadioButton keepMine = choice(field.display(mine), group);
+            RadioButton keepTheirs = choice(field.display(theirs), group);
+            keepMine.setSelected(true);
+            keepMine.setUserData(Boolean.TRUE);
+            keepTheirs.setUserData(Boolean.FALSE);
+
+            Label label = new Label(field.label + " :");
+            label.getStyleClass().add("form-label");
+            grid.addRow(i + 1, label, keepMine, keepTheirs);
+            choices.add(group);
+        }
+
+        VBox content = new VBox(12, grid);
+        if (automatic > 0) {
+            content.getChildren().add(new Label(automatic + " autre(s) champ(s) de votre saisie repris sans conflit."));
+        }
+        dialog.getDialogPane().setContent(content);
+
+        if (dialog.showAndWait().orElse(ButtonType.CANCEL) != saveType) {
+            return Optional.empty();
+        }
+        for (int i = 0; i < conflicting.size(); i++) {
+            if (Boolean.TRUE.equals(choices.get(i).getSelectedToggle().getUserData())) {
+                conflicting.get(i).copy(mine, merged);
+            }
+        }
+        return Optional.of(merged);
+    }
+
+    private static Label header(String text) {
+        Label label = new Label(text);
+        label.setStyle("-fx-font-weight: bold;");
+        return label;
+    }
+
+    private static RadioButton choice(String text, ToggleGroup group) {
+        RadioButton button = new RadioButton(text);
+        button.setToggleGroup(group);
+        button.setWrapText(true);
+        button.setMaxWidth(VALUE_WIDTH);
+        return button;
+    }
+
+    private static String capitalize(String text) {
+        return text.isEmpty() ? text : Character.toUpperCase(text.charAt(0)) + text.substring(1);
+    }
+}
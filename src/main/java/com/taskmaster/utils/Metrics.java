@@ -0,0 +1,335 @@
+package com.taskmaster.utils;
+
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanInfo;
+import javax.management.MBeanOperationInfo;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Registre des métriques de l'application : compteurs, jauges, histogrammes de latence
+ *
+ * Alimenté par les DAO (via DatabaseConnection), QueryProfiler, PasswordHasher,
+ * NavigationUtils et le chargement des données de chaque écran.
+ *
+ * Exposition :
+ *  - JMX : MBean "com.taskmaster:type=Metrics" (JConsole, VisualVM...)
+ *  - fichier au format texte Prometheus, réécrit toutes les 30 s
+ *    (-Dtaskmaster.metrics.file, ~/.taskmaster/metrics.prom par défaut ;
+ *     -Dtaskmaster.metrics.intervalSeconds pour la fréquence, 0 = pas de fichier)
+ *
+ * Les métriques se créent une fois (champ static final de l'appelant) ;
+ * l'enregistrement d'une valeur ne prend ensuite aucun verrou (LongAdder, tableau atomique).
+ * Ce qui entoure la mesure n'est pas gratuit pour autant : un appel DAO alloue ses lambdas,
+ * ses paramètres et ses objets lus ; la métrique ne retrouve pas sa série par une recherche
+ * (DaoMethod, constante passée par le DAO).
+ *
+ * Exemple :
+ *   private static final Metrics.Counter LOGINS = Metrics.counter("taskmaster_logins_total", "Connexions réussies");
+ *   LOGINS.increment();
+ */
+public class Metrics {
+
+    private static final String DEFAULT_FILE = Paths.get(System.getProperty("user.home"), ".taskmaster", "metrics.prom").toString();
+    private static final long DUMP_INTERVAL_SECONDS = Long.getLong("taskmaster.metrics.intervalSeconds", 30);
+
+    // Quantiles publiés pour chaque histogramme (1 = maximum observé)
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999, 1.0};
+
+    private static final double NANOS_PER_SECOND = 1_000_000_000d;
+
+    // Clé "nom{labels}" → série (triées par nom à l'export : sortie stable)
+    private static final Map<String, Series> SERIES = new ConcurrentHashMap<>();
+
+    private static boolean started = false;
+
+    private Metrics() {}
+
+    /**
+     * Compteur croissant (LongAdder : pas de contention entre threads)
+     */
+    public static final class Counter {
+        private final LongAdder value = new LongAdder();
+
+        public void increment() {
+            value.increment();
+        }
+
+        public void add(long amount) {
+            value.add(amount);
+        }
+
+        public long get() {
+            return value.sum();
+        }
+    }
+
+    private static final class Series {
+        final String name;
+        final String labels;   // Déjà formatés : dao="TaskDAO",method="findAll" (vide = aucun)
+        final String help;
+        final String type;     // counter, gauge, summary
+        final Object metric;   // Counter, DoubleSupplier ou LatencyHistogram
+
+        Series(String name, String labels, String help, String type, Object metric) {
+            this.name = name;
+            this.labels = labels;
+            this.help = help;
+            this.type = type;
+            this.metric = metric;
+        }
+    }
+
+    // ===== Création (une fois, au chargement de la classe appelante) =====
+
+    /**
+     * @param labels Paires nom / valeur : "dao", "TaskDAO", "method", "findAll"
+     */
+    public static Counter counter(String name, String help, String... labels) {
+        return (Counter) register(name, help, "counter", labels, new Counter());
+    }
+
+    /**
+     * Jauge : valeur lue au moment de l'export (taille d'un index, connexions ouvertes...)
+     */
+    public static void gauge(String name, String help, DoubleSupplier value, String... labels) {
+        register(name, help, "gauge", labels, value);
+    }
+
+    /**
+     * Histogramme de latence, publié en secondes (résumé Prometheus : quantiles, somme, nombre)
+     */
+    public static LatencyHistogram histogram(String name, String help, String... labels) {
+        return (LatencyHistogram) register(name, help, "summary", labels, new LatencyHistogram());
+    }
+
+    private static Object register(String name, String help, String type, String[] labels, Object metric) {
+        String formattedLabels = formatLabels(labels);
+        String key = formattedLabels.isEmpty() ? name : name + "{" + formattedLabels + "}";
+        // Même nom + mêmes labels = même série (deux écrans peuvent partager une métrique)
+        return SERIES.computeIfAbsent(key, k -> new Series(name, formattedLabels, help, type, metric)).metric;
+    }
+
+    // ===== Exposition =====
+
+    /**
+     * Démarre l'export JMX et l'écriture périodique du fichier (appelé une fois par Main)
+     */
+    public static synchronized void start() {
+        if (started) {
+            return;
+        }
+        started = true;
+
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            server.registerMBean(new MetricsMBean(), new ObjectName("com.taskmaster:type=Metrics"));
+        } catch (Exception e) {
+            System.err.println("⚠️ Métriques JMX indisponibles : " + e.getMessage());
+        }
+
+        if (DUMP_INTERVAL_SECONDS > 0) {
+            Path file = Paths.get(System.getProperty("taskmaster.metrics.file", DEFAULT_FILE));
+            ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "taskmaster-metrics");
+                thread.setDaemon(true);
+                return thread;
+            });
+            scheduler.scheduleAtFixedRate(() -> writeTo(file),
+                    DUMP_INTERVAL_SECONDS, DUMP_INTERVAL_SECONDS, TimeUnit.SECONDS);
+            System.out.println("✓ Métriques : JMX + " + file + " (toutes les " + DUMP_INTERVAL_SECONDS + " s)");
+        }
+    }
+
+    /**
+     * Toutes les métriques au format texte Prometheus (version 0.0.4)
+     */
+    public static String prometheusText() {
+        StringBuilder out = new StringBuilder(8192);
+        String lastName = null;
+
+        List<Series> sorted = new ArrayList<>(SERIES.values());
+        sorted.sort(Comparator.comparing((Series series) -> series.name).thenComparing(series -> series.labels));
+
+        for (Series series : sorted) {
+            if (!series.name.equals(lastName)) {
+                out.append("# HELP ").append(series.name).append(' ').append(series.help).append('\n');
+                out.append("# TYPE ").append(series.name).append(' ').append(series.type).append('\n');
+                lastName = series.name;
+            }
+
+            if (series.metric instanceof Counter) {
+                line(out, series.name, series.labels, null, ((Counter) series.metric).get());
+            } else if (series.metric instanceof DoubleSupplier) {
+                line(out, series.name, series.labels, null, ((DoubleSupplier) series.metric).getAsDouble());
+            } else {
+                LatencyHistogram histogram = (LatencyHistogram) series.metric;
+                for (double q : QUANTILES) {
+                    line(out, series.name, series.labels, "quantile=\"" + format(q) + "\"",
+                            histogram.percentileNanos(q) / NANOS_PER_SECOND);
+                }
+                line(out, series.name + "_sum", series.labels, null, histogram.getSumNanos() / NANOS_PER_SECOND);
+                line(out, series.name + "_count", series.labels, null, histogram.getCount());
+            }
+        }
+        return out.toString();
+    }
+
+    // Écrit dans un fichier temporaire puis le renomme : un lecteur ne voit jamais un fichier à moitié écrit
+    private static void writeTo(Path file) {
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+            Files.write(tmp, prometheusText().getBytes(StandardCharsets.UTF_8));
+            try {
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            System.err.println("⚠️ Écriture des métriques impossible : " + e.getMessage());
+        }
+    }
+
+    private static void line(StringBuilder out, String name, String labels, String extraLabel, double value) {
+        out.append(name);
+        if (!labels.isEmpty() || extraLabel != null) {
+            out.append('{').append(labels);
+            if (extraLabel != null) {
+                out.append(labels.isEmpty() ? "" : ",").append(extraLabel);
+            }
+            out.append('}');
+        }
+        out.append(' ').append(format(value)).append('\n');
+    }
+
+    private static String format(double value) {
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            return String.valueOf((long) value);
+        }
+        return Double.toString(value);
+    }
+
+    private static String formatLabels(String[] labels) {
+        if (labels.length % 2 != 0) {
+            throw new IllegalArgumentException("Labels : paires nom / valeur attendues");
+        }
+        StringBuilder formatted = new StringBuilder();
+        for (int i = 0; i < labels.length; i += 2) {
+            if (i > 0) {
+                formatted.append(',');
+            }
+            formatted.append(labels[i]).append("=\"")
+                    .append(labels[i + 1].replace("\\", "\\\\").replace("\"", "\\\""))
+                    .append('"');
+        }
+        return formatted.toString();
+    }
+
+    /**
+     * Vue JMX : un attribut par compteur / jauge, quatre par histogramme
+     * (".count", ".p50_ms", ".p99_ms", ".max_ms"), plus "Prometheus" (texte complet)
+     */
+    private static class MetricsMBean implements DynamicMBean {
+
+        private static final String PROMETHEUS = "Prometheus";
+
+        @Override
+        public Object getAttribute(String attribute) throws AttributeNotFoundException {
+            if (PROMETHEUS.equals(attribute)) {
+                return prometheusText();
+            }
+            Object value = values().get(attribute);
+            if (value == null) {
+                throw new AttributeNotFoundException(attribute);
+            }
+            return value;
+        }
+
+        @Override
+        public AttributeList getAttributes(String[] attributes) {
+            Map<String, Object> values = values();
+            AttributeList list = new AttributeList();
+            for (String attribute : attributes) {
+                if (PROMETHEUS.equals(attribute)) {
+                    list.add(new Attribute(attribute, prometheusText()));
+                } else if (values.containsKey(attribute)) {
+                    list.add(new Attribute(attribute, values.get(attribute)));
+                }
+            }
+            return list;
+        }
+
+        @Override
+        public void setAttribute(Attribute attribute) {
+            throw new UnsupportedOperationException("Métriques en lecture seule");
+        }
+
+        @Override
+        public AttributeList setAttributes(AttributeList attributes) {
+            return new AttributeList();
+        }
+
+        @Override
+        public Object invoke(String actionName, Object[] params, String[] signature) {
+            throw new UnsupportedOperationException(actionName);
+        }
+
+        @Override
+        public MBeanInfo getMBeanInfo() {
+            List<MBeanAttributeInfo> attributes = new ArrayList<>();
+            attributes.add(new MBeanAttributeInfo(PROMETHEUS, String.class.getName(),
+                    "Export complet au format Prometheus", true, false, false));
+            for (Map.Entry<String, Object> value : values().entrySet()) {
+                attributes.add(new MBeanAttributeInfo(value.getKey(), value.getValue().getClass().getName(),
+                        value.getKey(), true, false, false));
+            }
+            return new MBeanInfo(Metrics.class.getName(), "Métriques TaskMaster",
+                    attributes.toArray(new MBeanAttributeInfo[0]), null, new MBeanOperationInfo[0], null);
+        }
+
+        private static Map<String, Object> values() {
+            Map<String, Object> values = new TreeMap<>();
+            for (Map.Entry<String, Series> entry : SERIES.entrySet()) {
+                Object metric = entry.getValue().metric;
+                if (metric instanceof Counter) {
+                    values.put(entry.getKey(), ((Counter) metric).get());
+                } else if (metric instanceof DoubleSupplier) {
+                    values.put(entry.getKey(), ((DoubleSupplier) metric).getAsDouble());
+                } else {
+                    LatencyHistogram histogram = (LatencyHistogram) metric;
+                    values.put(entry.getKey() + ".count", histogram.getCount());
+                    values.put(entry.getKey() + ".p50_ms", histogram.percentileNanos(0.5) / 1_000_000d);
+                    values.put(entry.getKey() + ".p99_ms", histogram.percentileNanos(0.99) / 1_000_000d);
+                    values.put(entry.getKey() + ".max_ms", histogram.getMaxNanos() / 1_000_000d);
+                }
+            }
+            return values;
+        }
+    }
+}
@@ -0,0 +1,348 @@
+package com.taskmaster.utils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.CRC32;
+
+/**
+ * Migrations versionnées du schéma (tables + index)
+ *
+ * Les scripts sont dans resources/com/taskmaster/db/migration :
+ *   V1__baseline_schema.sql, V2__sort_indexes.sql, ...
+ * Chaque script appliqué est enregistré dans la table schema_version ;
+ * au démarrage, seuls les scripts manquants sont exécutés, dans l'ordre.
+ *
+ * Utilisation :
+ *  - automatique au démarrage (Main), désactivable avec -Dtaskmaster.migrate=false
+ *  - en ligne de commande :
+ *      java -m com.taskmaster/com.taskmaster.utils.MigrationRunner [migrate|status|verify]
+ *
+ * RÈGLE : un script livré ne se modifie plus ; toute évolution = un nouveau fichier V(n+1)
+ */
+public class MigrationRunner {
+
+    private static final String LOCATION = "/com/taskmaster/db/migration/";
+
+    // Ordre d'application (les ressources d'un JAR ne peuvent pas être listées)
+    private static final List<String> MIGRATIONS = List.of(
+            "V1__baseline_schema.sql",
+            "V2__sort_indexes.sql",
+            "V3__fulltext_indexes.sql",
+            "V4__query_indexes.sql",
+            "V5__task_sync.sql",
+            "V6__change_log.sql",
+            "V7__row_versions.sql"
+    );
+
+    /**
+     * Index indispensables aux requêtes des DAO, vérifiés au démarrage
+     * (table → noms d'index)
+     */
+    private static final Map<String, List<String>> REQUIRED_INDEXES = Map.of(
+            "tasks", List.of("idx_tasks_created_at", "idx_tasks_due_date", "idx_tasks_assigned_due",
+                    "idx_tasks_project_due", "idx_tasks_status_created", "idx_tasks_priority_created", "idx_tasks_updated_at",
+                    "ft_tasks_title", "ft_tasks_title_description"),
+            "projects", List.of("idx_projects_created_at", "idx_projects_status_created",
+                    "ft_projects_name_description"),
+            "users", List.of("idx_users_created_at", "idx_users_email", "idx_users_role_created"),
+            "comments", List.of("idx_comments_task_created", "idx_comments_user_created", "ft_comments_content")
+    );
+
+    // Erreurs MySQL tolérées quand une base a été modifiée à la main avant le runner :
+    // 1060 = colonne déjà présente, 1061 = index déjà présent, 1091 = index / colonne déjà supprimé
+    private static final Set<Integer> ALREADY_APPLIED_ERRORS = Set.of(1060, 1061, 1091);
+
+    // Verrou MySQL : deux instances lancées en même temps ne migrent pas en parallèle
+    private static final String LOCK_NAME = "taskmaster_migration";
+    private static final int LOCK_TIMEOUT_SECONDS = 30;
+
+    private MigrationRunner() {}
+
+    /**
+     * Appelé par Main avant l'écran de connexion
+     * Une erreur est affichée mais ne bloque pas le lancement (l'écran de connexion
+     * signalera de toute façon une base inaccessible)
+     */
+    public static void runAtStartup() {
+        if (!Boolean.parseBoolean(System.getProperty("taskmaster.migrate", "true"))) {
+            System.out.println("ℹ️ Migrations désactivées (-Dtaskmaster.migrate=false)");
+            return;
+        }
+
+        try {
+            migrate();
+            List<String> missing = missingIndexes();
+            if (missing.isEmpty()) {
+                System.out.println("✓ Index vérifiés");
+            } else {
+                System.err.println("⚠️ Index manquants (les écrans ralentiront avec le volume) : " + missing);
+            }
+        } catch (SQLException | IOException e) {
+            System.err.println("✗ Erreur de migration : " + e.getMessage());
+        }
+    }
+
+    /**
+     * Applique les scripts qui ne sont pas encore dans schema_version
+     *
+     * @return Nombre de scripts appliqués
+     */
+    public static int migrate() throws SQLException, IOException {
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            createVersionTable(conn);
+            lock(conn);
+            try {
+                Map<Integer, Long> applied = appliedVersions(conn);
+                int count = 0;
+
+                for (String script : MIGRATIONS) {
+                    int version = versionOf(script);
+                    String sql = readScript(script);
+                    long checksum = checksum(sql);
+
+                    if (applied.containsKey(version)) {
+                        if (applied.get(version) != checksum) {
+                            System.err.println("⚠️ " + script + " a été modifié après avoir été appliqué (checksum différent)");
+                        }
+                        continue;
+                    }
+
+                    long start = System.currentTimeMillis();
+                    for (String statement : splitStatements(sql)) {
+                        execute(conn, script, statement);
+                    }
+                    long elapsed = System.currentTimeMillis() - start;
+
+                    recordVersion(conn, version, script, checksum, elapsed);
+                    System.out.println("✓ Migration " + script + " appliquée (" + elapsed + " ms)");
+                    count++;
+                }
+
+                if (count == 0) {
+                    System.out.println("✓ Schéma à jour (version " + latestVersion() + ")");
+                }
+                return count;
+
+            } finally {
+                unlock(conn);
+            }
+        }
+    }
+
+    /**
+     * Index attendus absents de la base ("table.index")
+     */
+    public static List<String> missingIndexes() throws SQLException {
+        String sql = "SELECT DISTINCT table_name, index_name FROM information_schema.statistics " +
+                "WHERE table_schema = DATABASE()";
+        Map<String, Set<String>> existing = new HashMap<>();
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+
+            while (rs.next()) {
+                existing.computeIfAbsent(rs.getString(1).toLowerCase(Locale.ROOT), t -> new java.util.HashSet<>())
+                        .add(rs.getString(2).toLowerCase(Locale.ROOT));
+            }
+        }
+
+        List<String> missing = new ArrayList<>();
+        for (Map.Entry<String, List<String>> table : REQUIRED_INDEXES.entrySet()) {
+            Set<String> indexes = existing.getOrDefault(table.getKey(), Set.of());
+            for (String index : table.getValue()) {
+                if (!indexes.contains(index.toLowerCase(Locale.ROOT))) {
+                    missing.add(table.getKey() + "." + index);
+                }
+            }
+        }
+        return missing;
+    }
+
+    /**
+     * Affiche l'état de chaque script (appliqué ou en attente)
+     */
+    public static void printStatus() throws SQLException {
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            createVersionTable(conn);
+            Map<Integer, Long> applied = appliedVersions(conn);
+            for (String script : MIGRATIONS) {
+                System.out.println((applied.containsKey(versionOf(script)) ? "  ✓ " : "  … ") + script);
+            }
+        }
+    }
+
+    /**
+     * Ligne de commande : migrate (défaut), status ou verify
+     */
+    public static void main(String[] args) {
+        String command = args.length > 0 ? args[0] : "migrate";
+        try {
+            switch (command) {
+                case "status":
+                    printStatus();
+                    break;
+                case "verify":
+                    List<String> missing = missingIndexes();
+                    System.out.println(missing.isEmpty() ? "✓ Tous les index sont présents" : "✗ Index manquants : " + missing);
+                    if (!missing.isEmpty()) {
+                        System.exit(1);
+                    }
+                    break;
+                case "migrate":
+                    migrate();
+                    break;
+                default:
+                    System.err.println("Usage : MigrationRunner [migrate|status|verify]");
+                    System.exit(2);
+            }
+        } catch (SQLException | IOException e) {
+            System.err.println("✗ " + e.getMessage());
+            System.exit(1);
+        } finally {
+            DatabaseConnection.closeConnection();
+        }
+    }
+
+    // ===== Détails =====
+
+    private static void createVersionTable(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE IF NOT EXISTS schema_version (" +
+                    "version INT PRIMARY KEY, " +
+                    "script VARCHAR(200) NOT NULL, " +
+                    "checksum BIGINT NOT NULL, " +
+                    "execution_ms INT NOT NULL, " +
+                    "installed_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP" +
+                    ") ENGINE = InnoDB");
+        }
+    }
+
+    private static Map<Integer, Long> appliedVersions(Connection conn) throws SQLException {
+        Map<Integer, Long> applied = new LinkedHashMap<>();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT version, checksum FROM schema_version ORDER BY version")) {
+            while (rs.next()) {
+                applied.put(rs.getInt(1), rs.getLong(2));
+            }
+        }
+        return applied;
+    }
+
+    private static void recordVersion(Connection conn, int version, String script, long checksum, long elapsed)
+            throws SQLException {
+        String sql = "INSERT INTO schema_version (version, script, checksum, execution_ms) VALUES (?, ?, ?, ?)";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, version);
+            stmt.setString(2, script);
+            stmt.setLong(3, checksum);
+            stmt.setLong(4, elapsed);
+            stmt.executeUpdate();
+        }
+    }
+
+    private static void execute(Connection conn, String script, String statement) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute(statement);
+        } catch (SQLException e) {
+            if (ALREADY_APPLIED_ERRORS.contains(e.getErrorCode())) {
+                System.out.println("ℹ️ " + script + " : déjà en place (" + e.getMessage() + ")");
+                return;
+            }
+            throw new SQLException(script + " : " + e.getMessage(), e.getSQLState(), e.getErrorCode(), e);
+        }
+    }
+
+    private static void lock(Connection conn) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT GET_LOCK(?, ?)")) {
+            stmt.setString(1, LOCK_NAME);
+            stmt.setInt(2, LOCK_TIMEOUT_SECONDS);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (!rs.next() || rs.getInt(1) != 1) {
+                    throw new SQLException("Migration déjà en cours dans une autre instance");
+                }
+            }
+        }
+    }
+
+    private static void unlock(Connection conn) {
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+            stmt.setString(1, LOCK_NAME);
+            stmt.executeQuery().close();
+        } catch (SQLException e) {
+            // Le verrou est de toute façon libéré à la fermeture de la connexion
+        }
+    }
+
+    /**
+     * Découpe un script en instructions (une instruction se termine par ';' en fin de ligne)
+     * Les lignes de commentaire "--" sont ignorées
+     */
+    static List<String> splitStatements(String sql) {
+        List<String> statements = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+
+        for (String line : sql.split("\r?\n")) {
+            String trimmed = line.trim();
+            if (trimmed.isEmpty() || trimmed.startsWith("--")) {
+                continue;
+            }
+            current.append(line).append('\n');
+            if (trimmed.endsWith(";")) {
+                String statement = current.toString().trim();
+                statements.add(statement.substring(0, statement.length() - 1));
+                current.setLength(0);
+            }
+        }
+        if (current.toString().trim().length() > 0) {
+            statements.add(current.toString().trim());
+        }
+        return statements;
+    }
+
+    private static String readScript(String script) throws IOException {
+        try (InputStream in = MigrationRunner.class.getResourceAsStream(LOCATION + script)) {
+            if (in == null) {
+                throw new IOException("Script de migration introuvable : " + script);
+            }
+            StringBuilder sql = new StringBuilder();
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    sql.append(line).append('\n');
+                }
+            }
+            return sql.toString();
+        }
+    }
+
+    private static long checksum(String sql) {
+        CRC32 crc = new CRC32();
+        crc.update(sql.getBytes(StandardCharsets.UTF_8));
+        return crc.getValue();
+    }
+
+    // "V4__query_indexes.sql" → 4
+    private static int versionOf(String script) {
+        return Integer.parseInt(script.substring(1, script.indexOf("__")));
+    }
+
+    private static int latestVersion() {
+        return versionOf(MIGRATIONS.get(MIGRATIONS.size() - 1));
+    }
+}
@@ -12,12 +12,18 @@ import javafx.scene.input.KeyCombination;
 
 import java.io.IOException;
 import java.net.URL;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 
 public class NavigationUtils {
 
     // 🚀 Cache pour le chemin CSS (évite de le rechercher à chaque fois)
     private static String cachedCssPath = null;
 
+    // 📈 Durée de chargement FXML par vue (une série par fichier, créée à la première visite)
+    private static final Map<String, LatencyHistogram> FXML_LOADS = new ConcurrentHashMap<>();
+
     /**
      * Navigates to a new view while FORCING fullscreen state to remain active.
      * Automatically applies the theme.css to every page.
@@ -28,6 +34,32 @@ public class NavigationUtils {
      * @param title      The title for the new stage.
      */
     public static void navigateTo(Node sourceNode, String fxmlPath, String title) {
+        navigateTo(sourceNode, fxmlPath, title, null);
+    }
+
+    /**
+     * Comme navigateTo, puis transmet le contrôleur de la nouvelle vue
+     * (ex : la palette de commandes lui demande de sélectionner une tâche)
+     *
+     * @param onLoaded Reçoit le contrôleur une fois la vue affichée (peut être null)
+     */
+    public static void navigateTo(Node sourceNode, String fxmlPath, String title, Consumer<Object> onLoaded) {
+        // 🛰️ Une navigation = une action utilisateur (Flight Recorder : requêtes et chargement rattachés)
+        try (ActionContext.Scope action = ActionContext.begin("Navigation : " + title)) {
+            FlightEvents.NavigationEvent event = new FlightEvents.NavigationEvent();
+            event.begin();
+            load(sourceNode, fxmlPath, title, onLoaded);
+            event.end();
+            if (event.shouldCommit()) {
+                event.view = fxmlPath;
+                event.title = title;
+                event.actionId = action.getId();
+                event.commit();
+            }
+        }
+    }
+
+    private static void load(Node sourceNode, String fxmlPath, String title, Consumer<Object> onLoaded) {
         try {
             Stage stage = (Stage) sourceNode.getScene().getWindow();
 
@@ -38,7 +70,9 @@ public class NavigationUtils {
             // 🚀 OPTIMISATION 1: Charger le FXML de manière optimisée
             FXMLLoader loader = new FXMLLoader(NavigationUtils.class.getResource(fxmlPath));
             loader.setClassLoader(NavigationUtils.class.getClassLoader());
-            Parent root = loader.load();
+            long loadStart = System.nanoTime();
+            Parent root = loadView(loader, fxmlPath);
+            fxmlLoadHistogram(fxmlPath).recordSince(loadStart);
 
             // 🚀 OPTIMISATION 2: Réutiliser la scène existante si possible
             Scene currentScene = stage.getScene();
@@ -57,6 +91,9 @@ public class NavigationUtils {
             // 🎨 OPTIMISATION 3: Appliquer le CSS une seule fois avec cache
             applyCssToScene(scene, title);
 
+            // ⌨️ Palette de commandes (Ctrl+K), installée une fois par scène
+            CommandPalette.install(scene);
+
             // 🚀 OPTIMISATION 4: Mettre à jour le titre avant les opérations visuelles
             stage.setTitle("TaskMaster - " + title);
 
@@ -67,12 +104,45 @@ public class NavigationUtils {
             // 🚀 OPTIMISATION 5: Restaurer l'état en une seule fois
             restoreWindowState(stage, wasFullScreen, wasMaximized);
 
+            if (onLoaded != null) {
+                onLoaded.accept(loader.getController());
+            }
+
         } catch (IOException e) {
             e.printStackTrace();
             showError("Erreur de navigation", "Impossible de charger la vue : " + fxmlPath);
         }
     }
 
+    /**
+     * 📈 Histogramme du chargement d'une vue (FXML + initialize du contrôleur)
+     * Public : la connexion charge le premier dashboard sans passer par navigateTo
+     */
+    public static LatencyHistogram fxmlLoadHistogram(String fxmlPath) {
+        return FXML_LOADS.computeIfAbsent(fxmlPath, path -> Metrics.histogram(
+                "taskmaster_ui_fxml_load_seconds", "Chargement d'une vue FXML (initialize compris)",
+                "view", path.substring(path.lastIndexOf('/') + 1)));
+    }
+
+    /**
+     * 🛰️ FXMLLoader.load() enregistré dans Flight Recorder (vue + contrôleur + initialize)
+     * Public : utilisé aussi par la connexion pour le premier dashboard
+     */
+    public static Parent loadView(FXMLLoader loader, String fxmlPath) throws IOException {
+        FlightEvents.ControllerInitEvent event = new FlightEvents.ControllerInitEvent();
+        event.begin();
+        Parent root = loader.load();
+        event.end();
+        if (event.shouldCommit()) {
+            Object controller = loader.getController();
+            event.view = fxmlPath;
+            event.controller = controller != null ? controller.getClass().getSimpleName() : null;
+            event.actionId = ActionContext.currentId();
+            event.commit();
+        }
+        return root;
+    }
+
     /**
      * 🎨 Applique le CSS de manière optimisée avec cache
      */
@@ -0,0 +1,105 @@
+package com.taskmaster.utils;
+
+import javafx.animation.Animation;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.application.Platform;
+import javafx.scene.control.Label;
+import javafx.util.Duration;
+
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
+
+/**
+ * Indicateur "hors ligne / N modifications en attente" d'un écran
+ *
+ * Hors ligne, les listes viennent de la copie locale (OfflineStore) et les changements de
+ * statut vont dans OfflineJournal : sans indicateur, rien ne les distingue de données à jour.
+ *  - Base injoignable : "Hors ligne" (+ nombre de modifications pas encore en base)
+ *  - Connexion revenue, journal pas encore rejoué : "N modifications en attente d'envoi"
+ *  - Rien en attente : masqué
+ *
+ * Relu toutes les REFRESH (état en mémoire, aucune requête) et au retour de la connexion
+ * (DatabaseConnection.onReconnect), où l'écran recharge aussi ce qu'il affiche.
+ *
+ * Exemple (initialize() d'un contrôleur) :
+ *   OfflineIndicator.attach(offlineLabel, myTasksSync::refresh);
+ *
+ * À utiliser depuis le thread JavaFX ; s'arrête quand le libellé quitte sa scène
+ */
+public final class OfflineIndicator implements AutoCloseable {
+
+    private static final Duration REFRESH = Duration.seconds(2);
+    private static final String STYLE = "offline-indicator";
+
+    // Indicateurs des écrans ouverts (prévenus au retour de la connexion)
+    private static final Set<OfflineIndicator> ATTACHED = new CopyOnWriteArraySet<>();
+
+    static {
+        // Thread "taskmaster-db-probe" : un seul listener pour tous les écrans
+        DatabaseConnection.onReconnect(() -> Platform.runLater(() -> {
+            for (OfflineIndicator indicator : ATTACHED) {
+                indicator.reconnected();
+            }
+        }));
+    }
+
+    private final Label label;
+    private final Runnable onReconnect;
+    private final Timeline timeline;
+
+    private OfflineIndicator(Label label, Runnable onReconnect) {
+        this.label = label;
+        this.onReconnect = onReconnect;
+        this.timeline = new Timeline(new KeyFrame(REFRESH, e -> update()));
+        this.timeline.setCycleCount(Animation.INDEFINITE);
+    }
+
+    /**
+     * @param label       Libellé de l'écran (masqué tant que rien n'est en attente)
+     * @param onReconnect Rechargement de l'écran au retour de la connexion (copie hors ligne
+     *                    remplacée par les données de la base), appelé sur le thread JavaFX
+     */
+    public static OfflineIndicator attach(Label label, Runnable onReconnect) {
+        OfflineIndicator indicator = new OfflineIndicator(label, onReconnect);
+        if (!label.getStyleClass().contains(STYLE)) {
+            label.getStyleClass().add(STYLE);
+        }
+        indicator.update();
+        indicator.timeline.play();
+        ATTACHED.add(indicator);
+        EntityEvents.closeWhenDetached(label, indicator);
+        return indicator;
+    }
+
+    @Override
+    public void close() {
+        timeline.stop();
+        ATTACHED.remove(this);
+    }
+
+    private void reconnected() {
+        update();
+        onReconnect.run();
+    }
+
+    private void update() {
+        String message = message(DatabaseConnection.isOffline(), OfflineJournal.pendingCount());
+        label.setText(message != null ? message : "");
+        label.setVisible(message != null);
+        label.setManaged(message != null);
+    }
+
+    /**
+     * Texte de l'indicateur (null = masqué)
+     */
+    private static String message(boolean offline, int pending) {
+        String modifications = pending + (pending > 1 ? " modifications" : " modification");
+        if (offline) {
+            return pending > 0
+                    ? "⚠️ Hors ligne : données de la dernière connexion, " + modifications + " en attente"
+                    : "⚠️ Hors ligne : données de la dernière connexion";
+        }
+        return pending > 0 ? "⏳ " + modifications + " en attente d'envoi" : null;
+    }
+}
@@ -0,0 +1,385 @@
+package com.taskmaster.utils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Journal local des écritures pas encore en base, rejouées au retour de la connexion (ou au démarrage)
+ *  - append : écritures faites hors ligne (base injoignable)
+ *  - hold / remove : écritures différées (WriteBehindQueue), retirées une fois écrites ; elles ne
+ *    sont rejouées qu'après un arrêt brutal (seul journal : un changement n'est écrit qu'une fois sur disque)
+ *
+ * Format binaire compact, en ajout seul : [longueur u16][entité u8][id i32][champ UTF][valeur UTF][base i64]
+ * (≈ 30 octets pour un changement de statut). Un enregistrement coupé en fin de fichier
+ * (arrêt brutal pendant l'écriture) est ignoré à la lecture, et coupé du fichier avant le prochain ajout.
+ *
+ * Coût par écriture : un write() dans le cache du système ; le fsync est groupé
+ * (au plus un toutes les FSYNC_INTERVAL_MS pour tous les enregistrements ajoutés entre-temps),
+ * hors du verrou du journal : un ajout n'attend jamais un fsync.
+ *
+ * Rejeu (replay) : dans l'ordre du journal, une seule écriture par (entité, id, champ) — la dernière
+ * valeur — avec détection de conflit : "base" est le updated_at de la ligne quand elle a été
+ * modifiée hors ligne ; si la ligne a changé en base depuis, la version de la base est gardée.
+ */
+public final class OfflineJournal {
+
+    /**
+     * Une écriture hors ligne : entité.champ = valeur
+     */
+    public static final class Record {
+        private final ChangeFeed.Entity entity;
+        private final int id;
+        private final String field;
+        private final String value;
+        private final long baseUpdatedAt;   // Epoch ms du updated_at connu (-1 = inconnu : pas de contrôle)
+
+        public Record(ChangeFeed.Entity entity, int id, String field, String value, long baseUpdatedAt) {
+            this.entity = entity;
+            this.id = id;
+            this.field = field;
+            this.value = value;
+            this.baseUpdatedAt = baseUpdatedAt;
+        }
+
+        public ChangeFeed.Entity getEntity() {
+            return entity;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        public String getField() {
+            return field;
+        }
+
+        public String getValue() {
+            return value;
+        }
+
+        public long getBaseUpdatedAt() {
+            return baseUpdatedAt;
+        }
+
+        private String key() {
+            return entity.name() + ':' + id + ':' + field;
+        }
+    }
+
+    public enum Outcome { APPLIED, CONFLICT }
+
+    /**
+     * Écrit un enregistrement en base (fourni par le DAO concerné)
+     * SQLException : connexion de nouveau perdue, le rejeu s'arrête et reprendra plus tard
+     */
+    public interface Replayer {
+        Outcome apply(Record record) throws SQLException;
+    }
+
+    private static final long FSYNC_INTERVAL_MS = 100;
+    private static final Path FILE = Paths.get(System.getProperty("user.home"), ".taskmaster", "offline", "journal.bin");
+
+    private static final Metrics.Counter APPENDED = Metrics.counter(
+            "taskmaster_offline_journal_records_total", "Écritures mises dans le journal hors ligne");
+    private static final Metrics.Counter REPLAYED = Metrics.counter(
+            "taskmaster_offline_replayed_total", "Écritures hors ligne rejouées en base");
+    private static final Metrics.Counter CONFLICTS = Metrics.counter(
+            "taskmaster_offline_conflicts_total", "Écritures hors ligne écartées (ligne modifiée entre-temps)");
+
+    // Garde : OfflineJournal.class
+    private static FileChannel channel;
+    private static List<Record> pending;     // Copie en mémoire du fichier (null = pas encore lu)
+    private static final Set<Record> held = new HashSet<>();   // Écritures différées en cours (pas de rejeu)
+    private static boolean dirty = false;    // Données écrites depuis le dernier fsync
+    private static boolean replaying = false;
+
+    private static final ScheduledExecutorService FSYNC = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "taskmaster-offline-fsync");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    static {
+        Metrics.gauge("taskmaster_offline_journal_pending", "Écritures hors ligne en attente de rejeu",
+                OfflineJournal::pendingCount);
+        FSYNC.scheduleWithFixedDelay(OfflineJournal::sync, FSYNC_INTERVAL_MS, FSYNC_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        Runtime.getRuntime().addShutdownHook(new Thread(OfflineJournal::sync, "taskmaster-offline-exit"));
+    }
+
+    private OfflineJournal() {}
+
+    /**
+     * Ajoute une écriture (fsync groupé, voir FSYNC_INTERVAL_MS)
+     */
+    public static synchronized void append(Record record) {
+        loadPending();
+        pending.add(record);
+        try {
+            channel().write(ByteBuffer.wrap(encode(record)));
+            dirty = true;
+            APPENDED.increment();
+        } catch (IOException e) {
+            System.err.println("⚠️ Journal hors ligne : " + e.getMessage());
+        }
+    }
+
+    /**
+     * Ajoute une écriture différée, gardée hors du rejeu tant que sa file est active
+     * (thread d'écriture de la file ; au prochain démarrage, elle est rejouée comme les autres)
+     */
+    public static synchronized void hold(Record record) {
+        held.add(record);
+        append(record);
+    }
+
+    /**
+     * Retire des écritures du journal (écrites en base ou abandonnées)
+     * Les enregistrements sont comparés par identité (ceux passés à hold / append)
+     */
+    public static synchronized void remove(Collection<Record> records) {
+        loadPending();
+        Set<Record> removed = new HashSet<>(records);
+        held.removeAll(removed);
+        List<Record> remaining = new ArrayList<>(pending);
+        if (remaining.removeIf(removed::contains)) {
+            rewrite(remaining);
+        }
+    }
+
+    /**
+     * Écritures en attente de rejeu, dans l'ordre (pour afficher les données locales à jour)
+     */
+    public static synchronized List<Record> pendingRecords() {
+        loadPending();
+        return new ArrayList<>(pending);
+    }
+
+    public static synchronized int pendingCount() {
+        loadPending();
+        return pending.size();
+    }
+
+    /**
+     * Rejoue le journal (retour de la connexion, démarrage)
+     *
+     * @return Nombre de conflits (écritures écartées)
+     */
+    public static int replay(Replayer replayer) {
+        List<Record> ready = new ArrayList<>();   // Enregistrements couverts par le lot
+        List<Record> batch;
+        synchronized (OfflineJournal.class) {
+            loadPending();
+            if (replaying) {
+                return 0;
+            }
+            for (Record record : pending) {
+                if (!held.contains(record)) {
+                    ready.add(record);
+                }
+            }
+            if (ready.isEmpty()) {
+                return 0;
+            }
+            replaying = true;
+            batch = coalesce(ready);
+        }
+
+        int applied = 0;
+        int conflicts = 0;
+        try {
+            for (Record record : batch) {
+                if (replayer.apply(record) == Outcome.CONFLICT) {
+                    conflicts++;
+                    System.err.println("⚠️ Conflit : " + record.entity + " " + record.id + " modifié(e) pendant la coupure, "
+                            + record.field + " = " + record.value + " (hors ligne) non appliqué");
+                }
+                applied++;
+            }
+        } catch (SQLException | RuntimeException e) {
+            System.err.println("Rejeu du journal hors ligne interrompu : " + e.getMessage());
+        } finally {
+            REPLAYED.add(applied - conflicts);
+            CONFLICTS.add(conflicts);
+            synchronized (OfflineJournal.class) {
+                // Retire les enregistrements des clés rejouées ; ceux ajoutés (ou retirés) pendant le rejeu
+                // ne sont pas concernés
+                Set<String> replayedKeys = new HashSet<>();
+                batch.subList(0, applied).forEach(record -> replayedKeys.add(record.key()));
+                Set<Record> replayed = new HashSet<>();
+                for (Record record : ready) {
+                    if (replayedKeys.contains(record.key())) {
+                        replayed.add(record);
+                    }
+                }
+                List<Record> remaining = new ArrayList<>(pending);
+                if (remaining.removeIf(replayed::contains)) {
+                    rewrite(remaining);
+                }
+                replaying = false;
+            }
+        }
+
+        if (applied > 0) {
+            System.out.println("✓ Journal hors ligne rejoué : " + (applied - conflicts) + " écriture(s), "
+                    + conflicts + " conflit(s)");
+        }
+        return conflicts;
+    }
+
+    // ===== Interne (garde : OfflineJournal.class, sauf sync) =====
+
+    // Une écriture par (entité, id, champ) : dernière valeur, à la place de sa dernière occurrence,
+    // avec la base de la première (état de la ligne avant toute modification hors ligne)
+    private static List<Record> coalesce(List<Record> records) {
+        Map<String, Record> byKey = new LinkedHashMap<>();
+        for (Record record : records) {
+            Record first = byKey.remove(record.key());
+            long base = first != null ? first.baseUpdatedAt : record.baseUpdatedAt;
+            byKey.put(record.key(), new Record(record.entity, record.id, record.field, record.value, base));
+        }
+        return new ArrayList<>(byKey.values());
+    }
+
+    private static void loadPending() {
+        if (pending != null) {
+            return;
+        }
+        pending = new ArrayList<>();
+        if (!Files.exists(FILE)) {
+            return;
+        }
+        long complete = 0;   // Fin du dernier enregistrement complet
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(FILE))) {
+            while (true) {
+                int length;
+                try {
+                    length = in.readUnsignedShort();
+                } catch (IOException end) {
+                    break;
+                }
+                byte[] payload = new byte[length];
+                if (in.readNBytes(payload, 0, length) < length) {
+                    break;   // Enregistrement coupé par un arrêt brutal
+                }
+                pending.add(decode(payload));
+                complete += 2 + length;
+            }
+        } catch (IOException | RuntimeException e) {
+            System.err.println("⚠️ Journal hors ligne illisible : " + e.getMessage());
+        }
+
+        // Fin coupée (ou illisible) : retirée, sinon les prochains ajouts iraient après elle
+        // et seraient perdus à la lecture suivante
+        try (FileChannel file = FileChannel.open(FILE, StandardOpenOption.WRITE)) {
+            if (file.size() > complete) {
+                System.err.println("⚠️ Journal hors ligne : " + (file.size() - complete) + " octet(s) coupé(s) retiré(s)");
+                file.truncate(complete);
+                file.force(false);
+            }
+        } catch (IOException e) {
+            System.err.println("⚠️ Journal hors ligne : " + e.getMessage());
+        }
+    }
+
+    private static FileChannel channel() throws IOException {
+        if (channel == null || !channel.isOpen()) {
+            loadPending();   // Coupe une éventuelle fin incomplète avant d'ajouter
+            Files.createDirectories(FILE.getParent());
+            channel = FileChannel.open(FILE, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        }
+        return channel;
+    }
+
+    // Thread du fsync (et fermeture) : fsync hors du verrou, les ajouts continuent pendant ce temps
+    static void sync() {
+        FileChannel synced;
+        synchronized (OfflineJournal.class) {
+            if (!dirty || channel == null) {
+                return;
+            }
+            synced = channel;
+            dirty = false;
+        }
+        try {
+            synced.force(false);
+        } catch (ClosedChannelException e) {
+            // Journal réécrit entre-temps (rewrite : écriture DSYNC)
+        } catch (IOException e) {
+            synchronized (OfflineJournal.class) {
+                dirty = true;
+            }
+            System.err.println("⚠️ Journal hors ligne (fsync) : " + e.getMessage());
+        }
+    }
+
+    private static void rewrite(List<Record> records) {
+        try {
+            if (channel != null) {
+                channel.close();
+                channel = null;
+            }
+            dirty = false;
+            pending = new ArrayList<>(records);
+            if (records.isEmpty()) {
+                Files.deleteIfExists(FILE);
+                return;
+            }
+            ByteArrayOutputStream content = new ByteArrayOutputStream();
+            for (Record record : records) {
+                content.write(encode(record));
+            }
+            Path temp = FILE.resolveSibling(FILE.getFileName() + ".tmp");
+            Files.write(temp, content.toByteArray(), StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.DSYNC);
+            Files.move(temp, FILE, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.err.println("⚠️ Journal hors ligne : " + e.getMessage());
+        }
+    }
+
+    private static byte[] encode(Record record) throws IOException {
+        ByteArrayOutputStream payload = new ByteArrayOutputStream(32);
+        try (DataOutputStream out = new DataOutputStream(payload)) {
+            out.writeByte(record.entity.ordinal());
+            out.writeInt(record.id);
+            out.writeUTF(record.field);
+            out.writeUTF(record.value);
+            out.writeLong(record.baseUpdatedAt);
+        }
+        ByteArrayOutputStream framed = new ByteArrayOutputStream(payload.size() + 2);
+        try (DataOutputStream out = new DataOutputStream(framed)) {
+            out.writeShort(payload.size());
+            payload.writeTo(out);
+        }
+        return framed.toByteArray();
+    }
+
+    private static Record decode(byte[] payload) throws IOException {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload))) {
+            ChangeFeed.Entity entity = ChangeFeed.Entity.values()[in.readUnsignedByte()];
+            return new Record(entity, in.readInt(), in.readUTF(), in.readUTF(), in.readLong());
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.taskmaster.utils;
+
+import com.taskmaster.models.Project;
+import com.taskmaster.models.Task;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Copie locale des tâches et projets de l'utilisateur, pour le mode hors ligne
+ *
+ * Chaque lecture réussie de TaskDAO.findByUserId / ProjectDAO.findByMember est enregistrée
+ * (en mémoire, et sur disque en arrière-plan : ~/.taskmaster/offline/user-<id>/).
+ * Base injoignable : ces DAO renvoient la copie, avec les écritures du journal hors ligne
+ * déjà appliquées (un statut changé hors ligne reste affiché).
+ */
+public final class OfflineStore {
+
+    private static final Path DIR = Paths.get(System.getProperty("user.home"), ".taskmaster", "offline");
+
+    // Clé "tasks-<userId>" / "projects-<userId>" → dernière copie
+    private static final Map<String, List<?>> SNAPSHOTS = new ConcurrentHashMap<>();
+
+    private static final ExecutorService WRITER = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "taskmaster-offline-store");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private static final Metrics.Counter OFFLINE_READS = Metrics.counter(
+            "taskmaster_offline_reads_total", "Lectures servies par la copie locale (base injoignable)");
+
+    private OfflineStore() {}
+
+    public static void saveTasks(int userId, List<Task> tasks) {
+        save("tasks-" + userId, userId, tasks);
+    }
+
+    public static void saveProjects(int userId, List<Project> projects) {
+        save("projects-" + userId, userId, projects);
+    }
+
+    /**
+     * Tâches de l'utilisateur (copie locale + écritures hors ligne)
+     */
+    public static List<Task> tasks(int userId) {
+        List<Task> tasks = load("tasks-" + userId, userId);
+        for (OfflineJournal.Record record : OfflineJournal.pendingRecords()) {
+            if (record.getEntity() != ChangeFeed.Entity.TASK || !"status".equals(record.getField())) {
+                continue;
+            }
+            for (Task task : tasks) {
+                if (task.getId() == record.getId()) {
+                    task.setStatus(record.getValue());
+                }
+            }
+        }
+        return tasks;
+    }
+
+    /**
+     * Projets de l'utilisateur (copie locale)
+     */
+    public static List<Project> projects(int userId) {
+        return load("projects-" + userId, userId);
+    }
+
+    /**
+     * updated_at connu d'une tâche (epoch ms, -1 si inconnu) : base de la détection de conflit
+     */
+    public static long taskUpdatedAt(int taskId) {
+        for (Map.Entry<String, List<?>> snapshot : SNAPSHOTS.entrySet()) {
+            if (!snapshot.getKey().startsWith("tasks-")) {
+                continue;
+            }
+            for (Object row : snapshot.getValue()) {
+                Task task = (Task) row;
+                if (task.getId() == taskId && task.getUpdatedAt() != null) {
+                    return task.getUpdatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+                }
+            }
+        }
+        return -1;
+    }
+
+    // ===== Interne =====
+
+    private static void save(String key, int userId, List<?> rows) {
+        List<?> copy = new ArrayList<>(rows);
+        SNAPSHOTS.put(key, copy);
+        WRITER.execute(() -> {
+            try {
+                Path file = DIR.resolve("user-" + userId).resolve(key.substring(0, key.indexOf('-')) + ".snapshot");
+                Files.createDirectories(file.getParent());
+                Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+                try (ObjectOutputStream out = new ObjectOutputStream(Files.newOutputStream(temp))) {
+                    out.writeObject(copy);
+                }
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                System.err.println("⚠️ Copie locale " + key + " : " + e.getMessage());
+            }
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> List<T> load(String key, int userId) {
+        OFFLINE_READS.increment();
+        List<?> rows = SNAPSHOTS.get(key);
+        if (rows == null) {
+            Path file = DIR.resolve("user-" + userId).resolve(key.substring(0, key.indexOf('-')) + ".snapshot");
+            if (!Files.exists(file)) {
+                return new ArrayList<>();
+            }
+            try (ObjectInputStream in = new ObjectInputStream(Files.newInputStream(file))) {
+                rows = (List<?>) in.readObject();
+                SNAPSHOTS.put(key, rows);
+            } catch (IOException | ClassNotFoundException | ClassCastException e) {
+                System.err.println("⚠️ Copie locale " + key + " illisible : " + e.getMessage());
+                return new ArrayList<>();
+            }
+        }
+        return new ArrayList<>((List<T>) rows);
+    }
+}
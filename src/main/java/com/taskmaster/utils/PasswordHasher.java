@@ -13,6 +13,12 @@ public class PasswordHasher {
     // Coût du hashage (10-12 = bon compromis sécurité/performance)
     private static final int BCRYPT_ROUNDS = 10;
 
+    // Durées BCrypt (volontairement lentes : à surveiller si BCRYPT_ROUNDS augmente)
+    private static final LatencyHistogram HASH_LATENCY = Metrics.histogram(
+            "taskmaster_auth_bcrypt_seconds", "Durée des opérations BCrypt", "operation", "hash");
+    private static final LatencyHistogram VERIFY_LATENCY = Metrics.histogram(
+            "taskmaster_auth_bcrypt_seconds", "Durée des opérations BCrypt", "operation", "verify");
+
     /**
      * Hashe un mot de passe en clair
      *
@@ -27,7 +33,16 @@ public class PasswordHasher {
         if (plainPassword == null || plainPassword.isEmpty()) {
             throw new IllegalArgumentException("Le mot de passe ne peut pas être vide");
         }
-        return BCrypt.hashpw(plainPassword, BCrypt.gensalt(BCRYPT_ROUNDS));
+        FxWatchdog.checkBlockingCall("BCrypt");
+        long start = System.nanoTime();
+        FlightEvents.PasswordHashEvent event = new FlightEvents.PasswordHashEvent();
+        event.begin();
+        try {
+            return BCrypt.hashpw(plainPassword, BCrypt.gensalt(BCRYPT_ROUNDS));
+        } finally {
+            HASH_LATENCY.recordSince(start);
+            commit(event, "hash");
+        }
     }
 
     /**
@@ -46,11 +61,28 @@ public class PasswordHasher {
         if (plainPassword == null || hashedPassword == null) {
             return false;
         }
+        FxWatchdog.checkBlockingCall("BCrypt");
+        long start = System.nanoTime();
+        FlightEvents.PasswordHashEvent event = new FlightEvents.PasswordHashEvent();
+        event.begin();
         try {
             return BCrypt.checkpw(plainPassword, hashedPassword);
         } catch (IllegalArgumentException e) {
             // Hash invalide
             return false;
+        } finally {
+            VERIFY_LATENCY.recordSince(start);
+            commit(event, "verify");
+        }
+    }
+
+    // 🛰️ Événement Flight Recorder (rattaché à l'action en cours, ex : Connexion)
+    private static void commit(FlightEvents.PasswordHashEvent event, String operation) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.operation = operation;
+            event.actionId = ActionContext.currentId();
+            event.commit();
         }
     }
 
@@ -0,0 +1,297 @@
+package com.taskmaster.utils;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Connexion MySQL d'un thread, gardée ouverte d'un appel de DAO à l'autre, avec ses requêtes préparées
+ *
+ * DatabaseConnection.getConnection() en prête une enveloppe (lease) : le close() du DAO
+ * (try-with-resources) rend la connexion au thread au lieu de la fermer.
+ *
+ * Cache des requêtes préparées (par connexion, clé = texte SQL) :
+ *  - prepareStatement(sql) déjà vu : le même PreparedStatement, sans nouvelle analyse
+ *    ni préparation par MySQL (préparées côté serveur : useServerPrepStmts, voir DatabaseConnection)
+ *  - close() du DAO : paramètres et réglages effacés, requête rendue au cache
+ *  - au-delà de CACHE_SIZE textes : le moins récemment utilisé est fermé (libéré sur le serveur)
+ * Les DAO n'emploient qu'un petit nombre fixe de textes SQL : les recherches à filtres
+ * optionnels et les listes IN sont normalisées (voir TaskDAO.search, JdbcTemplate.inList).
+ *
+ * Utilisée par un seul thread ; seul DatabaseConnection (nettoyage des connexions inactives)
+ * y touche depuis un autre thread, quand aucune enveloppe n'est prêtée.
+ */
+final class PooledConnection {
+
+    // Textes SQL gardés préparés par connexion (-Dtaskmaster.statementCacheSize)
+    static final int CACHE_SIZE = Integer.getInteger("taskmaster.statementCacheSize", 64);
+
+    private static final Metrics.Counter HITS = Metrics.counter(
+            "taskmaster_db_statement_cache_total", "Requêtes préparées demandées par les DAO", "result", "hit");
+    private static final Metrics.Counter MISSES = Metrics.counter(
+            "taskmaster_db_statement_cache_total", "Requêtes préparées demandées par les DAO", "result", "miss");
+    // Même texte déjà en cours d'utilisation, ou variante de prepareStatement non mise en cache
+    private static final Metrics.Counter BYPASSES = Metrics.counter(
+            "taskmaster_db_statement_cache_total", "Requêtes préparées demandées par les DAO", "result", "bypass");
+    private static final Metrics.Counter EVICTIONS = Metrics.counter(
+            "taskmaster_db_statement_cache_evictions_total", "Requêtes préparées fermées pour faire de la place");
+
+    private final Connection physical;
+    private final Map<String, CachedStatement> statements = new LinkedHashMap<>(16, 0.75f, true);
+    private int leases;
+    private long lastReleased = System.currentTimeMillis();
+    private boolean closed;
+
+    PooledConnection(Connection physical) {
+        this.physical = physical;
+    }
+
+    /**
+     * Prête la connexion (null si elle est fermée, ou perdue après une longue inactivité)
+     *
+     * @param validateAfterMs Inactivité au-delà de laquelle la connexion est vérifiée (isValid)
+     */
+    synchronized Connection tryLease(long validateAfterMs) {
+        if (closed) {
+            return null;
+        }
+        if (leases == 0 && System.currentTimeMillis() - lastReleased >= validateAfterMs && !isValid()) {
+            return null;
+        }
+        leases++;
+        return (Connection) Proxy.newProxyInstance(PooledConnection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, new Lease());
+    }
+
+    /**
+     * true tant qu'une enveloppe est prêtée (appel de DAO en cours sur le thread)
+     */
+    synchronized boolean isLeased() {
+        return leases > 0;
+    }
+
+    /**
+     * Ferme la connexion si aucun DAO ne l'utilise depuis idleMs
+     *
+     * @return true si elle est fermée
+     */
+    synchronized boolean closeIfIdle(long idleMs) {
+        if (!closed && leases == 0 && System.currentTimeMillis() - lastReleased >= idleMs) {
+            close();
+        }
+        return closed;
+    }
+
+    /**
+     * Ferme les requêtes préparées puis la connexion
+     */
+    synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        for (CachedStatement cached : statements.values()) {
+            closeQuietly(cached.statement);
+        }
+        statements.clear();
+        try {
+            physical.close();
+        } catch (SQLException e) {
+            System.err.println("✗ Erreur fermeture : " + e.getMessage());
+        }
+    }
+
+    private boolean isValid() {
+        try {
+            return physical.isValid(2);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    // Fin d'une enveloppe : transaction laissée ouverte annulée (erreur dans un DAO)
+    private synchronized void release() {
+        leases--;
+        lastReleased = System.currentTimeMillis();
+        if (leases > 0 || closed) {
+            return;
+        }
+        try {
+            if (!physical.getAutoCommit()) {
+                physical.rollback();
+                physical.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            close();
+        }
+    }
+
+    // ===== Cache des requêtes préparées =====
+
+    private synchronized PreparedStatement checkout(String sql, int generatedKeys) throws SQLException {
+        String key = generatedKeys == Statement.RETURN_GENERATED_KEYS ? "+keys " + sql : sql;
+        CachedStatement cached = statements.get(key);
+        if (cached != null) {
+            if (cached.inUse) {
+                BYPASSES.increment();
+                return physical.prepareStatement(sql, generatedKeys);
+            }
+            HITS.increment();
+        } else {
+            MISSES.increment();
+            cached = new CachedStatement(physical.prepareStatement(sql, generatedKeys));
+            statements.put(key, cached);
+            evictOverflow();
+        }
+        cached.inUse = true;
+        return (PreparedStatement) Proxy.newProxyInstance(PooledConnection.class.getClassLoader(),
+                new Class<?>[]{PreparedStatement.class}, new Checkout(cached));
+    }
+
+    private synchronized void checkin(CachedStatement cached) {
+        cached.inUse = false;
+        if (cached.evicted || closed) {
+            closeQuietly(cached.statement);
+            return;
+        }
+        try {
+            // Réglages remis à zéro : le prochain DAO retrouve une requête neuve
+            ResultSet rs = cached.statement.getResultSet();
+            if (rs != null) {
+                rs.close();
+            }
+            cached.statement.clearParameters();
+            cached.statement.clearBatch();
+            cached.statement.setQueryTimeout(0);
+            cached.statement.setFetchSize(0);
+            cached.statement.setMaxRows(0);
+        } catch (SQLException e) {
+            statements.values().remove(cached);
+            closeQuietly(cached.statement);
+        }
+    }
+
+    // Les plus anciennes d'abord (ordre d'accès) ; une requête en cours est fermée à sa restitution
+    private void evictOverflow() {
+        Iterator<CachedStatement> it = statements.values().iterator();
+        while (statements.size() > CACHE_SIZE && it.hasNext()) {
+            CachedStatement eldest = it.next();
+            it.remove();
+            EVICTIONS.increment();
+            if (eldest.inUse) {
+                eldest.evicted = true;
+            } else {
+                closeQuietly(eldest.statement);
+            }
+        }
+    }
+
+    private static void closeQuietly(Statement statement) {
+        try {
+            statement.close();
+        } catch (SQLException e) {
+            // Connexion déjà perdue : rien à libérer
+        }
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static final class CachedStatement {
+        final PreparedStatement statement;
+        boolean inUse;
+        boolean evicted;
+
+        CachedStatement(PreparedStatement statement) {
+            this.statement = statement;
+        }
+    }
+
+    /**
+     * Enveloppe prêtée à un appel de DAO : close() rend la connexion (et termine la mesure
+     * de l'appel DAO, voir DatabaseConnection.released)
+     */
+    private final class Lease implements InvocationHandler {
+        private boolean released;
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!released) {
+                        released = true;
+                        release();
+                        DatabaseConnection.released();
+                    }
+                    return null;
+                case "isClosed":
+                    return released || physical.isClosed();
+                case "prepareStatement":
+                    if (!released && isCacheable(method)) {
+                        int generatedKeys = args.length == 2 ? (Integer) args[1] : Statement.NO_GENERATED_KEYS;
+                        return checkout((String) args[0], generatedKeys);
+                    }
+                    break;
+                default:
+                    break;
+            }
+            if (released) {
+                throw new SQLException("Connexion déjà rendue", "08003");
+            }
+            return PooledConnection.invoke(physical, method, args);
+        }
+
+        // prepareStatement(String) et prepareStatement(String, int autoGeneratedKeys)
+        private boolean isCacheable(Method method) {
+            Class<?>[] types = method.getParameterTypes();
+            return types.length == 1 || (types.length == 2 && types[1] == int.class);
+        }
+    }
+
+    /**
+     * Requête du cache prêtée jusqu'à son close()
+     * Après restitution, plus aucun appel ne l'atteint (ex : un cancel() tardif de CancellableQuery)
+     */
+    private final class Checkout implements InvocationHandler {
+        private final CachedStatement cached;
+        private volatile boolean returned;
+
+        Checkout(CachedStatement cached) {
+            this.cached = cached;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!returned) {
+                        returned = true;
+                        checkin(cached);
+                    }
+                    return null;
+                case "isClosed":
+                    return returned;
+                default:
+                    break;
+            }
+            if (returned) {
+                throw new SQLException("Requête déjà fermée", "HY010");
+            }
+            return PooledConnection.invoke(cached.statement, method, args);
+        }
+    }
+}
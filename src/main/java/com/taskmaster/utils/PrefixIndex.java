@@ -0,0 +1,178 @@
+package com.taskmaster.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/**
+ * Index trié par préfixe pour l'auto-complétion
+ *
+ * Chaque élément est rangé sous plusieurs clés normalisées (prénom, nom, username...)
+ * dans un TreeMap : les éléments qui commencent par "dup" sont la plage
+ * ["dup", "dup" + Character.MAX_VALUE) de l'arbre, lue en O(log n + résultats) sans parcourir la liste.
+ *
+ * Exemple :
+ *   PrefixIndex<User> index = new PrefixIndex<>(User::getId, u -> List.of(u.getFirstName(), u.getLastName()));
+ *   index.rebuild(users);
+ *   index.complete("jean du", 10);   // "Jean Dupont", "Jean Durand"...
+ */
+public class PrefixIndex<T> {
+
+    private static final String WORD_SEPARATORS = "[^\\p{L}\\p{N}]+";
+
+    private final ToIntFunction<T> idOf;
+    private final Function<T, List<String>> keysOf;
+
+    // Clé normalisée → IDs (triés pour un ordre stable)
+    private final NavigableMap<String, Set<Integer>> tree = new TreeMap<>();
+    // ID → élément et ses clés (pour les retirer lors d'une mise à jour)
+    private final Map<Integer, T> values = new HashMap<>();
+    private final Map<Integer, List<String>> keysById = new HashMap<>();
+
+    /**
+     * @param idOf Identifiant unique de l'élément
+     * @param keysOf Textes sous lesquels l'élément peut être trouvé (chaque mot devient une clé)
+     */
+    public PrefixIndex(ToIntFunction<T> idOf, Function<T, List<String>> keysOf) {
+        this.idOf = idOf;
+        this.keysOf = keysOf;
+    }
+
+    public synchronized void rebuild(Collection<T> items) {
+        tree.clear();
+        values.clear();
+        keysById.clear();
+        for (T item : items) {
+            put(item);
+        }
+    }
+
+    /**
+     * Ajoute ou remplace un élément
+     */
+    public synchronized void put(T item) {
+        int id = idOf.applyAsInt(item);
+        remove(id);
+
+        List<String> keys = new ArrayList<>();
+        for (String text : keysOf.apply(item)) {
+            String normalized = TextUtils.normalize(text).trim();
+            if (normalized.isEmpty()) {
+                continue;
+            }
+            // Le texte complet ("jean dupont") et chacun de ses mots ("dupont")
+            keys.add(normalized);
+            for (String word : normalized.split(WORD_SEPARATORS)) {
+                if (!word.isEmpty() && !word.equals(normalized)) {
+                    keys.add(word);
+                }
+            }
+        }
+
+        for (String key : keys) {
+            tree.computeIfAbsent(key, k -> new TreeSet<>()).add(id);
+        }
+        values.put(id, item);
+        keysById.put(id, keys);
+    }
+
+    /**
+     * Retire un élément (sans effet s'il n'est pas indexé)
+     */
+    public synchronized void remove(int id) {
+        List<String> keys = keysById.remove(id);
+        values.remove(id);
+        if (keys == null) {
+            return;
+        }
+
+        for (String key : keys) {
+            Set<Integer> ids = tree.get(key);
+            if (ids != null) {
+                ids.remove(id);
+                if (ids.isEmpty()) {
+                    tree.remove(key);
+                }
+            }
+        }
+    }
+
+    public synchronized T get(int id) {
+        return values.get(id);
+    }
+
+    public synchronized int size() {
+        return values.size();
+    }
+
+    /**
+     * Meilleures complétions pour la saisie, dans l'ordre alphabétique des clés
+     * Plusieurs mots : le premier sert à la recherche dans l'arbre, les suivants filtrent
+     * ("jean du" → clés qui commencent par "jean", puis un mot qui commence par "du")
+     *
+     * @param input Saisie de l'utilisateur (accents et casse ignorés)
+     * @param limit Nombre maximum de résultats
+     * @return Les éléments trouvés (vide si la saisie est vide)
+     */
+    public synchronized List<T> complete(String input, int limit) {
+        List<T> results = new ArrayList<>();
+        String normalized = TextUtils.normalize(input).trim();
+        if (normalized.isEmpty()) {
+            return results;
+        }
+
+        // "-dupont" → ["", "dupont"] : on ignore les mots vides
+        String[] words = Arrays.stream(normalized.split(WORD_SEPARATORS))
+                .filter(word -> !word.isEmpty())
+                .toArray(String[]::new);
+        if (words.length == 0) {
+            return results;
+        }
+        String first = words[0];
+
+        // Plage [first, first + Character.MAX_VALUE) : toutes les clés qui commencent par "first"
+        Set<Integer> seen = new LinkedHashSet<>();
+        for (Set<Integer> ids : tree.subMap(first, true, first + Character.MAX_VALUE, false).values()) {
+            for (Integer id : ids) {
+                if (seen.add(id) && matchesOtherWords(id, words)) {
+                    results.add(values.get(id));
+                    if (results.size() >= limit) {
+                        return results;
+                    }
+                }
+            }
+        }
+        return results;
+    }
+
+    private boolean matchesOtherWords(int id, String[] words) {
+        if (words.length == 1) {
+            return true;
+        }
+
+        List<String> keys = keysById.get(id);
+        for (int i = 1; i < words.length; i++) {
+            boolean found = false;
+            for (String key : keys) {
+                if (key.startsWith(words[i])) {
+                    found = true;
+                    break;
+                }
+            }
+            if (!found) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
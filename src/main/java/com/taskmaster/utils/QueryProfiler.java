@@ -0,0 +1,317 @@
+package com.taskmaster.utils;
+
+import com.taskmaster.models.QueryStats;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.regex.Pattern;
+
+/**
+ * Journal des requêtes lentes
+ *
+ * JdbcTemplate signale ici chaque exécution : toutes les requêtes des DAO passent par lui.
+ * Pour chaque exécution : forme du SQL, nombre de paramètres, durée, lignes lues.
+ * Les lignes sont comptées par JdbcTemplate : le ResultSet du driver est lu directement,
+ * sans enveloppe (rien n'est ajouté par ligne ni par colonne).
+ *
+ * Au-delà du seuil (-Dtaskmaster.slowQueryMs, 200 ms par défaut) :
+ *  - la requête est affichée dans la console
+ *  - son plan (EXPLAIN) est capturé en arrière-plan, au plus une fois par minute et par forme
+ *
+ * Coût quand rien n'est lent : deux System.nanoTime() et quelques compteurs LongAdder
+ * par requête. Désactivable avec -Dtaskmaster.profiler=false (plus aucune mesure par requête).
+ */
+public class QueryProfiler {
+
+    public static final long SLOW_THRESHOLD_MS = Long.getLong("taskmaster.slowQueryMs", 200);
+    private static final long SLOW_THRESHOLD_NANOS = SLOW_THRESHOLD_MS * 1_000_000L;
+    private static final boolean ENABLED = Boolean.parseBoolean(System.getProperty("taskmaster.profiler", "true"));
+
+    // Un EXPLAIN par forme de requête et par minute au maximum
+    private static final long EXPLAIN_INTERVAL_MS = 60_000;
+    // Nombre maximal de formes suivies (protection contre du SQL construit sans paramètres)
+    private static final int MAX_SHAPES = 500;
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^'\\\\]|\\\\.|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(\\.\\d+)?\\b");
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private static final Map<String, QueryStats> STATS = new ConcurrentHashMap<>();
+    // SQL brut → forme normalisée (les chaînes SQL des DAO sont presque toujours les mêmes)
+    private static final Map<String, String> SHAPES = new ConcurrentHashMap<>();
+
+    private static final LatencyHistogram STATEMENT_LATENCY = Metrics.histogram(
+            "taskmaster_db_statement_seconds", "Durée d'exécution des requêtes SQL");
+    private static final Metrics.Counter ROWS_READ = Metrics.counter(
+            "taskmaster_db_rows_read_total", "Lignes lues par les requêtes SQL");
+    private static final Metrics.Counter STATEMENT_ERRORS = Metrics.counter(
+            "taskmaster_db_statement_errors_total", "Requêtes SQL en erreur");
+    private static final Metrics.Counter SLOW_STATEMENTS = Metrics.counter(
+            "taskmaster_db_slow_statements_total", "Requêtes SQL au-delà du seuil de lenteur");
+
+    private static final ExecutorService EXPLAIN_EXECUTOR = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "taskmaster-explain");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private QueryProfiler() {}
+
+    /**
+     * Début de l'exécution d'une requête (JdbcTemplate)
+     */
+    static Execution start(String sql) {
+        return ENABLED ? new Execution(sql) : Execution.DISABLED;
+    }
+
+    /**
+     * false avec -Dtaskmaster.profiler=false : JdbcTemplate ne garde pas les valeurs liées
+     */
+    static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * Formes de requêtes les plus coûteuses (temps total décroissant)
+     */
+    public static List<QueryStats> worst(int limit) {
+        List<QueryStats> all = new ArrayList<>(STATS.values());
+        all.sort(Comparator.comparingDouble(QueryStats::getTotalMs).reversed());
+        return all.subList(0, Math.min(limit, all.size()));
+    }
+
+    /**
+     * Remet les statistiques à zéro
+     */
+    public static void reset() {
+        STATS.clear();
+    }
+
+    /**
+     * Forme d'une requête : espaces réduits, valeurs littérales et listes IN remplacées par "?"
+     * "WHERE id IN (?, ?, ?) AND status = 'TODO'" → "WHERE id IN (?...) AND status = ?"
+     */
+    static String shapeOf(String sql) {
+        String shape = SHAPES.get(sql);
+        if (shape == null) {
+            shape = STRING_LITERAL.matcher(sql).replaceAll("?");
+            shape = NUMBER_LITERAL.matcher(shape).replaceAll("?");
+            shape = IN_LIST.matcher(shape).replaceAll("(?...)");
+            shape = WHITESPACE.matcher(shape).replaceAll(" ").trim();
+            if (SHAPES.size() >= MAX_SHAPES) {
+                SHAPES.clear();
+            }
+            SHAPES.put(sql, shape);
+        }
+        return shape;
+    }
+
+    // ===== Enregistrement =====
+
+    private static void record(String sql, Object[] binds, int bindCount, long nanos, long rows) {
+        if (sql == null) {
+            return;
+        }
+
+        String shape = shapeOf(sql);
+        QueryStats stats = STATS.get(shape);
+        if (stats == null) {
+            if (STATS.size() >= MAX_SHAPES) {
+                return;
+            }
+            stats = STATS.computeIfAbsent(shape, key -> new QueryStats(key, bindCount));
+        }
+
+        boolean slow = nanos >= SLOW_THRESHOLD_NANOS;
+        stats.record(nanos, rows, slow);
+        STATEMENT_LATENCY.record(nanos);
+        if (slow) {
+            SLOW_STATEMENTS.increment();
+            onSlowQuery(stats, sql, binds != null ? Arrays.copyOf(binds, bindCount + 1) : new Object[1], nanos, rows);
+        }
+    }
+
+    private static void onSlowQuery(QueryStats stats, String sql, Object[] binds, long nanos, long rows) {
+        System.err.println("🐢 Requête lente (" + nanos / 1_000_000 + " ms"
+                + (rows >= 0 ? ", " + rows + " lignes" : "") + ") : " + stats.getShape());
+        stats.setLastSlowSql(sql);
+
+        long now = System.currentTimeMillis();
+        if (now - stats.getLastExplainAt() < EXPLAIN_INTERVAL_MS || !isExplainable(sql)) {
+            return;
+        }
+        stats.setLastExplainAt(now);
+
+        EXPLAIN_EXECUTOR.execute(() -> {
+            String plan = explain(sql, binds);
+            stats.setPlan(plan);
+            System.err.println("📋 Plan :\n" + plan);
+        });
+    }
+
+    /**
+     * EXPLAIN de la requête avec les mêmes paramètres (thread "taskmaster-explain")
+     */
+    private static String explain(String sql, Object[] binds) {
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement("EXPLAIN " + sql)) {
+
+            for (int i = 1; i < binds.length; i++) {
+                stmt.setObject(i, binds[i]);
+            }
+
+            StringBuilder plan = new StringBuilder();
+            try (ResultSet rs = stmt.executeQuery()) {
+                ResultSetMetaData meta = rs.getMetaData();
+                while (rs.next()) {
+                    for (int c = 1; c <= meta.getColumnCount(); c++) {
+                        String column = meta.getColumnLabel(c);
+                        if (isPlanColumn(column)) {
+                            plan.append(column).append('=').append(rs.getString(c)).append("  ");
+                        }
+                    }
+                    if ("ALL".equals(rs.getString("type"))) {
+                        plan.append("⚠️ parcours complet");
+                    }
+                    plan.append('\n');
+                }
+            }
+            return plan.toString().trim();
+
+        } catch (SQLException e) {
+            return "EXPLAIN impossible : " + e.getMessage();
+        }
+    }
+
+    // Colonnes utiles de EXPLAIN (les autres restent dans le détail MySQL)
+    private static boolean isPlanColumn(String column) {
+        switch (column) {
+            case "table":
+            case "type":
+            case "possible_keys":
+            case "key":
+            case "rows":
+            case "filtered":
+            case "Extra":
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private static boolean isExplainable(String sql) {
+        String start = sql.stripLeading();
+        return start.regionMatches(true, 0, "SELECT", 0, 6)
+                || start.regionMatches(true, 0, "UPDATE", 0, 6)
+                || start.regionMatches(true, 0, "DELETE", 0, 6)
+                || start.regionMatches(true, 0, "INSERT", 0, 6)
+                || start.regionMatches(true, 0, "(SELECT", 0, 7);
+    }
+
+    // ===== Mesure d'une exécution =====
+
+    /**
+     * Exécution d'une requête par JdbcTemplate
+     * Lecture : durée d'exécution (sans le parcours des lignes) et lignes lues ;
+     * écriture : durée et lignes modifiées. L'événement Flight Recorder couvre aussi le parcours.
+     */
+    static final class Execution {
+        // Profilage désactivé : aucune mesure, aucune allocation par requête
+        private static final Execution DISABLED = new Execution(null);
+
+        private final String sql;
+        private final long start;
+        private long nanos = -1;
+        // 🛰️ Événement Flight Recorder de l'exécution (null si non enregistré)
+        private FlightEvents.SqlStatementEvent event;
+
+        private Execution(String sql) {
+            this.sql = sql;
+            if (sql == null) {
+                this.start = 0;
+                return;
+            }
+            if (FlightEvents.SQL_STATEMENT.isEnabled()) {
+                event = new FlightEvents.SqlStatementEvent();
+                event.begin();
+            }
+            this.start = System.nanoTime();
+        }
+
+        /**
+         * Fin de l'exécution d'une lecture (avant le parcours des lignes)
+         */
+        void executed() {
+            if (this != DISABLED) {
+                nanos = System.nanoTime() - start;
+            }
+        }
+
+        /**
+         * Erreur du driver pendant l'exécution
+         */
+        void failed() {
+            if (this != DISABLED) {
+                STATEMENT_ERRORS.increment();
+                event = null;
+            }
+        }
+
+        /**
+         * Lecture terminée
+         *
+         * @param binds Valeurs liées (index 1..bindCount, comme JDBC), pour l'EXPLAIN d'une requête lente
+         */
+        void read(long rows, Object[] binds, int bindCount) {
+            if (this == DISABLED) {
+                return;
+            }
+            finish(rows, binds, bindCount);
+            ROWS_READ.add(rows);
+            DatabaseConnection.statementDone(rows);
+        }
+
+        /**
+         * Écriture terminée
+         *
+         * @param affected Lignes modifiées
+         */
+        void wrote(long affected, Object[] binds, int bindCount) {
+            if (this == DISABLED) {
+                return;
+            }
+            finish(affected, binds, bindCount);
+            DatabaseConnection.statementDone(0);
+        }
+
+        private void finish(long rows, Object[] binds, int bindCount) {
+            record(sql, binds, bindCount, nanos >= 0 ? nanos : System.nanoTime() - start, rows);
+
+            FlightEvents.SqlStatementEvent done = event;
+            if (done == null) {
+                return;
+            }
+            event = null;
+            done.end();
+            if (done.shouldCommit()) {
+                done.shape = shapeOf(sql);
+                done.bindCount = bindCount;
+                done.rows = rows;
+                done.actionId = ActionContext.currentId();
+                done.commit();
+            }
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.taskmaster.utils;
+
+import com.taskmaster.models.QueryResult;
+import javafx.scene.Parent;
+import javafx.scene.control.Label;
+import javafx.scene.control.TableView;
+import javafx.scene.control.Tooltip;
+import javafx.scene.layout.Pane;
+
+/**
+ * Affiche l'état d'un chargement (QueryResult) au-dessus d'un tableau
+ *
+ * Un tableau vide après un délai dépassé ou une base injoignable ne doit pas ressembler
+ * à "aucun résultat", et des lignes gardées après un échec (ou une copie hors ligne)
+ * ne doivent pas ressembler à des données à jour : le message s'affiche dans un bandeau
+ * (classe .query-status de theme.css) inséré juste avant le tableau, visible même quand
+ * le tableau a des lignes. Chargement OK : bandeau masqué.
+ *
+ * Exemple :
+ *   QueryResult<List<Task>> result = taskDAO.findAll(sort);
+ *   allTasks.setAll(result.getValue());
+ *   QueryStatus.show(tasksTable, result);
+ *
+ * À appeler depuis le thread JavaFX
+ */
+public class QueryStatus {
+
+    private static final String BANNER = "query-status";
+    private static final String STALE = "query-status-stale";
+    private static final String ERROR = "query-status-error";
+    private static final String UNAVAILABLE_VALUE = "stat-value-unavailable";
+
+    // Clé du bandeau dans les propriétés du tableau (créé au premier message)
+    private static final String BANNER_KEY = "taskmaster.queryStatus";
+
+    private QueryStatus() {}
+
+    /**
+     * @param table  Le tableau rempli par le chargement
+     * @param result Le résultat du chargement (OK : bandeau masqué)
+     */
+    public static void show(TableView<?> table, QueryResult<?> result) {
+        String message = result.getMessage();
+        Label banner = bannerOf(table, message != null);
+        if (banner == null) {
+            return;
+        }
+
+        banner.getStyleClass().removeAll(STALE, ERROR);
+        if (message != null) {
+            banner.setText(message);
+            banner.getStyleClass().add(result.hasValue() ? STALE : ERROR);
+        }
+        banner.setVisible(message != null);
+        banner.setManaged(message != null);
+
+        // Tableau vide en échec : pas de "aucun contenu" sous le bandeau
+        if (table.getPlaceholder() != banner) {
+            table.setPlaceholder(message != null && !result.hasValue() ? new Label() : null);
+        }
+    }
+
+    /**
+     * Compteur d'un écran (ex : nombre d'utilisateurs du tableau de bord)
+     * En échec : "—" au lieu d'un zéro trompeur, la cause en infobulle
+     *
+     * @param value  Le libellé du compteur
+     * @param result Le résultat du comptage
+     */
+    public static void show(Label value, QueryResult<Integer> result) {
+        value.getStyleClass().remove(UNAVAILABLE_VALUE);
+        if (result.hasValue()) {
+            value.setText(String.valueOf(result.getValue()));
+            value.setTooltip(null);
+            return;
+        }
+        value.setText("—");
+        value.getStyleClass().add(UNAVAILABLE_VALUE);
+        value.setTooltip(new Tooltip(result.getMessage()));
+    }
+
+    /**
+     * Bandeau du tableau, inséré juste avant lui dans son conteneur (VBox de l'écran)
+     *
+     * @param create false : ne pas le créer s'il n'existe pas encore (rien à masquer)
+     */
+    private static Label bannerOf(TableView<?> table, boolean create) {
+        Object existing = table.getProperties().get(BANNER_KEY);
+        if (existing instanceof Label || !create) {
+            return (Label) existing;
+        }
+
+        Label banner = new Label();
+        banner.getStyleClass().add(BANNER);
+        banner.setWrapText(true);
+        banner.setMaxWidth(Double.MAX_VALUE);
+
+        Parent parent = table.getParent();
+        if (parent instanceof Pane) {
+            Pane pane = (Pane) parent;
+            pane.getChildren().add(pane.getChildren().indexOf(table), banner);
+        } else {
+            // Conteneur sans liste d'enfants modifiable : message à la place du tableau vide
+            table.setPlaceholder(banner);
+        }
+        table.getProperties().put(BANNER_KEY, banner);
+        return banner;
+    }
+}
@@ -71,6 +71,9 @@ public class SessionManager {
         if (currentUser != null) {
             System.out.println("✓ Déconnexion de : " + currentUser.getUsername());
             currentUser = null;
+            // L'annuaire en mémoire ne doit pas survivre à la session
+            DirectoryIndex.clear();
+            CommandIndex.clear();
         }
     }
 
@@ -0,0 +1,81 @@
+package com.taskmaster.utils;
+
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+
+import java.util.Map;
+
+/**
+ * Décrit un tri demandé par l'interface (clic sur un en-tête de colonne)
+ * et le traduit en clause ORDER BY côté DAO
+ *
+ * La clé de tri ne va JAMAIS directement dans le SQL : chaque DAO fournit
+ * une liste blanche "clé → expression SQL". Une clé inconnue = tri par défaut.
+ *
+ * Exemple :
+ *   titleColumn.setUserData("title");
+ *   SortSpec sort = SortSpec.fromTable(tasksTable);
+ *   taskDAO.findAll(sort);   // → ORDER BY t.title ASC, t.id ASC
+ */
+public class SortSpec {
+
+    private final String key;
+    private final boolean ascending;
+
+    public SortSpec(String key, boolean ascending) {
+        this.key = key;
+        this.ascending = ascending;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public boolean isAscending() {
+        return ascending;
+    }
+
+    /**
+     * Construit la clause ORDER BY à partir d'une liste blanche
+     * La colonne de départage (l'ID) garantit un ordre stable entre les pages
+     *
+     * @param sort Le tri demandé (null = tri par défaut)
+     * @param whitelist Clé de tri → expression SQL
+     * @param defaultOrder Clause utilisée si aucun tri valide (ex : "t.created_at DESC, t.id DESC")
+     * @param tieBreaker Colonne unique de départage (ex : "t.id")
+     * @return " ORDER BY ..." (avec l'espace initial)
+     */
+    public static String orderBy(SortSpec sort, Map<String, String> whitelist, String defaultOrder, String tieBreaker) {
+        String expression = sort != null ? whitelist.get(sort.key) : null;
+        if (expression == null) {
+            return " ORDER BY " + defaultOrder;
+        }
+
+        String direction = sort.ascending ? " ASC" : " DESC";
+        return " ORDER BY " + expression + direction + ", " + tieBreaker + direction;
+    }
+
+    /**
+     * Lit le tri courant d'un TableView (première colonne de sortOrder)
+     * La clé de tri de chaque colonne est stockée dans son userData
+     *
+     * @return Le tri, ou null si aucune colonne n'est triée
+     */
+    public static SortSpec fromTable(TableView<?> table) {
+        if (table.getSortOrder().isEmpty()) {
+            return null;
+        }
+
+        TableColumn<?, ?> column = table.getSortOrder().get(0);
+        if (!(column.getUserData() instanceof String)) {
+            return null;
+        }
+        return new SortSpec((String) column.getUserData(),
+                column.getSortType() == TableColumn.SortType.ASCENDING);
+    }
+
+    @Override
+    public String toString() {
+        return key + (ascending ? " ASC" : " DESC");
+    }
+}
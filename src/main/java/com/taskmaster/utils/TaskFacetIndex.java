@@ -0,0 +1,259 @@
+package com.taskmaster.utils;
+
+import com.taskmaster.models.Task;
+
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Index "bitmap" sur les tâches chargées en mémoire
+ *
+ * Chaque tâche occupe un emplacement (slot). Pour chaque valeur de chaque
+ * facette (statut, priorité, projet, assigné, échéance) on garde un BitSet
+ * des slots qui ont cette valeur. Un filtre devient alors une suite de
+ * OR (entre les valeurs d'une facette) et de AND (entre les facettes),
+ * sans parcourir les tâches une par une.
+ *
+ * Exemple :
+ *   index.rebuild(tasks);
+ *   Map<Facet, Set<Object>> selection = Map.of(Facet.STATUS, Set.of("TODO"));
+ *   BitSet matches = index.query(selection);
+ *   Map<Object, Integer> counts = index.counts(Facet.PRIORITY, selection);
+ *
+ * À utiliser depuis un seul thread (le thread JavaFX)
+ */
+public class TaskFacetIndex {
+
+    /**
+     * Les facettes indexées
+     */
+    public enum Facet {
+        STATUS, PRIORITY, PROJECT, ASSIGNEE, DUE
+    }
+
+    /**
+     * Tranches d'échéance pour la facette DUE
+     */
+    public enum DueBucket {
+        OVERDUE, TODAY, THIS_WEEK, LATER, NONE
+    }
+
+    // Clé utilisée pour la facette ASSIGNEE quand la tâche n'est pas assignée
+    public static final Integer UNASSIGNED = 0;
+
+    private static final Facet[] FACETS = Facet.values();
+
+    // Une map "valeur → BitSet" par facette
+    private final Map<Facet, Map<Object, BitSet>> bitmaps = new EnumMap<>(Facet.class);
+
+    // ID de tâche → slot, et pour chaque slot les clés actuellement indexées
+    private final Map<Integer, Integer> slotsById = new HashMap<>();
+    private final List<Object[]> keysBySlot = new ArrayList<>();
+
+    // Slots occupés, et slots libérés réutilisables
+    private final BitSet live = new BitSet();
+    private final ArrayDeque<Integer> freeSlots = new ArrayDeque<>();
+
+    public TaskFacetIndex() {
+        for (Facet facet : FACETS) {
+            bitmaps.put(facet, new HashMap<>());
+        }
+    }
+
+    /**
+     * Reconstruit entièrement l'index (après un rechargement complet)
+     */
+    public void rebuild(Collection<Task> tasks) {
+        for (Map<Object, BitSet> values : bitmaps.values()) {
+            values.clear();
+        }
+        slotsById.clear();
+        keysBySlot.clear();
+        live.clear();
+        freeSlots.clear();
+
+        for (Task task : tasks) {
+            put(task);
+        }
+    }
+
+    /**
+     * Ajoute une tâche, ou met à jour ses facettes si elle est déjà indexée
+     */
+    public void put(Task task) {
+        Integer slot = slotsById.get(task.getId());
+        if (slot == null) {
+            slot = freeSlots.isEmpty() ? keysBySlot.size() : freeSlots.poll();
+            slotsById.put(task.getId(), slot);
+            if (slot == keysBySlot.size()) {
+                keysBySlot.add(new Object[FACETS.length]);
+            }
+            live.set(slot);
+        }
+
+        Object[] keys = keysBySlot.get(slot);
+        for (Facet facet : FACETS) {
+            Object newKey = keyOf(facet, task);
+            Object oldKey = keys[facet.ordinal()];
+            if (newKey.equals(oldKey)) {
+                continue;
+            }
+            if (oldKey != null) {
+                clearBit(facet, oldKey, slot);
+            }
+            bitmaps.get(facet).computeIfAbsent(newKey, k -> new BitSet()).set(slot);
+            keys[facet.ordinal()] = newKey;
+        }
+    }
+
+    /**
+     * Retire une tâche de l'index (son slot sera réutilisé)
+     */
+    public void remove(int taskId) {
+        Integer slot = slotsById.remove(taskId);
+        if (slot == null) {
+            return;
+        }
+
+        Object[] keys = keysBySlot.get(slot);
+        for (Facet facet : FACETS) {
+            if (keys[facet.ordinal()] != null) {
+                clearBit(facet, keys[facet.ordinal()], slot);
+                keys[facet.ordinal()] = null;
+            }
+        }
+        live.clear(slot);
+        freeSlots.push(slot);
+    }
+
+    /**
+     * Calcule l'ensemble des slots correspondant à une sélection
+     * Une facette absente (ou avec un ensemble vide) ne filtre pas
+     *
+     * @param selection Pour chaque facette, les valeurs acceptées (OR)
+     * @return BitSet des slots qui satisfont toutes les facettes (AND)
+     */
+    public BitSet query(Map<Facet, ? extends Set<?>> selection) {
+        return query(selection, null);
+    }
+
+    /**
+     * Indique si une tâche fait partie d'un résultat de query()
+     */
+    public boolean matches(BitSet result, Task task) {
+        Integer slot = slotsById.get(task.getId());
+        return slot != null && result.get(slot);
+    }
+
+    /**
+     * Compte, pour chaque valeur d'une facette, le nombre de tâches qui
+     * satisfont les AUTRES facettes de la sélection
+     * (ce qu'on affiche à côté de chaque option : "IN_PROGRESS (1 204)")
+     */
+    public Map<Object, Integer> counts(Facet facet, Map<Facet, ? extends Set<?>> selection) {
+        BitSet others = query(selection, facet);
+        Map<Object, Integer> counts = new LinkedHashMap<>();
+        BitSet scratch = new BitSet();
+
+        for (Map.Entry<Object, BitSet> entry : bitmaps.get(facet).entrySet()) {
+            scratch.clear();
+            scratch.or(entry.getValue());
+            scratch.and(others);
+            counts.put(entry.getKey(), scratch.cardinality());
+        }
+        return counts;
+    }
+
+    /**
+     * Nombre de tâches indexées
+     */
+    public int size() {
+        return slotsById.size();
+    }
+
+    // ===== INTERNE =====
+
+    private BitSet query(Map<Facet, ? extends Set<?>> selection, Facet excluded) {
+        BitSet result = (BitSet) live.clone();
+
+        for (Facet facet : FACETS) {
+            Set<?> accepted = selection.get(facet);
+            if (facet == excluded || accepted == null || accepted.isEmpty()) {
+                continue;
+            }
+
+            BitSet union = new BitSet();
+            for (Object value : accepted) {
+                BitSet bits = bitmaps.get(facet).get(value);
+                if (bits != null) {
+                    union.or(bits);
+                }
+            }
+            result.and(union);
+        }
+        return result;
+    }
+
+    private void clearBit(Facet facet, Object key, int slot) {
+        BitSet bits = bitmaps.get(facet).get(key);
+        if (bits != null) {
+            bits.clear(slot);
+            if (bits.isEmpty()) {
+                bitmaps.get(facet).remove(key);
+            }
+        }
+    }
+
+    private static Object keyOf(Facet facet, Task task) {
+        switch (facet) {
+            case STATUS: return task.getStatus() != null ? task.getStatus() : "";
+            case PRIORITY: return task.getPriority() != null ? task.getPriority() : "";
+            case PROJECT: return task.getProjectId();
+            case ASSIGNEE: return task.getAssignedTo() != null ? task.getAssignedTo() : UNASSIGNED;
+            default: return dueBucket(task.getDueDate());
+        }
+    }
+
+    /**
+     * Tranche d'échéance d'une date limite (par rapport à aujourd'hui)
+     */
+    public static DueBucket dueBucket(LocalDate dueDate) {
+        if (dueDate == null) {
+            return DueBucket.NONE;
+        }
+        LocalDate today = LocalDate.now();
+        if (dueDate.isBefore(today)) {
+            return DueBucket.OVERDUE;
+        }
+        if (dueDate.isEqual(today)) {
+            return DueBucket.TODAY;
+        }
+        return dueDate.isAfter(today.plusDays(7)) ? DueBucket.LATER : DueBucket.THIS_WEEK;
+    }
+}
+
+/*
+ * ===== NOTES =====
+ *
+ * 1. Pourquoi des BitSet ?
+ *    - 200 000 tâches = 25 Ko par valeur de facette
+ *    - AND / OR se font 64 tâches à la fois (un long)
+ *    - Les compteurs par option = cardinality(), sans boucle sur les tâches
+ *
+ * 2. Mise à jour incrémentale
+ *    - put(task) ne touche que les facettes dont la valeur a changé
+ *    - remove(id) libère le slot, réutilisé par le prochain put()
+ *
+ * 3. Compteurs de facettes
+ *    - counts(STATUS, sélection) ignore le filtre de statut lui-même,
+ *      pour que l'utilisateur voie ce qu'il obtiendrait en changeant d'option
+ */
@@ -0,0 +1,85 @@
+package com.taskmaster.utils;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Petites fonctions utilitaires sur les chaînes de caractères
+ * Utilisées par les filtres et la recherche dans les tableaux
+ */
+public class TextUtils {
+
+    // Marques diacritiques isolées par la décomposition NFD (é → e + ´)
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+
+    private TextUtils() {}
+
+    /**
+     * Forme "de comparaison" d'un texte : sans accents, en minuscules
+     * "Hélène Œuvray" → "helene oeuvray"
+     *
+     * @param text Le texte (peut être null)
+     * @return Le texte normalisé ("" si null)
+     */
+    public static String normalize(String text) {
+        if (text == null || text.isEmpty()) {
+            return "";
+        }
+
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        String folded = DIACRITICS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+
+        // Ligatures que NFD ne décompose pas
+        if (folded.indexOf('œ') >= 0 || folded.indexOf('æ') >= 0 || folded.indexOf('ß') >= 0) {
+            folded = folded.replace("œ", "oe").replace("æ", "ae").replace("ß", "ss");
+        }
+        return folded;
+    }
+
+    /**
+     * Vérifie si "text" contient "needle" sans tenir compte de la casse
+     * Ne crée aucune chaîne intermédiaire (contrairement à toLowerCase().contains())
+     * → important quand on filtre des centaines de milliers de lignes
+     *
+     * @param text Le texte dans lequel chercher (peut être null)
+     * @param needle Le terme recherché (non null)
+     * @return true si trouvé (toujours true si needle est vide)
+     */
+    public static boolean containsIgnoreCase(String text, String needle) {
+        if (needle.isEmpty()) {
+            return true;
+        }
+        if (text == null) {
+            return false;
+        }
+
+        int max = text.length() - needle.length();
+        for (int i = 0; i <= max; i++) {
+            if (text.regionMatches(true, i, needle, 0, needle.length())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Cherche "needle" en début de mot, sans tenir compte de la casse
+     * (même règle que la recherche plein texte MySQL : "cong" trouve "Congés" mais pas "recongeler")
+     *
+     * @param text Le texte dans lequel chercher (non null)
+     * @param needle Le préfixe recherché (non vide)
+     * @param fromIndex Position de départ
+     * @return Position de la première occurrence, ou -1
+     */
+    public static int indexOfWordPrefix(String text, String needle, int fromIndex) {
+        int max = text.length() - needle.length();
+        for (int i = Math.max(fromIndex, 0); i <= max; i++) {
+            boolean wordStart = i == 0 || !Character.isLetterOrDigit(text.charAt(i - 1));
+            if (wordStart && text.regionMatches(true, i, needle, 0, needle.length())) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,211 @@
+package com.taskmaster.utils;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Unité de travail : plusieurs appels de DAO dans une seule transaction, un seul commit
+ *
+ * Tant qu'elle est ouverte, DatabaseConnection.getConnection() renvoie sur ce thread
+ * la même connexion (auto-commit coupé), dans une enveloppe que les DAO peuvent fermer
+ * avec leur try-with-resources sans la fermer vraiment. Les événements des DAO
+ * (EntityEvents) attendent le commit : rien n'est annoncé aux écrans si tout est annulé.
+ *
+ * Exemple :
+ *   try (UnitOfWork work = UnitOfWork.begin(DELETE_AND_REASSIGN)) {
+ *       if (!taskDAO.reassignUser(userId, adminId) || !userDAO.delete(userId)) {
+ *           return false;             // close() sans commit() : tout est annulé
+ *       }
+ *       return work.commit();
+ *   }
+ *
+ * Une unité ouverte dans une autre (même thread) y participe : son commit() ne valide rien,
+ * et si elle se ferme sans commit(), l'unité principale est annulée.
+ * Un DAO qui ouvre sa propre unité (ex : TaskDAO.updateStatuses) y participe aussi ;
+ * un setAutoCommit / commit direct sur la connexion est ignoré, un rollback annule l'unité.
+ */
+public final class UnitOfWork implements AutoCloseable {
+
+    private static final ThreadLocal<UnitOfWork> CURRENT = new ThreadLocal<>();
+
+    private static final Metrics.Counter COMMITS = Metrics.counter(
+            "taskmaster_unit_of_work_total", "Unités de travail terminées", "result", "commit");
+    private static final Metrics.Counter ROLLBACKS = Metrics.counter(
+            "taskmaster_unit_of_work_total", "Unités de travail terminées", "result", "rollback");
+
+    private final UnitOfWork root;        // Unité principale (this si c'est elle)
+    private final Connection connection;  // Connexion réelle (unité principale seulement)
+    private final Connection shared;      // Enveloppe donnée aux DAO
+    private final List<Runnable> afterCommit;
+    private boolean rollbackOnly = false; // Unité principale : un participant a échoué
+    private boolean committed = false;
+    private boolean finished = false;
+
+    private UnitOfWork(Connection connection) {
+        this.root = this;
+        this.connection = connection;
+        this.shared = (Connection) Proxy.newProxyInstance(UnitOfWork.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, new SharedConnection());
+        this.afterCommit = new ArrayList<>();
+    }
+
+    private UnitOfWork(UnitOfWork root) {
+        this.root = root;
+        this.connection = null;
+        this.shared = null;
+        this.afterCommit = null;
+    }
+
+    /**
+     * Ouvre une unité de travail sur ce thread (ou participe à celle déjà ouverte)
+     *
+     * @param caller Méthode qui ouvre l'unité : toute la transaction est mesurée sous son nom
+     */
+    public static UnitOfWork begin(DaoMethod caller) throws SQLException {
+        UnitOfWork current = CURRENT.get();
+        if (current != null) {
+            return new UnitOfWork(current);
+        }
+        Connection conn = DatabaseConnection.getConnection(caller);
+        try {
+            conn.setAutoCommit(false);
+        } catch (SQLException e) {
+            conn.close();
+            throw e;
+        }
+        UnitOfWork work = new UnitOfWork(conn);
+        CURRENT.set(work);
+        return work;
+    }
+
+    /**
+     * Valide tout ce qui a été écrit depuis begin(), puis publie les événements retenus
+     *
+     * @return false si l'unité a été annulée (participant en échec, erreur du commit)
+     */
+    public boolean commit() {
+        committed = true;
+        if (root != this) {
+            return !root.rollbackOnly;
+        }
+        if (finished) {
+            return false;
+        }
+        if (rollbackOnly) {
+            finish(false);
+            return false;
+        }
+        return finish(true);
+    }
+
+    /**
+     * Sans commit() : tout est annulé
+     */
+    @Override
+    public void close() {
+        if (root != this) {
+            if (!committed) {
+                root.rollbackOnly = true;
+            }
+            return;
+        }
+        if (!finished) {
+            finish(false);
+        }
+    }
+
+    /**
+     * Exécute l'action après le commit de l'unité ouverte sur ce thread (jamais si elle est annulée),
+     * ou tout de suite s'il n'y en a pas
+     */
+    public static void runAfterCommit(Runnable action) {
+        UnitOfWork current = CURRENT.get();
+        if (current == null) {
+            action.run();
+        } else {
+            current.afterCommit.add(action);
+        }
+    }
+
+    /**
+     * Connexion de l'unité ouverte sur ce thread (null s'il n'y en a pas) : voir DatabaseConnection
+     */
+    static Connection boundConnection() {
+        UnitOfWork current = CURRENT.get();
+        return current != null ? current.shared : null;
+    }
+
+    // Unité principale : commit ou rollback, connexion rendue, puis événements si validée
+    private boolean finish(boolean commit) {
+        finished = true;
+        CURRENT.remove();
+        boolean committedOk = false;
+        try {
+            if (commit) {
+                connection.commit();
+                committedOk = true;
+            } else {
+                connection.rollback();
+            }
+        } catch (SQLException e) {
+            System.err.println("Erreur fin d'unité de travail : " + e.getMessage());
+            try {
+                connection.rollback();
+            } catch (SQLException ignored) {
+                // La connexion est fermée juste après
+            }
+        } finally {
+            try {
+                connection.setAutoCommit(true);
+                connection.close();
+            } catch (SQLException e) {
+                System.err.println("Erreur fermeture unité de travail : " + e.getMessage());
+            }
+        }
+
+        (committedOk ? COMMITS : ROLLBACKS).increment();
+        if (committedOk) {
+            afterCommit.forEach(Runnable::run);
+        }
+        afterCommit.clear();
+        return committedOk;
+    }
+
+    /**
+     * Connexion partagée : fermeture et gestion de transaction réservées à l'unité
+     */
+    private final class SharedConnection implements InvocationHandler {
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                case "setAutoCommit":
+                case "commit":
+                    return null;
+                case "getAutoCommit":
+                    return false;
+                case "rollback":
+                    if (args == null) {
+                        rollbackOnly = true;
+                        return null;
+                    }
+                    break;   // rollback(Savepoint) : laissé au DAO
+                case "isClosed":
+                    return finished || connection.isClosed();
+                default:
+                    break;
+            }
+            try {
+                return method.invoke(connection, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -0,0 +1,330 @@
+package com.taskmaster.utils;
+
+import javafx.application.Platform;
+import javafx.scene.Node;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Écriture différée (write-behind) d'une valeur par ligne, ex : statut d'une tâche
+ *
+ * L'écran applique la modification tout de suite ; la file l'écrit en arrière-plan :
+ *  - plusieurs changements rapides d'une même ligne → une seule écriture (la dernière valeur),
+ *    aucune si la ligne revient à sa valeur d'origine
+ *  - écriture par lots, FLUSH_DELAY_MS après la première modification en attente
+ *  - échec : nouvelles tentatives (1 s, 2 s, 4 s... ±20 %), puis retour arrière
+ *    (onRollback : valeur d'origine de chaque ligne) et abonnés prévenus sur le thread JavaFX
+ *  - journal : chaque modification est ajoutée à OfflineJournal (seul journal local), retirée
+ *    une fois écrite ou abandonnée ; après un arrêt brutal, OfflineJournal.replay la rejoue
+ *    avec contrôle de conflit (base : updated_at connu quand la ligne a été modifiée)
+ *
+ * Aucun accès disque dans submit() (thread JavaFX) : l'enregistrement est confié au thread
+ * d'écriture (file sans verrou), qui l'ajoute au journal ; le fsync groupé d'OfflineJournal
+ * ne se fait jamais sous le verrou dont submit() a besoin.
+ *
+ * Exemple :
+ *   WriteBehindQueue queue = new WriteBehindQueue("statuts", ChangeFeed.Entity.TASK, "status",
+ *           changes -> taskDAO.updateStatuses(changes), rollback -> ...);
+ *   queue.submit(taskId, "COMPLETED", "TODO", baseUpdatedAt);
+ */
+public class WriteBehindQueue {
+
+    private static final long FLUSH_DELAY_MS = 300;
+    private static final int BATCH_LIMIT = 100;
+    private static final int MAX_ATTEMPTS = 5;
+    private static final long FIRST_RETRY_MS = 1_000;
+    private static final long SHUTDOWN_WAIT_MS = 1_000;
+
+    /**
+     * Modification en attente : dernière valeur demandée, valeur d'origine (retour arrière)
+     */
+    public static final class Pending {
+        private final int id;
+        private final String value;
+        private final String previous;
+        private final long base;   // Epoch ms du updated_at connu avant la première modification (-1 = inconnu)
+        private final List<OfflineJournal.Record> records;   // Enregistrements du journal couverts
+
+        private Pending(int id, String value, String previous, long base, List<OfflineJournal.Record> records) {
+            this.id = id;
+            this.value = value;
+            this.previous = previous;
+            this.base = base;
+            this.records = records;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        public String getValue() {
+            return value;
+        }
+
+        public String getPrevious() {
+            return previous;
+        }
+    }
+
+    private final String name;
+    private final ChangeFeed.Entity entity;
+    private final String field;
+    private final Predicate<Map<Integer, String>> writer;
+    private final Consumer<List<Pending>> onRollback;
+
+    private final Map<Integer, Pending> pending = new LinkedHashMap<>();   // Garde : this
+    private final Set<Integer> inFlight = new HashSet<>();                   // Garde : this (lot en cours d'écriture)
+    private final Queue<OfflineJournal.Record> toJournal = new ConcurrentLinkedQueue<>();   // Pas encore au journal
+    private final Queue<OfflineJournal.Record> discarded = new ConcurrentLinkedQueue<>();   // À retirer du journal
+    private final List<Consumer<List<Pending>>> failureListeners = new CopyOnWriteArrayList<>();
+    private final ScheduledExecutorService flusher;
+    private boolean flushScheduled = false;                                 // Garde : this
+    private int attempts = 0;                                               // Thread d'écriture
+
+    private final Metrics.Counter writes;
+    private final Metrics.Counter coalesced;
+    private final Metrics.Counter rollbacks;
+
+    /**
+     * @param name       Nom court (métriques, thread, messages)
+     * @param entity     Entité des lignes (enregistrements d'OfflineJournal)
+     * @param field      Champ écrit (rejoué par le Replayer du DAO)
+     * @param writer     Écriture d'un lot dans une transaction (false = échec, rien n'est écrit)
+     * @param onRollback Après le dernier échec : remettre les valeurs d'origine (thread d'écriture)
+     */
+    public WriteBehindQueue(String name, ChangeFeed.Entity entity, String field,
+                            Predicate<Map<Integer, String>> writer, Consumer<List<Pending>> onRollback) {
+        this.name = name;
+        this.entity = entity;
+        this.field = field;
+        this.writer = writer;
+        this.onRollback = onRollback;
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "taskmaster-write-behind-" + name);
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        writes = Metrics.counter("taskmaster_write_behind_writes_total",
+                "Lignes écrites par les files d'écriture différée", "queue", name);
+        coalesced = Metrics.counter("taskmaster_write_behind_coalesced_total",
+                "Modifications fusionnées avec une modification en attente", "queue", name);
+        rollbacks = Metrics.counter("taskmaster_write_behind_rollbacks_total",
+                "Modifications annulées après échec de l'écriture", "queue", name);
+        Metrics.gauge("taskmaster_write_behind_pending", "Modifications en attente d'écriture",
+                this::pendingCount, "queue", name);
+
+        // Arrêt normal : dernier lot écrit tout de suite (le journal couvre l'arrêt brutal)
+        Runtime.getRuntime().addShutdownHook(new Thread(this::flushOnShutdown, "taskmaster-write-behind-exit"));
+    }
+
+    /**
+     * Met une modification en file (la ligne a déjà été modifiée à l'écran)
+     *
+     * Aucun accès disque : le journal est écrit par le thread d'écriture
+     *
+     * @param previous      Valeur avant la modification (pour le retour arrière)
+     * @param baseUpdatedAt Epoch ms du updated_at connu de la ligne (-1 = inconnu : rejeu sans contrôle)
+     */
+    public void submit(int id, String value, String previous, long baseUpdatedAt) {
+        synchronized (this) {
+            Pending earlier = pending.get(id);
+            List<OfflineJournal.Record> records = new ArrayList<>();
+            if (earlier != null) {
+                coalesced.increment();
+                previous = earlier.previous;
+                baseUpdatedAt = earlier.base;
+                records.addAll(earlier.records);
+            }
+
+            OfflineJournal.Record record = new OfflineJournal.Record(entity, id, field, value, baseUpdatedAt);
+            records.add(record);
+            // Sous le verrou : un enregistrement est confié au journal avant de pouvoir en être retiré
+            toJournal.add(record);
+
+            if (value.equals(previous) && !inFlight.contains(id)) {
+                // Retour à la valeur d'origine avant l'écriture : rien à écrire
+                pending.remove(id);
+                discarded.addAll(records);
+            } else {
+                pending.put(id, new Pending(id, value, previous, baseUpdatedAt, records));
+            }
+            scheduleFlush(FLUSH_DELAY_MS);
+        }
+        flusher.execute(this::journal);
+    }
+
+    /**
+     * Prévient un écran des retours arrière (thread JavaFX), tant que le nœud est dans sa scène
+     */
+    public void onFailure(Node owner, Consumer<List<Pending>> listener) {
+        failureListeners.add(listener);
+        EntityEvents.closeWhenDetached(owner, () -> failureListeners.remove(listener));
+    }
+
+    public synchronized int pendingCount() {
+        return pending.size();
+    }
+
+    // ===== Thread d'écriture =====
+
+    private void scheduleFlush(long delayMs) {
+        if (!flushScheduled) {
+            flushScheduled = true;
+            flusher.schedule(this::flush, delayMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void flush() {
+        Map<Integer, Pending> batch = new LinkedHashMap<>();
+        synchronized (this) {
+            flushScheduled = false;
+            for (Pending change : pending.values()) {
+                if (batch.size() == BATCH_LIMIT) {
+                    break;
+                }
+                batch.put(change.id, change);
+            }
+            inFlight.addAll(batch.keySet());
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        Map<Integer, String> values = new LinkedHashMap<>();
+        batch.values().forEach(change -> values.put(change.id, change.value));
+
+        boolean written;
+        try {
+            written = writer.test(values);
+        } catch (RuntimeException e) {
+            System.err.println("Erreur écriture différée " + name + " : " + e.getMessage());
+            written = false;
+        }
+        synchronized (this) {
+            inFlight.clear();
+        }
+
+        if (written) {
+            attempts = 0;
+            writes.add(batch.size());
+            synchronized (this) {
+                // Une ligne modifiée pendant l'écriture reste en attente (nouvelle valeur, même enregistrements)
+                for (Pending change : batch.values()) {
+                    if (pending.remove(change.id, change)) {
+                        discarded.addAll(change.records);
+                    }
+                }
+                if (!pending.isEmpty()) {
+                    scheduleFlush(FLUSH_DELAY_MS);
+                }
+            }
+            journal();
+            return;
+        }
+
+        attempts++;
+        if (attempts < MAX_ATTEMPTS) {
+            long delay = FIRST_RETRY_MS << (attempts - 1);
+            synchronized (this) {
+                scheduleFlush((long) (delay * ThreadLocalRandom.current().nextDouble(0.8, 1.2)));
+            }
+            return;
+        }
+
+        // Abandon : retour aux valeurs d'origine
+        attempts = 0;
+        List<Pending> dropped = new ArrayList<>();
+        synchronized (this) {
+            for (Pending change : batch.values()) {
+                if (pending.remove(change.id, change)) {
+                    dropped.add(change);
+                    discarded.addAll(change.records);
+                }
+            }
+            if (!pending.isEmpty()) {
+                scheduleFlush(FLUSH_DELAY_MS);
+            }
+        }
+        journal();
+        rollbacks.add(dropped.size());
+        System.err.println("✗ " + dropped.size() + " modification(s) " + name + " annulée(s) après "
+                + MAX_ATTEMPTS + " échecs");
+
+        onRollback.accept(dropped);
+        Platform.runLater(() -> failureListeners.forEach(listener -> listener.accept(dropped)));
+    }
+
+    private void flushOnShutdown() {
+        synchronized (this) {
+            if (pending.isEmpty() && toJournal.isEmpty() && discarded.isEmpty()) {
+                return;
+            }
+        }
+        // Une seule tentative : en cas d'échec, le journal reprendra le reste au prochain démarrage
+        flusher.shutdownNow();
+        try {
+            // Le thread d'écriture peut être en train de mettre à jour le journal
+            flusher.awaitTermination(SHUTDOWN_WAIT_MS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        List<Pending> batch;
+        synchronized (this) {
+            batch = new ArrayList<>(pending.values());
+        }
+        Map<Integer, String> values = new LinkedHashMap<>();
+        batch.forEach(change -> values.put(change.id, change.value));
+        try {
+            if (!values.isEmpty() && writer.test(values)) {
+                synchronized (this) {
+                    for (Pending change : batch) {
+                        if (pending.remove(change.id, change)) {
+                            discarded.addAll(change.records);
+                        }
+                    }
+                }
+            }
+        } catch (RuntimeException e) {
+            System.err.println("Erreur écriture différée " + name + " à la fermeture : " + e.getMessage());
+        }
+        journal();
+        OfflineJournal.sync();
+    }
+
+    // ===== Journal (thread d'écriture, hors verrou) =====
+
+    // Ajoute les enregistrements confiés par submit(), puis retire ceux des lignes écrites ou abandonnées.
+    // Retraits lus en premier : leurs ajouts ont été mis en file avant eux (même verrou), donc sont déjà lus
+    private void journal() {
+        List<OfflineJournal.Record> done = drain(discarded);
+        for (OfflineJournal.Record record : drain(toJournal)) {
+            OfflineJournal.hold(record);
+        }
+        if (!done.isEmpty()) {
+            OfflineJournal.remove(done);
+        }
+    }
+
+    private static List<OfflineJournal.Record> drain(Queue<OfflineJournal.Record> queue) {
+        List<OfflineJournal.Record> records = new ArrayList<>();
+        for (OfflineJournal.Record record; (record = queue.poll()) != null; ) {
+            records.add(record);
+        }
+        return records;
+    }
+}
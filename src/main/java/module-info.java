@@ -1,10 +1,16 @@
 module com.taskmaster {
-    // Modules JavaFX
-    requires javafx.controls;
+    // Modules JavaFX (transitive : les contrôleurs exportés exposent des types JavaFX)
+    requires transitive javafx.controls;
     requires javafx.fxml;
 
-    // Module SQL pour MySQL
-    requires java.sql;
+    // Module SQL pour MySQL (transitive : QueryResult.failed expose SQLException)
+    requires transitive java.sql;
+
+    // Module JMX (exposition des métriques)
+    requires java.management;
+
+    // Module Flight Recorder (événements TaskMaster)
+    requires jdk.jfr;
 
     // Module pour BCrypt (hashage mots de passe)
     requires jbcrypt;
@@ -0,0 +1,66 @@
+-- =============================================================
+-- Schéma de base de TaskMaster (tables utilisées par les DAO)
+-- Appliquée automatiquement par MigrationRunner (ne pas modifier une fois livrée)
+--
+-- IF NOT EXISTS : une base créée à la main avant le runner est
+-- simplement "adoptée" (version 1 enregistrée, rien n'est modifié).
+-- =============================================================
+
+-- ===== USERS =====
+CREATE TABLE IF NOT EXISTS users (
+    id          INT AUTO_INCREMENT PRIMARY KEY,
+    first_name  VARCHAR(50)  NOT NULL,
+    last_name   VARCHAR(50)  NOT NULL,
+    email       VARCHAR(100) NOT NULL,
+    username    VARCHAR(50)  NOT NULL UNIQUE,
+    password    VARCHAR(255) NOT NULL,
+    role        ENUM('ADMIN', 'USER') NOT NULL DEFAULT 'USER',
+    is_active   BOOLEAN      NOT NULL DEFAULT TRUE,
+    created_at  TIMESTAMP    NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at  TIMESTAMP    NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
+
+-- ===== PROJECTS =====
+CREATE TABLE IF NOT EXISTS projects (
+    id          INT AUTO_INCREMENT PRIMARY KEY,
+    name        VARCHAR(100) NOT NULL,
+    description TEXT,
+    start_date  DATE         NOT NULL,
+    end_date    DATE,
+    status      ENUM('TODO', 'IN_PROGRESS', 'COMPLETED', 'ON_HOLD') NOT NULL DEFAULT 'TODO',
+    manager_id  INT,
+    created_by  INT          NOT NULL,
+    created_at  TIMESTAMP    NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at  TIMESTAMP    NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    CONSTRAINT fk_projects_manager    FOREIGN KEY (manager_id) REFERENCES users (id) ON DELETE SET NULL,
+    CONSTRAINT fk_projects_created_by FOREIGN KEY (created_by) REFERENCES users (id)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
+
+-- ===== TASKS =====
+CREATE TABLE IF NOT EXISTS tasks (
+    id          INT AUTO_INCREMENT PRIMARY KEY,
+    title       VARCHAR(200) NOT NULL,
+    description TEXT,
+    project_id  INT          NOT NULL,
+    assigned_to INT,
+    priority    ENUM('LOW', 'MEDIUM', 'HIGH', 'URGENT') NOT NULL DEFAULT 'MEDIUM',
+    status      ENUM('TODO', 'IN_PROGRESS', 'COMPLETED', 'CANCELLED') NOT NULL DEFAULT 'TODO',
+    due_date    DATE,
+    created_by  INT          NOT NULL,
+    created_at  TIMESTAMP    NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at  TIMESTAMP    NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    CONSTRAINT fk_tasks_project     FOREIGN KEY (project_id)  REFERENCES projects (id) ON DELETE CASCADE,
+    CONSTRAINT fk_tasks_assigned_to FOREIGN KEY (assigned_to) REFERENCES users (id) ON DELETE SET NULL,
+    CONSTRAINT fk_tasks_created_by  FOREIGN KEY (created_by)  REFERENCES users (id)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
+
+-- ===== COMMENTS =====
+CREATE TABLE IF NOT EXISTS comments (
+    id          INT AUTO_INCREMENT PRIMARY KEY,
+    task_id     INT          NOT NULL,
+    user_id     INT          NOT NULL,
+    content     TEXT         NOT NULL,
+    created_at  TIMESTAMP    NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT fk_comments_task FOREIGN KEY (task_id) REFERENCES tasks (id) ON DELETE CASCADE,
+    CONSTRAINT fk_comments_user FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
@@ -0,0 +1,30 @@
+-- =============================================================
+-- Index pour les tris envoyés au DAO (SortSpec → ORDER BY)
+-- Appliquée automatiquement par MigrationRunner (ne pas modifier une fois livrée)
+--
+-- InnoDB ajoute automatiquement la clé primaire (id) à la fin de
+-- chaque index secondaire : un index sur (due_date) sert donc aussi
+-- le tri "due_date, id" utilisé pour une pagination stable.
+-- =============================================================
+
+-- ===== TASKS =====
+CREATE INDEX idx_tasks_created_at ON tasks (created_at);
+CREATE INDEX idx_tasks_due_date   ON tasks (due_date);
+CREATE INDEX idx_tasks_title      ON tasks (title);
+
+-- ===== PROJECTS =====
+CREATE INDEX idx_projects_created_at ON projects (created_at);
+CREATE INDEX idx_projects_start_date ON projects (start_date);
+CREATE INDEX idx_projects_end_date   ON projects (end_date);
+CREATE INDEX idx_projects_name       ON projects (name);
+
+-- ===== USERS =====
+CREATE INDEX idx_users_created_at ON users (created_at);
+CREATE INDEX idx_users_email      ON users (email);
+
+-- Remarques :
+--  - users.username est déjà UNIQUE (index implicite)
+--  - Le filtre par rôle utilise idx_users_role_created (V4)
+--  - Les tris par priorité / statut utilisent FIELD(...) pour respecter
+--    l'ordre métier : ils ne peuvent pas s'appuyer sur un index
+--  - Les tris par nom de projet / d'assigné passent par la jointure
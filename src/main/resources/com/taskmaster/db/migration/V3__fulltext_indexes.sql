@@ -0,0 +1,23 @@
+-- =============================================================
+-- Index plein texte pour la recherche (MATCH ... AGAINST)
+-- Appliquée automatiquement par MigrationRunner (ne pas modifier une fois livrée)
+--
+-- Remplacent les LIKE '%terme%' qui lisaient toute la table :
+-- InnoDB maintient un index inversé, mis à jour à chaque écriture.
+-- =============================================================
+
+-- ===== TASKS =====
+-- (title) seul : sert au bonus de pertinence quand le mot est dans le titre
+ALTER TABLE tasks ADD FULLTEXT INDEX ft_tasks_title (title);
+ALTER TABLE tasks ADD FULLTEXT INDEX ft_tasks_title_description (title, description);
+
+-- ===== COMMENTS =====
+ALTER TABLE comments ADD FULLTEXT INDEX ft_comments_content (content);
+
+-- ===== PROJECTS =====
+ALTER TABLE projects ADD FULLTEXT INDEX ft_projects_name_description (name, description);
+
+-- Remarques :
+--  - MATCH(...) doit citer exactement les colonnes d'un index FULLTEXT
+--  - Les mots de moins de 3 lettres ne sont pas indexés (innodb_ft_min_token_size)
+--  - Après un gros import : OPTIMIZE TABLE tasks, comments; (réorganise l'index)
@@ -0,0 +1,39 @@
+-- =============================================================
+-- Index composites calqués sur les requêtes des DAO
+-- Appliquée automatiquement par MigrationRunner (ne pas modifier une fois livrée)
+--
+-- Règle : colonnes du WHERE (égalité) d'abord, puis colonne du ORDER BY.
+-- MySQL lit alors directement les lignes dans le bon ordre, sans tri
+-- (pas de "Using filesort" dans EXPLAIN). La clé primaire (id), ajoutée
+-- par InnoDB à la fin de chaque index, rend les COUNT(*) "couvrants".
+-- =============================================================
+
+-- ===== TASKS =====
+-- TaskDAO.findByUserId : WHERE assigned_to = ? ORDER BY due_date
+CREATE INDEX idx_tasks_assigned_due ON tasks (assigned_to, due_date);
+-- TaskDAO.findByProjectId : WHERE project_id = ? ORDER BY due_date
+CREATE INDEX idx_tasks_project_due ON tasks (project_id, due_date);
+-- TaskDAO.countByStatus (couvrant) et TaskDAO.search filtré par statut, ORDER BY created_at
+CREATE INDEX idx_tasks_status_created ON tasks (status, created_at);
+-- TaskDAO.search filtré par priorité, ORDER BY created_at
+CREATE INDEX idx_tasks_priority_created ON tasks (priority, created_at);
+
+-- ===== PROJECTS =====
+-- ProjectDAO.findByStatus / countByStatus : WHERE status = ? ORDER BY created_at DESC
+CREATE INDEX idx_projects_status_created ON projects (status, created_at);
+
+-- ===== USERS =====
+-- UserDAO.search filtré par rôle (tri par défaut : created_at)
+CREATE INDEX idx_users_role_created ON users (role, created_at);
+
+-- ===== COMMENTS =====
+-- CommentDAO.findByTaskId / countByTaskId : WHERE task_id = ? ORDER BY created_at DESC
+CREATE INDEX idx_comments_task_created ON comments (task_id, created_at);
+-- CommentDAO.findByUserId : WHERE user_id = ? ORDER BY created_at DESC
+CREATE INDEX idx_comments_user_created ON comments (user_id, created_at);
+
+-- Remarques :
+--  - UserDAO.authenticate / findByUsername : username est UNIQUE (V1)
+--  - UserDAO.emailExists : idx_users_email (V2)
+--  - ProjectDAO.nameExists : idx_projects_name (V2)
+--  - Les index des clés étrangères (V1) sont couverts par ces index composites
@@ -0,0 +1,38 @@
+-- =============================================================
+-- Synchronisation incrémentale des listes de tâches (DeltaSync)
+-- Appliquée automatiquement par MigrationRunner (ne pas modifier une fois livrée)
+--
+-- Un rafraîchissement ne relit que les tâches modifiées depuis le
+-- dernier point de synchronisation (tasks.updated_at) et les tâches
+-- supprimées depuis (task_tombstones, alimentée par trigger).
+-- =============================================================
+
+-- ===== TASKS =====
+-- TaskDAO.findChangesSince : WHERE updated_at >= ?
+CREATE INDEX idx_tasks_updated_at ON tasks (updated_at);
+
+-- ===== TOMBSTONES =====
+-- Une ligne par tâche supprimée (les id AUTO_INCREMENT ne sont pas réutilisés)
+CREATE TABLE IF NOT EXISTS task_tombstones (
+    task_id     INT          NOT NULL PRIMARY KEY,
+    deleted_at  TIMESTAMP    NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    INDEX idx_task_tombstones_deleted (deleted_at)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
+
+-- Suppression directe d'une tâche
+DROP TRIGGER IF EXISTS trg_tasks_tombstone;
+CREATE TRIGGER trg_tasks_tombstone AFTER DELETE ON tasks FOR EACH ROW
+    REPLACE INTO task_tombstones (task_id, deleted_at) VALUES (OLD.id, CURRENT_TIMESTAMP);
+
+-- Suppression d'un projet : ses tâches partent par ON DELETE CASCADE,
+-- qui ne déclenche pas les triggers de tasks (limite MySQL)
+DROP TRIGGER IF EXISTS trg_projects_task_tombstones;
+CREATE TRIGGER trg_projects_task_tombstones BEFORE DELETE ON projects FOR EACH ROW
+    REPLACE INTO task_tombstones (task_id, deleted_at)
+    SELECT id, CURRENT_TIMESTAMP FROM tasks WHERE project_id = OLD.id;
+
+-- Remarques :
+--  - Renommer un projet / un utilisateur ne modifie pas tasks.updated_at :
+--    les noms affichés se mettent à jour au prochain chargement complet de l'écran
+--  - Purge éventuelle : DELETE FROM task_tombstones WHERE deleted_at < NOW() - INTERVAL 30 DAY
+--    (un écran ouvert depuis plus longtemps rechargerait alors tout : voir DeltaSync)
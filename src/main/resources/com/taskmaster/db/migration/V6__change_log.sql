@@ -0,0 +1,75 @@
+-- =============================================================
+-- Journal des modifications pour la mise à jour en direct (ChangeFeed)
+-- Appliquée automatiquement par MigrationRunner (ne pas modifier une fois livrée)
+--
+-- Chaque écriture sur tasks / projects / users / comments ajoute une ligne
+-- (par trigger : même transaction que l'écriture, quel que soit le DAO).
+-- Chaque client lit le journal par numéro de séquence : "seq > dernier lu",
+-- un parcours de clé primaire, quasi gratuit quand il n'y a rien de nouveau.
+--
+-- Plusieurs triggers par table et par événement : MySQL 5.7.2+ / MariaDB 10.2.3+
+-- =============================================================
+
+CREATE TABLE IF NOT EXISTS change_log (
+    seq         BIGINT       NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    entity      ENUM('TASK', 'PROJECT', 'USER', 'COMMENT') NOT NULL,
+    entity_id   INT          NOT NULL,
+    op          ENUM('INSERT', 'UPDATE', 'DELETE') NOT NULL,
+    changed_at  TIMESTAMP    NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    -- Purge des lignes anciennes (ChangeFeed, une fois par heure)
+    INDEX idx_change_log_changed (changed_at)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
+
+-- ===== TASKS =====
+DROP TRIGGER IF EXISTS trg_tasks_log_insert;
+CREATE TRIGGER trg_tasks_log_insert AFTER INSERT ON tasks FOR EACH ROW
+    INSERT INTO change_log (entity, entity_id, op) VALUES ('TASK', NEW.id, 'INSERT');
+DROP TRIGGER IF EXISTS trg_tasks_log_update;
+CREATE TRIGGER trg_tasks_log_update AFTER UPDATE ON tasks FOR EACH ROW
+    INSERT INTO change_log (entity, entity_id, op) VALUES ('TASK', NEW.id, 'UPDATE');
+DROP TRIGGER IF EXISTS trg_tasks_log_delete;
+CREATE TRIGGER trg_tasks_log_delete AFTER DELETE ON tasks FOR EACH ROW
+    INSERT INTO change_log (entity, entity_id, op) VALUES ('TASK', OLD.id, 'DELETE');
+
+-- ===== PROJECTS =====
+DROP TRIGGER IF EXISTS trg_projects_log_insert;
+CREATE TRIGGER trg_projects_log_insert AFTER INSERT ON projects FOR EACH ROW
+    INSERT INTO change_log (entity, entity_id, op) VALUES ('PROJECT', NEW.id, 'INSERT');
+DROP TRIGGER IF EXISTS trg_projects_log_update;
+CREATE TRIGGER trg_projects_log_update AFTER UPDATE ON projects FOR EACH ROW
+    INSERT INTO change_log (entity, entity_id, op) VALUES ('PROJECT', NEW.id, 'UPDATE');
+DROP TRIGGER IF EXISTS trg_projects_log_delete;
+CREATE TRIGGER trg_projects_log_delete AFTER DELETE ON projects FOR EACH ROW
+    INSERT INTO change_log (entity, entity_id, op) VALUES ('PROJECT', OLD.id, 'DELETE');
+-- Tâches supprimées par ON DELETE CASCADE (ne déclenche pas les triggers de tasks)
+DROP TRIGGER IF EXISTS trg_projects_log_task_delete;
+CREATE TRIGGER trg_projects_log_task_delete BEFORE DELETE ON projects FOR EACH ROW
+    INSERT INTO change_log (entity, entity_id, op)
+    SELECT 'TASK', id, 'DELETE' FROM tasks WHERE project_id = OLD.id;
+
+-- ===== USERS =====
+DROP TRIGGER IF EXISTS trg_users_log_insert;
+CREATE TRIGGER trg_users_log_insert AFTER INSERT ON users FOR EACH ROW
+    INSERT INTO change_log (entity, entity_id, op) VALUES ('USER', NEW.id, 'INSERT');
+DROP TRIGGER IF EXISTS trg_users_log_update;
+CREATE TRIGGER trg_users_log_update AFTER UPDATE ON users FOR EACH ROW
+    INSERT INTO change_log (entity, entity_id, op) VALUES ('USER', NEW.id, 'UPDATE');
+DROP TRIGGER IF EXISTS trg_users_log_delete;
+CREATE TRIGGER trg_users_log_delete AFTER DELETE ON users FOR EACH ROW
+    INSERT INTO change_log (entity, entity_id, op) VALUES ('USER', OLD.id, 'DELETE');
+
+-- ===== COMMENTS =====
+DROP TRIGGER IF EXISTS trg_comments_log_insert;
+CREATE TRIGGER trg_comments_log_insert AFTER INSERT ON comments FOR EACH ROW
+    INSERT INTO change_log (entity, entity_id, op) VALUES ('COMMENT', NEW.id, 'INSERT');
+DROP TRIGGER IF EXISTS trg_comments_log_update;
+CREATE TRIGGER trg_comments_log_update AFTER UPDATE ON comments FOR EACH ROW
+    INSERT INTO change_log (entity, entity_id, op) VALUES ('COMMENT', NEW.id, 'UPDATE');
+DROP TRIGGER IF EXISTS trg_comments_log_delete;
+CREATE TRIGGER trg_comments_log_delete AFTER DELETE ON comments FOR EACH ROW
+    INSERT INTO change_log (entity, entity_id, op) VALUES ('COMMENT', OLD.id, 'DELETE');
+
+-- Remarques :
+--  - ~20 octets par ligne ; les lignes de plus d'un jour sont purgées
+--  - Les trous de séquence (transaction annulée, validation tardive) sont
+--    gérés par ChangeFeed : attente de quelques secondes avant de les sauter
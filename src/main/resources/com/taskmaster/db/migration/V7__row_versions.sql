@@ -0,0 +1,25 @@
+-- =============================================================
+-- Verrouillage optimiste des tâches et projets
+-- Appliquée automatiquement par MigrationRunner (ne pas modifier une fois livrée)
+--
+-- TaskDAO.update / ProjectDAO.update n'écrivent que si la ligne est encore
+-- dans la version lue par l'écran : "... WHERE id = ? AND version = ?".
+-- 0 ligne modifiée = un autre utilisateur a écrit entre-temps (conflit),
+-- sans verrou ni relecture avant l'écriture (un seul aller-retour).
+-- =============================================================
+
+ALTER TABLE tasks ADD COLUMN version INT NOT NULL DEFAULT 0;
+ALTER TABLE projects ADD COLUMN version INT NOT NULL DEFAULT 0;
+
+-- Incrément par trigger : toute écriture compte (statut seul, lot différé,
+-- rejeu hors ligne, autre outil), pas seulement les formulaires d'édition
+DROP TRIGGER IF EXISTS trg_tasks_version;
+CREATE TRIGGER trg_tasks_version BEFORE UPDATE ON tasks FOR EACH ROW
+    SET NEW.version = OLD.version + 1;
+DROP TRIGGER IF EXISTS trg_projects_version;
+CREATE TRIGGER trg_projects_version BEFORE UPDATE ON projects FOR EACH ROW
+    SET NEW.version = OLD.version + 1;
+
+-- Remarques :
+--  - Une ligne relue après conflit sert de base à la fusion (MergeDialog) ;
+--    l'écriture fusionnée repart avec sa version
@@ -0,0 +1,107 @@
+package com.taskmaster.dao;
+
+import com.taskmaster.utils.DirectoryIndex;
+import com.taskmaster.utils.FxWatchdog;
+import com.taskmaster.utils.SessionManager;
+import javafx.scene.control.ComboBox;
+import javafx.scene.control.TableView;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Aucun appel JDBC sur le thread JavaFX pour les écrans passés en arrière-plan
+ *
+ * Surefire lance les tests avec -Dtaskmaster.watchdog=true : chaque requête exécutée sur le
+ * thread JavaFX est relevée par FxWatchdog avec la méthode de contrôleur appelante. Chaque test
+ * ouvre le vrai écran (HeadlessScreen), attend la fin de ses chargements, puis vérifie
+ * qu'aucun site JDBC n'est rattaché à son contrôleur : un chargement remis en synchrone
+ * (régression) fait échouer mvn test.
+ */
+class FxThreadTest {
+
+    private static final int USER_ID = 2;
+    private static final String VIEWS = "/com/taskmaster/views/";
+
+    @BeforeAll
+    static void seed() throws Exception {
+        SeededDatabase.seed();
+        SessionManager.setCurrentUser(new UserDAO().findById(USER_ID));
+        HeadlessScreen.startToolkit();
+    }
+
+    @AfterAll
+    static void logout() {
+        SessionManager.logout();
+    }
+
+    @BeforeEach
+    void clearDirectory() {
+        DirectoryIndex.clear();
+    }
+
+    @Test
+    void watchdogReportsJdbcOnFxThread() throws Exception {
+        assertTrue(FxWatchdog.ENABLED, "lancer les tests avec -Dtaskmaster.watchdog=true (pom.xml)");
+
+        // Témoin : une requête volontairement exécutée sur le thread JavaFX est bien relevée
+        HeadlessScreen.onFx(() -> new UserDAO().count());
+
+        assertTrue(FxWatchdog.violations().stream()
+                        .anyMatch(v -> "JDBC".equals(v.getKind()) && "UserDAO.count".equals(v.getSite())),
+                "appel JDBC sur le thread JavaFX non relevé : " + FxWatchdog.report());
+    }
+
+    @Test
+    void manageTasks() throws Exception {
+        try (HeadlessScreen screen = HeadlessScreen.open(VIEWS + "manage_tasks.fxml")) {
+            TableView<?> table = screen.lookup("tasksTable");
+            ComboBox<?> filterProject = screen.lookup("filterProject");
+            screen.waitUntil(() -> !table.getItems().isEmpty() && filterProject.getItems().size() > 1);
+            screen.settle();
+        }
+
+        assertNoJdbcOnFxThread("TaskManagementController");
+    }
+
+    @Test
+    void manageProjects() throws Exception {
+        try (HeadlessScreen screen = HeadlessScreen.open(VIEWS + "manage_projects.fxml")) {
+            TableView<?> table = screen.lookup("projectsTable");
+            screen.waitUntil(() -> !table.getItems().isEmpty());
+            screen.settle();
+        }
+
+        assertNoJdbcOnFxThread("ProjectManagementController");
+    }
+
+    @Test
+    void manageUsers() throws Exception {
+        try (HeadlessScreen screen = HeadlessScreen.open(VIEWS + "manage_users.fxml")) {
+            TableView<?> table = screen.lookup("usersTable");
+            screen.waitUntil(() -> !table.getItems().isEmpty());
+            screen.settle();
+        }
+
+        assertNoJdbcOnFxThread("UserManagementController");
+    }
+
+    /**
+     * @param controller Nom simple du contrôleur de l'écran (ex : "TaskManagementController")
+     */
+    private static void assertNoJdbcOnFxThread(String controller) {
+        List<String> sites = FxWatchdog.violations().stream()
+                .filter(v -> "JDBC".equals(v.getKind()))
+                .filter(v -> v.getController() != null && v.getController().startsWith(controller + "."))
+                .map(v -> v.getSite() + " ← " + v.getController())
+                .collect(Collectors.toList());
+        assertEquals(List.of(), sites, controller + " : requêtes sur le thread JavaFX");
+    }
+}
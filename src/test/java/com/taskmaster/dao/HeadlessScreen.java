@@ -0,0 +1,150 @@
+package com.taskmaster.dao;
+
+import com.taskmaster.models.QueryStats;
+import com.taskmaster.utils.FxWatchdog;
+import com.taskmaster.utils.QueryProfiler;
+import javafx.application.Platform;
+import javafx.fxml.FXMLLoader;
+import javafx.scene.Group;
+import javafx.scene.Node;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Un vrai écran (FXML + contrôleur) ouvert sans affichage, pour les tests
+ *
+ * Toolkit JavaFX démarré une fois par JVM sur Monocle Headless (propriétés glass.platform,
+ * monocle.platform et prism.order de surefire, voir pom.xml). L'écran est chargé sur le thread
+ * JavaFX et placé dans une scène, comme par NavigationUtils : initialize() s'exécute tel quel,
+ * avec ses chargements d'arrière-plan (AsyncSearch, DirectoryIndex) et les mises à jour qu'ils
+ * postent. La scène n'est pas affichée : le rendu du texte demande les polices du système (pango).
+ *
+ * Exemple :
+ *   try (HeadlessScreen screen = HeadlessScreen.open("/com/taskmaster/views/manage_tasks.fxml")) {
+ *       screen.waitUntil(() -> screen.<TableView<?>>lookup("tasksTable").getItems().size() > 0);
+ *       screen.settle();
+ *   }
+ */
+final class HeadlessScreen implements AutoCloseable {
+
+    private static final long TIMEOUT_MS = 10_000;
+    // Aucune nouvelle requête pendant ce délai : l'écran a fini de charger
+    private static final long QUIET_MS = 300;
+
+    private static boolean started = false;
+
+    private final Scene scene;
+    private final Parent root;
+
+    private HeadlessScreen(Scene scene, Parent root) {
+        this.scene = scene;
+        this.root = root;
+    }
+
+    /**
+     * Charge un écran dans une scène (chemin FXML de NavigationUtils)
+     */
+    static HeadlessScreen open(String fxml) throws Exception {
+        startToolkit();
+        return onFx(() -> {
+            Parent root = FXMLLoader.load(HeadlessScreen.class.getResource(fxml));
+            return new HeadlessScreen(new Scene(root), root);
+        });
+    }
+
+    /**
+     * Démarre le toolkit JavaFX (une seule fois par JVM)
+     */
+    static synchronized void startToolkit() throws InterruptedException {
+        if (started) {
+            return;
+        }
+        CountDownLatch ready = new CountDownLatch(1);
+        Platform.startup(() -> {
+            // Fermer le dernier écran d'un test ne doit pas arrêter le toolkit des suivants
+            Platform.setImplicitExit(false);
+            // Comme Main : surveillance du thread JavaFX si -Dtaskmaster.watchdog=true
+            FxWatchdog.startIfRequested();
+            ready.countDown();
+        });
+        if (!ready.await(TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+            throw new AssertionError("toolkit JavaFX non démarré");
+        }
+        started = true;
+    }
+
+    /**
+     * Nœud de l'écran par fx:id (lu sur le thread JavaFX)
+     */
+    @SuppressWarnings("unchecked")
+    <T extends Node> T lookup(String fxId) throws Exception {
+        return onFx(() -> (T) root.lookup("#" + fxId));
+    }
+
+    /**
+     * Attend qu'une condition sur l'écran soit vraie (évaluée sur le thread JavaFX)
+     */
+    void waitUntil(BooleanSupplier condition) throws Exception {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+        while (!onFx(condition::getAsBoolean)) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new AssertionError("écran pas chargé après " + TIMEOUT_MS + " ms");
+            }
+            Thread.sleep(20);
+        }
+    }
+
+    /**
+     * Attend que l'écran ne lance plus de requêtes : même nombre de requêtes (QueryProfiler)
+     * sur deux relevés espacés de QUIET_MS, file du thread JavaFX vidée avant chaque relevé
+     */
+    void settle() throws Exception {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+        long previous = -1;
+        while (true) {
+            onFx(() -> null);
+            long current = roundTrips();
+            if (current == previous) {
+                return;
+            }
+            if (System.currentTimeMillis() > deadline) {
+                throw new AssertionError("l'écran lance encore des requêtes après " + TIMEOUT_MS + " ms");
+            }
+            previous = current;
+            Thread.sleep(QUIET_MS);
+        }
+    }
+
+    /**
+     * Ferme l'écran : ses abonnements (EntityEvents, ChangeFeed...) prennent fin comme à la navigation
+     */
+    @Override
+    public void close() throws Exception {
+        onFx(() -> {
+            scene.setRoot(new Group());
+            return null;
+        });
+    }
+
+    private static long roundTrips() {
+        return QueryProfiler.worst(Integer.MAX_VALUE).stream().mapToLong(QueryStats::getCount).sum();
+    }
+
+    /**
+     * Exécute sur le thread JavaFX et attend le résultat
+     */
+    static <T> T onFx(Callable<T> action) throws Exception {
+        if (Platform.isFxApplicationThread()) {
+            return action.call();
+        }
+        FutureTask<T> task = new FutureTask<>(action);
+        Platform.runLater(task);
+        return task.get(TIMEOUT_MS, TimeUnit.MILLISECONDS);
+    }
+}
@@ -0,0 +1,184 @@
+package com.taskmaster.dao;
+
+import com.taskmaster.models.ChangeSet;
+import com.taskmaster.models.QueryResult;
+import com.taskmaster.models.QueryStats;
+import com.taskmaster.models.Task;
+import com.taskmaster.utils.DirectoryIndex;
+import com.taskmaster.utils.QueryProfiler;
+import com.taskmaster.utils.SessionManager;
+import javafx.scene.control.ComboBox;
+import javafx.scene.control.Label;
+import javafx.scene.control.TableView;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Budget d'allers-retours BDD de chaque écran, sur une base remplie (SeededDatabase)
+ *
+ * Chaque test ouvre le vrai écran (FXML + contrôleur, voir HeadlessScreen) : initialize()
+ * s'exécute tel quel, chargements d'arrière-plan compris (AsyncSearch, annuaire DirectoryIndex),
+ * puis QueryProfiler compte les requêtes et les lignes lues. Un écran qui ajoute une requête
+ * par ligne (N+1) ou qui relit une table entière fait échouer mvn test.
+ *
+ * Les valeurs affichées sont vérifiées aussi : une requête en erreur (0 ligne) ne passe pas pour "dans le budget".
+ * Les écrans suivis par DeltaSync lisent en plus l'heure du serveur (SELECT NOW(), une ligne).
+ * L'annuaire est vidé avant chaque écran : son budget est celui d'une ouverture à froid.
+ */
+class ScreenBudgetTest {
+
+    private static final int USER_ID = 2;
+    private static final String VIEWS = "/com/taskmaster/views/";
+
+    // Annuaire (DirectoryIndex.warmUp) : tous les utilisateurs, puis tous les projets
+    private static final int DIRECTORY_ROWS = SeededDatabase.USERS + 1 + SeededDatabase.PROJECTS;
+
+    private final TaskDAO taskDAO = new TaskDAO();
+
+    @BeforeAll
+    static void seed() throws Exception {
+        SeededDatabase.seed();
+        SessionManager.setCurrentUser(new UserDAO().findById(USER_ID));
+    }
+
+    @AfterAll
+    static void logout() {
+        SessionManager.logout();
+    }
+
+    @BeforeEach
+    void resetProfiler() {
+        DirectoryIndex.clear();
+        QueryProfiler.reset();
+    }
+
+    @Test
+    void adminDashboard() throws Exception {
+        int urgent = SeededDatabase.count(
+                "SELECT COUNT(*) FROM tasks WHERE priority IN ('HIGH', 'URGENT') AND status <> 'COMPLETED'");
+
+        try (HeadlessScreen screen = HeadlessScreen.open(VIEWS + "admin_dashboard.fxml")) {
+            screen.settle();
+            assertEquals(String.valueOf(SeededDatabase.USERS + 1), screen.<Label>lookup("userCountLabel").getText());
+            assertEquals(String.valueOf(SeededDatabase.count("SELECT COUNT(*) FROM projects WHERE status = 'IN_PROGRESS'")),
+                    screen.<Label>lookup("projectCountLabel").getText());
+            assertEquals(String.valueOf(SeededDatabase.count("SELECT COUNT(*) FROM tasks WHERE status = 'IN_PROGRESS'")),
+                    screen.<Label>lookup("taskCountLabel").getText());
+            assertRows(screen, "urgentTasksTable", urgent);
+        }
+
+        assertBudget("admin_dashboard", 5, 4 + urgent);
+    }
+
+    @Test
+    void manageTasks() throws Exception {
+        try (HeadlessScreen screen = HeadlessScreen.open(VIEWS + "manage_tasks.fxml")) {
+            TableView<?> table = screen.lookup("tasksTable");
+            ComboBox<?> filterProject = screen.lookup("filterProject");
+            screen.waitUntil(() -> !table.getItems().isEmpty() && filterProject.getItems().size() > 1);
+            screen.settle();
+            assertRows(screen, "tasksTable", SeededDatabase.TASKS);
+            assertEquals(SeededDatabase.PROJECTS + 1, HeadlessScreen.onFx(() -> filterProject.getItems().size()));
+        }
+
+        // Tâches + projets du filtre + annuaire des formulaires
+        assertBudget("manage_tasks", 4, SeededDatabase.TASKS + SeededDatabase.PROJECTS + DIRECTORY_ROWS);
+    }
+
+    @Test
+    void manageProjects() throws Exception {
+        try (HeadlessScreen screen = HeadlessScreen.open(VIEWS + "manage_projects.fxml")) {
+            TableView<?> table = screen.lookup("projectsTable");
+            screen.waitUntil(() -> !table.getItems().isEmpty());
+            screen.settle();
+            assertRows(screen, "projectsTable", SeededDatabase.PROJECTS);
+        }
+
+        // Projets + annuaire (recherche, sélecteur de chef de projet)
+        assertBudget("manage_projects", 3, SeededDatabase.PROJECTS + DIRECTORY_ROWS);
+    }
+
+    @Test
+    void manageUsers() throws Exception {
+        try (HeadlessScreen screen = HeadlessScreen.open(VIEWS + "manage_users.fxml")) {
+            TableView<?> table = screen.lookup("usersTable");
+            screen.waitUntil(() -> !table.getItems().isEmpty());
+            screen.settle();
+            assertRows(screen, "usersTable", SeededDatabase.USERS + 1);
+        }
+
+        assertBudget("manage_users", 1, SeededDatabase.USERS + 1);
+    }
+
+    @Test
+    void userDashboard() throws Exception {
+        int assigned = SeededDatabase.count("SELECT COUNT(*) FROM tasks WHERE assigned_to = " + USER_ID);
+
+        try (HeadlessScreen screen = HeadlessScreen.open(VIEWS + "user_dashboard.fxml")) {
+            screen.settle();
+            assertRows(screen, "tasksTable", assigned);
+        }
+
+        assertBudget("user_dashboard", 2, 1 + assigned);
+    }
+
+    @Test
+    void userProjects() throws Exception {
+        int assigned = SeededDatabase.count("SELECT COUNT(*) FROM tasks WHERE assigned_to = " + USER_ID);
+        int member = SeededDatabase.count(
+                "SELECT COUNT(DISTINCT project_id) FROM tasks WHERE assigned_to = " + USER_ID);
+
+        try (HeadlessScreen screen = HeadlessScreen.open(VIEWS + "user_projects.fxml")) {
+            screen.settle();
+            assertRows(screen, "projectsTable", member);
+        }
+
+        assertBudget("user_projects", 3, 1 + assigned + member);
+    }
+
+    @Test
+    void refreshAfterLoadReadsNoOldChanges() {
+        QueryResult<List<Task>> loaded = taskDAO.findUrgent();
+        assertNotNull(loaded.getReadAt(), "point de synchronisation absent");
+        QueryProfiler.reset();
+
+        // Tâches modifiées la veille : déjà dans le chargement, le rafraîchissement ne les relit pas
+        ChangeSet<Task> changes = taskDAO.findChangesSince(loaded.getReadAt());
+        assertNotNull(changes);
+        assertEquals(0, changes.size());
+
+        assertBudget("refresh", 3, 1);
+    }
+
+    /**
+     * Lignes affichées par un tableau de l'écran
+     */
+    private static void assertRows(HeadlessScreen screen, String tableId, int expectedRows) throws Exception {
+        TableView<?> table = screen.lookup(tableId);
+        assertEquals(expectedRows, HeadlessScreen.onFx(() -> table.getItems().size()), tableId);
+    }
+
+    /**
+     * @param roundTrips Nombre maximal de requêtes envoyées à la BDD
+     * @param rows       Nombre maximal de lignes lues
+     */
+    private static void assertBudget(String screen, int roundTrips, int rows) {
+        List<QueryStats> stats = QueryProfiler.worst(Integer.MAX_VALUE);
+        long actualRoundTrips = stats.stream().mapToLong(QueryStats::getCount).sum();
+        long actualRows = stats.stream().mapToLong(QueryStats::getTotalRows).sum();
+
+        assertTrue(actualRoundTrips > 0, screen + " : aucune requête mesurée (profiler désactivé ?)");
+        assertTrue(actualRoundTrips <= roundTrips,
+                screen + " : " + actualRoundTrips + " requêtes (budget " + roundTrips + ") " + stats);
+        assertTrue(actualRows <= rows,
+                screen + " : " + actualRows + " lignes lues (budget " + rows + ") " + stats);
+    }
+}
@@ -0,0 +1,145 @@
+package com.taskmaster.dao;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Base de test : schéma de test_schema.sql et jeu de données fixe
+ *
+ * Même URL que l'application (-Dtaskmaster.db.url, H2 en mode MySQL sous Maven) :
+ * les DAO testés passent par DatabaseConnection sans rien savoir de la base.
+ *
+ * Jeu de données (déterministe) :
+ *  - 1 admin (id 1) et USERS utilisateurs (ids 2 à USERS + 1)
+ *  - PROJECTS projets, créés par l'admin
+ *  - TASKS tâches : tâche i → projet i % PROJECTS + 1, assignée à i % USERS + 2,
+ *    priorité selon i % 4, statut selon (i / 4) % 4, modifiée la veille (updated_at)
+ */
+final class SeededDatabase {
+
+    static final int USERS = 20;
+    static final int PROJECTS = 30;
+    static final int TASKS = 600;
+
+    private static final String[] PRIORITIES = {"LOW", "MEDIUM", "HIGH", "URGENT"};
+    private static final String[] TASK_STATUSES = {"TODO", "IN_PROGRESS", "COMPLETED", "CANCELLED"};
+    private static final String[] PROJECT_STATUSES = {"TODO", "IN_PROGRESS", "COMPLETED", "ON_HOLD"};
+
+    private static boolean seeded;
+
+    private SeededDatabase() {}
+
+    /**
+     * Crée et remplit la base (une seule fois par JVM)
+     */
+    static synchronized void seed() throws SQLException, IOException {
+        if (seeded) {
+            return;
+        }
+        try (Connection conn = open()) {
+            createSchema(conn);
+            insertUsers(conn);
+            insertProjects(conn);
+            insertTasks(conn);
+        }
+        seeded = true;
+        System.out.println("✓ Base de test : " + USERS + " utilisateurs, " + PROJECTS + " projets, " + TASKS + " tâches");
+    }
+
+    /**
+     * Résultat d'un COUNT(*) (valeurs attendues des tests, hors DAO)
+     */
+    static int count(String sql) throws SQLException {
+        try (Connection conn = open();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+
+    private static Connection open() throws SQLException {
+        return DriverManager.getConnection(
+                System.getProperty("taskmaster.db.url"),
+                System.getProperty("taskmaster.db.user", "sa"),
+                System.getProperty("taskmaster.db.password", ""));
+    }
+
+    private static void createSchema(Connection conn) throws SQLException, IOException {
+        String script;
+        try (InputStream in = SeededDatabase.class.getResourceAsStream("/com/taskmaster/db/test_schema.sql")) {
+            if (in == null) {
+                throw new IOException("test_schema.sql introuvable");
+            }
+            script = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+
+        try (Statement stmt = conn.createStatement()) {
+            for (String sql : script.replaceAll("(?m)^--.*$", "").split(";")) {
+                if (!sql.isBlank()) {
+                    stmt.execute(sql);
+                }
+            }
+        }
+    }
+
+    private static void insertUsers(Connection conn) throws SQLException {
+        String sql = "INSERT INTO users (id, first_name, last_name, email, username, password, role) VALUES (?, ?, ?, ?, ?, ?, ?)";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (int id = 1; id <= USERS + 1; id++) {
+                stmt.setInt(1, id);
+                stmt.setString(2, "Prénom" + id);
+                stmt.setString(3, "Nom" + id);
+                stmt.setString(4, "user" + id + "@taskmaster.test");
+                stmt.setString(5, id == 1 ? "admin" : "user" + id);
+                stmt.setString(6, "-");
+                stmt.setString(7, id == 1 ? "ADMIN" : "USER");
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        }
+    }
+
+    private static void insertProjects(Connection conn) throws SQLException {
+        String sql = "INSERT INTO projects (id, name, description, start_date, status, manager_id, created_by) " +
+                "VALUES (?, ?, ?, CURRENT_DATE, ?, ?, 1)";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (int id = 1; id <= PROJECTS; id++) {
+                stmt.setInt(1, id);
+                stmt.setString(2, "Projet " + id);
+                stmt.setString(3, "Description du projet " + id);
+                stmt.setString(4, PROJECT_STATUSES[id % PROJECT_STATUSES.length]);
+                stmt.setInt(5, id % USERS + 2);
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        }
+    }
+
+    private static void insertTasks(Connection conn) throws SQLException {
+        String sql = "INSERT INTO tasks (id, title, description, project_id, assigned_to, priority, status, due_date, " +
+                "created_by, updated_at) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, DATEADD('DAY', ?, CURRENT_DATE), 1, DATEADD('DAY', -1, CURRENT_TIMESTAMP))";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (int i = 0; i < TASKS; i++) {
+                stmt.setInt(1, i + 1);
+                stmt.setString(2, "Tâche " + i);
+                stmt.setString(3, "Description de la tâche " + i);
+                stmt.setInt(4, i % PROJECTS + 1);
+                stmt.setInt(5, i % USERS + 2);
+                stmt.setString(6, PRIORITIES[i % PRIORITIES.length]);
+                stmt.setString(7, TASK_STATUSES[(i / PRIORITIES.length) % TASK_STATUSES.length]);
+                stmt.setInt(8, i % 60);
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        }
+    }
+}
@@ -0,0 +1,78 @@
+-- =============================================================
+-- Schéma de test (H2, mode MySQL) : tables et colonnes lues par les DAO
+-- Équivalent des migrations V1 à V7, sans ce que H2 ne connaît pas
+-- (triggers MySQL, index FULLTEXT, ENGINE / CHARSET)
+-- =============================================================
+
+DROP ALL OBJECTS;
+
+CREATE TABLE users (
+    id          INT AUTO_INCREMENT PRIMARY KEY,
+    first_name  VARCHAR(50)  NOT NULL,
+    last_name   VARCHAR(50)  NOT NULL,
+    email       VARCHAR(100) NOT NULL,
+    username    VARCHAR(50)  NOT NULL UNIQUE,
+    password    VARCHAR(255) NOT NULL,
+    role        ENUM('ADMIN', 'USER') NOT NULL DEFAULT 'USER',
+    is_active   BOOLEAN      NOT NULL DEFAULT TRUE,
+    created_at  TIMESTAMP    NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at  TIMESTAMP    NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE projects (
+    id          INT AUTO_INCREMENT PRIMARY KEY,
+    name        VARCHAR(100) NOT NULL,
+    description TEXT,
+    start_date  DATE         NOT NULL,
+    end_date    DATE,
+    status      ENUM('TODO', 'IN_PROGRESS', 'COMPLETED', 'ON_HOLD') NOT NULL DEFAULT 'TODO',
+    manager_id  INT,
+    created_by  INT          NOT NULL,
+    created_at  TIMESTAMP    NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at  TIMESTAMP    NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    version     INT          NOT NULL DEFAULT 0,
+    CONSTRAINT fk_projects_manager    FOREIGN KEY (manager_id) REFERENCES users (id) ON DELETE SET NULL,
+    CONSTRAINT fk_projects_created_by FOREIGN KEY (created_by) REFERENCES users (id)
+);
+
+CREATE TABLE tasks (
+    id          INT AUTO_INCREMENT PRIMARY KEY,
+    title       VARCHAR(200) NOT NULL,
+    description TEXT,
+    project_id  INT          NOT NULL,
+    assigned_to INT,
+    priority    ENUM('LOW', 'MEDIUM', 'HIGH', 'URGENT') NOT NULL DEFAULT 'MEDIUM',
+    status      ENUM('TODO', 'IN_PROGRESS', 'COMPLETED', 'CANCELLED') NOT NULL DEFAULT 'TODO',
+    due_date    DATE,
+    created_by  INT          NOT NULL,
+    created_at  TIMESTAMP    NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at  TIMESTAMP    NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    version     INT          NOT NULL DEFAULT 0,
+    CONSTRAINT fk_tasks_project     FOREIGN KEY (project_id)  REFERENCES projects (id) ON DELETE CASCADE,
+    CONSTRAINT fk_tasks_assigned_to FOREIGN KEY (assigned_to) REFERENCES users (id) ON DELETE SET NULL,
+    CONSTRAINT fk_tasks_created_by  FOREIGN KEY (created_by)  REFERENCES users (id)
+);
+CREATE INDEX idx_tasks_updated_at ON tasks (updated_at);
+
+CREATE TABLE comments (
+    id          INT AUTO_INCREMENT PRIMARY KEY,
+    task_id     INT          NOT NULL,
+    user_id     INT          NOT NULL,
+    content     TEXT         NOT NULL,
+    created_at  TIMESTAMP    NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT fk_comments_task FOREIGN KEY (task_id) REFERENCES tasks (id) ON DELETE CASCADE,
+    CONSTRAINT fk_comments_user FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE
+);
+
+CREATE TABLE task_tombstones (
+    task_id     INT          NOT NULL PRIMARY KEY,
+    deleted_at  TIMESTAMP    NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE change_log (
+    seq         BIGINT       NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    entity      ENUM('TASK', 'PROJECT', 'USER', 'COMMENT') NOT NULL,
+    entity_id   INT          NOT NULL,
+    op          ENUM('INSERT', 'UPDATE', 'DELETE') NOT NULL,
+    changed_at  TIMESTAMP    NOT NULL DEFAULT CURRENT_TIMESTAMP
+);